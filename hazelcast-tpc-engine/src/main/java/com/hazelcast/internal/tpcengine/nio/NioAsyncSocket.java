@@ -320,15 +320,24 @@ public final class NioAsyncSocket extends AsyncSocket {
     }
 
     @SuppressWarnings("java:S125")
-    private final class Handler implements NioHandler, Runnable {
+    private final class Handler implements NioReadBatch.Reader, Runnable {
         private final ByteBuffer receiveBuffer;
+        private final NioReadBatch readBatch;
         private final AsyncSocketMetrics metrics = NioAsyncSocket.this.metrics;
+        // the bytes left unconsumed by the ReadHandler when reads are batched.
+        private ByteBuffer unconsumedBuffer;
 
         private Handler(NioAsyncSocketBuilder builder) throws SocketException {
-            int receiveBufferSize = builder.socketChannel.socket().getReceiveBufferSize();
-            this.receiveBuffer = builder.receiveBufferIsDirect
-                    ? ByteBuffer.allocateDirect(receiveBufferSize)
-                    : ByteBuffer.allocate(receiveBufferSize);
+            this.readBatch = builder.reactor.readBatch;
+            if (readBatch == null) {
+                int receiveBufferSize = builder.socketChannel.socket().getReceiveBufferSize();
+                this.receiveBuffer = builder.receiveBufferIsDirect
+                        ? ByteBuffer.allocateDirect(receiveBufferSize)
+                        : ByteBuffer.allocate(receiveBufferSize);
+            } else {
+                // the data is read into the receive slab shared by all sockets of the reactor.
+                this.receiveBuffer = null;
+            }
         }
 
         @Override
@@ -361,7 +370,11 @@ public final class NioAsyncSocket extends AsyncSocket {
             int readyOps = key.readyOps();
 
             if ((readyOps & OP_READ) != 0) {
-                handleRead();
+                if (readBatch == null) {
+                    handleRead();
+                } else {
+                    readBatch.read(this);
+                }
             }
 
             if ((readyOps & OP_WRITE) != 0) {
@@ -389,6 +402,40 @@ public final class NioAsyncSocket extends AsyncSocket {
             }
         }
 
+        @Override
+        public void readInto(ByteBuffer segment) throws IOException {
+            metrics.incReadEvents();
+
+            if (unconsumedBuffer != null && unconsumedBuffer.position() > 0) {
+                upcast(unconsumedBuffer).flip();
+                segment.put(unconsumedBuffer);
+                upcast(unconsumedBuffer).clear();
+            }
+
+            int read = socketChannel.read(segment);
+            if (read == -1) {
+                throw new EOFException("Remote socket closed!");
+            }
+            metrics.incBytesRead(read);
+        }
+
+        @Override
+        public void onBatchRead(ByteBuffer segment) {
+            if (isClosed()) {
+                // the socket got closed while the batch was being dispatched.
+                return;
+            }
+
+            readHandler.onRead(segment);
+
+            if (segment.hasRemaining()) {
+                if (unconsumedBuffer == null) {
+                    unconsumedBuffer = ByteBuffer.allocate(segment.capacity());
+                }
+                unconsumedBuffer.put(segment);
+            }
+        }
+
         private void handleWrite() throws IOException {
             assert flushThread.get() != null;
 
@@ -35,9 +35,13 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 class NioEventloop extends Eventloop {
 
     final Selector selector = SelectorOptimizer.newSelector();
+    final NioReadBatch readBatch;
 
     NioEventloop(NioReactor reactor, NioReactorBuilder builder) {
         super(reactor, builder);
+        this.readBatch = builder.readBatchSegmentCount == 0
+                ? null
+                : new NioReadBatch(builder.readBatchSegmentCount, builder.readBatchSegmentSize);
     }
 
     @SuppressWarnings("java:S3776")
@@ -49,6 +53,7 @@ class NioEventloop extends Eventloop {
         final AtomicBoolean wakeupNeeded0 = wakeupNeeded;
         final MpmcArrayQueue externalTaskQueue0 = externalTaskQueue;
         final Scheduler scheduler0 = scheduler;
+        final NioReadBatch readBatch0 = readBatch;
 
         boolean moreWork = false;
         do {
@@ -88,6 +93,10 @@ class NioEventloop extends Eventloop {
                         handler.close(null, e);
                     }
                 }
+
+                if (readBatch0 != null) {
+                    readBatch0.dispatch();
+                }
             }
 
             moreWork = runExternalTasks();
@@ -30,10 +30,13 @@ import static com.hazelcast.internal.tpcengine.util.Preconditions.checkInstanceO
 public final class NioReactor extends Reactor {
 
     final Selector selector;
+    final NioReadBatch readBatch;
 
     NioReactor(NioReactorBuilder builder) {
         super(builder);
-        this.selector = ((NioEventloop) eventloop()).selector;
+        NioEventloop eventloop = (NioEventloop) eventloop();
+        this.selector = eventloop.selector;
+        this.readBatch = eventloop.readBatch;
     }
 
     @Override
@@ -20,16 +20,67 @@ import com.hazelcast.internal.tpcengine.Reactor;
 import com.hazelcast.internal.tpcengine.ReactorBuilder;
 import com.hazelcast.internal.tpcengine.ReactorType;
 
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkNotNegative;
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkPositive;
+
 /**
  * A {@link ReactorBuilder} that builds a {@link NioReactor}.
  */
 public class NioReactorBuilder extends ReactorBuilder {
 
+    public static final String NAME_READ_BATCH_SEGMENT_COUNT = "hazelcast.tpc.nio.readBatch.segmentCount";
+    public static final String NAME_READ_BATCH_SEGMENT_SIZE = "hazelcast.tpc.nio.readBatch.segmentSize";
+
+    private static final int DEFAULT_READ_BATCH_SEGMENT_COUNT = 0;
+    private static final int DEFAULT_READ_BATCH_SEGMENT_SIZE = 64 * 1024;
+
+    int readBatchSegmentCount;
+    int readBatchSegmentSize;
+
     /**
      * Creates a new NioReactorBuilder.
      */
     public NioReactorBuilder() {
         super(ReactorType.NIO);
+        this.readBatchSegmentCount = Integer.getInteger(
+                NAME_READ_BATCH_SEGMENT_COUNT, DEFAULT_READ_BATCH_SEGMENT_COUNT);
+        this.readBatchSegmentSize = Integer.getInteger(
+                NAME_READ_BATCH_SEGMENT_SIZE, DEFAULT_READ_BATCH_SEGMENT_SIZE);
+    }
+
+    /**
+     * Sets the number of segments of the receive slab that is shared by all sockets
+     * of the reactor.
+     * <p>
+     * If the segment count is larger than 0, the reads of all sockets that are readable
+     * after a select are batched: the data of every socket is read into a segment of the
+     * shared slab and the {@link com.hazelcast.internal.tpcengine.ReadHandler}s are called
+     * once all ready keys have been processed. Sockets then don't need a receive buffer of
+     * their own, which reduces the memory footprint and improves the cache locality when
+     * there are many connections. If there are more readable sockets than segments, the
+     * batch is processed in multiple rounds.
+     * <p>
+     * A segment count of 0 disables read batching; every socket reads into its own receive
+     * buffer and the ReadHandler is called immediately.
+     *
+     * @param readBatchSegmentCount the number of segments.
+     * @throws IllegalArgumentException if readBatchSegmentCount is negative.
+     */
+    public void setReadBatchSegmentCount(int readBatchSegmentCount) {
+        this.readBatchSegmentCount = checkNotNegative(readBatchSegmentCount, "readBatchSegmentCount");
+    }
+
+    /**
+     * Sets the size in bytes of a single segment of the shared receive slab. It is the
+     * maximum number of bytes that is read from a single socket in a batch. Only has an
+     * effect when read batching is enabled.
+     *
+     * @param readBatchSegmentSize the size of the segment.
+     * @throws IllegalArgumentException if readBatchSegmentSize not positive.
+     * @see #setReadBatchSegmentCount(int)
+     */
+    public void setReadBatchSegmentSize(int readBatchSegmentSize) {
+        this.readBatchSegmentSize = checkPositive(readBatchSegmentSize, "readBatchSegmentSize");
     }
 
     @Override
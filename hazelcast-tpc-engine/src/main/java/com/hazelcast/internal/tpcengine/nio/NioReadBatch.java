@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.nio;
+
+import com.hazelcast.internal.tpcengine.ReadHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.tpcengine.util.BufferUtil.upcast;
+
+/**
+ * Batches the reads of the sockets of a {@link NioEventloop} that are readable after
+ * a select.
+ * <p>
+ * The data of every readable socket is read into a segment of a receive slab that is
+ * shared by all sockets of the eventloop. The {@link ReadHandler}s are only called when
+ * the batch is dispatched, once all ready keys have been processed, so the reads and the
+ * processing of the received data don't interleave. Only the bytes a ReadHandler left
+ * unconsumed are copied to a buffer of the socket, so the memory needed for receiving
+ * doesn't grow with the number of connections.
+ * <p>
+ * This class is not thread-safe and should only be used from the eventloop thread.
+ */
+final class NioReadBatch {
+
+    private final ByteBuffer[] segments;
+    private final Reader[] readers;
+    private int size;
+
+    NioReadBatch(int segmentCount, int segmentSize) {
+        this.segments = new ByteBuffer[segmentCount];
+        this.readers = new Reader[segmentCount];
+        ByteBuffer slab = ByteBuffer.allocateDirect(segmentCount * segmentSize);
+        for (int k = 0; k < segmentCount; k++) {
+            upcast(slab).limit((k + 1) * segmentSize);
+            upcast(slab).position(k * segmentSize);
+            segments[k] = slab.slice();
+        }
+    }
+
+    /**
+     * Reads the available data of the given reader into a free segment. If there is no
+     * free segment, the batch is dispatched first.
+     *
+     * @param reader the reader.
+     * @throws IOException if the reader failed to read.
+     */
+    void read(Reader reader) throws IOException {
+        if (size == segments.length) {
+            dispatch();
+        }
+
+        ByteBuffer segment = segments[size];
+        upcast(segment).clear();
+        reader.readInto(segment);
+        upcast(segment).flip();
+        if (segment.hasRemaining()) {
+            readers[size] = reader;
+            size++;
+        }
+    }
+
+    /**
+     * Passes the data of every read of the batch to its reader.
+     */
+    void dispatch() {
+        for (int k = 0; k < size; k++) {
+            Reader reader = readers[k];
+            readers[k] = null;
+            try {
+                reader.onBatchRead(segments[k]);
+            } catch (Exception e) {
+                reader.close(null, e);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * A {@link NioHandler} whose reads can be batched.
+     */
+    interface Reader extends NioHandler {
+
+        /**
+         * Reads the available data, preceded by the data left unconsumed by the last
+         * {@link #onBatchRead(ByteBuffer)}, into the given segment.
+         *
+         * @param segment the segment to read into.
+         * @throws IOException if the read failed.
+         */
+        void readInto(ByteBuffer segment) throws IOException;
+
+        /**
+         * Processes the data in the given segment. The data that isn't consumed needs to
+         * be retained by the reader because the segment is reused.
+         *
+         * @param segment the segment containing the read data.
+         */
+        void onBatchRead(ByteBuffer segment);
+    }
+}
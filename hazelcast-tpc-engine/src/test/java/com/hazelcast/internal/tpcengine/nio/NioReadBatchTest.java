@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.nio;
+
+import com.hazelcast.internal.tpcengine.AsyncServerSocket;
+import com.hazelcast.internal.tpcengine.AsyncSocket;
+import com.hazelcast.internal.tpcengine.ReadHandler;
+import com.hazelcast.internal.tpcengine.Reactor;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.assertTrueEventually;
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.terminate;
+import static com.hazelcast.internal.tpcengine.util.BitUtil.SIZEOF_LONG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+public class NioReadBatchTest {
+
+    private static final int SOCKET_COUNT = 32;
+    private static final int LONGS_PER_SOCKET = 10_000;
+
+    private Reactor clientReactor;
+    private NioReactor serverReactor;
+
+    @Before
+    public void before() {
+        clientReactor = new NioReactorBuilder().build().start();
+
+        NioReactorBuilder serverReactorBuilder = new NioReactorBuilder();
+        // fewer segments than sockets and segments that don't align with the longs
+        serverReactorBuilder.setReadBatchSegmentCount(3);
+        serverReactorBuilder.setReadBatchSegmentSize(100);
+        serverReactor = (NioReactor) serverReactorBuilder.build().start();
+    }
+
+    @After
+    public void after() throws InterruptedException {
+        terminate(clientReactor);
+        terminate(serverReactor);
+    }
+
+    @Test
+    public void test_setReadBatchSegmentCount_whenNegative() {
+        NioReactorBuilder builder = new NioReactorBuilder();
+        assertThrows(IllegalArgumentException.class, () -> builder.setReadBatchSegmentCount(-1));
+    }
+
+    @Test
+    public void test_setReadBatchSegmentSize_whenNotPositive() {
+        NioReactorBuilder builder = new NioReactorBuilder();
+        assertThrows(IllegalArgumentException.class, () -> builder.setReadBatchSegmentSize(0));
+    }
+
+    @Test
+    public void test_readBatchDisabledByDefault() {
+        assertNull(((NioReactor) clientReactor).readBatch);
+        assertNotNull(serverReactor.readBatch);
+    }
+
+    @Test
+    public void test_manySockets() {
+        AtomicLong sum = new AtomicLong();
+        AsyncServerSocket serverSocket = serverReactor.newAsyncServerSocketBuilder()
+                .setAcceptConsumer(acceptRequest -> {
+                    AsyncSocket socket = serverReactor.newAsyncSocketBuilder(acceptRequest)
+                            .setReadHandler(new SumReadHandler(sum))
+                            .build();
+                    socket.start();
+                })
+                .build();
+        serverSocket.bind(new InetSocketAddress("127.0.0.1", 0));
+        serverSocket.start();
+
+        List<AsyncSocket> clientSockets = new ArrayList<>();
+        for (int k = 0; k < SOCKET_COUNT; k++) {
+            AsyncSocket clientSocket = clientReactor.newAsyncSocketBuilder()
+                    .setReadHandler(new SumReadHandler(new AtomicLong()))
+                    .build();
+            clientSocket.start();
+            clientSocket.connect(serverSocket.getLocalAddress()).join();
+            clientSockets.add(clientSocket);
+        }
+
+        long expected = 0;
+        for (int i = 1; i <= LONGS_PER_SOCKET; i++) {
+            for (AsyncSocket clientSocket : clientSockets) {
+                IOBuffer buf = new IOBuffer(SIZEOF_LONG, true);
+                buf.writeLong(i);
+                buf.flip();
+                while (!clientSocket.writeAndFlush(buf)) {
+                    Thread.yield();
+                }
+                expected += i;
+            }
+        }
+
+        long expectedSum = expected;
+        assertTrueEventually(() -> assertEquals(expectedSum, sum.get()));
+    }
+
+    private static class SumReadHandler extends ReadHandler {
+        private final AtomicLong sum;
+
+        SumReadHandler(AtomicLong sum) {
+            this.sum = sum;
+        }
+
+        @Override
+        public void onRead(ByteBuffer receiveBuffer) {
+            while (receiveBuffer.remaining() >= SIZEOF_LONG) {
+                sum.addAndGet(receiveBuffer.getLong());
+            }
+        }
+    }
+}
@@ -55,9 +55,16 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
+        forEachExtracted(entry, true);
+    }
 
+    final void forEachExtracted(I entry, boolean accumulate) {
         E extractedValue = extract(entry);
         if (extractedValue instanceof MultiResult) {
             boolean nullEmptyTargetSkipped = false;
@@ -73,13 +80,18 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
                     nullEmptyTargetSkipped = true;
                     continue;
                 }
-                accumulateExtracted(entry, results.get(i));
+                processExtracted(entry, results.get(i), accumulate);
             }
         } else if (extractedValue != NonTerminalJsonValue.INSTANCE) {
-            accumulateExtracted(entry, extractedValue);
+            processExtracted(entry, extractedValue, accumulate);
         }
     }
 
+    void processExtracted(I entry, E value, boolean accumulate) {
+        assert accumulate : "only the deaccumulating aggregators revert the accumulation";
+        accumulateExtracted(entry, value);
+    }
+
     /**
      * Extract the value of the given attributePath from the given entry.
      */
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Abstract class for the aggregators able to revert the accumulation of an
+ * entry, see {@link DeaccumulatingAggregator}. The extraction rules of the
+ * {@link AbstractAggregator} apply to the reverted entries as well.
+ *
+ * @param <I> input type
+ * @param <E> extracted value type
+ * @param <R> result type
+ */
+public abstract class AbstractDeaccumulatingAggregator<I, E, R> extends AbstractAggregator<I, E, R>
+        implements DeaccumulatingAggregator<I> {
+
+    public AbstractDeaccumulatingAggregator() {
+        super();
+    }
+
+    public AbstractDeaccumulatingAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    public final void deaccumulate(I entry) {
+        forEachExtracted(entry, false);
+    }
+
+    @Override
+    final void processExtracted(I entry, E value, boolean accumulate) {
+        if (accumulate) {
+            accumulateExtracted(entry, value);
+        } else {
+            deaccumulateExtracted(entry, value);
+        }
+    }
+
+    /**
+     * Reverts the accumulation of a single extracted value, the counterpart of
+     * {@link #accumulateExtracted}.
+     *
+     * @param entry The entry containing the value.
+     * @param value The value accumulated before.
+     */
+    protected abstract void deaccumulateExtracted(I entry, E value);
+}
@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Objects;
 
-public final class BigDecimalAverageAggregator<I> extends AbstractAggregator<I, BigDecimal, BigDecimal>
+public final class BigDecimalAverageAggregator<I> extends AbstractDeaccumulatingAggregator<I, BigDecimal, BigDecimal>
         implements IdentifiedDataSerializable {
 
     private BigDecimal sum = BigDecimal.ZERO;
@@ -45,6 +45,12 @@ public final class BigDecimalAverageAggregator<I> extends AbstractAggregator<I,
         sum = sum.add(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, BigDecimal value) {
+        count--;
+        sum = sum.subtract(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         BigDecimalAverageAggregator doubleAverageAggregator = (BigDecimalAverageAggregator) aggregator;
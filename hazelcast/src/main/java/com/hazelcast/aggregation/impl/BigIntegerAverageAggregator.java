@@ -26,7 +26,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Objects;
 
-public final class BigIntegerAverageAggregator<I> extends AbstractAggregator<I, BigInteger, BigDecimal>
+public final class BigIntegerAverageAggregator<I> extends AbstractDeaccumulatingAggregator<I, BigInteger, BigDecimal>
         implements IdentifiedDataSerializable {
 
     private BigInteger sum = BigInteger.ZERO;
@@ -46,6 +46,12 @@ public final class BigIntegerAverageAggregator<I> extends AbstractAggregator<I,
         sum = sum.add(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, BigInteger value) {
+        count--;
+        sum = sum.subtract(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         BigIntegerAverageAggregator typedAggregator = (BigIntegerAverageAggregator) aggregator;
@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.math.BigInteger;
 
-public final class BigIntegerSumAggregator<I> extends AbstractAggregator<I, BigInteger, BigInteger>
+public final class BigIntegerSumAggregator<I> extends AbstractDeaccumulatingAggregator<I, BigInteger, BigInteger>
         implements IdentifiedDataSerializable {
 
     private BigInteger sum = BigInteger.ZERO;
@@ -42,6 +42,11 @@ public final class BigIntegerSumAggregator<I> extends AbstractAggregator<I, BigI
         sum = sum.add(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, BigInteger value) {
+        sum = sum.subtract(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         BigIntegerSumAggregator longSumAggregator = (BigIntegerSumAggregator) aggregator;
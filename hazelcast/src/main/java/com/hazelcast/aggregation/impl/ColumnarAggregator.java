@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.query.impl.PrimitiveColumn;
+
+/**
+ * Aggregator able to accumulate the values of its attribute straight from a
+ * {@link PrimitiveColumn} instead of extracting them entry by entry. Used by
+ * the columnar partition scans.
+ */
+public interface ColumnarAggregator {
+
+    /**
+     * @return the path of the aggregated attribute, {@code null} if the
+     * entry values are aggregated.
+     */
+    String getAttributePath();
+
+    /**
+     * Accumulates the values of the selected rows of the given column.
+     *
+     * @param column   the values of the aggregated attribute, {@code null}
+     *                 if the caller checks whether the aggregator can do
+     *                 without them.
+     * @param rows     the ascending indexes of the selected rows.
+     * @param rowCount the number of the selected rows.
+     * @return {@code false} if the values can't be accumulated exactly the
+     * same way as the extracted ones, nothing is accumulated in this case.
+     */
+    boolean accumulateColumn(PrimitiveColumn column, int[] rows, int rowCount);
+}
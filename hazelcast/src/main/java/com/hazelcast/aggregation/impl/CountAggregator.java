@@ -20,11 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.PrimitiveColumn;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractDeaccumulatingAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, ColumnarAggregator {
     private long count;
 
     public CountAggregator() {
@@ -40,6 +42,20 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, Object value) {
+        count--;
+    }
+
+    @Override
+    public boolean accumulateColumn(PrimitiveColumn column, int[] rows, int rowCount) {
+        if (column == null && attributePath != null) {
+            return false;
+        }
+        count += rowCount;
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
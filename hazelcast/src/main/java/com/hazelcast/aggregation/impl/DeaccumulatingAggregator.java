@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Aggregator able to revert the accumulation of an input. Used by the
+ * continuous aggregations of maps, which are maintained incrementally when
+ * the entries are updated or removed.
+ *
+ * @param <I> the input type.
+ */
+public interface DeaccumulatingAggregator<I> {
+
+    /**
+     * Reverts the accumulation of the given input, which was accumulated
+     * before by {@link com.hazelcast.aggregation.Aggregator#accumulate}.
+     *
+     * @param input the input to revert the accumulation of.
+     */
+    void deaccumulate(I input);
+}
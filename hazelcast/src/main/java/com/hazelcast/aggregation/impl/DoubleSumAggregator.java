@@ -21,12 +21,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.PrimitiveColumn;
 
 import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private double sum;
 
@@ -43,6 +44,29 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean accumulateColumn(PrimitiveColumn column, int[] rows, int rowCount) {
+        if (column == null || column.hasNulls()) {
+            return false;
+        }
+        double sum = this.sum;
+        if (column.getType() == Double.class) {
+            double[] values = column.getDoubles();
+            for (int i = 0; i < rowCount; ++i) {
+                sum += values[rows[i]];
+            }
+        } else if (column.getType() == Integer.class) {
+            long[] values = column.getLongs();
+            for (int i = 0; i < rowCount; ++i) {
+                sum += values[rows[i]];
+            }
+        } else {
+            return false;
+        }
+        this.sum = sum;
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractDeaccumulatingAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable {
 
     private long sum;
 
@@ -41,6 +42,11 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, Number value) {
+        sum -= value.longValue();
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
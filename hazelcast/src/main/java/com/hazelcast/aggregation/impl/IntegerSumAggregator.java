@@ -21,12 +21,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.PrimitiveColumn;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number, Long>
-        implements IdentifiedDataSerializable {
+public final class IntegerSumAggregator<I> extends AbstractDeaccumulatingAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private long sum;
 
@@ -43,6 +44,25 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, Number value) {
+        sum -= Numbers.asIntExactly(value);
+    }
+
+    @Override
+    public boolean accumulateColumn(PrimitiveColumn column, int[] rows, int rowCount) {
+        if (column == null || column.getType() != Integer.class || column.hasNulls()) {
+            return false;
+        }
+        long[] values = column.getLongs();
+        long sum = this.sum;
+        for (int i = 0; i < rowCount; ++i) {
+            sum += values[rows[i]];
+        }
+        this.sum = sum;
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerSumAggregator integerSumAggregator = (IntegerSumAggregator) aggregator;
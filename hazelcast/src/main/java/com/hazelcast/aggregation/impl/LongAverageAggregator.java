@@ -21,11 +21,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.PrimitiveColumn;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class LongAverageAggregator<I> extends AbstractAggregator<I, Number, Double> implements IdentifiedDataSerializable {
+public final class LongAverageAggregator<I> extends AbstractDeaccumulatingAggregator<I, Number, Double>
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private long sum;
 
@@ -45,6 +47,27 @@ public final class LongAverageAggregator<I> extends AbstractAggregator<I, Number
         sum += Numbers.asLongExactly(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, Number value) {
+        count--;
+        sum -= Numbers.asLongExactly(value);
+    }
+
+    @Override
+    public boolean accumulateColumn(PrimitiveColumn column, int[] rows, int rowCount) {
+        if (column == null || column.getType() != Long.class && column.getType() != Integer.class || column.hasNulls()) {
+            return false;
+        }
+        long[] values = column.getLongs();
+        long sum = this.sum;
+        for (int i = 0; i < rowCount; ++i) {
+            sum += values[rows[i]];
+        }
+        this.sum = sum;
+        this.count += rowCount;
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         LongAverageAggregator longAverageAggregator = (LongAverageAggregator) aggregator;
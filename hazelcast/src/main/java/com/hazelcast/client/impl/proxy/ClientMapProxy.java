@@ -103,6 +103,7 @@ import com.hazelcast.client.map.impl.iterator.ClientMapPartitionIterator;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterator;
+import com.hazelcast.client.map.impl.iterator.ClientMapQueryStreamingIterator;
 import com.hazelcast.client.map.impl.querycache.ClientQueryCacheContext;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.IndexConfig;
@@ -1832,6 +1833,44 @@ public class ClientMapProxy<K, V> extends ClientProxy
         return new ClientMapQueryIterable<>(this, fetchSize, partitionCount, projection, predicate);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on
+     * entries in all of the partitions which satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #entrySet(Predicate)}, the result is not materialized on
+     * the members nor on the client. It is fetched in batches of {@code
+     * fetchSize} entries from up to {@code parallelism} partitions at a time
+     * and the batches are returned in the order they arrive, so the first
+     * entries are available as soon as any partition responds. The next batch
+     * is requested only once a batch is consumed, which bounds the memory the
+     * iteration takes on the client to {@code parallelism * fetchSize} entries.
+     * The iteration order is not defined. Predicates of type
+     * {@link PagingPredicate} are not supported.
+     * <p>
+     * The guarantees of the iteration are the same as the ones of
+     * {@link #iterator(int, int, Projection, Predicate)}.
+     *
+     * @param fetchSize   the size of the batches which will be sent when iterating the data
+     * @param parallelism the maximum number of the batches being fetched or waiting to be consumed
+     * @param projection  the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate   the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>         the return type
+     * @return the iterator for the projected entries
+     * @throws UnsupportedOperationException if {@link Iterator#remove()} is invoked
+     * @throws IllegalArgumentException      if the predicate is of type {@link PagingPredicate}
+     */
+    @Nonnull
+    public <R> Iterator<R> streamingIterator(int fetchSize, int parallelism,
+                                             @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+                                             @Nonnull Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkDoesNotContainPagingPredicate(predicate, "streamingIterator");
+        int partitionCount = getContext().getPartitionService().getPartitionCount();
+        return new ClientMapQueryStreamingIterator<>(this, getContext(), fetchSize, partitionCount, parallelism,
+                predicate, projection);
+    }
+
     /**
      * Returns an iterable for iterating entries in the all of the partitions. If
      * {@code prefetchValues} is {@code true}, values will be sent along with
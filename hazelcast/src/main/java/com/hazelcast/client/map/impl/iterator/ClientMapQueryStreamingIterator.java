@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl.iterator;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.impl.proxy.ClientMapProxy;
+import com.hazelcast.client.impl.spi.ClientContext;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.iterator.AbstractMapQueryStreamingIterator;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.internal.iteration.IterationPointer.decodePointers;
+import static com.hazelcast.internal.iteration.IterationPointer.encodePointers;
+
+/**
+ * Iterator for iterating the result of the projection on map entries in all
+ * of the partitions which satisfy the {@code predicate}. Segments of the
+ * result are fetched from up to {@code parallelism} partitions at a time and
+ * are returned as they arrive, so the first entries are available before the
+ * whole result is computed.
+ * The {@link Iterator#remove()} method is not supported and will throw a
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type of map.
+ * @param <V> the value type of map.
+ * @param <R> the return type of iterator after the projection
+ * @see AbstractMapQueryStreamingIterator
+ */
+public class ClientMapQueryStreamingIterator<K, V, R> extends AbstractMapQueryStreamingIterator<K, V, R> {
+
+    private final ClientMapProxy<K, V> mapProxy;
+    private final ClientContext context;
+
+    public ClientMapQueryStreamingIterator(ClientMapProxy<K, V> mapProxy,
+                                           ClientContext context,
+                                           int fetchSize,
+                                           int partitionCount,
+                                           int parallelism,
+                                           Predicate<K, V> predicate,
+                                           Projection<? super Entry<K, V>, R> projection) {
+        super(mapProxy.getName(), fetchSize, partitionCount, parallelism, predicate, projection);
+        this.mapProxy = mapProxy;
+        this.context = context;
+    }
+
+    @Override
+    protected CompletableFuture<Segment> fetch(int partitionId, IterationPointer[] pointers) {
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        ClientMessage request = MapFetchWithQueryCodec.encodeRequest(
+                mapProxy.getName(),
+                encodePointers(pointers),
+                fetchSize,
+                getSerializationService().toData(query.getProjection()),
+                getSerializationService().toData(query.getPredicate()));
+        ClientInvocation clientInvocation = new ClientInvocation(client, request, mapProxy.getName(), partitionId);
+        return clientInvocation.invoke().thenApply(response -> {
+            MapFetchWithQueryCodec.ResponseParameters responseParameters = MapFetchWithQueryCodec.decodeResponse(response);
+            return new Segment(responseParameters.results, decodePointers(responseParameters.iterationPointers));
+        });
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return context.getSerializationService();
+    }
+}
@@ -46,6 +46,8 @@ import static com.hazelcast.internal.util.ThreadAffinity.newSystemThreadAffinity
 import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_GATHERING_BUFFERS;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_THROUGH_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
@@ -177,6 +179,8 @@ public class DefaultNodeContext implements NodeContext {
                         .outputThreadAffinity(newSystemThreadAffinity("hazelcast.io.output.thread.affinity"))
                         .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
                         .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                        .writeQueueCapacity(props.getInteger(IO_WRITE_QUEUE_CAPACITY))
+                        .gatheringWriteBuffers(props.getInteger(IO_WRITE_GATHERING_BUFFERS))
                         .concurrencyDetection(node.nodeEngine.getConcurrencyDetection())
         );
     }
@@ -79,6 +79,7 @@ import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -87,6 +88,7 @@ import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.internal.server.tcp.ChannelInitializerFunction;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
+import com.hazelcast.internal.server.tcp.PacketCompressor;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.JVMUtil;
@@ -108,6 +110,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.version.MemberVersion;
 import com.hazelcast.version.Version;
 import com.hazelcast.wan.impl.WanReplicationService;
@@ -133,6 +136,11 @@ import static com.hazelcast.internal.util.InstanceTrackingUtil.writeInstanceTrac
 import static com.hazelcast.jet.impl.util.Util.JET_IS_DISABLED_MESSAGE;
 import static com.hazelcast.jet.impl.util.Util.checkJetIsEnabled;
 import static com.hazelcast.map.impl.MapServiceConstructor.getDefaultMapServiceConstructor;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_MEMBER_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_MEMBER_COMPRESSION_MIN_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_CLASS_MAX_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_MIN_SIZE;
 
 @SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity", "checkstyle:classdataabstractioncoupling"})
 public class DefaultNodeExtension implements NodeExtension {
@@ -155,6 +163,7 @@ public class DefaultNodeExtension implements NodeExtension {
     protected IntegrityChecker integrityChecker;
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
+    private final PacketPayloadPool packetPayloadPool;
 
     public DefaultNodeExtension(Node node) {
         this.node = node;
@@ -172,6 +181,12 @@ public class DefaultNodeExtension implements NodeExtension {
         }
 
         integrityChecker = new IntegrityChecker(node.getConfig().getIntegrityCheckerConfig(), this.systemLogger);
+
+        HazelcastProperties properties = node.getProperties();
+        packetPayloadPool = properties.getBoolean(NETWORK_PACKET_PAYLOAD_POOL_ENABLED)
+                ? new PacketPayloadPool(properties.getInteger(NETWORK_PACKET_PAYLOAD_POOL_MIN_SIZE),
+                        properties.getInteger(NETWORK_PACKET_PAYLOAD_POOL_CLASS_MAX_BYTES))
+                : null;
     }
 
     private void checkPersistenceAllowed() {
@@ -455,14 +470,19 @@ public class DefaultNodeExtension implements NodeExtension {
     public InboundHandler[] createInboundHandlers(EndpointQualifier qualifier,
                                                   ServerConnection connection, ServerContext serverContext) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher());
+        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher(), packetPayloadPool);
         return new InboundHandler[]{decoder};
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
-        return new OutboundHandler[]{new PacketEncoder()};
+        HazelcastProperties properties = node.getProperties();
+        PacketCompressor compressor = properties.getBoolean(NETWORK_MEMBER_COMPRESSION_ENABLED)
+                ? new PacketCompressor(connection, node.getClusterService(),
+                        properties.getInteger(NETWORK_MEMBER_COMPRESSION_MIN_SIZE))
+                : null;
+        return new OutboundHandler[]{new PacketEncoder(compressor)};
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryAllocator} which delegates directly to the system allocator
+ * through {@link sun.misc.Unsafe}. It does no pooling and keeps no state,
+ * so a single instance can be shared by any number of threads.
+ */
+public final class UnsafeMalloc implements MemoryAllocator {
+
+    /**
+     * The shared instance of the allocator, {@code null} if {@link sun.misc.Unsafe} is not available.
+     */
+    public static final UnsafeMalloc INSTANCE = UNSAFE_AVAILABLE ? new UnsafeMalloc() : null;
+
+    private UnsafeMalloc() {
+    }
+
+    @Override
+    public long allocate(long size) {
+        long address;
+        try {
+            address = UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot allocate "
+                    + size + " bytes", e);
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot reallocate "
+                    + currentSize + " bytes to " + newSize + " bytes", e);
+        }
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+    }
+
+    @Override
+    public void dispose() {
+        // NOP: memory is owned by the callers and must be freed by them
+    }
+}
@@ -224,6 +224,8 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_BACKUP_COUNT = "backupCount";
     public static final String MAP_METRIC_QUERY_COUNT = "queryCount";
     public static final String MAP_METRIC_INDEXED_QUERY_COUNT = "indexedQueryCount";
+    public static final String MAP_METRIC_QUERY_PLAN_CACHE_HIT_COUNT = "queryPlanCacheHitCount";
+    public static final String MAP_METRIC_QUERY_PLAN_CACHE_MISS_COUNT = "queryPlanCacheMissCount";
     public static final String MAP_METRIC_TOTAL_PUT_LATENCY = "totalPutLatency";
     public static final String MAP_METRIC_TOTAL_SET_LATENCY = "totalSetLatency";
     public static final String MAP_METRIC_TOTAL_GET_LATENCY = "totalGetLatency";
@@ -333,6 +335,9 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SOCKET_WRITES = "socketWrites";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_SOCKET_WRITES = "gatheringSocketWrites";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_SOCKET_WRITE = "framesPerSocketWrite";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
@@ -371,10 +376,12 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_EXECUTOR_QUEUE_SIZE = "queueSize";
     public static final String OPERATION_METRIC_EXECUTOR_PRIORITY_QUEUE_SIZE = "priorityQueueSize";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE = "genericQueueSize";
+    public static final String OPERATION_METRIC_EXECUTOR_PARTITION_QUEUE_SIZE_SKEW = "partitionQueueSizeSkew";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE = "genericPriorityQueueSize";
     public static final String OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT = "completedCount";
     public static final String OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT = "partitionThreadCount";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT = "genericThreadCount";
+    public static final String OPERATION_METRIC_EXECUTOR_REJECTED_PACKET_COUNT = "rejectedPacketCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_TOTAL_COUNT = "completedTotalCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_PACKET_COUNT = "completedPacketCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_COUNT = "completedOperationCount";
@@ -385,6 +392,8 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_BATCH_COUNT = "completedOperationBatchCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT = "normalPendingCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT = "priorityPendingCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_TASK_COUNT = "stolenTaskCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_OFFLOADED_PARTITION_COUNT = "offloadedPartitionCount";
     public static final String OPERATION_METRIC_PARKER_PARK_QUEUE_COUNT = "parkQueueCount";
     public static final String OPERATION_METRIC_PARKER_TOTAL_PARKED_OPERATION_COUNT = "totalParkedOperationCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSE_QUEUE_SIZE = "responseQueueSize";
@@ -393,6 +402,7 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_BACKUP_COUNT = "responses.backupCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_ERROR_COUNT = "responses.errorCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_MISSING_COUNT = "responses.missingCount";
+    public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_BATCH_COUNT = "responses.batchCount";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_BACKUP_TIMEOUTS = "backupTimeouts";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_NORMAL_TIMEOUTS = "normalTimeouts";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_HEARTBEAT_PACKETS_RECEIVED = "heartbeatPacketsReceived";
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.monitor.impl;
+
+/**
+ * Empty no-op internal indexes stats, see {@link IndexesStats#EMPTY}.
+ */
+final class EmptyIndexesStats implements IndexesStats {
+
+    @Override
+    public long getQueryCount() {
+        return 0;
+    }
+
+    @Override
+    public void incrementQueryCount() {
+        // do nothing
+    }
+
+    @Override
+    public long getIndexedQueryCount() {
+        return 0;
+    }
+
+    @Override
+    public void incrementIndexedQueryCount() {
+        // do nothing
+    }
+
+    @Override
+    public long getPlanCacheHitCount() {
+        return 0;
+    }
+
+    @Override
+    public void incrementPlanCacheHitCount() {
+        // do nothing
+    }
+
+    @Override
+    public long getPlanCacheMissCount() {
+        return 0;
+    }
+
+    @Override
+    public void incrementPlanCacheMissCount() {
+        // do nothing
+    }
+
+    @Override
+    public PerIndexStats createPerIndexStats(boolean ordered, boolean queryableEntriesAreCached) {
+        return PerIndexStats.EMPTY;
+    }
+}
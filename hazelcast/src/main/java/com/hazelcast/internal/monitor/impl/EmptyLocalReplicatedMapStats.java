@@ -185,6 +185,16 @@ public class EmptyLocalReplicatedMapStats implements LocalReplicatedMapStats {
         throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
     }
 
+    @Override
+    public long getQueryPlanCacheHitCount() {
+        throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
+    }
+
+    @Override
+    public long getQueryPlanCacheMissCount() {
+        throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
+    }
+
     @Override
     public Map<String, LocalIndexStats> getIndexStats() {
         throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
@@ -32,9 +32,15 @@ public class GlobalIndexesStats implements IndexesStats {
             "queryCount");
     private static final AtomicLongFieldUpdater<GlobalIndexesStats> INDEXED_QUERY_COUNT = newUpdater(GlobalIndexesStats.class,
             "indexedQueryCount");
+    private static final AtomicLongFieldUpdater<GlobalIndexesStats> PLAN_CACHE_HIT_COUNT = newUpdater(GlobalIndexesStats.class,
+            "planCacheHitCount");
+    private static final AtomicLongFieldUpdater<GlobalIndexesStats> PLAN_CACHE_MISS_COUNT = newUpdater(GlobalIndexesStats.class,
+            "planCacheMissCount");
 
     private volatile long queryCount;
     private volatile long indexedQueryCount;
+    private volatile long planCacheHitCount;
+    private volatile long planCacheMissCount;
 
     @Override
     public long getQueryCount() {
@@ -56,6 +62,26 @@ public class GlobalIndexesStats implements IndexesStats {
         INDEXED_QUERY_COUNT.incrementAndGet(this);
     }
 
+    @Override
+    public long getPlanCacheHitCount() {
+        return planCacheHitCount;
+    }
+
+    @Override
+    public void incrementPlanCacheHitCount() {
+        PLAN_CACHE_HIT_COUNT.incrementAndGet(this);
+    }
+
+    @Override
+    public long getPlanCacheMissCount() {
+        return planCacheMissCount;
+    }
+
+    @Override
+    public void incrementPlanCacheMissCount() {
+        PLAN_CACHE_MISS_COUNT.incrementAndGet(this);
+    }
+
     @Override
     public PerIndexStats createPerIndexStats(boolean ordered, boolean usesCachedQueryableEntries) {
         return new GlobalPerIndexStats(ordered, usesCachedQueryableEntries);
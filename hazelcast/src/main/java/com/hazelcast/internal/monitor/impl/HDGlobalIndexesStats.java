@@ -32,9 +32,15 @@ public class HDGlobalIndexesStats implements IndexesStats {
             "queryCount");
     private static final AtomicLongFieldUpdater<HDGlobalIndexesStats> INDEXED_QUERY_COUNT = newUpdater(HDGlobalIndexesStats.class,
             "indexedQueryCount");
+    private static final AtomicLongFieldUpdater<HDGlobalIndexesStats> PLAN_CACHE_HIT_COUNT = newUpdater(
+            HDGlobalIndexesStats.class, "planCacheHitCount");
+    private static final AtomicLongFieldUpdater<HDGlobalIndexesStats> PLAN_CACHE_MISS_COUNT = newUpdater(
+            HDGlobalIndexesStats.class, "planCacheMissCount");
 
     private volatile long queryCount;
     private volatile long indexedQueryCount;
+    private volatile long planCacheHitCount;
+    private volatile long planCacheMissCount;
 
     @Override
     public long getQueryCount() {
@@ -56,6 +62,26 @@ public class HDGlobalIndexesStats implements IndexesStats {
         INDEXED_QUERY_COUNT.incrementAndGet(this);
     }
 
+    @Override
+    public long getPlanCacheHitCount() {
+        return planCacheHitCount;
+    }
+
+    @Override
+    public void incrementPlanCacheHitCount() {
+        PLAN_CACHE_HIT_COUNT.incrementAndGet(this);
+    }
+
+    @Override
+    public long getPlanCacheMissCount() {
+        return planCacheMissCount;
+    }
+
+    @Override
+    public void incrementPlanCacheMissCount() {
+        PLAN_CACHE_MISS_COUNT.incrementAndGet(this);
+    }
+
     @Override
     public PerIndexStats createPerIndexStats(boolean ordered, boolean usesCachedQueryableEntries) {
         return new HDGlobalPerIndexStats(ordered, usesCachedQueryableEntries);
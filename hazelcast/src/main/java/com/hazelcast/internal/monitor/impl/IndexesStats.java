@@ -25,32 +25,7 @@ public interface IndexesStats {
     /**
      * Empty no-op internal indexes stats.
      */
-    IndexesStats EMPTY = new IndexesStats() {
-        @Override
-        public long getQueryCount() {
-            return 0;
-        }
-
-        @Override
-        public void incrementQueryCount() {
-            // do nothing
-        }
-
-        @Override
-        public long getIndexedQueryCount() {
-            return 0;
-        }
-
-        @Override
-        public void incrementIndexedQueryCount() {
-            // do nothing
-        }
-
-        @Override
-        public PerIndexStats createPerIndexStats(boolean ordered, boolean queryableEntriesAreCached) {
-            return PerIndexStats.EMPTY;
-        }
-    };
+    IndexesStats EMPTY = new EmptyIndexesStats();
 
     /**
      * Returns the number of queries performed on the indexes.
@@ -72,6 +47,28 @@ public interface IndexesStats {
      */
     void incrementIndexedQueryCount();
 
+    /**
+     * Returns the number of queries which used a cached optimized predicate.
+     */
+    long getPlanCacheHitCount();
+
+    /**
+     * Increments the number of queries which used a cached optimized predicate.
+     */
+    void incrementPlanCacheHitCount();
+
+    /**
+     * Returns the number of queries which optimized the predicate while the
+     * plan cache is enabled.
+     */
+    long getPlanCacheMissCount();
+
+    /**
+     * Increments the number of queries which optimized the predicate while
+     * the plan cache is enabled.
+     */
+    void incrementPlanCacheMissCount();
+
     /**
      * Creates a new instance of internal per-index stats.
      *
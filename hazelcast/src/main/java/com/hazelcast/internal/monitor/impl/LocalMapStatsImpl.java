@@ -49,6 +49,8 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OWNED_ENTRY_MEMORY_COST;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PUT_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_PLAN_CACHE_HIT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_PLAN_CACHE_MISS_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_REMOVE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_SET_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_GET_LATENCY;
@@ -174,6 +176,10 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long queryCount;
     @Probe(name = MAP_METRIC_INDEXED_QUERY_COUNT)
     private volatile long indexedQueryCount;
+    @Probe(name = MAP_METRIC_QUERY_PLAN_CACHE_HIT_COUNT)
+    private volatile long queryPlanCacheHitCount;
+    @Probe(name = MAP_METRIC_QUERY_PLAN_CACHE_MISS_COUNT)
+    private volatile long queryPlanCacheMissCount;
 
     private final boolean ignoreMemoryCosts;
 
@@ -446,6 +452,34 @@ public class LocalMapStatsImpl implements LocalMapStats {
         this.indexedQueryCount = indexedQueryCount;
     }
 
+    @Override
+    public long getQueryPlanCacheHitCount() {
+        return queryPlanCacheHitCount;
+    }
+
+    /**
+     * Sets the query plan cache hit count of this stats to the given value.
+     *
+     * @param queryPlanCacheHitCount the query plan cache hit count value to set.
+     */
+    public void setQueryPlanCacheHitCount(long queryPlanCacheHitCount) {
+        this.queryPlanCacheHitCount = queryPlanCacheHitCount;
+    }
+
+    @Override
+    public long getQueryPlanCacheMissCount() {
+        return queryPlanCacheMissCount;
+    }
+
+    /**
+     * Sets the query plan cache miss count of this stats to the given value.
+     *
+     * @param queryPlanCacheMissCount the query plan cache miss count value to set.
+     */
+    public void setQueryPlanCacheMissCount(long queryPlanCacheMissCount) {
+        this.queryPlanCacheMissCount = queryPlanCacheMissCount;
+    }
+
     @Override
     public Map<String, LocalIndexStats> getIndexStats() {
         return indexStats;
@@ -566,6 +600,8 @@ public class LocalMapStatsImpl implements LocalMapStats {
                 + ", nearCacheStats=" + (nearCacheStats != null ? nearCacheStats : "")
                 + ", queryCount=" + queryCount
                 + ", indexedQueryCount=" + indexedQueryCount
+                + ", queryPlanCacheHitCount=" + queryPlanCacheHitCount
+                + ", queryPlanCacheMissCount=" + queryPlanCacheMissCount
                 + ", indexStats=" + indexStats
                 + ", replicationStats=" + replicationStats
                 + '}';
@@ -356,6 +356,16 @@ public class LocalReplicatedMapStatsImpl implements LocalReplicatedMapStats {
         throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
     }
 
+    @Override
+    public long getQueryPlanCacheHitCount() {
+        throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
+    }
+
+    @Override
+    public long getQueryPlanCacheMissCount() {
+        throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
+    }
+
     @Override
     public Map<String, LocalIndexStats> getIndexStats() {
         throw new UnsupportedOperationException("Queries on replicated maps are not supported.");
@@ -33,9 +33,15 @@ public class PartitionIndexesStats implements IndexesStats {
             "queryCount");
     private static final AtomicLongFieldUpdater<PartitionIndexesStats> INDEXED_QUERY_COUNT = newUpdater(
             PartitionIndexesStats.class, "indexedQueryCount");
+    private static final AtomicLongFieldUpdater<PartitionIndexesStats> PLAN_CACHE_HIT_COUNT = newUpdater(
+            PartitionIndexesStats.class, "planCacheHitCount");
+    private static final AtomicLongFieldUpdater<PartitionIndexesStats> PLAN_CACHE_MISS_COUNT = newUpdater(
+            PartitionIndexesStats.class, "planCacheMissCount");
 
     private volatile long queryCount;
     private volatile long indexedQueryCount;
+    private volatile long planCacheHitCount;
+    private volatile long planCacheMissCount;
 
     @Override
     public long getQueryCount() {
@@ -57,6 +63,28 @@ public class PartitionIndexesStats implements IndexesStats {
         INDEXED_QUERY_COUNT.lazySet(this, indexedQueryCount + 1);
     }
 
+    @Override
+    public long getPlanCacheHitCount() {
+        return planCacheHitCount;
+    }
+
+    @Override
+    public void incrementPlanCacheHitCount() {
+        // the plan cache may be accessed by the query threads concurrently
+        PLAN_CACHE_HIT_COUNT.incrementAndGet(this);
+    }
+
+    @Override
+    public long getPlanCacheMissCount() {
+        return planCacheMissCount;
+    }
+
+    @Override
+    public void incrementPlanCacheMissCount() {
+        // the plan cache may be accessed by the query threads concurrently
+        PLAN_CACHE_MISS_COUNT.incrementAndGet(this);
+    }
+
     @Override
     public PerIndexStats createPerIndexStats(boolean ordered, boolean queryableEntriesAreCached) {
         return new PartitionPerIndexStats();
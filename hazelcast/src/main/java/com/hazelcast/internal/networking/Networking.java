@@ -56,6 +56,18 @@ public interface Networking {
                      SocketChannel socketChannel,
                      boolean clientMode) throws IOException;
 
+    /**
+     * Moves the given Channel to the IO threads selected by the given affinity key.
+     *
+     * Channels with consecutive affinity keys are processed by different IO threads as
+     * long as there are enough IO threads. The Channel can still be moved to another IO
+     * thread later on, e.g. when an imbalance is detected.
+     *
+     * @param channel     the Channel created by this Networking
+     * @param affinityKey the non-negative affinity key
+     */
+    void setThreadAffinity(Channel channel, int affinityKey);
+
     /**
      * Restarts Networking.
      *
@@ -121,6 +121,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile ExecutorService closeListenerExecutor;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
+    private final int writeQueueCapacity;
+    private final int gatheringWriteBuffers;
     private final ThreadAffinity inputThreadAffinity;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
@@ -159,6 +161,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         // disabled with SELECT_WITH_FIX.
         this.writeThroughEnabled = ctx.writeThroughEnabled && selectorMode != SELECT_WITH_FIX;
         this.selectionKeyWakeupEnabled = ctx.selectionKeyWakeupEnabled && selectorMode != SELECT_WITH_FIX;
+        this.writeQueueCapacity = ctx.writeQueueCapacity;
+        this.gatheringWriteBuffers = ctx.gatheringWriteBuffers;
         if (selectorMode == SELECT_WITH_FIX
                 && (ctx.writeThroughEnabled || ctx.selectionKeyWakeupEnabled)) {
             logger.warning("Selector mode SELECT_WITH_FIX is incompatible with write-through and selection key wakeup "
@@ -319,6 +323,26 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         return channel;
     }
 
+    @Override
+    public void setThreadAffinity(Channel channel, int affinityKey) {
+        NioThread[] inputThreads = this.inputThreads;
+        NioThread[] outputThreads = this.outputThreads;
+        if (inputThreads == null || outputThreads == null) {
+            // networking is shutdown
+            return;
+        }
+
+        NioChannel nioChannel = (NioChannel) channel;
+        migrate(nioChannel.inboundPipeline(), inputThreads[hashToIndex(affinityKey, inputThreads.length)]);
+        migrate(nioChannel.outboundPipeline(), outputThreads[hashToIndex(affinityKey, outputThreads.length)]);
+    }
+
+    private static void migrate(NioPipeline pipeline, NioThread newOwner) {
+        if (pipeline.owner() != newOwner && !pipeline.migrationRequested()) {
+            pipeline.requestMigration(newOwner);
+        }
+    }
+
     private NioOutboundPipeline newOutboundPipeline(NioChannel channel) {
         int index = hashToIndex(nextOutputThreadIndex.getAndIncrement(), outputThreadCount);
         NioThread[] threads = outputThreads;
@@ -334,7 +358,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                 ioBalancer,
                 concurrencyDetection,
                 writeThroughEnabled,
-                selectionKeyWakeupEnabled);
+                selectionKeyWakeupEnabled,
+                writeQueueCapacity,
+                gatheringWriteBuffers);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -504,6 +530,12 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         // this is an optimization that can speed up low threaded setups
         private boolean writeThroughEnabled;
 
+        // the capacity of the array backed write queues, 0 for the linked write queues
+        private int writeQueueCapacity;
+
+        // the maximum number of the send buffers written by a single gathering write, 1 disables the gathering writes
+        private int gatheringWriteBuffers = 1;
+
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
             if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")) {
@@ -521,6 +553,16 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        public Context writeQueueCapacity(int writeQueueCapacity) {
+            this.writeQueueCapacity = writeQueueCapacity;
+            return this;
+        }
+
+        public Context gatheringWriteBuffers(int gatheringWriteBuffers) {
+            this.gatheringWriteBuffers = gatheringWriteBuffers;
+            return this;
+        }
+
         public Context concurrencyDetection(ConcurrencyDetection concurrencyDetection) {
             this.concurrencyDetection = concurrencyDetection;
             return this;
@@ -34,17 +34,19 @@ import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectionKey;
 import java.util.Arrays;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_SOCKET_WRITE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_SOCKET_WRITES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_NORMAL_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SOCKET_WRITES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
@@ -52,7 +54,9 @@ import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
@@ -66,6 +70,8 @@ public final class NioOutboundPipeline
         extends NioPipeline
         implements Supplier<OutboundFrame>, OutboundPipeline {
 
+    private static final int MIN_GATHERED_BUFFER_SIZE = 1 << 10;
+
     public enum State {
         /*
          * The pipeline isn't scheduled (nothing to do).
@@ -108,13 +114,19 @@ public final class NioOutboundPipeline
 
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE, level = DEBUG)
-    public final Queue<OutboundFrame> writeQueue = new ConcurrentLinkedQueue<>();
+    public final Queue<OutboundFrame> writeQueue;
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE, level = DEBUG)
-    public final Queue<OutboundFrame> priorityWriteQueue = new ConcurrentLinkedQueue<>();
+    public final Queue<OutboundFrame> priorityWriteQueue;
 
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // the send buffers filled by the handlers and not yet written, they are
+    // written before the current sendBuffer by a single gathering write
+    private final ByteBuffer[] gatheredBuffers;
+    private int gatheredBufferCount;
+    private final ByteBuffer[] spareBuffers;
+    private int spareBufferCount;
 
     private final AtomicReference<State> scheduled = new AtomicReference<>(State.SCHEDULED);
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN, unit = BYTES, level = DEBUG)
@@ -123,6 +135,10 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN, level = DEBUG)
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SOCKET_WRITES, level = DEBUG)
+    private final SwCounter socketWrites = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_SOCKET_WRITES, level = DEBUG)
+    private final SwCounter gatheringSocketWrites = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -141,11 +157,17 @@ public final class NioOutboundPipeline
                         IOBalancer balancer,
                         ConcurrencyDetection concurrencyDetection,
                         boolean writeThroughEnabled,
-                        boolean selectionKeyWakeupEnabled) {
+                        boolean selectionKeyWakeupEnabled,
+                        int writeQueueCapacity,
+                        int gatheringWriteBuffers) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.concurrencyDetection = concurrencyDetection;
         this.writeThroughEnabled = writeThroughEnabled;
         this.selectionKeyWakeupEnabled = selectionKeyWakeupEnabled;
+        this.writeQueue = OutboundFrameQueue.newWriteQueue(writeQueueCapacity);
+        this.priorityWriteQueue = OutboundFrameQueue.newWriteQueue(writeQueueCapacity);
+        this.gatheredBuffers = new ByteBuffer[max(gatheringWriteBuffers, 1)];
+        this.spareBuffers = new ByteBuffer[gatheredBuffers.length - 1];
     }
 
     @Override
@@ -198,6 +220,12 @@ public final class NioOutboundPipeline
         return scheduled.get().ordinal();
     }
 
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_SOCKET_WRITE, level = DEBUG)
+    private double framesPerSocketWrite() {
+        long writes = socketWrites.get();
+        return writes == 0 ? 0 : (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / writes;
+    }
+
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
@@ -318,6 +346,11 @@ public final class NioOutboundPipeline
                 handlerIndex = -1;
             } else if (handlerStatus != CLEAN) {
                 pipelineStatus = handlerStatus;
+                if (handlerIndex == localHandlers.length - 1 && gatherSendBuffer(handler, handlerStatus)) {
+                    // the send buffer is full, the handlers continue with an empty one
+                    pipelineStatus = CLEAN;
+                    handlerIndex = -1;
+                }
             }
         }
 
@@ -330,7 +363,7 @@ public final class NioOutboundPipeline
             return;
         }
 
-        if (sendBuffer.remaining() > 0) {
+        if (sendBuffer.remaining() > 0 || gatheredBufferCount > 0) {
             pipelineStatus = DIRTY;
         }
 
@@ -434,13 +467,75 @@ public final class NioOutboundPipeline
         }
     }
 
+    /**
+     * Puts the given last handler's send buffer aside to be written by the
+     * next gathering write if the handler is {@link HandlerStatus#DIRTY} and
+     * the buffer is at least half full, and gives the handler an empty one.
+     *
+     * @return {@code true} if the send buffer was put aside.
+     */
+    private boolean gatherSendBuffer(OutboundHandler handler, HandlerStatus handlerStatus) {
+        if (handlerStatus != DIRTY) {
+            return false;
+        }
+        ByteBuffer buffer = sendBuffer;
+        // the small buffers of the protocol handshake are never put aside
+        if (gatheredBufferCount == gatheredBuffers.length - 1 || handler.dst() != buffer
+                || buffer.capacity() < MIN_GATHERED_BUFFER_SIZE || buffer.remaining() < buffer.capacity() / 2) {
+            return false;
+        }
+
+        ByteBuffer next = null;
+        if (spareBufferCount > 0) {
+            next = spareBuffers[--spareBufferCount];
+            spareBuffers[spareBufferCount] = null;
+            if (next.capacity() != buffer.capacity() || next.isDirect() != buffer.isDirect()) {
+                // the spare buffers belong to a replaced handler
+                Arrays.fill(spareBuffers, null);
+                spareBufferCount = 0;
+                next = null;
+            }
+        }
+        if (next == null) {
+            next = newByteBuffer(buffer.capacity(), buffer.isDirect());
+        }
+        // the handlers expect the send buffer in the reading mode
+        upcast(next).clear();
+        upcast(next).flip();
+
+        gatheredBuffers[gatheredBufferCount++] = buffer;
+        handler.dst(next);
+        sendBuffer = next;
+        return true;
+    }
+
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        long written;
+        if (gatheredBufferCount == 0) {
+            written = socketChannel.write(sendBuffer);
+        } else {
+            gatheredBuffers[gatheredBufferCount] = sendBuffer;
+            written = socketChannel.write(gatheredBuffers, 0, gatheredBufferCount + 1);
+            gatheredBuffers[gatheredBufferCount] = null;
+            releaseWrittenBuffers();
+            gatheringSocketWrites.inc();
+        }
+        socketWrites.inc();
         bytesWritten.inc(written);
         //System.out.println(channel + " bytes written:" + written);
     }
 
+    private void releaseWrittenBuffers() {
+        int written = 0;
+        while (written < gatheredBufferCount && !gatheredBuffers[written].hasRemaining()) {
+            spareBuffers[spareBufferCount++] = gatheredBuffers[written++];
+        }
+        System.arraycopy(gatheredBuffers, written, gatheredBuffers, 0, gatheredBufferCount - written);
+        Arrays.fill(gatheredBuffers, gatheredBufferCount - written, gatheredBufferCount, null);
+        gatheredBufferCount -= written;
+    }
+
     void drainWriteQueues() {
         writeQueue.clear();
         priorityWriteQueue.clear();
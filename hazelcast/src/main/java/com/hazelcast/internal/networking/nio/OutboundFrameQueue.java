@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.util.concurrent.ManyToManyConcurrentArrayQueue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The queue of the frames waiting to be written by a {@link
+ * NioOutboundPipeline}, used instead of a linked queue if the capacity of
+ * the write queues is configured.
+ * <p>
+ * The frames are offered by any thread and polled by the thread processing
+ * the pipeline. They are kept in a bounded array queue, so offering a frame
+ * doesn't allocate. If the array queue is full, for example because the
+ * remote side doesn't keep up, the frames overflow to an unbounded linked
+ * queue: the writers are never blocked and the frames are never rejected.
+ * Once a frame overflows, the following frames overflow too until both
+ * queues are drained, so the frames offered by a single thread are always
+ * polled in the order they were offered.
+ */
+final class OutboundFrameQueue extends AbstractQueue<OutboundFrame> {
+
+    private final ManyToManyConcurrentArrayQueue<OutboundFrame> queue;
+    // guarded by itself
+    private final ArrayDeque<OutboundFrame> overflow = new ArrayDeque<>();
+    private volatile boolean overflowing;
+
+    OutboundFrameQueue(int capacity) {
+        this.queue = new ManyToManyConcurrentArrayQueue<>(capacity);
+    }
+
+    /**
+     * Creates a write queue of a {@link NioOutboundPipeline}.
+     *
+     * @param capacity the capacity of the array queue or {@code 0} for an
+     *                 unbounded linked queue.
+     * @return the new write queue.
+     */
+    static Queue<OutboundFrame> newWriteQueue(int capacity) {
+        return capacity > 0 ? new OutboundFrameQueue(capacity) : new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public boolean offer(OutboundFrame frame) {
+        if (!overflowing && queue.offer(frame)) {
+            return true;
+        }
+        synchronized (overflow) {
+            overflowing = true;
+            overflow.add(frame);
+        }
+        return true;
+    }
+
+    @Override
+    public OutboundFrame poll() {
+        OutboundFrame frame = queue.poll();
+        // the overflowed frames can't overtake the frames still being offered to the array queue
+        if (frame != null || !overflowing || !queue.isEmpty()) {
+            return frame;
+        }
+        synchronized (overflow) {
+            frame = overflow.poll();
+            if (frame == null) {
+                overflowing = false;
+            }
+            return frame;
+        }
+    }
+
+    @Override
+    public OutboundFrame peek() {
+        OutboundFrame frame = queue.peek();
+        if (frame != null || !overflowing) {
+            return frame;
+        }
+        synchronized (overflow) {
+            return overflow.peek();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (!queue.isEmpty()) {
+            return false;
+        }
+        if (!overflowing) {
+            return true;
+        }
+        synchronized (overflow) {
+            return overflow.isEmpty();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = queue.size();
+        if (overflowing) {
+            synchronized (overflow) {
+                size += overflow.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns a weakly consistent iterator meant for the diagnostics only.
+     */
+    @Override
+    public Iterator<OutboundFrame> iterator() {
+        List<OutboundFrame> frames = new ArrayList<>();
+        queue.iterator().forEachRemaining(frames::add);
+        if (overflowing) {
+            synchronized (overflow) {
+                frames.addAll(overflow);
+            }
+        }
+        return frames.iterator();
+    }
+}
@@ -73,4 +73,14 @@ public interface BufferObjectDataInput extends ObjectDataInput, DataReader, Seri
     void clear();
 
     void init(byte[] data, int offset);
+
+    /**
+     * Initializes this input to read the first {@code size} bytes of the
+     * given data, starting at the given offset.
+     *
+     * @param data   the data
+     * @param offset the offset to start reading at
+     * @param size   the number of the readable bytes of the data
+     */
+    void init(byte[] data, int offset, int size);
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import static com.hazelcast.internal.nio.Bits.readIntL;
+
+/**
+ * A fast LZ77-style block codec in the spirit of LZ4.
+ * <p>
+ * A compressed block is a series of sequences, each made of a token, the
+ * literals copied as they are and a match referring to the already
+ * decompressed bytes. The high nibble of the token is the number of the
+ * literals, the low nibble is the length of the match minus {@value
+ * #MIN_MATCH}; the value {@code 15} of a nibble is followed by extension
+ * bytes which are added to it until a byte different from {@code 255}. The
+ * match offset is encoded as a 2-byte little-endian value. The last sequence
+ * contains literals only.
+ * <p>
+ * The compression looks up the matches in a hash table of the 4-byte
+ * sequences and doesn't try to find the longest match, trading the ratio for
+ * the speed. The instances are not thread-safe, the hash table is reused
+ * between the compressions. The decompression doesn't require any state and
+ * validates the input, so a malformed block never reads or writes out of the
+ * bounds.
+ */
+public final class LzCodec {
+
+    /**
+     * The minimum length of a match.
+     */
+    public static final int MIN_MATCH = 4;
+
+    private static final int HASH_LOG = 14;
+    private static final int MAX_OFFSET = 0xFFFF;
+    // the last literals and the minimum distance of the last match start from the end
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int RUN_MASK = 0x0F;
+    // the shift of the literals nibble in the token
+    private static final int LITERALS_SHIFT = 4;
+    private static final int OFFSET_BYTES = 2;
+    private static final int EXTENSION = 0xFF;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int HASH_MULTIPLIER = -1640531535;
+
+    // positions of the 4-byte sequences, stale entries are verified on use
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * Compresses the given source bytes into the given destination.
+     *
+     * @param src      the source array.
+     * @param srcOff   the offset of the bytes to compress.
+     * @param srcLen   the number of the bytes to compress.
+     * @param dst      the destination array.
+     * @param dstOff   the offset at which the compressed block is written.
+     * @param dstLimit the exclusive limit of the compressed block.
+     * @return the length of the compressed block or {@code -1} if it doesn't
+     * fit before the given limit, in which case the contents of the
+     * destination are undefined.
+     */
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLimit) {
+        int srcEnd = srcOff + srcLen;
+        int anchor = srcOff;
+        int op = dstOff;
+
+        if (srcLen >= MF_LIMIT + 1) {
+            int mfLimit = srcEnd - MF_LIMIT;
+            int matchLimit = srcEnd - LAST_LITERALS;
+            int ip = srcOff;
+            while (ip < mfLimit) {
+                int sequence = readIntL(src, ip);
+                int hash = hash(sequence);
+                int ref = hashTable[hash];
+                hashTable[hash] = ip;
+                if (!isMatch(src, srcOff, ip, ref, sequence)) {
+                    // skip faster over the incompressible data
+                    ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+
+                while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLen = matchLength(src, ip, ref, matchLimit);
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLen, dst, op, dstLimit);
+                if (op < 0) {
+                    return -1;
+                }
+                ip += matchLen;
+                anchor = ip;
+            }
+        }
+
+        op = writeLiterals(src, anchor, srcEnd - anchor, 0, dst, op, dstLimit);
+        return op < 0 ? -1 : op - dstOff;
+    }
+
+    /**
+     * Decompresses the given compressed block into the given destination.
+     *
+     * @param src    the source array.
+     * @param srcOff the offset of the compressed block.
+     * @param srcLen the length of the compressed block.
+     * @param dst    the destination array.
+     * @param dstOff the offset at which the decompressed bytes are written.
+     * @param dstLen the exact number of the decompressed bytes.
+     * @throws IllegalArgumentException if the block is malformed or doesn't
+     *                                  decompress to exactly {@code dstLen}
+     *                                  bytes.
+     */
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity"})
+    public static void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+        int ip = srcOff;
+        int srcEnd = srcOff + srcLen;
+        int op = dstOff;
+        int dstEnd = dstOff + dstLen;
+        for (; ; ) {
+            if (ip >= srcEnd) {
+                throw malformed(ip - srcOff);
+            }
+            int token = src[ip++] & EXTENSION;
+
+            int literals = token >>> LITERALS_SHIFT;
+            if (literals == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed(ip - srcOff);
+                    }
+                    b = src[ip++] & EXTENSION;
+                    literals += b;
+                } while (b == EXTENSION && literals <= dstLen);
+            }
+            if (literals > srcEnd - ip || literals > dstEnd - op) {
+                throw malformed(ip - srcOff);
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+            if (ip == srcEnd) {
+                break;
+            }
+
+            if (srcEnd - ip < OFFSET_BYTES) {
+                throw malformed(ip - srcOff);
+            }
+            int offset = (src[ip] & EXTENSION) | (src[ip + 1] & EXTENSION) << Byte.SIZE;
+            ip += OFFSET_BYTES;
+            if (offset == 0 || offset > op - dstOff) {
+                throw malformed(ip - srcOff);
+            }
+
+            int matchLen = token & RUN_MASK;
+            if (matchLen == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed(ip - srcOff);
+                    }
+                    b = src[ip++] & EXTENSION;
+                    matchLen += b;
+                } while (b == EXTENSION && matchLen <= dstLen);
+            }
+            matchLen += MIN_MATCH;
+            if (matchLen > dstEnd - op) {
+                throw malformed(ip - srcOff);
+            }
+
+            op = copyMatch(dst, op, offset, matchLen);
+        }
+        if (op != dstEnd) {
+            throw new IllegalArgumentException("Compressed block decompresses to " + (op - dstOff)
+                    + " bytes, expected " + dstLen);
+        }
+    }
+
+    private static boolean isMatch(byte[] src, int srcOff, int ip, int ref, int sequence) {
+        // the hash table entry may be stale or refer to a different sequence
+        return ref >= srcOff && ref < ip && ip - ref <= MAX_OFFSET && readIntL(src, ref) == sequence;
+    }
+
+    private static int matchLength(byte[] src, int ip, int ref, int matchLimit) {
+        int matchLen = MIN_MATCH;
+        while (ip + matchLen < matchLimit && src[ip + matchLen] == src[ref + matchLen]) {
+            matchLen++;
+        }
+        return matchLen;
+    }
+
+    private static int copyMatch(byte[] dst, int op, int offset, int matchLen) {
+        int ref = op - offset;
+        if (offset >= matchLen) {
+            System.arraycopy(dst, ref, dst, op, matchLen);
+            return op + matchLen;
+        }
+        // the match overlaps the bytes being written
+        for (int end = op + matchLen; op < end; ) {
+            dst[op++] = dst[ref++];
+        }
+        return op;
+    }
+
+    private static int writeSequence(byte[] src, int literalsOff, int literals, int offset, int matchLen,
+                                     byte[] dst, int op, int dstLimit) {
+        int matchRun = matchLen - MIN_MATCH;
+        op = writeLiterals(src, literalsOff, literals, Math.min(matchRun, RUN_MASK), dst, op, dstLimit);
+        // the offset and the extension of the match length
+        if (op < 0 || op + OFFSET_BYTES + 1 + matchRun / EXTENSION > dstLimit) {
+            return -1;
+        }
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> Byte.SIZE);
+        if (matchRun >= RUN_MASK) {
+            op = writeExtension(matchRun - RUN_MASK, dst, op);
+        }
+        return op;
+    }
+
+    private static int writeLiterals(byte[] src, int literalsOff, int literals, int matchNibble,
+                                     byte[] dst, int op, int dstLimit) {
+        if (op + 1 + literals / EXTENSION + 1 + literals > dstLimit) {
+            return -1;
+        }
+        dst[op++] = (byte) (Math.min(literals, RUN_MASK) << LITERALS_SHIFT | matchNibble);
+        if (literals >= RUN_MASK) {
+            op = writeExtension(literals - RUN_MASK, dst, op);
+        }
+        System.arraycopy(src, literalsOff, dst, op, literals);
+        return op + literals;
+    }
+
+    private static int writeExtension(int value, byte[] dst, int op) {
+        for (; value >= EXTENSION; value -= EXTENSION) {
+            dst[op++] = (byte) EXTENSION;
+        }
+        dst[op++] = (byte) value;
+        return op;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static IllegalArgumentException malformed(int position) {
+        return new IllegalArgumentException("Malformed compressed block at position " + position);
+    }
+}
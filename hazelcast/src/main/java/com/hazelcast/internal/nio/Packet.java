@@ -43,8 +43,9 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Flags are dispatched against in a cascade:
     // 1. URGENT (bit 4)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 3, 6)
     // 4. 4.x flag (bit 7)
+    // 5. Compression flag (bit 8)
 
     // 1. URGENT flag
 
@@ -88,6 +89,10 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation response packet as a batch of several responses
+     */
+    public static final int FLAG_OP_RESPONSE_BATCH = 1 << 3;
 
     // 3.b Jet packet flags
 
@@ -101,6 +106,13 @@ public final class Packet extends HeapData implements OutboundFrame {
      */
     public static final int FLAG_4_0 = 1 << 7;
 
+    // 5. Compression flag, independent of the packet type
+
+    /**
+     * Marks a packet whose payload is compressed on the wire, see {@link LzCodec}
+     */
+    public static final int FLAG_COMPRESSED = 1 << 8;
+
     //            END OF HEADER FLAG SECTION
 
 
@@ -109,6 +121,9 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient ServerConnection conn;
+    // the pool of the payload and the size of the packet, if the payload is pooled
+    private transient PacketPayloadPool payloadPool;
+    private int payloadSize;
 
     public Packet() {
         raiseFlags(FLAG_4_0);
@@ -124,6 +139,48 @@ public final class Packet extends HeapData implements OutboundFrame {
         raiseFlags(FLAG_4_0);
     }
 
+    /**
+     * Creates a Packet with a payload allocated from the given pool, the
+     * payload can be longer than the packet.
+     */
+    Packet(byte[] payload, int payloadSize, int partitionId, PacketPayloadPool payloadPool) {
+        this(payload, partitionId);
+        this.payloadSize = payloadSize;
+        this.payloadPool = payloadPool;
+    }
+
+    /**
+     * Returns the payload to the {@link PacketPayloadPool} it was allocated
+     * from, if any. The content of the packet must not be accessed afterwards.
+     */
+    public void release() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool != null) {
+            byte[] pooledPayload = payload;
+            payloadPool = null;
+            payload = null;
+            pool.release(pooledPayload);
+        }
+    }
+
+    /**
+     * Returns the size of the packet, which can be smaller than the length
+     * of the {@link #toByteArray() payload} if the payload is pooled.
+     */
+    @Override
+    public int totalSize() {
+        return payloadPool != null ? payloadSize : super.totalSize();
+    }
+
+    @Override
+    public void copyTo(byte[] dest, int destPos) {
+        if (payloadPool != null) {
+            System.arraycopy(payload, 0, dest, destPos, payloadSize);
+        } else {
+            super.copyTo(dest, destPos);
+        }
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -287,6 +344,7 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
+                        + ", isResponseBatch=" + isFlagRaised(flags, FLAG_OP_RESPONSE_BATCH)
                         + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
             }
         },
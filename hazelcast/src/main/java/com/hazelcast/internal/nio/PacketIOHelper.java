@@ -38,12 +38,26 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
 public class PacketIOHelper {
     static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
+    private final PacketPayloadPool payloadPool;
     private int valueOffset;
     private int size;
     private boolean headerComplete;
     private char flags;
     private int partitionId;
     private byte[] payload;
+    private boolean pooled;
+
+    public PacketIOHelper() {
+        this(null);
+    }
+
+    /**
+     * @param payloadPool the pool the payloads of the read packets are
+     *                    allocated from, can be {@code null}
+     */
+    public PacketIOHelper(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -131,7 +145,9 @@ public class PacketIOHelper {
         }
 
         if (readValue(src)) {
-            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            Packet packet = pooled
+                    ? new Packet(payload, size, partitionId, payloadPool).resetFlagsTo(flags)
+                    : new Packet(payload, partitionId).resetFlagsTo(flags);
             reset();
             return packet;
         } else {
@@ -147,7 +163,8 @@ public class PacketIOHelper {
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            pooled = payloadPool != null && payloadPool.isPooled(flags, size);
+            payload = pooled ? payloadPool.allocate(size) : new byte[size];
         }
 
         if (size > 0) {
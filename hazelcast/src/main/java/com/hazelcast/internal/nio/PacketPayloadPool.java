@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.util.concurrent.ManyToManyConcurrentArrayQueue;
+
+import java.util.Queue;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.log2;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A pool of the byte arrays used as the payloads of the large inbound
+ * operation packets.
+ * <p>
+ * The payloads are allocated from size classes of powers of two, so the
+ * payload of a pooled {@link Packet} is usually longer than the packet, see
+ * {@link Packet#totalSize()}. Once the operation has been deserialized from
+ * the packet, the payload is returned to the pool by {@link Packet#release()},
+ * so the I/O threads don't allocate a new array for every large operation
+ * they read, e.g. for the puts and the backups of large values. A payload
+ * which isn't returned, e.g. because the packet is dropped, is just garbage
+ * collected.
+ * <p>
+ * Only the operation packets are pooled, the responses and the other packet
+ * types can be retained after they are dispatched.
+ * <p>
+ * The pool is thread-safe: the payloads are allocated by the I/O threads and
+ * released by the operation threads.
+ */
+public final class PacketPayloadPool {
+
+    private static final int MIN_CLASS_CAPACITY = 2;
+    // the flags of the operation packets whose payloads are never pooled
+    private static final int UNPOOLED_FLAGS = FLAG_OP_RESPONSE | FLAG_OP_CONTROL | FLAG_COMPRESSED;
+
+    private final int minClassShift;
+    private final int minSize;
+    private final int maxSize;
+    private final Queue<byte[]>[] classes;
+
+    /**
+     * @param minSize                  the minimum size of the pooled
+     *                                 payloads, the smaller payloads are
+     *                                 allocated as they are
+     * @param maxRetainedBytesPerClass the maximum number of bytes retained
+     *                                 by a single size class, it is also the
+     *                                 maximum size of a pooled payload
+     */
+    @SuppressWarnings("unchecked")
+    public PacketPayloadPool(int minSize, int maxRetainedBytesPerClass) {
+        checkPositive("minSize", minSize);
+        checkPositive("maxRetainedBytesPerClass", maxRetainedBytesPerClass);
+        this.minSize = minSize;
+        this.minClassShift = log2(nextPowerOfTwo(minSize));
+        int maxClassShift = log2(maxRetainedBytesPerClass);
+        this.maxSize = maxClassShift < minClassShift ? 0 : 1 << maxClassShift;
+
+        this.classes = new Queue[Math.max(maxClassShift - minClassShift + 1, 0)];
+        for (int i = 0; i < classes.length; i++) {
+            int classSize = 1 << (minClassShift + i);
+            int capacity = Integer.highestOneBit(Math.max(maxRetainedBytesPerClass / classSize, MIN_CLASS_CAPACITY));
+            classes[i] = new ManyToManyConcurrentArrayQueue<>(capacity);
+        }
+    }
+
+    /**
+     * Checks if the payload of the packet with the given flags and size is
+     * allocated from this pool.
+     *
+     * @param flags the flags of the packet
+     * @param size  the size of the payload of the packet
+     * @return {@code true} if the payload is pooled, {@code false} otherwise
+     */
+    public boolean isPooled(char flags, int size) {
+        return size >= minSize && size <= maxSize && isPooledType(flags);
+    }
+
+    private static boolean isPooledType(char flags) {
+        return Packet.Type.fromFlags(flags) == Packet.Type.OPERATION && (flags & UNPOOLED_FLAGS) == 0;
+    }
+
+    /**
+     * Allocates a payload from the pool. The size must be a pooled one,
+     * see {@link #isPooled(char, int)}.
+     *
+     * @param size the size of the payload
+     * @return the payload, which is at least {@code size} bytes long
+     */
+    public byte[] allocate(int size) {
+        assert size >= minSize && size <= maxSize : "size " + size + " is not pooled";
+
+        int shift = log2(nextPowerOfTwo(size));
+        byte[] payload = classes[shift - minClassShift].poll();
+        return payload != null ? payload : new byte[1 << shift];
+    }
+
+    /**
+     * Returns a payload allocated by {@link #allocate(int)} to the pool.
+     * The payload is dropped if its size class is full.
+     *
+     * @param payload the payload
+     */
+    public void release(byte[] payload) {
+        classes[log2(payload.length) - minClassShift].offer(payload);
+    }
+}
@@ -36,7 +36,9 @@ final class ByteArrayInputOutputFactory implements InputOutputFactory {
     public BufferObjectDataInput createInput(Data data,
                                              InternalSerializationService service,
                                              boolean isCompatibility) {
-        return new ByteArrayObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service, byteOrder, isCompatibility);
+        // the byte array of a pooled packet can be longer than the data
+        return new ByteArrayObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, data.totalSize(), service,
+                byteOrder, isCompatibility);
     }
 
     @Override
@@ -67,8 +67,17 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
                              InternalSerializationService service,
                              ByteOrder byteOrder,
                              boolean isCompatibility) {
+        this(data, offset, data != null ? data.length : 0, service, byteOrder, isCompatibility);
+    }
+
+    ByteArrayObjectDataInput(byte[] data,
+                             int offset,
+                             int size,
+                             InternalSerializationService service,
+                             ByteOrder byteOrder,
+                             boolean isCompatibility) {
         this.data = data;
-        this.size = data != null ? data.length : 0;
+        this.size = size;
         this.pos = offset;
         this.service = service;
         this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
@@ -77,8 +86,13 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
 
     @Override
     public void init(byte[] data, int offset) {
+        init(data, offset, data != null ? data.length : 0);
+    }
+
+    @Override
+    public void init(byte[] data, int offset, int size) {
         this.data = data;
-        this.size = data != null ? data.length : 0;
+        this.size = size;
         this.pos = offset;
     }
 
@@ -30,7 +30,9 @@ final class UnsafeInputOutputFactory implements InputOutputFactory {
     public BufferObjectDataInput createInput(Data data,
                                              InternalSerializationService service,
                                              boolean isCompatibility) {
-        return new UnsafeObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service, isCompatibility);
+        // the byte array of a pooled packet can be longer than the data
+        return new UnsafeObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, data.totalSize(), service,
+                isCompatibility);
     }
 
     @Override
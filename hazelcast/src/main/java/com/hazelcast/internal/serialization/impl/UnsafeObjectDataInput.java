@@ -73,6 +73,14 @@ class UnsafeObjectDataInput extends ByteArrayObjectDataInput {
         super(buffer, offset, service, ByteOrder.nativeOrder(), isCompatibility);
     }
 
+    UnsafeObjectDataInput(byte[] buffer,
+                          int offset,
+                          int size,
+                          InternalSerializationService service,
+                          boolean isCompatibility) {
+        super(buffer, offset, size, service, ByteOrder.nativeOrder(), isCompatibility);
+    }
+
     @Override
     public int read() {
         return (pos < size) ? MEM.getByte(data, ARRAY_BYTE_BASE_OFFSET + pos++) & 0xFF : -1;
@@ -69,7 +69,7 @@ public class BufferPoolImpl implements BufferPool {
         if (in == null) {
             in = serializationService.createObjectDataInput((byte[]) null);
         }
-        in.init(data.toByteArray(), HeapData.DATA_OFFSET);
+        in.init(data.toByteArray(), HeapData.DATA_OFFSET, data.totalSize());
         return in;
     }
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.nio.LzCodec;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnection;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+
+/**
+ * Compresses the payload of the {@link Packet packets} written to a single
+ * member connection, see {@link PacketEncoder}.
+ * <p>
+ * A compressed packet has the {@link Packet#FLAG_COMPRESSED} flag raised and
+ * its payload is the length of the original payload followed by the
+ * original payload compressed with the {@link LzCodec}. The packets are
+ * compressed only if they are at least of the configured size, so the small
+ * operations and responses don't pay the cost.
+ * <p>
+ * The payload is sent compressed only if it shrinks at least by {@value
+ * #MIN_SAVED_PERCENT}%. After {@value #POOR_RATIO_STREAK} packets in a row
+ * which don't shrink enough, for example because they contain already
+ * compressed data, the compression is bypassed for the next {@value
+ * #BYPASS_PACKETS} packets and then attempted again.
+ * <p>
+ * The packets are compressed only if the remote side is a member of this
+ * cluster and the cluster version is at least 5.3, the members of older
+ * versions and the connections to other clusters never receive a compressed
+ * packet. Every member decompresses the received packets regardless of its
+ * own configuration, see {@link PacketDecoder}.
+ * <p>
+ * The instances are used by the thread writing to the connection only.
+ */
+public final class PacketCompressor {
+
+    static final int MIN_SAVED_PERCENT = 10;
+    static final int POOR_RATIO_STREAK = 8;
+    static final int BYPASS_PACKETS = 256;
+
+    private static final int PERCENT = 100;
+    // the compressed payload has at most 255 times fewer bytes than the original one
+    private static final int MAX_RATIO = 255;
+
+    private final ServerConnection connection;
+    private final ClusterService clusterService;
+    private final int minSize;
+    private final LzCodec codec = new LzCodec();
+
+    private byte[] buffer = new byte[0];
+    private boolean remoteSupportsCompression;
+    private int poorRatioStreak;
+    private int packetsToBypass;
+
+    public PacketCompressor(ServerConnection connection, ClusterService clusterService, int minSize) {
+        this.connection = connection;
+        this.clusterService = clusterService;
+        this.minSize = Math.max(minSize, HEAP_DATA_OVERHEAD);
+    }
+
+    /**
+     * @return the compressed copy of the given packet or the packet itself
+     * if it shouldn't be or isn't worth compressing.
+     */
+    public Packet compress(Packet packet) {
+        if (packet.totalSize() < minSize || packet.isFlagRaised(FLAG_COMPRESSED) || !remoteSupportsCompression()) {
+            return packet;
+        }
+        if (packetsToBypass > 0) {
+            packetsToBypass--;
+            return packet;
+        }
+
+        byte[] payload = packet.toByteArray();
+        int limit = INT_SIZE_IN_BYTES + payload.length - payload.length * MIN_SAVED_PERCENT / PERCENT;
+        if (buffer.length < limit) {
+            buffer = new byte[limit];
+        }
+        int length = codec.compress(payload, 0, payload.length, buffer, INT_SIZE_IN_BYTES, limit);
+        if (length < 0) {
+            if (++poorRatioStreak == POOR_RATIO_STREAK) {
+                poorRatioStreak = 0;
+                packetsToBypass = BYPASS_PACKETS;
+            }
+            return packet;
+        }
+        poorRatioStreak = 0;
+
+        writeIntB(buffer, 0, payload.length);
+        Packet compressed = new Packet(Arrays.copyOf(buffer, INT_SIZE_IN_BYTES + length), packet.getPartitionId());
+        return compressed.resetFlagsTo(packet.getFlags() | FLAG_COMPRESSED);
+    }
+
+    /**
+     * Decompresses the given packet which has the {@link
+     * Packet#FLAG_COMPRESSED} flag raised.
+     *
+     * @return the packet with the original payload.
+     * @throws ProtocolException if the payload of the packet is malformed.
+     */
+    public static Packet decompress(Packet packet) {
+        byte[] payload = packet.toByteArray();
+        if (payload == null || payload.length <= INT_SIZE_IN_BYTES) {
+            throw new ProtocolException("Compressed packet without payload received");
+        }
+        int compressedLength = payload.length - INT_SIZE_IN_BYTES;
+        int length = readIntB(payload, 0);
+        if (length < HEAP_DATA_OVERHEAD || length > (long) compressedLength * MAX_RATIO) {
+            throw new ProtocolException("Compressed packet with invalid length " + length + " received");
+        }
+
+        byte[] decompressed = new byte[length];
+        try {
+            LzCodec.decompress(payload, INT_SIZE_IN_BYTES, compressedLength, decompressed, 0, length);
+        } catch (IllegalArgumentException e) {
+            throw new ProtocolException("Malformed compressed packet received: " + e.getMessage());
+        }
+        Packet result = new Packet(decompressed, packet.getPartitionId());
+        result.resetFlagsTo(packet.getFlags() & ~FLAG_COMPRESSED);
+        result.setConn(packet.getConn());
+        return result;
+    }
+
+    private boolean remoteSupportsCompression() {
+        if (!remoteSupportsCompression) {
+            // cached once true, the connection is closed when the member leaves
+            Address remoteAddress = connection.getRemoteAddress();
+            remoteSupportsCompression = remoteAddress != null
+                    && clusterService.getClusterVersion().isGreaterOrEqual(Versions.V5_3)
+                    && clusterService.getMember(remoteAddress) != null;
+        }
+        return remoteSupportsCompression;
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.server.ServerConnection;
 
 import java.nio.ByteBuffer;
@@ -28,6 +29,7 @@ import java.util.function.Consumer;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.internal.util.JVMUtil.upcast;
 
@@ -35,7 +37,8 @@ import static com.hazelcast.internal.util.JVMUtil.upcast;
  * The {@link InboundHandler} for member to member communication.
  *
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
- * each of the Packets is send to the destination.
+ * each of the Packets is send to the destination. The packets compressed by
+ * the remote {@link PacketEncoder} are decompressed before.
  *
  * @see Consumer
  * @see PacketEncoder
@@ -43,11 +46,20 @@ import static com.hazelcast.internal.util.JVMUtil.upcast;
 public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consumer<Packet>> {
 
     protected final ServerConnection connection;
-    private final PacketIOHelper packetReader = new PacketIOHelper();
+    private final PacketIOHelper packetReader;
 
     public PacketDecoder(ServerConnection connection, Consumer<Packet> dst) {
+        this(connection, dst, null);
+    }
+
+    /**
+     * @param payloadPool the pool the payloads of the operation packets are
+     *                    allocated from, can be {@code null}
+     */
+    public PacketDecoder(ServerConnection connection, Consumer<Packet> dst, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.dst = dst;
+        this.packetReader = new PacketIOHelper(payloadPool);
     }
 
     @Override
@@ -64,6 +76,9 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
                 if (packet == null) {
                     break;
                 }
+                if (packet.isFlagRaised(FLAG_COMPRESSED)) {
+                    packet = PacketCompressor.decompress(packet);
+                }
                 onPacketComplete(packet);
             }
 
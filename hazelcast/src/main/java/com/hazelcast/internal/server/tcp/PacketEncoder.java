@@ -21,6 +21,7 @@ import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
 
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.function.Supplier;
 
@@ -38,14 +39,26 @@ import static com.hazelcast.internal.util.JVMUtil.upcast;
  * multiple connections. The flyweight contains the actual 'position' state of
  * what has been written.
  *
+ * If a {@link PacketCompressor} is provided, the payload of the large packets
+ * is compressed before being written.
+ *
  * @see PacketDecoder
  */
 public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer> {
 
     private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final PacketCompressor compressor;
 
     private Packet packet;
 
+    public PacketEncoder() {
+        this(null);
+    }
+
+    public PacketEncoder(@Nullable PacketCompressor compressor) {
+        this.compressor = compressor;
+    }
+
     @Override
     public void handlerAdded() {
         initDstBuffer();
@@ -63,6 +76,9 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
                         // everything is processed, so we are done
                         return CLEAN;
                     }
+                    if (compressor != null) {
+                        packet = compressor.compress(packet);
+                    }
                 }
 
                 if (packetWriter.writeTo(packet, dst)) {
@@ -211,6 +211,14 @@ public class TcpServerConnectionManager extends TcpServerConnectionManagerBase
 
             plane.putConnection(remoteUuid, connection);
 
+            if (planeCount > 1 && !connection.isClient()) {
+                // the channels of a member pair are processed by different IO threads,
+                // so the partitions of different planes don't contend for the same thread.
+                // The hash is shifted so that adding the plane index can't overflow.
+                int affinityKey = (remoteUuid.hashCode() >>> 2) + plane.index;
+                server.getNetworking().setThreadAffinity(connection.getChannel(), affinityKey);
+            }
+
             serverContext.getEventService().executeEventCallback(new StripedRunnable() {
                 @Override
                 public void run() {
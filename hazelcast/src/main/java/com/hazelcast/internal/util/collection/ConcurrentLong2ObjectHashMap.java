@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.internal.util.QuickMath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjLongConsumer;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.collection.Hashing.longHash;
+
+/**
+ * A concurrent map specialised for {@code long} keys, which doesn't box the
+ * keys nor allocate a node per entry.
+ * <p>
+ * The map is split into a power-of-two number of segments selected by the
+ * lowest bits of the key, so keys coming from a sequence are spread evenly.
+ * Each segment is an open addressing hash table with linear probing guarded by
+ * a {@link StampedLock}: the updates take the write lock, the lookups are
+ * optimistic and take the read lock only if they raced with an update.
+ * <p>
+ * The segments never shrink, the map is meant for a bounded number of entries
+ * which are frequently added and removed, like the pending invocations.
+ * <p>
+ * NOTE: This map doesn't support {@code null} values.
+ *
+ * @param <V> values stored in the map
+ */
+public class ConcurrentLong2ObjectHashMap<V> {
+
+    private static final double LOAD_FACTOR = 0.6;
+    private static final int MIN_SEGMENT_CAPACITY = 8;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+
+    /**
+     * @param concurrencyLevel the expected number of concurrently updating
+     *                         threads, rounded up to the next power of two
+     *                         to give the number of segments
+     * @param initialCapacity  the expected number of entries
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLong2ObjectHashMap(int concurrencyLevel, int initialCapacity) {
+        checkPositive("concurrencyLevel", concurrencyLevel);
+        int segmentCount = QuickMath.nextPowerOfTwo(concurrencyLevel);
+        int segmentCapacity = QuickMath.nextPowerOfTwo(
+                Math.max(MIN_SEGMENT_CAPACITY, (int) (initialCapacity / segmentCount / LOAD_FACTOR)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Returns the value mapped to the given key or {@code null} if there is
+     * no mapping.
+     */
+    public V get(long key) {
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * Maps the given key to the given value.
+     *
+     * @return the previous value mapped to the key or {@code null}
+     */
+    public V put(long key, V value) {
+        checkNotNull(value, "value can't be null");
+        return segmentFor(key).put(key, value);
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @return the removed value or {@code null} if there was no mapping
+     */
+    public V remove(long key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * Returns the number of mappings. The value is exact only if the map isn't
+     * being concurrently updated.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a snapshot of the values. Every segment is copied atomically,
+     * but the map as a whole isn't.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach((value, key) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * Returns a snapshot of the mappings with the same consistency as {@link
+     * #values()}.
+     */
+    public Map<Long, V> toMap() {
+        Map<Long, V> map = new HashMap<>();
+        forEach((value, key) -> map.put(key, value));
+        return map;
+    }
+
+    /**
+     * Passes every mapping to the given action. The action is called while
+     * holding the read lock of a segment, so it must not update the map.
+     */
+    public void forEach(ObjLongConsumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment<V> segmentFor(long key) {
+        return segments[(int) key & segmentMask];
+    }
+
+    /**
+     * The keys and values of a segment, replaced as a whole on resize so an
+     * optimistic reader always sees arrays of the same length.
+     */
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table;
+        private volatile int size;
+        private int resizeThreshold;
+
+        Segment(int capacity) {
+            this.table = new Table(capacity);
+            this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        V get(long key) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(table, key);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private V find(Table table, long key) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = table.mask;
+            int index = longHash(key, mask);
+            // bounded, so a racy optimistic read can't loop forever
+            for (int i = 0; i <= mask; i++) {
+                Object value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[index] == key) {
+                    return (V) value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long key, V value) {
+            long stamp = lock.writeLock();
+            try {
+                Table table = this.table;
+                int index = longHash(key, table.mask);
+                Object oldValue;
+                while ((oldValue = table.values[index]) != null) {
+                    if (table.keys[index] == key) {
+                        table.values[index] = value;
+                        return (V) oldValue;
+                    }
+                    index = (index + 1) & table.mask;
+                }
+                table.keys[index] = key;
+                table.values[index] = value;
+                if (++size > resizeThreshold) {
+                    rehash(table);
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key) {
+            long stamp = lock.writeLock();
+            try {
+                Table table = this.table;
+                int index = longHash(key, table.mask);
+                Object value;
+                while ((value = table.values[index]) != null) {
+                    if (table.keys[index] == key) {
+                        table.values[index] = null;
+                        size--;
+                        compactChain(table, index);
+                        return (V) value;
+                    }
+                    index = (index + 1) & table.mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(ObjLongConsumer<? super V> action) {
+            long stamp = lock.readLock();
+            try {
+                Table table = this.table;
+                for (int i = 0; i < table.values.length; i++) {
+                    Object value = table.values[i];
+                    if (value != null) {
+                        action.accept((V) value, table.keys[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void rehash(Table oldTable) {
+            Table newTable = new Table(oldTable.keys.length * 2);
+            for (int i = 0; i < oldTable.values.length; i++) {
+                Object value = oldTable.values[i];
+                if (value == null) {
+                    continue;
+                }
+                long key = oldTable.keys[i];
+                int index = longHash(key, newTable.mask);
+                while (newTable.values[index] != null) {
+                    index = (index + 1) & newTable.mask;
+                }
+                newTable.keys[index] = key;
+                newTable.values[index] = value;
+            }
+            resizeThreshold = (int) (newTable.keys.length * LOAD_FACTOR);
+            table = newTable;
+        }
+
+        /**
+         * Moves the entries following the removed one back so no probe
+         * sequence is broken, see {@link Long2ObjectHashMap}.
+         */
+        private static void compactChain(Table table, int deleteIndex) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = table.mask;
+            int index = deleteIndex;
+            while (true) {
+                index = (index + 1) & mask;
+                if (values[index] == null) {
+                    return;
+                }
+                int hash = longHash(keys[index], mask);
+                if ((index < hash && (hash <= deleteIndex || deleteIndex <= index))
+                        || (hash <= deleteIndex && deleteIndex <= index)) {
+                    keys[deleteIndex] = keys[index];
+                    values[deleteIndex] = values[index];
+                    values[index] = null;
+                    deleteIndex = index;
+                }
+            }
+        }
+    }
+}
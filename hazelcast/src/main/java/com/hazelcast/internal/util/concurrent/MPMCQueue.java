@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * Bounded multi producer multi consumer blocking queue. The items are stored
+ * in a {@link ManyToManyConcurrentArrayQueue}, so neither offering nor taking
+ * an item allocates or takes a lock.
+ * <p>
+ * A consumer finding the queue empty idles using the configured {@link
+ * IdleStrategy} until the strategy reports it has reached its longest pause,
+ * then it parks. Offering an item unparks one of the parked consumers, if
+ * there is any. Without an idle strategy the consumers park right away.
+ * <p>
+ * A producer finding the queue full fails to {@link #offer(Object) offer}
+ * the item, the {@link #put(Object) put} backs off until there is room for
+ * the item.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public final class MPMCQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final IdleStrategy PRODUCER_IDLE_STRATEGY
+            = new BackoffIdleStrategy(0, 0, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(1));
+
+    private final ManyToManyConcurrentArrayQueue<E> queue;
+    private final ConcurrentLinkedQueue<Thread> parkedConsumers = new ConcurrentLinkedQueue<>();
+    private final IdleStrategy idleStrategy;
+
+    /**
+     * Creates a new {@link MPMCQueue}.
+     *
+     * @param capacity     the capacity of the queue, rounded up to the next
+     *                     power of two.
+     * @param idleStrategy the idleStrategy of the consumers. If null, the
+     *                     consumers park as soon as the queue is empty.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public MPMCQueue(int capacity, IdleStrategy idleStrategy) {
+        this.queue = new ManyToManyConcurrentArrayQueue<>(Math.max(2, checkPositive("capacity", capacity)));
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Returns the capacity of this queue.
+     */
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    @Override
+    public boolean offer(E item) {
+        checkNotNull(item, "item can't be null");
+
+        if (!queue.offer(item)) {
+            return false;
+        }
+        unparkConsumer();
+        return true;
+    }
+
+    @Override
+    public void put(E item) throws InterruptedException {
+        offer(item, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean offer(E item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(item, "item can't be null");
+
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (long iteration = 0; !queue.offer(item); iteration++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            PRODUCER_IDLE_STRATEGY.idle(iteration);
+        }
+        unparkConsumer();
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return awaitItem(false, 0);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        return awaitItem(timeoutNanos != Long.MAX_VALUE, timeoutNanos);
+    }
+
+    @Override
+    public E peek() {
+        return queue.peek();
+    }
+
+    private E awaitItem(boolean timed, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        boolean idleExhausted = idleStrategy == null;
+        for (long iteration = 0; ; iteration++) {
+            E item = queue.poll();
+            if (item != null) {
+                return item;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (timed && remainingNanos <= 0) {
+                return null;
+            }
+            if (!idleExhausted) {
+                idleExhausted = idleStrategy.idle(iteration);
+                continue;
+            }
+
+            Thread consumer = Thread.currentThread();
+            parkedConsumers.add(consumer);
+            // a producer advances the tail before it looks for a parked consumer,
+            // so an item offered concurrently is either seen here or the producer
+            // unparks one of the registered consumers
+            if (queue.isEmpty()) {
+                if (timed) {
+                    parkNanos(this, remainingNanos);
+                } else {
+                    park(this);
+                }
+            }
+            parkedConsumers.remove(consumer);
+        }
+    }
+
+    private void unparkConsumer() {
+        Thread consumer = parkedConsumers.poll();
+        if (consumer != null) {
+            unpark(consumer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * Best effort implementation.
+     */
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return queue.drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        return queue.drainTo(c, maxElements);
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * The iterator is weakly consistent and meant for the diagnostics only.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return queue.iterator();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Many producers to many consumers concurrent queue backed by an array.
+ * Adapted from the Agrona project, based on the bounded MPMC queue of Dmitry
+ * Vyukov.
+ * <p>
+ * Every slot carries a sequence which tells the producers and the consumers
+ * whether the slot may be written or read in the current lap, so neither the
+ * offer nor the poll allocates or takes a lock. The {@link #iterator()} is
+ * weakly consistent and meant for the diagnostics only.
+ *
+ * @param <E> type of the elements stored in the queue.
+ */
+public class ManyToManyConcurrentArrayQueue<E> extends AbstractConcurrentArrayQueue<E> {
+
+    private final AtomicLongArray sequences;
+
+    public ManyToManyConcurrentArrayQueue(int requestedCapacity) {
+        super(requestedCapacity);
+        if (capacity < 2) {
+            throw new IllegalArgumentException("requestedCapacity=" + requestedCapacity
+                    + ", the capacity must be at least 2");
+        }
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.lazySet(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        assert e != null : "attempt to offer a null element";
+
+        final AtomicLongArray sequences = this.sequences;
+        final long mask = capacity - 1;
+        for (; ; ) {
+            final long currentTail = tail;
+            final int arrayIndex = seqToArrayIndex(currentTail, mask);
+            final long sequence = sequences.get(arrayIndex);
+            if (sequence < currentTail) {
+                return false;
+            }
+            if (sequence == currentTail && TAIL.compareAndSet(this, currentTail, currentTail + 1)) {
+                buffer.lazySet(arrayIndex, e);
+                sequences.lazySet(arrayIndex, currentTail + 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        final AtomicLongArray sequences = this.sequences;
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final long mask = capacity - 1;
+        for (; ; ) {
+            final long currentHead = head;
+            final int arrayIndex = seqToArrayIndex(currentHead, mask);
+            final long sequence = sequences.get(arrayIndex);
+            final long attemptedHead = currentHead + 1;
+            if (sequence < attemptedHead) {
+                return null;
+            }
+            if (sequence == attemptedHead && HEAD.compareAndSet(this, currentHead, attemptedHead)) {
+                final E item = buffer.get(arrayIndex);
+                buffer.lazySet(arrayIndex, null);
+                sequences.lazySet(arrayIndex, currentHead + mask + 1);
+                return item;
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int drain(Predicate<? super E> itemHandler) {
+        int count = 0;
+        for (E item; (item = poll()) != null; ) {
+            count++;
+            if (!itemHandler.test(item)) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target, int limit) {
+        int count = 0;
+        for (E item; count < limit && (item = poll()) != null; ) {
+            target.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final long mask = capacity - 1;
+        List<E> items = new ArrayList<>();
+        for (long i = head, limit = Math.min(tail, head + capacity); i < limit; i++) {
+            E item = buffer.get(seqToArrayIndex(i, mask));
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items.iterator();
+    }
+}
@@ -34,5 +34,18 @@ public final class JobConfigArguments {
      */
     public static final String KEY_SQL_UNBOUNDED = "__sql.queryUnbounded";
 
+    /**
+     * The key under which the CPU share of the job's cooperative tasklets is
+     * stored in {@link JobConfig#getArgument(String)}. Contains a positive
+     * {@code Integer} value, the default is {@code 1}. A job with share
+     * {@code 4} can use 4 times as much time of a cooperative thread per
+     * round as a job with share {@code 1}. It only has effect when the
+     * adaptive scheduling of the cooperative tasklets is enabled, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED}.
+     *
+     * @since 5.3
+     */
+    public static final String KEY_COOPERATIVE_CPU_SHARE = "jet.cooperative.cpuShare";
+
     private JobConfigArguments() { }
 }
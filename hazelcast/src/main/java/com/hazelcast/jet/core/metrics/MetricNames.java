@@ -68,6 +68,19 @@ public final class MetricNames {
      */
     public static final String QUEUES_CAPACITY = "queuesCapacity";
 
+    /**
+     * Tracks the total time in nanoseconds a particular {@link Vertex} on a
+     * particular {@link Processor} spent in the calls of its cooperative
+     * worker thread. They both can be identified based on the {@link
+     * MetricTags#VERTEX} and {@link MetricTags#PROCESSOR} tags of the metric.
+     * It's only measured when the adaptive scheduling of the cooperative
+     * tasklets is enabled, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED}.
+     *
+     * @since 5.3
+     */
+    public static final String BUSY_TIME = "busyTime";
+
     /**
      * Counts the data items emitted on outgoing {@link Edge}s of particular
      * {@link Vertex} instances running on various {@link Processor}s.
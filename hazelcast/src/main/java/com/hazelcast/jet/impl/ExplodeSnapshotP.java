@@ -24,30 +24,71 @@ import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.impl.execution.BroadcastEntry;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataTombstone;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
 
 import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 
+/**
+ * Explodes the chunks of a snapshot to the entries saved by the processors.
+ * <p>
+ * When restoring an incremental snapshot, the processor receives the chunks
+ * of the incremental snapshot first and the chunks of its base snapshot
+ * after them, both partitioned by the partition of the chunk, so the chunks
+ * with the same key meet in the same processor. The entries of the base
+ * snapshot changed or removed in the incremental snapshot are skipped, as
+ * well as its broadcast entries, which are contained in every incremental
+ * snapshot.
+ */
 public class ExplodeSnapshotP extends AbstractProcessor {
 
-    private final Map<String, FlatMapper<byte[], Object>> vertexToFlatMapper = new HashMap<>();
+    private final Map<String, FlatMapper<Entry<SnapshotDataKey, byte[]>, Object>> vertexToFlatMapper = new HashMap<>();
     private final long expectedSnapshotId;
+    private final long baseSnapshotId;
     private InternalSerializationService serializationService;
 
     ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId) {
+        this(vertexToOrdinal, expectedSnapshotId, NO_SNAPSHOT);
+    }
+
+    /**
+     * @param baseSnapshotId the ID of the base snapshot, if the expected
+     *                       snapshot is incremental, {@link
+     *                       JobExecutionRecord#NO_SNAPSHOT} otherwise
+     */
+    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId, long baseSnapshotId) {
         this.expectedSnapshotId = expectedSnapshotId;
+        this.baseSnapshotId = baseSnapshotId;
         for (Entry<String, Integer> en : vertexToOrdinal.entrySet()) {
-            Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(), this::traverser));
+            // the serialized keys of the entries of the incremental snapshot
+            Set<ByteBuffer> changedKeys = new HashSet<>();
+            Object oldValue = vertexToFlatMapper.put(en.getKey(),
+                    flatMapper(en.getValue(), chunk -> traverser(chunk, changedKeys)));
             assert oldValue == null : "Duplicate ordinal: " + en.getValue();
         }
     }
 
+    /**
+     * Returns the partitioning key of an entry of a snapshot map, it's the
+     * partition key of the chunk, so that the chunks stored in the same
+     * partition of different maps are routed to the same processor.
+     */
+    static Object chunkPartitionKey(Entry<Object, Object> mapEntry) {
+        Object key = mapEntry.getKey();
+        return key instanceof SnapshotDataKey ? ((SnapshotDataKey) key).getPartitionKey() : key;
+    }
+
     @Override
     protected void init(@Nonnull Context context) {
         serializationService = ((ProcCtx) context).serializationService();
@@ -58,30 +99,51 @@ public class ExplodeSnapshotP extends AbstractProcessor {
     On the other hand, the returned object doesn't hold any resources, so relying on the GC is sufficient.
     See #19799 */
     @SuppressWarnings("squid:S2095")
-    private Traverser<Object> traverser(byte[] data) {
+    private Traverser<Object> traverser(Entry<SnapshotDataKey, byte[]> chunk, Set<ByteBuffer> changedKeys) {
+        byte[] data = chunk.getValue();
         BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+        boolean incremental = baseSnapshotId != NO_SNAPSHOT;
+        boolean isBaseChunk = incremental && chunk.getKey().snapshotId() == baseSnapshotId;
 
         return () -> uncheckCall(() -> {
-            Object key = serializationService.readObject(in, true);
-            if (key == SnapshotDataValueTerminator.INSTANCE) {
-                return null;
+            for (;;) {
+                int keyOffset = in.position();
+                Object key = serializationService.readObject(in, true);
+                if (key == SnapshotDataValueTerminator.INSTANCE) {
+                    return null;
+                }
+                int keyLength = in.position() - keyOffset;
+                Object value = serializationService.readObject(in, true);
+                if (key instanceof BroadcastKey) {
+                    if (isBaseChunk) {
+                        continue;
+                    }
+                    return new BroadcastEntry(key, value);
+                }
+                if (isBaseChunk) {
+                    if (changedKeys.contains(ByteBuffer.wrap(data, keyOffset, keyLength))) {
+                        continue;
+                    }
+                } else if (incremental) {
+                    changedKeys.add(ByteBuffer.wrap(Arrays.copyOfRange(data, keyOffset, keyOffset + keyLength)));
+                    if (value == SnapshotDataTombstone.INSTANCE) {
+                        continue;
+                    }
+                }
+                return entry(key, value);
             }
-            Object value = serializationService.readObject(in, true);
-            return key instanceof BroadcastKey
-                    ? new BroadcastEntry(key, value)
-                    : entry(key, value);
         });
     }
 
     @Override
-    protected boolean tryProcess0(@Nonnull Object item) {
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         if (((Entry) item).getKey() instanceof SnapshotValidationRecord.SnapshotValidationKey) {
             // ignore the validation record
             return true;
         }
         Entry<SnapshotDataKey, byte[]> castItem = (Entry<SnapshotDataKey, byte[]>) item;
         String vertexName = castItem.getKey().vertexName();
-        FlatMapper<byte[], Object> flatMapper = vertexToFlatMapper.get(vertexName);
+        FlatMapper<Entry<SnapshotDataKey, byte[]>, Object> flatMapper = vertexToFlatMapper.get(vertexName);
         if (flatMapper == null) {
             if (!vertexToFlatMapper.containsKey(vertexName)) {
                 // log only once
@@ -91,12 +153,13 @@ public class ExplodeSnapshotP extends AbstractProcessor {
             return true;
         }
         long snapshotId = castItem.getKey().snapshotId();
-        if (snapshotId != expectedSnapshotId) {
+        if (snapshotId != expectedSnapshotId && (baseSnapshotId == NO_SNAPSHOT || snapshotId != baseSnapshotId)) {
             getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
-                    + expectedSnapshotId + ", found=" + snapshotId);
+                    + expectedSnapshotId + (baseSnapshotId == NO_SNAPSHOT ? "" : " or " + baseSnapshotId)
+                    + ", found=" + snapshotId);
             return true;
         }
-        return flatMapper.tryProcess(castItem.getValue());
+        return flatMapper.tryProcess(castItem);
     }
 
     @Override
@@ -16,12 +16,14 @@
 
 package com.hazelcast.jet.impl;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.jet.core.JobSuspensionCause;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.annotation.Nullable;
@@ -40,9 +42,17 @@ import static com.hazelcast.jet.impl.util.Util.toLocalTime;
  * It should be updated only through MasterContext class, where multiple
  * updates are synchronized.
  */
-public class JobExecutionRecord implements IdentifiedDataSerializable {
+public class JobExecutionRecord implements IdentifiedDataSerializable, Versioned {
 
     public static final int NO_SNAPSHOT = -1;
+
+    /**
+     * The data map index of the first map of the incremental snapshots, the
+     * incremental snapshots are written alternately to this map and the next
+     * one, the full snapshots to the maps 0 and 1.
+     */
+    private static final int FIRST_DELTA_DATA_MAP_INDEX = 2;
+
     /**
      * Timestamp to order async updates to the JobRecord. {@link
      * JobRepository#writeJobExecutionRecord}.
@@ -55,6 +65,14 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
     private volatile long snapshotId = NO_SNAPSHOT;
     private volatile int dataMapIndex = -1;
 
+    /**
+     * The ID and the data map index of the full snapshot the current
+     * successful snapshot is based on, if it's an incremental snapshot. {@link
+     * #NO_SNAPSHOT} and -1 otherwise.
+     */
+    private volatile long baseSnapshotId = NO_SNAPSHOT;
+    private volatile int baseDataMapIndex = -1;
+
     /**
      * ID of the most recently attempted snapshot (if no snapshot is in progress)
      * or id of current snapshot in progress.
@@ -81,6 +99,13 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
      */
     private transient volatile String ongoingExportedSnapshotName;
 
+    /**
+     * True if the current snapshot being written is an incremental snapshot
+     * based on the current base snapshot. Transient for the same reason as
+     * {@link #ongoingExportedSnapshotName}.
+     */
+    private transient volatile boolean ongoingSnapshotIncremental;
+
     private volatile String exportedSnapshotName;
     @Nullable
     private volatile String lastSnapshotFailure;
@@ -143,13 +168,24 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         executed = true;
     }
 
+    public void startNewSnapshot(String exportedSnapshotName) {
+        startNewSnapshot(exportedSnapshotName, false);
+    }
+
+    /**
+     * Starts a new snapshot. If {@code incremental} is true, the snapshot
+     * contains only the changes since the {@linkplain #currentBaseSnapshotId()
+     * current base snapshot}.
+     */
     @SuppressWarnings("NonAtomicOperationOnVolatileField")
     @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
             justification = "all updates to ongoingSnapshotId are synchronized")
-    public void startNewSnapshot(String exportedSnapshotName) {
+    public void startNewSnapshot(String exportedSnapshotName, boolean incremental) {
+        assert !incremental || exportedSnapshotName == null : "an exported snapshot can't be incremental";
         ongoingSnapshotId++;
         ongoingSnapshotStartTime = Clock.currentTimeMillis();
         this.ongoingExportedSnapshotName = exportedSnapshotName;
+        this.ongoingSnapshotIncremental = incremental;
     }
 
     public SnapshotStats ongoingSnapshotDone(
@@ -166,7 +202,17 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
 
             if (!isExport) {
                 // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one
-                dataMapIndex = ongoingDataMapIndex();
+                if (ongoingSnapshotIncremental) {
+                    long newBaseSnapshotId = currentBaseSnapshotId();
+                    int newBaseDataMapIndex = currentBaseDataMapIndex();
+                    dataMapIndex = ongoingDeltaDataMapIndex();
+                    baseSnapshotId = newBaseSnapshotId;
+                    baseDataMapIndex = newBaseDataMapIndex;
+                } else {
+                    dataMapIndex = ongoingDataMapIndex();
+                    baseSnapshotId = NO_SNAPSHOT;
+                    baseDataMapIndex = -1;
+                }
             }
 
             // for snapshots other than export-only remember the map to which the snapshot has been written
@@ -178,6 +224,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             }
         }
         ongoingExportedSnapshotName = null;
+        ongoingSnapshotIncremental = false;
         ongoingSnapshotStartTime = Long.MIN_VALUE;
         return res;
     }
@@ -191,23 +238,68 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
     }
 
     /**
-     * The data map index of current successful snapshot (0 or 1) or -1, if
-     * there's no successful snapshot.
+     * The data map index of current successful snapshot (0 or 1 for a full
+     * snapshot, 2 or 3 for an incremental one) or -1, if there's no
+     * successful snapshot.
      */
     public int dataMapIndex() {
         return dataMapIndex;
     }
 
     /**
-     * Returns the index of the data map into which the new snapshot will be
-     * written.
+     * The ID of the full snapshot the current successful snapshot is based
+     * on, if it's an incremental snapshot, {@link #NO_SNAPSHOT} otherwise.
+     */
+    public long baseSnapshotId() {
+        return baseSnapshotId;
+    }
+
+    /**
+     * The data map index of the full snapshot the current successful snapshot
+     * is based on (0 or 1), if it's an incremental snapshot, -1 otherwise.
+     */
+    public int baseDataMapIndex() {
+        return baseDataMapIndex;
+    }
+
+    /**
+     * Returns the ID of the last successful full snapshot, which is the base
+     * of the new incremental snapshot.
+     */
+    long currentBaseSnapshotId() {
+        return baseSnapshotId != NO_SNAPSHOT ? baseSnapshotId : snapshotId;
+    }
+
+    private int currentBaseDataMapIndex() {
+        return dataMapIndex >= FIRST_DELTA_DATA_MAP_INDEX ? baseDataMapIndex : dataMapIndex;
+    }
+
+    /**
+     * Returns the index of the data map into which the new full snapshot will
+     * be written. It's never the map of the current base snapshot.
      */
     int ongoingDataMapIndex() {
-        assert dataMapIndex == 0 // we'll return 1
-                || dataMapIndex == 1 // we'll return 0
-                || dataMapIndex == -1 // we'll return 0
-                : "dataMapIndex=" + dataMapIndex;
-        return (dataMapIndex + 1) & 1;
+        int currentBaseDataMapIndex = currentBaseDataMapIndex();
+        assert currentBaseDataMapIndex == 0 // we'll return 1
+                || currentBaseDataMapIndex == 1 // we'll return 0
+                || currentBaseDataMapIndex == -1 // we'll return 0
+                : "dataMapIndex=" + dataMapIndex + ", baseDataMapIndex=" + baseDataMapIndex;
+        return (currentBaseDataMapIndex + 1) & 1;
+    }
+
+    /**
+     * Returns the index of the data map into which the new incremental
+     * snapshot will be written. It's never the map of the current snapshot.
+     */
+    int ongoingDeltaDataMapIndex() {
+        return dataMapIndex == FIRST_DELTA_DATA_MAP_INDEX ? FIRST_DELTA_DATA_MAP_INDEX + 1 : FIRST_DELTA_DATA_MAP_INDEX;
+    }
+
+    /**
+     * Returns the indices of both data maps of the incremental snapshots.
+     */
+    static int[] deltaDataMapIndices() {
+        return new int[]{FIRST_DELTA_DATA_MAP_INDEX, FIRST_DELTA_DATA_MAP_INDEX + 1};
     }
 
     /**
@@ -283,6 +375,28 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
                 : snapshotDataMapName(getJobId(), dataMapIndex());
     }
 
+    /**
+     * Returns true if the last successful snapshot is an incremental one,
+     * which has to be restored together with the {@linkplain
+     * #successfulBaseSnapshotDataMapName() base snapshot}.
+     */
+    boolean isSuccessfulSnapshotIncremental() {
+        return exportedSnapshotName() == null && baseSnapshotId != NO_SNAPSHOT;
+    }
+
+    /**
+     * @return full map name (with prefix) where the base of the last
+     * successful incremental snapshot is stored
+     * @throws IllegalStateException when the last successful snapshot isn't
+     * incremental
+     */
+    String successfulBaseSnapshotDataMapName() {
+        if (!isSuccessfulSnapshotIncremental()) {
+            throw new IllegalStateException("No successful incremental snapshot");
+        }
+        return snapshotDataMapName(getJobId(), baseDataMapIndex);
+    }
+
     @Override
     public int getFactoryId() {
         return JetInitDataSerializerHook.FACTORY_ID;
@@ -308,6 +422,10 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         out.writeObject(suspensionCause);
         out.writeBoolean(executed);
         out.writeLong(timestamp.get());
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_3)) {
+            out.writeLong(baseSnapshotId);
+            out.writeInt(baseDataMapIndex);
+        }
     }
 
     @Override
@@ -324,6 +442,10 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         suspensionCause = in.readObject();
         executed = in.readBoolean();
         timestamp.set(in.readLong());
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_3)) {
+            baseSnapshotId = in.readLong();
+            baseDataMapIndex = in.readInt();
+        }
     }
 
     @Override
@@ -336,6 +458,8 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
                 ", executed=" + executed +
                 ", dataMapIndex=" + dataMapIndex +
                 ", snapshotId=" + snapshotId +
+                ", baseDataMapIndex=" + baseDataMapIndex +
+                ", baseSnapshotId=" + baseSnapshotId +
                 ", ongoingSnapshotId=" + ongoingSnapshotId +
                 ", ongoingSnapshotStartTime=" + toLocalTime(ongoingSnapshotStartTime) +
                 ", snapshotStats=" + snapshotStats +
@@ -89,6 +89,7 @@ import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
 import static com.hazelcast.jet.core.JobStatus.FAILED;
 import static com.hazelcast.jet.core.JobStatus.NOT_RUNNING;
@@ -276,7 +277,10 @@ public class MasterJobContext {
                               : null;
                   }
 
-                  if (snapshotMapName != null) {
+                  if (snapshotId >= 0 && jobExecRec.isSuccessfulSnapshotIncremental()) {
+                      rewriteDagWithIncrementalSnapshotRestore(dag, snapshotId, snapshotMapName,
+                              jobExecRec.baseSnapshotId(), jobExecRec.successfulBaseSnapshotDataMapName());
+                  } else if (snapshotMapName != null) {
                       rewriteDagWithSnapshotRestore(dag, snapshotId, snapshotMapName, snapshotName);
                   } else {
                       logger.info("Didn't find any snapshot to restore for " + mc.jobIdString());
@@ -493,7 +497,42 @@ public class MasterJobContext {
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
                 () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
         dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+        addSnapshotRestoreEdges(dag, originalVertices, explodeVertex, vertexToOrdinal);
+    }
+
+    private void rewriteDagWithIncrementalSnapshotRestore(
+            DAG dag, long snapshotId, String mapName, long baseSnapshotId, String baseMapName
+    ) {
+        validateSnapshot(snapshotId, mc.nodeEngine().getHazelcastInstance().getMap(mapName), mc.jobIdString(), null);
+        validateSnapshot(baseSnapshotId, mc.nodeEngine().getHazelcastInstance().getMap(baseMapName),
+                mc.jobIdString(), null);
+        logger.info(String.format(
+                "About to restore the state of %s from incremental snapshot %d, mapName = %s, "
+                        + "based on snapshot %d, mapName = %s",
+                mc.jobIdString(), snapshotId, mapName, baseSnapshotId, baseMapName));
+        List<Vertex> originalVertices = new ArrayList<>();
+        dag.iterator().forEachRemaining(originalVertices::add);
 
+        Map<String, Integer> vertexToOrdinal = new HashMap<>();
+        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        Vertex readBaseSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "readBase", readMapP(baseMapName));
+        Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
+                () -> new ExplodeSnapshotP(vertexToOrdinal, snapshotId, baseSnapshotId));
+        // The chunks with the same key are in the same partition of both maps, they
+        // meet in the same processor, which must see all the changes before the base.
+        dag.edge(between(readSnapshotVertex, explodeVertex)
+                .distributed()
+                .partitioned(ExplodeSnapshotP::chunkPartitionKey)
+                .priority(-1));
+        dag.edge(from(readBaseSnapshotVertex).to(explodeVertex, 1)
+                .distributed()
+                .partitioned(ExplodeSnapshotP::chunkPartitionKey));
+        addSnapshotRestoreEdges(dag, originalVertices, explodeVertex, vertexToOrdinal);
+    }
+
+    private static void addSnapshotRestoreEdges(
+            DAG dag, List<Vertex> originalVertices, Vertex explodeVertex, Map<String, Integer> vertexToOrdinal
+    ) {
         int index = 0;
         // add the edges
         for (Vertex userVertex : originalVertices) {
@@ -18,6 +18,7 @@ package com.hazelcast.jet.impl;
 
 import com.hazelcast.core.IndeterminateOperationStateException;
 import com.hazelcast.internal.cluster.MemberInfo;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.JobExecutionRecord.SnapshotStats;
 import com.hazelcast.jet.impl.exception.ExecutionNotFoundException;
@@ -30,6 +31,8 @@ import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -77,6 +80,30 @@ class MasterSnapshotContext {
     @Nonnull
     private volatile CompletableFuture<Void> terminalSnapshotFuture = completedFuture(null);
 
+    /**
+     * True if the automatic snapshots are incremental, see {@link
+     * ClusterProperty#JET_SNAPSHOT_INCREMENTAL_ENABLED}.
+     */
+    private final boolean incrementalSnapshots;
+    private final int maxDeltaSnapshots;
+
+    /**
+     * The execution in which the last base snapshot succeeded, 0 if the last
+     * base snapshot failed. The snapshot writers of the processors keep the
+     * state of the base snapshot, so the incremental snapshots can be based
+     * only on a snapshot of the current execution.
+     * <p>
+     * Accessed only in synchronized code, as well as {@link
+     * #deltaSnapshotCount}.
+     */
+    private long baseSnapshotExecutionId;
+
+    /**
+     * The number of the successful incremental snapshots since the last base
+     * snapshot.
+     */
+    private int deltaSnapshotCount;
+
     private class SnapshotRequest {
         /**
          * User-specified name of the snapshot or null, if no name is specified
@@ -93,6 +120,16 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot writers track the changes for the incremental
+         * snapshots. Decided when the snapshot is started.
+         */
+        boolean incrementalEnabled;
+        /**
+         * If true, the snapshot contains only the changes since the last base
+         * snapshot. Decided when the snapshot is started.
+         */
+        boolean incremental;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -112,12 +149,19 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return incrementalEnabled
+                    ? SnapshotFlags.createIncremental(isTerminal, incremental)
+                    : SnapshotFlags.create(isTerminal, isExport());
         }
 
         public String mapName() {
-            return isExport() ? exportedSnapshotMapName(snapshotName)
-                    : snapshotDataMapName(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
+            if (isExport()) {
+                return exportedSnapshotMapName(snapshotName);
+            }
+            JobExecutionRecord jobExecutionRecord = mc.jobExecutionRecord();
+            return snapshotDataMapName(mc.jobId(), incremental
+                    ? jobExecutionRecord.ongoingDeltaDataMapIndex()
+                    : jobExecutionRecord.ongoingDataMapIndex());
         }
 
         /**
@@ -146,6 +190,20 @@ class MasterSnapshotContext {
     MasterSnapshotContext(MasterContext masterContext, ILogger logger) {
         mc = masterContext;
         this.logger = logger;
+        HazelcastProperties properties = mc.nodeEngine().getProperties();
+        incrementalSnapshots = properties.getBoolean(ClusterProperty.JET_SNAPSHOT_INCREMENTAL_ENABLED);
+        maxDeltaSnapshots = properties.getInteger(ClusterProperty.JET_SNAPSHOT_INCREMENTAL_MAX_DELTAS);
+    }
+
+    /**
+     * Returns true if the automatic snapshots should be incremental. Members
+     * older than 5.3 write the full state without tombstones to any data map,
+     * so the incremental snapshots are used only after the cluster version is
+     * upgraded.
+     */
+    private boolean isIncrementalSnapshotsEnabled() {
+        return incrementalSnapshots
+                && mc.nodeEngine().getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_3);
     }
 
     @SuppressWarnings("SameParameterValue") // used by jet-enterprise
@@ -202,8 +260,13 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
-                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
                 localExecutionId = mc.executionId();
+                requestedSnapshot.incrementalEnabled = isIncrementalSnapshotsEnabled()
+                        && !requestedSnapshot.isExport();
+                requestedSnapshot.incremental = requestedSnapshot.incrementalEnabled
+                        && baseSnapshotExecutionId == localExecutionId
+                        && deltaSnapshotCount < maxDeltaSnapshots;
+                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName, requestedSnapshot.incremental);
             } finally {
                 mc.unlock();
             }
@@ -368,6 +431,15 @@ class MasterSnapshotContext {
                 stats = mc.jobExecutionRecord().ongoingSnapshotDone(
                         mergedResult.getNumBytes(), mergedResult.getNumKeys(), mergedResult.getNumChunks(),
                         mergedResult.getError(), requestedSnapshot.isTerminal);
+                if (requestedSnapshot.incrementalEnabled) {
+                    if (!requestedSnapshot.incremental) {
+                        // the writers replaced the state of the previous base snapshot even if this one failed
+                        baseSnapshotExecutionId = isSuccess ? executionId : 0;
+                        deltaSnapshotCount = 0;
+                    } else if (isSuccess) {
+                        deltaSnapshotCount++;
+                    }
+                }
 
                 // There is no need to restart job in case of a failed snapshot:
                 // - ongoingSnapshotId is safe in IMap, because it was written at the beginning
@@ -428,7 +500,18 @@ class MasterSnapshotContext {
                 // It may turn out that this will be a correct snapshot after all.
                 if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport()) {
                     // clear IMap for next automatic snapshot early to decrease memory usage
-                    mc.jobRepository().clearSnapshotData(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
+                    JobExecutionRecord jobExecutionRecord = mc.jobExecutionRecord();
+                    if (requestedSnapshot.incremental) {
+                        // the base snapshot is still needed, only the previous incremental one is obsolete
+                        mc.jobRepository().clearSnapshotData(mc.jobId(), jobExecutionRecord.ongoingDeltaDataMapIndex());
+                    } else {
+                        mc.jobRepository().clearSnapshotData(mc.jobId(), jobExecutionRecord.ongoingDataMapIndex());
+                        if (requestedSnapshot.incrementalEnabled) {
+                            for (int deltaDataMapIndex : JobExecutionRecord.deltaDataMapIndices()) {
+                                mc.jobRepository().clearSnapshotData(mc.jobId(), deltaDataMapIndex);
+                            }
+                        }
+                    }
                 }
             } finally {
                 mc.unlock();
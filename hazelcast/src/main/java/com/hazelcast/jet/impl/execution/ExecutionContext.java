@@ -27,6 +27,7 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.metrics.MetricTags;
@@ -66,6 +67,7 @@ import java.util.function.Function;
 
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_COOPERATIVE_CPU_SHARE;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_COMPLETION_TIME;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_START_TIME;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
@@ -121,6 +123,7 @@ public class ExecutionContext implements DynamicMetricsProvider {
     private final JetServiceBackend jetServiceBackend;
     private volatile SnapshotContext snapshotContext;
     private JobConfig jobConfig;
+    private int cooperativeCpuShare = 1;
 
     private boolean metricsEnabled;
     private volatile RawJobMetrics jobMetrics = RawJobMetrics.empty();
@@ -155,6 +158,7 @@ public class ExecutionContext implements DynamicMetricsProvider {
 
         jobConfig = plan.getJobConfig();
         jobName = jobConfig.getName() == null ? jobName : jobConfig.getName();
+        cooperativeCpuShare = cooperativeCpuShare(jobConfig);
 
         // Must be populated early, so all processor suppliers are
         // available to be completed in the case of init failure
@@ -171,6 +175,18 @@ public class ExecutionContext implements DynamicMetricsProvider {
                 .thenAccept(ignored -> initWithPlan(plan));
     }
 
+    private static int cooperativeCpuShare(JobConfig jobConfig) {
+        Object share = jobConfig.getArgument(KEY_COOPERATIVE_CPU_SHARE);
+        if (share == null) {
+            return 1;
+        }
+        if (!(share instanceof Integer) || (Integer) share <= 0) {
+            throw new JetException("The job argument " + KEY_COOPERATIVE_CPU_SHARE
+                    + " must be a positive Integer, but is " + share);
+        }
+        return (Integer) share;
+    }
+
     private void initWithPlan(@Nonnull ExecutionPlan plan) {
         int numPrioritySsTasklets = plan.getStoreSnapshotTaskletCount() != 0
                 ? plan.getHigherPriorityVertexCount()
@@ -231,7 +247,7 @@ public class ExecutionContext implements DynamicMetricsProvider {
                 }
                 startTime.set(System.currentTimeMillis());
                 executionFuture = taskletExecService
-                        .beginExecute(tasklets, cancellationFuture, cl)
+                        .beginExecute(tasklets, cancellationFuture, cl, cooperativeCpuShare)
                         .whenComplete(withTryCatch(logger, (r, t) -> setCompletionTime()))
                         .thenApply(res -> {
                             // There's a race here: a snapshot could be requested after the job just completed
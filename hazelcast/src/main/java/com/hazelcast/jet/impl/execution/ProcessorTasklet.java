@@ -161,6 +161,9 @@ public class ProcessorTasklet implements Tasklet {
     @Probe(name = MetricNames.QUEUES_CAPACITY)
     private final Counter queuesCapacity = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.BUSY_TIME, unit = ProbeUnit.NS)
+    private final Counter busyTime = SwCounter.newSwCounter();
+
     private final Consumer<Object> addToInboxFunction = inbox.queue()::add;
     private Future<?> closeFuture;
 
@@ -696,6 +699,11 @@ public class ProcessorTasklet implements Tasklet {
         }
     }
 
+    @Override
+    public void addBusyTime(long nanos) {
+        busyTime.inc(nanos);
+    }
+
     @Override
     public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext mContext) {
         descriptor = descriptor.withTag(MetricTags.VERTEX, this.context.vertexName())
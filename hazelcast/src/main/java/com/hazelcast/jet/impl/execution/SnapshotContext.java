@@ -165,6 +165,13 @@ public class SnapshotContext {
         return currentMapName;
     }
 
+    /**
+     * Returns the {@link SnapshotFlags} of the current snapshot.
+     */
+    public int currentSnapshotFlags() {
+        return snapshotFlags;
+    }
+
     boolean isTerminalSnapshot() {
         return SnapshotFlags.isTerminal(snapshotFlags);
     }
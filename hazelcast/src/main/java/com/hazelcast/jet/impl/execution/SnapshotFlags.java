@@ -32,6 +32,18 @@ public final class SnapshotFlags {
      */
     private static final int EXPORT = 2; // 0b10
 
+    /**
+     * If set, the snapshot is a full snapshot the following incremental
+     * snapshots will be based on.
+     */
+    private static final int BASE = 4; // 0b100
+
+    /**
+     * If set, the snapshot is an incremental snapshot containing only the
+     * changes since the last base snapshot.
+     */
+    private static final int DELTA = 8; // 0b1000
+
     private SnapshotFlags() { }
 
     public static boolean isTerminal(int flags) {
@@ -42,6 +54,14 @@ public final class SnapshotFlags {
         return (flags & EXPORT) != 0;
     }
 
+    public static boolean isBase(int flags) {
+        return (flags & BASE) != 0;
+    }
+
+    public static boolean isDelta(int flags) {
+        return (flags & DELTA) != 0;
+    }
+
     /**
      * If set, the {@link Processor#snapshotCommitPrepare()} and {@link
      * Processor#snapshotCommitFinish(boolean)} methods won't be called, only
@@ -56,10 +76,19 @@ public final class SnapshotFlags {
 
     public static String toString(int flags) {
         return "terminal=" + (isTerminal(flags) ? "yes" : "no")
-                + ",export=" + (isExport(flags) ? "yes" : "no");
+                + ",export=" + (isExport(flags) ? "yes" : "no")
+                + ",incremental=" + (isBase(flags) ? "base" : isDelta(flags) ? "delta" : "no");
     }
 
     public static int create(boolean isTerminal, boolean isExport) {
         return (isTerminal ? TERMINAL : 0) | (isExport ? EXPORT : 0);
     }
+
+    /**
+     * Creates the flags of an automatic snapshot of a job with incremental
+     * snapshots.
+     */
+    public static int createIncremental(boolean isTerminal, boolean isDelta) {
+        return create(isTerminal, false) | (isDelta ? DELTA : BASE);
+    }
 }
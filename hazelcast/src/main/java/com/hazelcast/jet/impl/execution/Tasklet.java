@@ -40,6 +40,13 @@ public interface Tasklet extends DynamicMetricsProvider {
     default void close() {
     }
 
+    /**
+     * Called by the cooperative worker after each {@link #call()} with the
+     * time the call took, if the adaptive scheduling is enabled.
+     */
+    default void addBusyTime(long nanos) {
+    }
+
     @Nullable
     default Processor.Context getProcessorContext() {
         return null;
@@ -55,10 +55,12 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static com.hazelcast.internal.util.executor.ExecutorType.CACHED;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
@@ -66,6 +68,9 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
@@ -90,10 +95,15 @@ public class TaskletExecutionService {
     private int cooperativeThreadIndex;
     @Probe(name = "blockingWorkerCount")
     private final Counter blockingWorkerCount = MwCounter.newMwCounter();
+    @Probe(name = "taskletMigrationCount")
+    private final Counter taskletMigrationCount = MwCounter.newMwCounter();
     private volatile boolean isShutdown;
     private final Object lock = new Object();
     private final IdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final boolean adaptiveScheduling;
+    private final long schedulingQuantumNanos;
+    private final long rebalanceIntervalNanos;
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
@@ -110,6 +120,9 @@ public class TaskletExecutionService {
         idlerNonCooperative = createIdler(
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
+        adaptiveScheduling = properties.getBoolean(JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED);
+        schedulingQuantumNanos = properties.getNanos(JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS);
+        rebalanceIntervalNanos = properties.getNanos(JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS);
 
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new Thread(cooperativeWorkers[i],
@@ -145,6 +158,22 @@ public class TaskletExecutionService {
             @Nonnull List<? extends Tasklet> tasklets,
             @Nonnull CompletableFuture<Void> cancellationFuture,
             @Nonnull ClassLoader jobClassLoader
+    ) {
+        return beginExecute(tasklets, cancellationFuture, jobClassLoader, 1);
+    }
+
+    /**
+     * Like {@link #beginExecute(List, CompletableFuture, ClassLoader)}, but
+     * with the given CPU share of the cooperative tasklets. The share
+     * multiplies the scheduling quantum of the tasklets and only has effect
+     * with the adaptive scheduling, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED}.
+     */
+    CompletableFuture<Void> beginExecute(
+            @Nonnull List<? extends Tasklet> tasklets,
+            @Nonnull CompletableFuture<Void> cancellationFuture,
+            @Nonnull ClassLoader jobClassLoader,
+            int cpuShare
     ) {
         final ExecutionTracker executionTracker = new ExecutionTracker(tasklets.size(), cancellationFuture);
         try {
@@ -152,7 +181,7 @@ public class TaskletExecutionService {
                     tasklets.stream().collect(partitioningBy(
                             tasklet -> doWithClassLoader(jobClassLoader, tasklet::isCooperative)
                     ));
-            submitCooperativeTasklets(executionTracker, jobClassLoader, byCooperation.get(true));
+            submitCooperativeTasklets(executionTracker, jobClassLoader, byCooperation.get(true), cpuShare);
             submitBlockingTasklets(executionTracker, jobClassLoader, byCooperation.get(false));
         } catch (Throwable t) {
             executionTracker.future.internalCompleteExceptionally(t);
@@ -184,7 +213,7 @@ public class TaskletExecutionService {
     }
 
     private void submitCooperativeTasklets(
-            ExecutionTracker executionTracker, ClassLoader jobClassLoader, List<Tasklet> tasklets
+            ExecutionTracker executionTracker, ClassLoader jobClassLoader, List<Tasklet> tasklets, int cpuShare
     ) {
         @SuppressWarnings("unchecked")
         final List<TaskletTracker>[] trackersByThread = new List[cooperativeWorkers.length];
@@ -200,9 +229,11 @@ public class TaskletExecutionService {
         // parallel. If two jobs submit in parallel, the tasklets of one of
         // them could happen to not use all threads. When the other one ends,
         // some worker might have no tasklet.
+        long quantumNanos = schedulingQuantumNanos * cpuShare;
         synchronized (lock) {
             for (Tasklet t : tasklets) {
-                trackersByThread[cooperativeThreadIndex].add(new TaskletTracker(t, executionTracker, jobClassLoader));
+                trackersByThread[cooperativeThreadIndex].add(
+                        new TaskletTracker(t, executionTracker, jobClassLoader, quantumNanos));
                 cooperativeThreadIndex = (cooperativeThreadIndex + 1) % trackersByThread.length;
             }
         }
@@ -334,11 +365,17 @@ public class TaskletExecutionService {
 
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
+        // a tasklet is moved only if the load difference is at least this fraction of the rebalance interval
+        private static final int MIN_REBALANCED_LOAD_DIVISOR = 10;
 
         @Probe(name = "taskletCount")
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        @Probe(name = "busyTime", unit = NS)
+        private final Counter busyTime = SwCounter.newSwCounter();
+        // the busy time in the last rebalance interval, read and adjusted by the other workers
+        private final AtomicLong load = new AtomicLong();
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
@@ -349,6 +386,11 @@ public class TaskletExecutionService {
         private boolean finestLogEnabled;
         private Thread myThread;
         private Contexts.Container contextContainer;
+        private boolean skippedTasklet;
+        private long windowStart;
+        private long windowBusyNanos;
+        // guarded by this, no tasklet can be moved to this worker once set
+        private boolean exited;
 
         CooperativeWorker() {
             this.trackers = new CopyOnWriteArrayList<>();
@@ -361,6 +403,7 @@ public class TaskletExecutionService {
 
             IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
+            windowStart = System.nanoTime();
 
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
@@ -368,6 +411,14 @@ public class TaskletExecutionService {
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
+                if (skippedTasklet) {
+                    // the skipped tasklets might have work to do, don't back off
+                    skippedTasklet = false;
+                    progressTracker.madeProgress();
+                }
+                if (adaptiveScheduling && rebalanceIntervalNanos > 0) {
+                    rebalance();
+                }
                 if (!progressTracker.isMadeProgress() && newTaskletSemaphore.drainPermits() > 0) {
                     progressTracker.madeProgress();
                 }
@@ -377,25 +428,35 @@ public class TaskletExecutionService {
                     if (trackers.isEmpty()) {
                         newTaskletSemaphore.drainPermits();
                         if (trackers.isEmpty() && !isShutdown) {
+                            load.set(0);
                             try {
                                 newTaskletSemaphore.acquire();
                             } catch (InterruptedException e) {
                                 logger.severe("Cooperative worker interrupted", e);
                                 return;
                             }
+                            windowStart = System.nanoTime();
+                            windowBusyNanos = 0;
                         }
                     } else {
                         idlerLocal.idle(++idleCount);
                     }
                 }
             }
+            synchronized (this) {
+                exited = true;
+            }
             trackers.forEach(t -> t.executionTracker.taskletDone());
             trackers.clear();
         }
 
         private void runTasklet(TaskletTracker t) {
+            if (adaptiveScheduling && !t.replenishQuantum(trackers.size() > 1)) {
+                skippedTasklet = true;
+                return;
+            }
             long start = 0;
-            if (finestLogEnabled) {
+            if (finestLogEnabled || adaptiveScheduling) {
                 start = System.nanoTime();
             }
             try {
@@ -415,6 +476,13 @@ public class TaskletExecutionService {
                 dismissTasklet(t);
             }
 
+            if (adaptiveScheduling) {
+                long elapsedNanos = System.nanoTime() - start;
+                t.charge(elapsedNanos);
+                windowBusyNanos += elapsedNanos;
+                busyTime.inc(elapsedNanos);
+                t.tasklet.addBusyTime(elapsedNanos);
+            }
             if (finestLogEnabled) {
                 long elapsedMs = NANOSECONDS.toMillis((System.nanoTime() - start));
                 if (elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
@@ -429,17 +497,122 @@ public class TaskletExecutionService {
             t.executionTracker.taskletDone();
             trackers.remove(t);
         }
+
+        /**
+         * Publishes the load of this worker once per rebalance interval. If
+         * the load is more than twice the load of the least busy worker,
+         * moves to it the tasklet whose busy time is the closest to half of
+         * the difference. Only the owning worker moves its tasklets and only
+         * between the calls, so a tasklet is never called concurrently.
+         */
+        private void rebalance() {
+            long now = System.nanoTime();
+            if (now - windowStart < rebalanceIntervalNanos) {
+                return;
+            }
+            long myLoad = windowBusyNanos;
+            windowStart = now;
+            windowBusyNanos = 0;
+            load.set(myLoad);
+            for (TaskletTracker t : trackers) {
+                t.lastWindowBusyNanos = t.windowBusyNanos;
+                t.windowBusyNanos = 0;
+            }
+
+            CooperativeWorker target = null;
+            for (CooperativeWorker worker : cooperativeWorkers) {
+                if (worker != this && (target == null || worker.load.get() < target.load.get())) {
+                    target = worker;
+                }
+            }
+            if (target == null || trackers.size() < 2) {
+                return;
+            }
+            long difference = myLoad - target.load.get();
+            if (difference <= myLoad / 2 || difference < rebalanceIntervalNanos / MIN_REBALANCED_LOAD_DIVISOR) {
+                return;
+            }
+            TaskletTracker candidate = null;
+            for (TaskletTracker t : trackers) {
+                if (t.lastWindowBusyNanos > 0 && t.lastWindowBusyNanos < difference
+                        && (candidate == null || Math.abs(t.lastWindowBusyNanos - difference / 2)
+                                < Math.abs(candidate.lastWindowBusyNanos - difference / 2))) {
+                    candidate = t;
+                }
+            }
+            if (candidate == null) {
+                return;
+            }
+            trackers.remove(candidate);
+            if (target.adopt(candidate)) {
+                load.addAndGet(-candidate.lastWindowBusyNanos);
+                taskletMigrationCount.inc();
+                logFinest(logger, "Moved %s to another cooperative worker, busy time in the last interval: %,dns",
+                        candidate.tasklet, candidate.lastWindowBusyNanos);
+            } else {
+                trackers.add(candidate);
+            }
+        }
+
+        private synchronized boolean adopt(TaskletTracker t) {
+            if (exited) {
+                return false;
+            }
+            // the tasklet starts with a clean slate on the new worker
+            t.deficitNanos = 0;
+            t.windowBusyNanos = 0;
+            trackers.add(t);
+            load.addAndGet(t.lastWindowBusyNanos);
+            newTaskletSemaphore.release();
+            return true;
+        }
     }
 
-    private static final class TaskletTracker {
+    static final class TaskletTracker {
         final Tasklet tasklet;
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
+        final long quantumNanos;
+
+        // the state used by the adaptive scheduling, accessed by the worker running the tasklet
+        long deficitNanos;
+        long windowBusyNanos;
+        long lastWindowBusyNanos;
 
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
+            this(tasklet, executionTracker, jobClassLoader, 0);
+        }
+
+        TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader,
+                       long quantumNanos) {
             this.tasklet = tasklet;
             this.executionTracker = executionTracker;
             this.jobClassLoader = jobClassLoader;
+            this.quantumNanos = quantumNanos;
+        }
+
+        /**
+         * Adds the quantum to the deficit of the tasklet, capped at one
+         * quantum, and returns whether the tasklet can be called in this
+         * iteration. This is the deficit round-robin: a tasklet that overran
+         * its quantum is skipped until the debt is repaid. A tasklet that
+         * doesn't share the worker with other tasklets is never skipped.
+         */
+        boolean replenishQuantum(boolean shared) {
+            if (!shared) {
+                deficitNanos = quantumNanos;
+                return true;
+            }
+            deficitNanos = Math.min(deficitNanos + quantumNanos, quantumNanos);
+            return deficitNanos > 0;
+        }
+
+        /**
+         * Charges the tasklet with the duration of its call.
+         */
+        void charge(long elapsedNanos) {
+            deficitNanos -= elapsedNanos;
+            windowBusyNanos += elapsedNanos;
         }
 
         @Override
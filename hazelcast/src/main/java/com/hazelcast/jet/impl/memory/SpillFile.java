@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.JetException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.hazelcast.internal.util.Preconditions.checkState;
+
+/**
+ * A temporary file the state of a processor is spilled to, see {@link
+ * Spiller}. The items are first written and then read back in the same
+ * order, once.
+ * <p>
+ * Each item is stored as the length of its serialized form followed by
+ * the serialized form. The file is deleted when {@link #close() closed}.
+ */
+public final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final InternalSerializationService serializationService;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long count;
+    private long readCount;
+
+    SpillFile(Path directory, InternalSerializationService serializationService) {
+        this.serializationService = serializationService;
+        try {
+            this.path = Files.createTempFile(directory, "jet-spill-", ".bin");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new JetException("Cannot create a spill file in " + directory + ": " + e, e);
+        }
+    }
+
+    /**
+     * Appends the item to the file.
+     */
+    public void write(@Nonnull Object item) {
+        checkState(out != null, "the spill file is not writable");
+        Data data = serializationService.toData(item);
+        try {
+            out.writeInt(data.totalSize());
+            out.write(data.toByteArray());
+        } catch (IOException e) {
+            throw new JetException("Cannot write to the spill file " + path + ": " + e, e);
+        }
+        count++;
+    }
+
+    /**
+     * Returns the next item, {@code null} if all the items were read. The
+     * first call finishes the writing.
+     */
+    @Nullable
+    public <T> T read() {
+        try {
+            if (in == null) {
+                checkState(out != null, "the spill file is closed");
+                out.close();
+                out = null;
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            }
+            if (readCount == count) {
+                return null;
+            }
+            readCount++;
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return serializationService.toObject(new HeapData(bytes));
+        } catch (IOException e) {
+            throw new JetException("Cannot read from the spill file " + path + ": " + e, e);
+        }
+    }
+
+    /**
+     * Returns the number of the written items.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Closes and deletes the file.
+     */
+    @Override
+    public void close() {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new JetException("Cannot delete the spill file " + path + ": " + e, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceImpl;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.function.RunnableEx;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.jet.impl.execution.TaskletExecutionService.TASKLET_INIT_CLOSE_EXECUTOR_NAME;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_MAX_IN_MEMORY_RECORDS;
+
+/**
+ * Lets the batch processors which accumulate their whole input, such as
+ * grouping and sorting, move their state to {@link SpillFile}s once it
+ * exceeds {@link ClusterProperty#JET_SPILL_MAX_IN_MEMORY_RECORDS} records.
+ * The processors merge the spilled state when they complete.
+ * <p>
+ * The files are written and read on the executor for the blocking
+ * processor work, not on the cooperative thread of the processor. The
+ * processor {@link #submit submits} the file IO and polls its completion
+ * with {@link #isDone}, it applies backpressure while the IO is in
+ * progress.
+ */
+public final class Spiller {
+
+    private final long maxInMemoryRecords;
+    private final Path directory;
+    private final InternalSerializationService serializationService;
+    private final Executor executor;
+    private final ClassLoader classLoader;
+
+    Spiller(long maxInMemoryRecords, @Nonnull Path directory,
+            @Nonnull InternalSerializationService serializationService,
+            @Nonnull Executor executor, @Nullable ClassLoader classLoader) {
+        this.maxInMemoryRecords = maxInMemoryRecords;
+        this.directory = directory;
+        this.serializationService = serializationService;
+        this.executor = executor;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Returns the spiller for the processor with the given context, {@code
+     * null} if the spilling is disabled or the processor doesn't run on a
+     * member.
+     */
+    @Nullable
+    public static Spiller forProcessor(@Nonnull Processor.Context context) {
+        HazelcastInstance instance = context.hazelcastInstance();
+        if (!(instance instanceof HazelcastInstanceImpl) && !(instance instanceof HazelcastInstanceProxy)) {
+            return null;
+        }
+        NodeEngineImpl nodeEngine = getNodeEngine(instance);
+        HazelcastProperties properties = nodeEngine.getProperties();
+        long maxInMemoryRecords = properties.getLong(JET_SPILL_MAX_IN_MEMORY_RECORDS);
+        if (maxInMemoryRecords <= 0) {
+            return null;
+        }
+        String directory = properties.getString(JET_SPILL_DIRECTORY);
+        return new Spiller(maxInMemoryRecords,
+                Paths.get(directory != null ? directory : System.getProperty("java.io.tmpdir")),
+                context instanceof ProcCtx
+                        ? ((ProcCtx) context).serializationService()
+                        : (InternalSerializationService) nodeEngine.getSerializationService(),
+                nodeEngine.getExecutionService().getExecutor(TASKLET_INIT_CLOSE_EXECUTOR_NAME),
+                context.classLoader());
+    }
+
+    /**
+     * Returns whether the given file IO is done, {@code true} if it's {@code
+     * null}. Rethrows the failure of the IO.
+     */
+    public static boolean isDone(@Nullable CompletableFuture<?> future) {
+        if (future == null) {
+            return true;
+        }
+        if (!future.isDone()) {
+            return false;
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw sneakyThrow(peel(e));
+        }
+        return true;
+    }
+
+    /**
+     * Waits for the given file IO, if any, ignoring its failure. Used when
+     * the processor is closed.
+     */
+    public static void awaitQuietly(@Nullable CompletableFuture<?> future) {
+        if (future != null) {
+            future.handle((r, t) -> null).join();
+        }
+    }
+
+    /**
+     * Returns the number of records a processor keeps in memory before it
+     * spills them.
+     */
+    public long maxInMemoryRecords() {
+        return maxInMemoryRecords;
+    }
+
+    /**
+     * Creates a new spill file, the caller is responsible for closing it.
+     */
+    @Nonnull
+    public SpillFile newFile() {
+        return new SpillFile(directory, serializationService);
+    }
+
+    /**
+     * Runs the given file IO asynchronously, with the class loader of the
+     * job, see the class doc.
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> submit(@Nonnull Callable<T> io) {
+        return CompletableFuture.supplyAsync(() -> doWithClassLoader(classLoader, io), executor);
+    }
+
+    /**
+     * Runs the given file IO asynchronously, with the class loader of the
+     * job, see the class doc.
+     */
+    @Nonnull
+    public CompletableFuture<Void> submit(@Nonnull RunnableEx io) {
+        return CompletableFuture.runAsync(() -> doWithClassLoader(classLoader, io), executor);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.impl.processor.HashJoinCollectP.HashJoinArrayList;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x86_32;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A read-only hash table the {@link HashJoinCollectP} builds from the
+ * joined stream and the {@link HashJoinP} processors look the joined
+ * values up in. Instead of a map of deserialized objects it keeps the
+ * serialized keys and values in large byte array slabs and indexes them
+ * by an open-addressing table of primitive arrays. This saves the object
+ * headers and references of every key, value and map entry, at the cost
+ * of serializing the looked up key and deserializing the matched values
+ * on every lookup.
+ * <p>
+ * A record in a slab consists of:
+ * <ol>
+ *     <li>the address of the next record with the same key, or {@link
+ *     #NO_RECORD} (8 bytes)
+ *     <li>the length of the key (4 bytes)
+ *     <li>the length of the value (4 bytes)
+ *     <li>the key, as written by {@code ObjectDataOutput.writeObject()}
+ *     <li>the value, as written by {@code ObjectDataOutput.writeObject()}
+ * </ol>
+ * The address of a record is the index of its slab in the upper and the
+ * offset in the slab in the lower 32 bits. The index contains the first
+ * record of each distinct key, the records with equal keys are chained in
+ * the order they were added. The keys are hashed and compared in their
+ * serialized form, as the keys of an {@code IMap} are, so the stored keys
+ * are never deserialized.
+ * <p>
+ * The table is built by a single thread. Once {@link #complete()
+ * completed}, it's safe to look up in from multiple threads, provided it
+ * was safely published, which the queues between the processors do.
+ */
+final class BinaryHashJoinTable {
+
+    static final int SLAB_SIZE = 1 << 20;
+    // the number of records indexed in one call to complete()
+    static final int INDEX_BATCH_SIZE = 1024;
+
+    private static final long NO_RECORD = -1;
+    private static final int NEXT_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = NEXT_OFFSET + Long.BYTES;
+    private static final int VALUE_LENGTH_OFFSET = KEY_LENGTH_OFFSET + Integer.BYTES;
+    private static final int KEY_OFFSET = VALUE_LENGTH_OFFSET + Integer.BYTES;
+    // the largest power of two array length
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final InternalSerializationService serializationService;
+    private final boolean bigEndian;
+    private final List<byte[]> slabs = new ArrayList<>();
+
+    // the slab being written to, null once the table is being completed
+    private BufferObjectDataOutput out;
+    private long recordCount;
+
+    // the addresses of the first records of the keys and the hash codes of
+    // the keys, the empty slots have NO_RECORD as the address
+    private long[] addresses;
+    private int[] hashes;
+    private int mask;
+
+    // the state of the index being built: the last records of the keys,
+    // used only to append to the chains, and the next record to index
+    private long[] lastAddresses;
+    private int indexedSlabIndex;
+    private int indexedOffset;
+
+    BinaryHashJoinTable(@Nonnull InternalSerializationService serializationService) {
+        this.serializationService = serializationService;
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+        this.out = serializationService.createObjectDataOutput(SLAB_SIZE);
+    }
+
+    /**
+     * Adds the given value for the given key. The table must not be
+     * completed yet.
+     */
+    void add(@Nullable Object key, @Nonnull Object value) {
+        try {
+            int recordOffset = out.position();
+            out.writeLong(NO_RECORD);
+            out.writeZeroBytes(2 * Integer.BYTES);
+            out.writeObject(key);
+            int valueOffset = out.position();
+            out.writeObject(value);
+            out.writeInt(recordOffset + KEY_LENGTH_OFFSET, valueOffset - recordOffset - KEY_OFFSET);
+            out.writeInt(recordOffset + VALUE_LENGTH_OFFSET, out.position() - valueOffset);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+        recordCount++;
+        if (out.position() >= SLAB_SIZE) {
+            sealSlab();
+        }
+    }
+
+    /**
+     * Builds the index of the added records, after the first call no more
+     * records can be added. Indexes at most {@link #INDEX_BATCH_SIZE}
+     * records per call, so that a cooperative processor doesn't stall its
+     * worker.
+     *
+     * @return {@code true} if the table is completed, {@code false} if the
+     *     method has to be called again
+     */
+    boolean complete() {
+        if (out != null) {
+            startIndex();
+        }
+        for (int i = 0; i < INDEX_BATCH_SIZE && indexedSlabIndex < slabs.size(); i++) {
+            byte[] slab = slabs.get(indexedSlabIndex);
+            int keyLength = Bits.readInt(slab, indexedOffset + KEY_LENGTH_OFFSET, bigEndian);
+            int valueLength = Bits.readInt(slab, indexedOffset + VALUE_LENGTH_OFFSET, bigEndian);
+            int keyOffset = indexedOffset + KEY_OFFSET;
+            index(address(indexedSlabIndex, indexedOffset), MurmurHash3_x86_32(slab, keyOffset, keyLength),
+                    slab, keyOffset, keyLength);
+            indexedOffset = keyOffset + keyLength + valueLength;
+            if (indexedOffset == slab.length) {
+                indexedSlabIndex++;
+                indexedOffset = 0;
+            }
+        }
+        if (indexedSlabIndex < slabs.size()) {
+            return false;
+        }
+        lastAddresses = null;
+        return true;
+    }
+
+    /**
+     * Returns the value for the given key, or a {@link HashJoinArrayList} if
+     * there are multiple values for it, or {@code null} if there is none.
+     */
+    @Nullable
+    Object get(@Nullable Object key) {
+        byte[] keyBytes = serializeKey(key);
+        int hash = MurmurHash3_x86_32(keyBytes, 0, keyBytes.length);
+        for (int slot = fastIntMix(hash) & mask; addresses[slot] != NO_RECORD; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keyEquals(addresses[slot], keyBytes, 0, keyBytes.length)) {
+                return readValues(addresses[slot]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of added values.
+     */
+    long size() {
+        return recordCount;
+    }
+
+    private void startIndex() {
+        if (out.position() > 0) {
+            sealSlab();
+        }
+        out = null;
+
+        int capacity = nextPowerOfTwo((int) Math.min(Math.max(2 * recordCount, 2), MAX_CAPACITY));
+        addresses = new long[capacity];
+        Arrays.fill(addresses, NO_RECORD);
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        lastAddresses = new long[capacity];
+    }
+
+    private void index(long address, int hash, byte[] slab, int keyOffset, int keyLength) {
+        int slot = fastIntMix(hash) & mask;
+        for (; addresses[slot] != NO_RECORD; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keyEquals(addresses[slot], slab, keyOffset, keyLength)) {
+                long lastAddress = lastAddresses[slot];
+                Bits.writeLong(slabs.get(slabIndex(lastAddress)), offset(lastAddress) + NEXT_OFFSET, address, bigEndian);
+                lastAddresses[slot] = address;
+                return;
+            }
+        }
+        addresses[slot] = address;
+        hashes[slot] = hash;
+        lastAddresses[slot] = address;
+    }
+
+    private byte[] serializeKey(Object key) {
+        BufferObjectDataOutput keyOut = serializationService.createObjectDataOutput();
+        try {
+            keyOut.writeObject(key);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+        return keyOut.toByteArray();
+    }
+
+    private boolean keyEquals(long address, byte[] key, int keyOffset, int keyLength) {
+        byte[] slab = slabs.get(slabIndex(address));
+        int offset = offset(address);
+        if (Bits.readInt(slab, offset + KEY_LENGTH_OFFSET, bigEndian) != keyLength) {
+            return false;
+        }
+        offset += KEY_OFFSET;
+        for (int i = 0; i < keyLength; i++) {
+            if (slab[offset + i] != key[keyOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValues(long address) {
+        Object firstValue = readValue(address);
+        long next = readNext(address);
+        if (next == NO_RECORD) {
+            return firstValue;
+        }
+        HashJoinArrayList values = new HashJoinArrayList();
+        values.add(firstValue);
+        for (; next != NO_RECORD; next = readNext(next)) {
+            values.add(readValue(next));
+        }
+        return values;
+    }
+
+    private Object readValue(long address) {
+        byte[] slab = slabs.get(slabIndex(address));
+        int offset = offset(address);
+        int keyLength = Bits.readInt(slab, offset + KEY_LENGTH_OFFSET, bigEndian);
+        try {
+            return serializationService.createObjectDataInput(slab, offset + KEY_OFFSET + keyLength).readObject();
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private long readNext(long address) {
+        return Bits.readLong(slabs.get(slabIndex(address)), offset(address) + NEXT_OFFSET, bigEndian);
+    }
+
+    private void sealSlab() {
+        slabs.add(out.toByteArray());
+        out.clear();
+    }
+
+    private static long address(int slabIndex, int offset) {
+        return ((long) slabIndex << Integer.SIZE) | offset;
+    }
+
+    private static int slabIndex(long address) {
+        return (int) (address >>> Integer.SIZE);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
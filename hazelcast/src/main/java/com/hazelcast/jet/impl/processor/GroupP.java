@@ -23,17 +23,25 @@ import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.Spiller;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.jet.impl.memory.Spiller.awaitQuietly;
+import static com.hazelcast.jet.impl.memory.Spiller.isDone;
 import static java.util.Collections.singletonList;
 
 /**
@@ -41,9 +49,19 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If the {@link Spiller spilling} is enabled and the aggregate operation
+ * can combine accumulators, the groups are spilled once there are too many
+ * of them. They are spilled to {@value #SPILL_PARTITION_COUNT} files by the
+ * hash of the key, so on completion the groups of each file can be combined
+ * in memory one file after another. The files are written and read
+ * asynchronously, while a spill is in progress the processor doesn't take
+ * more items.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
+    static final int SPILL_PARTITION_COUNT = 64;
+
     protected final Map<K, A> keyToAcc = new HashMap<>();
 
     private final List<FunctionEx<?, ? extends K>> groupKeyFns;
@@ -51,7 +69,17 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
 
     private long maxEntries;
+    private ResultTraverser groups;
     private Traverser<OUT> resultTraverser;
+    // null if the groups aren't spilled
+    private Spiller spiller;
+    // the files the groups are spilled to by the hash of the key, null until
+    // the first spill, a file is created by the first spill writing to it
+    private SpillFile[] spillFiles;
+    private CompletableFuture<Void> pendingSpill;
+    // the keys and accumulators of the next file to combine
+    private CompletableFuture<List<Object>> pendingLoad;
+    private int nextFileIndex;
 
     public GroupP(
             @Nonnull List<FunctionEx<?, ? extends K>> groupKeyFns,
@@ -76,11 +104,17 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        if (aggrOp.combineFn() != null) {
+            spiller = Spiller.forProcessor(context);
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (spiller != null && keyToAcc.size() >= spiller.maxInMemoryRecords() && !trySpill()) {
+            return false;
+        }
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
         A acc = keyToAcc.computeIfAbsent(key, k -> {
@@ -97,20 +131,125 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     public boolean complete() {
         if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
+            if (spillFiles != null) {
+                // spill the remaining groups and wait until all of them are written
+                if (!trySpill() || !isDone(pendingSpill)) {
+                    return false;
+                }
+                pendingLoad = loadNextFile();
+            }
+            groups = new ResultTraverser();
+            resultTraverser = groups
                     // reuse null filtering done by map()
                     .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
         }
-        return emitFromTraverser(resultTraverser);
+        return spillFiles == null ? emitFromTraverser(resultTraverser) : emitSpilled();
     }
 
     @Override
     public boolean closeIsCooperative() {
+        // the spill files are closed after the file IO in progress
+        return spiller == null;
+    }
+
+    @Override
+    public void close() {
+        if (spillFiles != null) {
+            awaitQuietly(pendingSpill);
+            awaitQuietly(pendingLoad);
+            for (SpillFile file : spillFiles) {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts spilling the groups, returns {@code false} if the previous spill
+     * is still in progress.
+     */
+    private boolean trySpill() {
+        if (!isDone(pendingSpill)) {
+            return false;
+        }
+        if (keyToAcc.isEmpty()) {
+            return true;
+        }
+        if (spillFiles == null) {
+            spillFiles = new SpillFile[SPILL_PARTITION_COUNT];
+        }
+        List<Entry<K, A>> spilledGroups = new ArrayList<>(keyToAcc.entrySet());
+        keyToAcc.clear();
+        pendingSpill = spiller.submit(() -> {
+            for (Entry<K, A> group : spilledGroups) {
+                int fileIndex = hashToIndex(group.getKey().hashCode(), SPILL_PARTITION_COUNT);
+                if (spillFiles[fileIndex] == null) {
+                    spillFiles[fileIndex] = spiller.newFile();
+                }
+                spillFiles[fileIndex].write(group.getKey());
+                spillFiles[fileIndex].write(group.getValue());
+            }
+        });
         return true;
     }
 
+    /**
+     * Emits the groups of one spill file after another. While the groups of
+     * a file are emitted, the next file is loaded.
+     */
+    private boolean emitSpilled() {
+        while (emitFromTraverser(resultTraverser)) {
+            if (pendingLoad == null) {
+                return true;
+            }
+            if (!isDone(pendingLoad)) {
+                return false;
+            }
+            combine(pendingLoad.join());
+            pendingLoad = loadNextFile();
+            groups.reset();
+        }
+        return false;
+    }
+
+    private CompletableFuture<List<Object>> loadNextFile() {
+        while (nextFileIndex < SPILL_PARTITION_COUNT) {
+            SpillFile file = spillFiles[nextFileIndex++];
+            if (file != null) {
+                return spiller.submit(() -> {
+                    List<Object> records = new ArrayList<>();
+                    for (Object record; (record = file.read()) != null; ) {
+                        records.add(record);
+                    }
+                    file.close();
+                    return records;
+                });
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Combines the loaded groups, the keys and accumulators alternate.
+     */
+    @SuppressWarnings("unchecked")
+    private void combine(List<Object> records) {
+        BiConsumer<? super A, ? super A> combineFn = aggrOp.combineFn();
+        for (int i = 0; i < records.size(); i += 2) {
+            keyToAcc.merge((K) records.get(i), (A) records.get(i + 1), (acc1, acc2) -> {
+                combineFn.accept(acc1, acc2);
+                return acc1;
+            });
+        }
+    }
+
     private class ResultTraverser implements Traverser<Entry<K, A>> {
-        private final Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
+        private Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
+
+        void reset() {
+            iter = keyToAcc.entrySet().iterator();
+        }
 
         @Override
         public Entry<K, A> next() {
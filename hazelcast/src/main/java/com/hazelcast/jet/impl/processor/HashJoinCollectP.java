@@ -16,9 +16,15 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceImpl;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.spi.properties.ClusterProperty;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
@@ -27,10 +33,16 @@ import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_HASH_JOIN_BINARY_TABLE_ENABLED;
+
 /**
  * Implements the "collector" stage in a hash join transformation. This
  * stage collects the entire joined stream into a hashtable and then
  * broadcasts it to all local second-stage processors.
+ * <p>
+ * If {@link ClusterProperty#JET_HASH_JOIN_BINARY_TABLE_ENABLED} is set, the
+ * hashtable is a {@link BinaryHashJoinTable} instead of a {@code HashMap}.
  */
 public class HashJoinCollectP<K, T, V> extends AbstractProcessor {
 
@@ -49,6 +61,8 @@ public class HashJoinCollectP<K, T, V> extends AbstractProcessor {
     // the value is either a V or a HashJoinArrayList (if multiple values for
     // the key were observed)
     private final Map<K, Object> lookupTable = new HashMap<>();
+    // used instead of the lookupTable if not null
+    private BinaryHashJoinTable binaryTable;
     private final Function<T, K> keyFn;
     private final Function<T, V> projectFn;
 
@@ -63,6 +77,13 @@ public class HashJoinCollectP<K, T, V> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        HazelcastInstance instance = context.hazelcastInstance();
+        if ((instance instanceof HazelcastInstanceImpl || instance instanceof HazelcastInstanceProxy)
+                && getNodeEngine(instance).getProperties().getBoolean(JET_HASH_JOIN_BINARY_TABLE_ENABLED)) {
+            binaryTable = new BinaryHashJoinTable(context instanceof ProcCtx
+                    ? ((ProcCtx) context).serializationService()
+                    : (InternalSerializationService) getNodeEngine(instance).getSerializationService());
+        }
     }
 
     @Override
@@ -75,13 +96,21 @@ public class HashJoinCollectP<K, T, V> extends AbstractProcessor {
         T t = (T) item;
         K key = keyFn.apply(t);
         V value = projectFn.apply(t);
-        lookupTable.merge(key, value, MERGE_FN);
+        if (binaryTable != null) {
+            binaryTable.add(key, value);
+        } else {
+            lookupTable.merge(key, value, MERGE_FN);
+        }
         numberOfEntries++;
         return true;
     }
 
     @Override
     public boolean complete() {
+        if (binaryTable != null) {
+            // the index is built in batches, complete() returns true once it's done
+            return binaryTable.complete() && tryEmit(binaryTable);
+        }
         return tryEmit(lookupTable);
     }
 
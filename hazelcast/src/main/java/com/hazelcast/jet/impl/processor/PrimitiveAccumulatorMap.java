@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.jet.Util.entry;
+
+/**
+ * A map from keys to accumulators whose whole state is a single {@code
+ * long} or {@code double}, that is {@link LongAccumulator} and {@link
+ * DoubleAccumulator}, which the built-in counting and summing aggregate
+ * operations use. Instead of an accumulator object per key it stores the
+ * values in a primitive array of an open-addressing table. The aggregate
+ * operation's functions are applied to a reused accumulator loaded with
+ * the stored value, the other methods of the map return a new accumulator
+ * for every value.
+ * <p>
+ * The {@link SlidingWindowP} uses it for its frames and windows, see
+ * {@link #codecFor}.
+ *
+ * @param <K> type of the key
+ * @param <A> type of the accumulator
+ */
+final class PrimitiveAccumulatorMap<K, A> extends AbstractMap<K, A> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+    // stands for the null key in the keys array, where null marks an empty slot
+    private static final Object NULL_KEY = new Object();
+
+    private static final Codec<LongAccumulator> LONG_CODEC = new Codec<LongAccumulator>() {
+        @Override
+        public long encode(LongAccumulator acc) {
+            return acc.get();
+        }
+
+        @Override
+        public LongAccumulator decode(long value) {
+            return new LongAccumulator(value);
+        }
+
+        @Override
+        public void load(LongAccumulator acc, long value) {
+            acc.set(value);
+        }
+    };
+
+    // stores the bits of the double the way Double.equals() compares them,
+    // so that two equal accumulators are stored as equal values
+    private static final Codec<DoubleAccumulator> DOUBLE_CODEC = new Codec<DoubleAccumulator>() {
+        @Override
+        public long encode(DoubleAccumulator acc) {
+            return Double.doubleToLongBits(acc.export());
+        }
+
+        @Override
+        public DoubleAccumulator decode(long value) {
+            return new DoubleAccumulator(Double.longBitsToDouble(value));
+        }
+
+        @Override
+        public void load(DoubleAccumulator acc, long value) {
+            acc.set(Double.longBitsToDouble(value));
+        }
+    };
+
+    private final Codec<A> codec;
+    // the value of the accumulator returned by the aggregate operation's createFn
+    private final long emptyValue;
+    private final A scratchAcc;
+    private final A scratchAcc2;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+    private int resizeThreshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+    private EntrySet entrySet;
+
+    PrimitiveAccumulatorMap(@Nonnull Codec<A> codec, @Nonnull A emptyAcc) {
+        this.codec = codec;
+        this.emptyValue = codec.encode(emptyAcc);
+        this.scratchAcc = codec.decode(emptyValue);
+        this.scratchAcc2 = codec.decode(emptyValue);
+    }
+
+    /**
+     * Returns the codec for the given accumulator if its whole state can be
+     * stored in a {@code long}, {@code null} otherwise. The accumulator must
+     * be exactly of the supported class, a subclass might have more state.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <A> Codec<A> codecFor(@Nonnull A acc) {
+        if (acc.getClass() == LongAccumulator.class) {
+            return (Codec<A>) LONG_CODEC;
+        }
+        if (acc.getClass() == DoubleAccumulator.class) {
+            return (Codec<A>) DOUBLE_CODEC;
+        }
+        return null;
+    }
+
+    /**
+     * Applies the accumulate function to the accumulator of the given key
+     * and the given item, creates an empty accumulator for the key first if
+     * there's none.
+     *
+     * @return {@code true} if the key was added
+     */
+    <T> boolean accumulate(K key, @Nonnull BiConsumer<? super A, ? super T> accumulateFn, @Nonnull T item) {
+        int index = indexOf(key);
+        boolean added = keys[index] == null;
+        codec.load(scratchAcc, added ? emptyValue : values[index]);
+        accumulateFn.accept(scratchAcc, item);
+        long value = codec.encode(scratchAcc);
+        if (added) {
+            insert(index, key, value);
+        } else {
+            values[index] = value;
+        }
+        return added;
+    }
+
+    /**
+     * Applies the given function, the combine or deduct function of the
+     * aggregate operation, to the accumulator of each key of the {@code
+     * other} map and the accumulator of the same key in this map. If this
+     * map has no accumulator for the key, an empty one is used.
+     *
+     * @param removeEmpty whether to remove the keys whose accumulator became
+     *                    empty
+     */
+    void patch(@Nonnull PrimitiveAccumulatorMap<K, A> other, @Nonnull BiConsumer<? super A, ? super A> patchFn,
+               boolean removeEmpty) {
+        Object[] otherKeys = other.keys;
+        long[] otherValues = other.values;
+        for (int i = 0; i < otherKeys.length; i++) {
+            if (otherKeys[i] == null) {
+                continue;
+            }
+            K key = unmaskNull(otherKeys[i]);
+            int index = indexOf(key);
+            boolean absent = keys[index] == null;
+            codec.load(scratchAcc, absent ? emptyValue : values[index]);
+            codec.load(scratchAcc2, otherValues[i]);
+            patchFn.accept(scratchAcc, scratchAcc2);
+            long value = codec.encode(scratchAcc);
+            if (removeEmpty && value == emptyValue) {
+                if (!absent) {
+                    removeAt(index);
+                }
+            } else if (absent) {
+                insert(index, key, value);
+            } else {
+                values[index] = value;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys[indexOf(key)] != null;
+    }
+
+    @Override
+    public A get(Object key) {
+        int index = indexOf(key);
+        return keys[index] != null ? codec.decode(values[index]) : null;
+    }
+
+    @Override
+    public A put(K key, A acc) {
+        int index = indexOf(key);
+        long value = codec.encode(acc);
+        if (keys[index] == null) {
+            insert(index, key, value);
+            return null;
+        }
+        A previous = codec.decode(values[index]);
+        values[index] = value;
+        return previous;
+    }
+
+    @Override
+    public A remove(Object key) {
+        int index = indexOf(key);
+        if (keys[index] == null) {
+            return null;
+        }
+        A previous = codec.decode(values[index]);
+        removeAt(index);
+        return previous;
+    }
+
+    /**
+     * Removes all the keys, but keeps the capacity so that the map can be
+     * reused without growing again.
+     */
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            size = 0;
+        }
+    }
+
+    @Nonnull @Override
+    public Set<Entry<K, A>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Returns the index of the slot of the given key, or of the empty slot
+     * where the key would be inserted if it's absent.
+     */
+    private int indexOf(Object key) {
+        Object maskedKey = maskNull(key);
+        int mask = keys.length - 1;
+        int index = fastIntMix(maskedKey.hashCode()) & mask;
+        for (Object k; (k = keys[index]) != null; index = (index + 1) & mask) {
+            if (k == maskedKey || k.equals(maskedKey)) {
+                break;
+            }
+        }
+        return index;
+    }
+
+    private void insert(int index, K key, long value) {
+        keys[index] = maskNull(key);
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new long[newCapacity];
+        resizeThreshold = (int) (newCapacity * LOAD_FACTOR);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = fastIntMix(oldKeys[i].hashCode()) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes the key at the given index and moves the following keys of the
+     * probe chain back so that no lookup stops at the freed slot.
+     */
+    private void removeAt(int deleteIndex) {
+        keys[deleteIndex] = null;
+        size--;
+        int mask = keys.length - 1;
+        for (int index = (deleteIndex + 1) & mask; keys[index] != null; index = (index + 1) & mask) {
+            int home = fastIntMix(keys[index].hashCode()) & mask;
+            // move the key if its home slot isn't cyclically in (deleteIndex, index]
+            if (deleteIndex <= index ? home <= deleteIndex || home > index : home <= deleteIndex && home > index) {
+                keys[deleteIndex] = keys[index];
+                values[deleteIndex] = values[index];
+                keys[index] = null;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, A>> {
+        @Nonnull @Override
+        public Iterator<Entry<K, A>> iterator() {
+            return new Iterator<Entry<K, A>>() {
+                private int index = nextIndex(0);
+
+                @Override
+                public boolean hasNext() {
+                    return index < keys.length;
+                }
+
+                @Override
+                public Entry<K, A> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<K, A> entry = entry(unmaskNull(keys[index]), codec.decode(values[index]));
+                    index = nextIndex(index + 1);
+                    return entry;
+                }
+
+                private int nextIndex(int from) {
+                    int i = from;
+                    while (i < keys.length && keys[i] == null) {
+                        i++;
+                    }
+                    return i;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Converts an accumulator to and from the {@code long} value stored in
+     * the map.
+     */
+    interface Codec<A> {
+        long encode(A acc);
+
+        A decode(long value);
+
+        void load(A acc, long value);
+    }
+}
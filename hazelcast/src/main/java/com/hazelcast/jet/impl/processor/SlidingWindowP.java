@@ -41,6 +41,7 @@ import com.hazelcast.partition.PartitionAware;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,12 +74,22 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 /**
  * Handles various setups of sliding and tumbling window aggregation.
  * See {@link Processors} for more documentation.
+ * <p>
+ * If the accumulator of the aggregate operation is a plain {@code
+ * LongAccumulator} or {@code DoubleAccumulator}, as with the built-in
+ * counting and summing operations, the frames and the sliding window are
+ * {@link PrimitiveAccumulatorMap}s, which store the values in primitive
+ * arrays instead of an accumulator object per key. The evicted frames are
+ * then cleared and reused for the next frames.
  *
  * @param <A> type of the frame accumulator object
  * @param <R> type of the finished result
  */
 public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
 
+    // the evicted frames are only needed until the next frames are created
+    private static final int MAX_RECYCLED_FRAMES = 4;
+
     // package-visible for testing
     final Long2ObjectHashMap<Map<K, A>> tsToKeyToAcc = new Long2ObjectHashMap<>();
     Map<K, A> slidingWindow;
@@ -97,6 +108,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     private final AggregateOperation<A, ? extends R> aggrOp;
     @Nonnull
     private final A emptyAcc;
+    // non-null if the frames are PrimitiveAccumulatorMaps
+    @Nullable
+    private final PrimitiveAccumulatorMap.Codec<A> primitiveCodec;
+    // the evicted frames to reuse, only used with the primitiveCodec
+    private final ArrayDeque<Map<K, A>> recycledFrames = new ArrayDeque<>();
     @Nonnull
     private final KeyedWindowResultFunction<? super K, ? super R, ? extends OUT> mapToOutputFn;
     @Nullable
@@ -167,15 +183,14 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                         .onFirstNull(() -> nextWinToEmit = winPolicy.higherFrameTs(wm.timestamp()))
         );
         this.emptyAcc = aggrOp.createFn().get();
+        this.primitiveCodec = PrimitiveAccumulatorMap.codecFor(emptyAcc);
         this.createMapPerTsFunction = x -> {
             totalFrames.inc();
-            return new HashMap<>();
+            Map<K, A> recycledFrame = recycledFrames.poll();
+            return recycledFrame != null ? recycledFrame : newAccMap();
         };
         this.createAccFunction = k -> {
-            long newCount = totalKeysInFrames.inc();
-            if (newCount == maxEntries) {
-                throw new AccumulationLimitExceededException();
-            }
+            countNewKey();
             return aggrOp.createFn().get();
         };
         this.windowWatermarkKey = windowWatermarkKey;
@@ -246,10 +261,15 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, createMapPerTsFunction)
-                .computeIfAbsent(key, createAccFunction);
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        Map<K, A> frame = tsToKeyToAcc.computeIfAbsent(frameTs, createMapPerTsFunction);
+        if (primitiveCodec != null) {
+            if (((PrimitiveAccumulatorMap<K, A>) frame).accumulate(key, aggrOp.accumulateFn(ordinal), item)) {
+                countNewKey();
+            }
+        } else {
+            A acc = frame.computeIfAbsent(key, createAccFunction);
+            aggrOp.accumulateFn(ordinal).accept(acc, item);
+        }
         topTs = max(topTs, frameTs);
         return true;
     }
@@ -421,12 +441,19 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private Map<K, A> recomputeWindow(long frameTs) {
-        Map<K, A> window = new HashMap<>();
+        Map<K, A> window = newAccMap();
         for (long ts = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
              ts <= frameTs;
              ts += winPolicy.frameSize()
         ) {
             assert combineFn != null : "combineFn == null";
+            if (primitiveCodec != null) {
+                Map<K, A> frame = tsToKeyToAcc.get(ts);
+                if (frame != null) {
+                    ((PrimitiveAccumulatorMap<K, A>) window).patch((PrimitiveAccumulatorMap<K, A>) frame, combineFn, false);
+                }
+                continue;
+            }
             for (Entry<K, A> entry : tsToKeyToAcc.getOrDefault(ts, emptyMap()).entrySet()) {
                 combineFn.accept(
                         window.computeIfAbsent(entry.getKey(), k -> aggrOp.createFn().get()),
@@ -440,6 +467,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         if (patchingFrame == null) {
             return;
         }
+        if (primitiveCodec != null) {
+            ((PrimitiveAccumulatorMap<K, A>) slidingWindow)
+                    .patch((PrimitiveAccumulatorMap<K, A>) patchingFrame, patchOp, true);
+            return;
+        }
         for (Entry<K, A> e : patchingFrame.entrySet()) {
             slidingWindow.compute(e.getKey(), (k, acc) -> {
                 A result = acc != null ? acc : aggrOp.createFn().get();
@@ -459,6 +491,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                 // deduct trailing-edge frame
                 patchSlidingWindow(aggrOp.deductFn(), evictedFrame);
             }
+            if (primitiveCodec != null && recycledFrames.size() < MAX_RECYCLED_FRAMES) {
+                evictedFrame.clear();
+                recycledFrames.add(evictedFrame);
+            }
         }
         assert tsToKeyToAcc.values().stream().mapToInt(Map::size).sum() == totalKeysInFrames.get()
                 : "totalKeysInFrames mismatch, expected=" + tsToKeyToAcc.values().stream().mapToInt(Map::size).sum()
@@ -475,6 +511,17 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         }
     }
 
+    private Map<K, A> newAccMap() {
+        return primitiveCodec != null ? new PrimitiveAccumulatorMap<>(primitiveCodec, emptyAcc) : new HashMap<>();
+    }
+
+    private void countNewKey() {
+        long newCount = totalKeysInFrames.inc();
+        if (newCount == maxEntries) {
+            throw new AccumulationLimitExceededException();
+        }
+    }
+
     private boolean flushBuffers() {
         if (flushTraverser == null) {
             if (tsToKeyToAcc.isEmpty()) {
@@ -20,20 +20,51 @@ import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.Spiller;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
 
+import static com.hazelcast.jet.impl.memory.Spiller.awaitQuietly;
+import static com.hazelcast.jet.impl.memory.Spiller.isDone;
+import static java.util.Collections.emptyList;
+
+/**
+ * Batch processor that emits its input sorted.
+ * <p>
+ * If the {@link Spiller spilling} is enabled, the items are spilled as a
+ * sorted run once there are too many of them. On completion the runs are
+ * merged. The runs are written and read asynchronously, while a run is
+ * being written the processor doesn't take more items.
+ */
 public class SortP<T> extends AbstractProcessor {
 
+    // the number of items of a run loaded at once when merging
+    static final int MERGE_BLOCK_SIZE = 1024;
+
+    private final Comparator<T> comparator;
     private final PriorityQueue<T> priorityQueue;
+    private final List<SpillFile> runs = new ArrayList<>();
     private final Traverser<T> resultTraverser;
 
     private long maxItems;
+    // null if the items aren't spilled
+    private Spiller spiller;
+    // the run being written
+    private CompletableFuture<SpillFile> pendingRun;
+    // null until the runs are merged
+    private MergingTraverser merger;
 
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
         this.priorityQueue = new PriorityQueue<>(comparator);
         this.resultTraverser = priorityQueue::poll;
     }
@@ -41,11 +72,15 @@ public class SortP<T> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        spiller = Spiller.forProcessor(context);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
+        if (spiller != null && priorityQueue.size() >= spiller.maxInMemoryRecords() && !trySpillRun()) {
+            return false;
+        }
         if (priorityQueue.size() == maxItems) {
             throw new AccumulationLimitExceededException();
         }
@@ -56,11 +91,190 @@ public class SortP<T> extends AbstractProcessor {
 
     @Override
     public boolean complete() {
-        return emitFromTraverser(resultTraverser);
+        if (runs.isEmpty() && pendingRun == null) {
+            return emitFromTraverser(resultTraverser);
+        }
+        if (merger == null) {
+            // spill the remaining items and wait until all runs are written
+            if (!trySpillRun() || !isRunWritten()) {
+                return false;
+            }
+            merger = new MergingTraverser();
+        }
+        return emitFromTraverser(merger) && merger.isDone();
     }
 
     @Override
     public boolean closeIsCooperative() {
+        // the runs are closed after the file IO in progress
+        return spiller == null;
+    }
+
+    @Override
+    public void close() {
+        if (pendingRun != null) {
+            SpillFile run = pendingRun.handle((r, t) -> r).join();
+            if (run != null) {
+                runs.add(run);
+            }
+        }
+        if (merger != null) {
+            merger.awaitLoads();
+        }
+        for (SpillFile run : runs) {
+            run.close();
+        }
+    }
+
+    /**
+     * Starts writing the items as a run, returns {@code false} if the
+     * previous run is still being written.
+     */
+    private boolean trySpillRun() {
+        if (!isRunWritten()) {
+            return false;
+        }
+        if (priorityQueue.isEmpty()) {
+            return true;
+        }
+        List<T> items = new ArrayList<>(priorityQueue.size());
+        for (T item; (item = priorityQueue.poll()) != null; ) {
+            items.add(item);
+        }
+        pendingRun = spiller.submit(() -> {
+            SpillFile run = spiller.newFile();
+            try {
+                for (T item : items) {
+                    run.write(item);
+                }
+            } catch (RuntimeException e) {
+                run.close();
+                throw e;
+            }
+            return run;
+        });
         return true;
     }
+
+    private boolean isRunWritten() {
+        if (!isDone(pendingRun)) {
+            return false;
+        }
+        if (pendingRun != null) {
+            runs.add(pendingRun.join());
+            pendingRun = null;
+        }
+        return true;
+    }
+
+    /**
+     * Merges the sorted runs. Returns {@code null} also while the next item
+     * of a run is being loaded, see {@link #isDone()}.
+     */
+    private class MergingTraverser implements Traverser<T> {
+        // the runs by their next item
+        private final PriorityQueue<RunCursor> cursors =
+                new PriorityQueue<>(runs.size(), (c1, c2) -> comparator.compare(c1.head, c2.head));
+        // the runs whose next item is being loaded
+        private final List<RunCursor> loadingCursors = new ArrayList<>();
+
+        MergingTraverser() {
+            for (SpillFile run : runs) {
+                loadingCursors.add(new RunCursor(run));
+            }
+        }
+
+        @Override
+        public T next() {
+            // the smallest item is known only once the next item of every run is
+            for (Iterator<RunCursor> it = loadingCursors.iterator(); it.hasNext(); ) {
+                RunCursor cursor = it.next();
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                    it.remove();
+                } else if (cursor.isExhausted()) {
+                    it.remove();
+                }
+            }
+            if (!loadingCursors.isEmpty()) {
+                return null;
+            }
+            RunCursor cursor = cursors.poll();
+            if (cursor == null) {
+                return null;
+            }
+            T item = cursor.head;
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            } else if (!cursor.isExhausted()) {
+                loadingCursors.add(cursor);
+            }
+            return item;
+        }
+
+        boolean isDone() {
+            return cursors.isEmpty() && loadingCursors.isEmpty();
+        }
+
+        void awaitLoads() {
+            for (RunCursor cursor : loadingCursors) {
+                awaitQuietly(cursor.nextBlock);
+            }
+            for (RunCursor cursor : cursors) {
+                awaitQuietly(cursor.nextBlock);
+            }
+        }
+    }
+
+    /**
+     * Reads a run block by block, the next block is loaded while the
+     * current one is merged.
+     */
+    private final class RunCursor {
+        private final SpillFile run;
+        private List<T> block = emptyList();
+        private int blockIndex;
+        // null if the run is exhausted
+        private CompletableFuture<List<T>> nextBlock;
+        private T head;
+
+        private RunCursor(SpillFile run) {
+            this.run = run;
+            this.nextBlock = loadBlock();
+        }
+
+        /**
+         * Moves the head to the next item, returns {@code false} if the next
+         * item isn't loaded yet or the run is exhausted.
+         */
+        boolean advance() {
+            if (blockIndex == block.size()) {
+                if (nextBlock == null || !isDone(nextBlock)) {
+                    return false;
+                }
+                block = nextBlock.join();
+                blockIndex = 0;
+                nextBlock = block.size() == MERGE_BLOCK_SIZE ? loadBlock() : null;
+                if (block.isEmpty()) {
+                    return false;
+                }
+            }
+            head = block.get(blockIndex++);
+            return true;
+        }
+
+        boolean isExhausted() {
+            return blockIndex == block.size() && nextBlock == null;
+        }
+
+        private CompletableFuture<List<T>> loadBlock() {
+            return spiller.submit(() -> {
+                List<T> items = new ArrayList<>(MERGE_BLOCK_SIZE);
+                for (T item; items.size() < MERGE_BLOCK_SIZE && (item = run.read()) != null; ) {
+                    items.add(item);
+                }
+                return items;
+            });
+        }
+    }
 }
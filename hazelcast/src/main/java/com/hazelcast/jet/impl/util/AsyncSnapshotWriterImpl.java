@@ -25,6 +25,7 @@ import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.SerializationConstants;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
+import com.hazelcast.jet.impl.execution.SnapshotFlags;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
@@ -40,6 +41,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -48,7 +52,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x64_64;
+import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
+import static com.hazelcast.jet.impl.serialization.SerializerHookConstants.BROADCAST_KEY;
 
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
@@ -57,6 +64,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     final int usableChunkCapacity; // this includes the serialization header for byte[], but not the terminator
     final byte[] serializedByteArrayHeader = new byte[3 * Bits.INT_SIZE_IN_BYTES];
     final byte[] valueTerminator;
+    final Data tombstone;
     final AtomicInteger numConcurrentAsyncOps;
 
     private final IPartitionService partitionService;
@@ -72,9 +80,17 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final int memberCount;
     private IMap<SnapshotDataKey, Object> currentMap;
     private long currentSnapshotId;
+    private int currentSnapshotFlags;
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
 
+    // The keys and the value hashes of the entries of the last base snapshot,
+    // null if no base snapshot was written. The broadcast keys aren't tracked,
+    // they are written to every snapshot.
+    private Map<Data, BaseEntry> baseEntries;
+    private Iterator<BaseEntry> tombstoneCursor;
+    private BaseEntry pendingTombstone;
+
     // stats
     private long totalKeys;
     private long totalChunks;
@@ -124,15 +140,19 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         this.numConcurrentAsyncOps = jetServiceBackend.numConcurrentAsyncOps();
 
-        byte[] valueTerminatorWithHeader = serializationService.toData(SnapshotDataValueTerminator.INSTANCE).toByteArray();
-        valueTerminator = Arrays.copyOfRange(valueTerminatorWithHeader, HeapData.TYPE_OFFSET,
-                valueTerminatorWithHeader.length);
+        valueTerminator = toBytesWithoutHeader(serializationService.toData(SnapshotDataValueTerminator.INSTANCE));
+        tombstone = serializationService.toData(SnapshotDataTombstone.INSTANCE);
         usableChunkCapacity = chunkSize - valueTerminator.length - serializedByteArrayHeader.length;
         if (usableChunkCapacity <= 0) {
             throw new IllegalArgumentException("too small chunk size: " + chunkSize);
         }
     }
 
+    private static byte[] toBytesWithoutHeader(Data data) {
+        byte[] bytes = data.toByteArray();
+        return Arrays.copyOfRange(bytes, HeapData.TYPE_OFFSET, bytes.length);
+    }
+
     private static CustomByteArrayOutputStream[] createAndInitBuffers(
             int chunkSize,
             int partitionCount,
@@ -163,6 +183,39 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     @Override
     @CheckReturnValue
     public boolean offer(Entry<? extends Data, ? extends Data> entry) {
+        if (!initCurrentMap()) {
+            return false;
+        }
+        if (entry.getKey().getType() != BROADCAST_KEY) {
+            if (SnapshotFlags.isBase(currentSnapshotFlags)) {
+                trackBaseEntry(entry);
+            } else if (SnapshotFlags.isDelta(currentSnapshotFlags) && isUnchangedSinceBase(entry)) {
+                return true;
+            }
+        }
+        return write(entry);
+    }
+
+    private void trackBaseEntry(Entry<? extends Data, ? extends Data> entry) {
+        // the entry might be offered again if the write fails, putting it again is harmless
+        baseEntries.put(entry.getKey(), new BaseEntry(entry.getKey(), valueHash(entry.getValue())));
+    }
+
+    /**
+     * Marks the key as seen in the current delta snapshot and returns true if
+     * its value didn't change since the base snapshot.
+     */
+    private boolean isUnchangedSinceBase(Entry<? extends Data, ? extends Data> entry) {
+        BaseEntry baseEntry = baseEntries.get(entry.getKey());
+        if (baseEntry == null) {
+            return false;
+        }
+        baseEntry.seenInSnapshot = currentSnapshotId;
+        return baseEntry.valueHash == valueHash(entry.getValue());
+    }
+
+    @CheckReturnValue
+    private boolean write(Entry<? extends Data, ? extends Data> entry) {
         int partitionId = partitionService.getPartitionId(entry.getKey());
         int length = entry.getKey().totalSize() + entry.getValue().totalSize() - 2 * HeapData.TYPE_OFFSET;
 
@@ -275,10 +328,55 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             if (mapName == null) {
                 return false;
             }
+            int snapshotFlags = snapshotContext.currentSnapshotFlags();
+            startBaseOrDeltaSnapshot(snapshotFlags);
             // Snapshot IMap proxy instance may be shared, but we always want it
             // to have failOnIndeterminateOperationState enabled.
             currentMap = safeImap(nodeEngine.getHazelcastInstance().getMap(mapName));
             this.currentSnapshotId = snapshotContext.currentSnapshotId();
+            this.currentSnapshotFlags = snapshotFlags;
+        }
+        return true;
+    }
+
+    private void startBaseOrDeltaSnapshot(int snapshotFlags) {
+        if (SnapshotFlags.isBase(snapshotFlags)) {
+            baseEntries = new HashMap<>();
+        } else if (SnapshotFlags.isDelta(snapshotFlags) && baseEntries == null) {
+            throw new IllegalStateException("Incremental snapshot " + snapshotContext.currentSnapshotId()
+                    + " of vertex '" + vertexName + "' requested, but no base snapshot was written");
+        }
+    }
+
+    private static long valueHash(Data value) {
+        byte[] bytes = value.toByteArray();
+        return MurmurHash3_x64_64(bytes, HeapData.TYPE_OFFSET, bytes.length - HeapData.TYPE_OFFSET);
+    }
+
+    /**
+     * Writes a tombstone for each key of the base snapshot not offered to the
+     * current delta snapshot.
+     *
+     * @return {@code true} if all tombstones were written, {@code false} if
+     * the method has to be called again
+     */
+    @CheckReturnValue
+    private boolean writeTombstones() {
+        if (tombstoneCursor == null) {
+            tombstoneCursor = baseEntries.values().iterator();
+        }
+        while (pendingTombstone != null || tombstoneCursor.hasNext()) {
+            if (pendingTombstone == null) {
+                BaseEntry baseEntry = tombstoneCursor.next();
+                if (baseEntry.seenInSnapshot == currentSnapshotId) {
+                    continue;
+                }
+                pendingTombstone = baseEntry;
+            }
+            if (!write(entry(pendingTombstone.key, tombstone))) {
+                return false;
+            }
+            pendingTombstone = null;
         }
         return true;
     }
@@ -296,6 +394,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         if (!initCurrentMap()) {
             return false;
         }
+        if (SnapshotFlags.isDelta(currentSnapshotFlags) && !writeTombstones()) {
+            return false;
+        }
 
         for (int i = 0; i < buffers.length; i++) {
             if (!flushPartition(i)) {
@@ -305,6 +406,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         // we're done
         currentMap = null;
+        tombstoneCursor = null;
         if (logger.isFineEnabled()) {
             logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d",
                     vertexName, totalKeys, totalChunks, totalPayloadBytes));
@@ -449,6 +551,47 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
     }
 
+    /**
+     * The value written instead of the entries of the base snapshot that are
+     * removed from the state of the processor in an incremental snapshot.
+     */
+    public static final class SnapshotDataTombstone implements IdentifiedDataSerializable {
+
+        public static final IdentifiedDataSerializable INSTANCE = new SnapshotDataTombstone();
+
+        private SnapshotDataTombstone() {
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_TOMBSTONE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+
+    private static final class BaseEntry {
+        final Data key;
+        final long valueHash;
+        long seenInSnapshot = -1;
+
+        BaseEntry(Data key, long valueHash) {
+            this.key = key;
+            this.valueHash = valueHash;
+        }
+    }
+
     /**
      * Non-synchronized variant of {@code java.io.ByteArrayOutputStream} with capacity limit.
      */
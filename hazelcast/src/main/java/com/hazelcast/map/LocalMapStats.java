@@ -283,6 +283,31 @@ public interface LocalMapStats extends LocalInstanceStats {
      */
     long getIndexedQueryCount();
 
+    /**
+     * Returns the number of queries performed on the map which used a cached
+     * optimized predicate.
+     * <p>
+     * If the query plan cache is disabled, the returned value is {@code 0}.
+     *
+     * @see #getQueryPlanCacheMissCount()
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_PLAN_CACHE_SIZE
+     * @since 5.3
+     */
+    long getQueryPlanCacheHitCount();
+
+    /**
+     * Returns the number of queries performed on the map which had to
+     * optimize the predicate, because no cached optimized predicate was
+     * available.
+     * <p>
+     * If the query plan cache is disabled, the returned value is {@code 0}.
+     *
+     * @see #getQueryPlanCacheHitCount()
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_PLAN_CACHE_SIZE
+     * @since 5.3
+     */
+    long getQueryPlanCacheMissCount();
+
     /**
      * Returns the per-index statistics map keyed by the index name.
      */
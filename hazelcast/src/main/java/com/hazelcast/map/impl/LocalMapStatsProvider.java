@@ -351,11 +351,15 @@ public class LocalMapStatsProvider {
             assert globalIndexes.isGlobal();
             localMapStats.setQueryCount(globalIndexes.getIndexesStats().getQueryCount());
             localMapStats.setIndexedQueryCount(globalIndexes.getIndexesStats().getIndexedQueryCount());
+            localMapStats.setQueryPlanCacheHitCount(globalIndexes.getIndexesStats().getPlanCacheHitCount());
+            localMapStats.setQueryPlanCacheMissCount(globalIndexes.getIndexesStats().getPlanCacheMissCount());
             freshStats = aggregateFreshIndexStats(globalIndexes.getIndexes(), null);
             finalizeFreshIndexStats(freshStats);
         } else {
             long queryCount = 0;
             long indexedQueryCount = 0;
+            long queryPlanCacheHitCount = 0;
+            long queryPlanCacheMissCount = 0;
             PartitionContainer[] partitionContainers = mapServiceContext.getPartitionContainers();
             for (int i = 0; i < partitionContainers.length; i++) {
                 PartitionContainer partitionContainer = partitionContainers[i];
@@ -377,12 +381,17 @@ public class LocalMapStatsProvider {
                 // maximum among partitions.
                 queryCount = Math.max(queryCount, indexesStats.getQueryCount());
                 indexedQueryCount = Math.max(indexedQueryCount, indexesStats.getIndexedQueryCount());
+                // each partition caches the predicates optimized against its own indexes
+                queryPlanCacheHitCount += indexesStats.getPlanCacheHitCount();
+                queryPlanCacheMissCount += indexesStats.getPlanCacheMissCount();
 
                 freshStats = aggregateFreshIndexStats(partitionIndexes.getIndexes(), freshStats);
             }
 
             localMapStats.setQueryCount(queryCount);
             localMapStats.setIndexedQueryCount(indexedQueryCount);
+            localMapStats.setQueryPlanCacheHitCount(queryPlanCacheHitCount);
+            localMapStats.setQueryPlanCacheMissCount(queryPlanCacheMissCount);
 
             finalizeFreshIndexStats(freshStats);
         }
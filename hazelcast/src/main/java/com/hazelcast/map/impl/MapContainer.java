@@ -27,6 +27,7 @@ import com.hazelcast.config.WanReplicationConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.config.WanSyncConfig;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.memory.impl.UnsafeMalloc;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
@@ -48,6 +49,7 @@ import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.RecordFactoryAttributes;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -64,6 +66,7 @@ import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
 import com.hazelcast.wan.impl.DelegatingWanScheme;
 import com.hazelcast.wan.impl.WanReplicationService;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -73,13 +76,22 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static com.hazelcast.config.ConsistencyCheckStrategy.MERKLE_TREES;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMapMergePolicy;
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyComparator;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.util.StringUtil.splitByComma;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COVERING_MAP_NAMES;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COLUMNAR_SCAN_MAP_NAMES;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES;
 import static com.hazelcast.spi.properties.ClusterProperty.MAP_EVICTION_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_STORAGE_MAP_NAMES;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PLAN_CACHE_SIZE;
 import static java.lang.Boolean.TRUE;
 import static java.lang.System.getProperty;
 
@@ -107,6 +119,10 @@ public class MapContainer {
     protected final Function<Object, Data> toDataFunction = new ObjectToData();
     protected final InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
     protected final ConstructorFunction<RecordFactoryAttributes, RecordFactory> recordFactoryConstructor;
+    protected final boolean offHeapStorageEnabled;
+    protected final boolean columnarScanEnabled;
+    protected final int columnarScanMaxPartitionEntries;
+    protected final boolean coveringIndexesEnabled;
     /**
      * Holds number of registered {@link InvalidationListener} from clients.
      */
@@ -138,6 +154,14 @@ public class MapContainer {
         this.partitioningStrategy = createPartitioningStrategy();
         this.splitBrainProtectionName = mapConfig.getSplitBrainProtectionName();
         this.serializationService = ((InternalSerializationService) nodeEngine.getSerializationService());
+        this.offHeapStorageEnabled = isOffHeapStorageConfigured(config,
+                nodeEngine.getProperties().getString(MAP_OFF_HEAP_STORAGE_MAP_NAMES));
+        this.columnarScanEnabled = mapConfig.getInMemoryFormat() != NATIVE
+                && isMapNameListed(config, nodeEngine.getProperties().getString(MAP_COLUMNAR_SCAN_MAP_NAMES));
+        this.columnarScanMaxPartitionEntries =
+                nodeEngine.getProperties().getInteger(MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES);
+        this.coveringIndexesEnabled = isMapNameListed(config,
+                nodeEngine.getProperties().getString(INDEX_COVERING_MAP_NAMES));
         this.recordFactoryConstructor = createRecordFactoryConstructor(serializationService);
         this.objectNamespace = MapService.getObjectNamespace(name);
         this.extractors = Extractors.newBuilder(serializationService)
@@ -175,6 +199,8 @@ public class MapContainer {
                 .indexProvider(mapServiceContext.getIndexProvider(mapConfig))
                 .usesCachedQueryableEntries(mapConfig.getCacheDeserializedValues() != CacheDeserializedValues.NEVER)
                 .partitionCount(partitionCount)
+                .planCacheSize(mapServiceContext.getNodeEngine().getProperties().getInteger(QUERY_PLAN_CACHE_SIZE))
+                .coveringEnabled(coveringIndexesEnabled)
                 .resultFilterFactory(new IndexResultFilterFactory())
                 .build();
     }
@@ -234,6 +260,48 @@ public class MapContainer {
         return new EvictorImpl(evictionPolicyComparator, evictionChecker, evictionBatchSize, partitionService);
     }
 
+    /**
+     * @return {@code true} if the entries of this map are stored
+     * off-heap, see {@link com.hazelcast.spi.properties.ClusterProperty#MAP_OFF_HEAP_STORAGE_MAP_NAMES}
+     */
+    public boolean isOffHeapStorageEnabled() {
+        return offHeapStorageEnabled;
+    }
+
+    /**
+     * @return {@code true} if partition scans of this map may be evaluated
+     * over the columnar projection of the partitions, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#MAP_COLUMNAR_SCAN_MAP_NAMES}
+     */
+    public boolean isColumnarScanEnabled() {
+        return columnarScanEnabled;
+    }
+
+    /**
+     * @return the maximum number of entries of a partition that can be
+     * scanned over its columnar projection, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES}
+     */
+    public int getColumnarScanMaxPartitionEntries() {
+        return columnarScanMaxPartitionEntries;
+    }
+
+    private boolean isOffHeapStorageConfigured(Config config, String offHeapMapNames) {
+        if (mapConfig.getInMemoryFormat() != BINARY
+                || !MEM_AVAILABLE || UnsafeMalloc.INSTANCE == null) {
+            return false;
+        }
+        return isMapNameListed(config, offHeapMapNames);
+    }
+
+    private boolean isMapNameListed(Config config, String mapNames) {
+        String[] patterns = splitByComma(mapNames, false);
+        if (patterns == null || patterns.length == 0) {
+            return false;
+        }
+        return config.getConfigPatternMatcher().matches(Arrays.asList(patterns), name) != null;
+    }
+
     public boolean shouldUseGlobalIndex() {
         return mapConfig.getInMemoryFormat() != NATIVE || mapServiceContext.globalIndexEnabled();
     }
@@ -262,7 +330,9 @@ public class MapContainer {
         return anyArg -> {
             switch (mapConfig.getInMemoryFormat()) {
                 case BINARY:
-                    return new DataRecordFactory(this, serializationService);
+                    return offHeapStorageEnabled
+                            ? new OffHeapDataRecordFactory(serializationService, UnsafeMalloc.INSTANCE, MEM)
+                            : new DataRecordFactory(this, serializationService);
                 case OBJECT:
                     return new ObjectRecordFactory(this, serializationService);
                 default:
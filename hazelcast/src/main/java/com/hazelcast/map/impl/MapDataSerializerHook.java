@@ -34,6 +34,8 @@ import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalReadResultSetImpl;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
 import com.hazelcast.map.impl.nearcache.invalidation.UuidFilter;
+import com.hazelcast.map.impl.operation.AddContinuousAggregationBackupOperation;
+import com.hazelcast.map.impl.operation.AddContinuousAggregationOperation;
 import com.hazelcast.map.impl.operation.AddIndexBackupOperation;
 import com.hazelcast.map.impl.operation.AddIndexOperation;
 import com.hazelcast.map.impl.operation.AddIndexOperationFactory;
@@ -56,6 +58,7 @@ import com.hazelcast.map.impl.operation.EvictBackupOperation;
 import com.hazelcast.map.impl.operation.EvictBatchBackupOperation;
 import com.hazelcast.map.impl.operation.EvictOperation;
 import com.hazelcast.map.impl.operation.GetAllOperation;
+import com.hazelcast.map.impl.operation.GetContinuousAggregationOperation;
 import com.hazelcast.map.impl.operation.GetEntryViewOperation;
 import com.hazelcast.map.impl.operation.GetOperation;
 import com.hazelcast.map.impl.operation.IsEmptyOperationFactory;
@@ -66,6 +69,9 @@ import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
 import com.hazelcast.map.impl.operation.LoadAllOperation;
 import com.hazelcast.map.impl.operation.LoadMapOperation;
+import com.hazelcast.map.impl.operation.MapBatchBackupOperation;
+import com.hazelcast.map.impl.operation.MapBatchOperation;
+import com.hazelcast.map.impl.operation.MapBatchOperationFactory;
 import com.hazelcast.map.impl.operation.MapChunk;
 import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchIndexOperation;
@@ -112,6 +118,8 @@ import com.hazelcast.map.impl.operation.PutTransientOperation;
 import com.hazelcast.map.impl.operation.PutTransientWithExpiryOperation;
 import com.hazelcast.map.impl.operation.PutWithExpiryOperation;
 import com.hazelcast.map.impl.operation.RemoveBackupOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationBackupOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationOperation;
 import com.hazelcast.map.impl.operation.RemoveFromLoadAllOperation;
 import com.hazelcast.map.impl.operation.RemoveIfSameOperation;
 import com.hazelcast.map.impl.operation.RemoveInterceptorOperation;
@@ -128,6 +136,7 @@ import com.hazelcast.map.impl.operation.TryPutOperation;
 import com.hazelcast.map.impl.operation.TryRemoveOperation;
 import com.hazelcast.map.impl.operation.WriteBehindStateHolder;
 import com.hazelcast.map.impl.query.AggregationResult;
+import com.hazelcast.map.impl.query.ContinuousAggregation;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEventFilter;
 import com.hazelcast.map.impl.query.QueryOperation;
@@ -324,8 +333,17 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int INDEX_ITERATION_POINTER = 156;
     public static final int MAP_FETCH_INDEX_OPERATION_RESULT = 157;
     public static final int MAP_CHUNK = 158;
+    public static final int CONTINUOUS_AGGREGATION = 159;
+    public static final int ADD_CONTINUOUS_AGGREGATION = 160;
+    public static final int ADD_CONTINUOUS_AGGREGATION_BACKUP = 161;
+    public static final int REMOVE_CONTINUOUS_AGGREGATION = 162;
+    public static final int REMOVE_CONTINUOUS_AGGREGATION_BACKUP = 163;
+    public static final int GET_CONTINUOUS_AGGREGATION = 164;
+    public static final int MAP_BATCH = 165;
+    public static final int MAP_BATCH_BACKUP = 166;
+    public static final int MAP_BATCH_FACTORY = 167;
 
-    private static final int LEN = MAP_CHUNK + 1;
+    private static final int LEN = MAP_BATCH_FACTORY + 1;
 
     @Override
     public int getFactoryId() {
@@ -491,6 +509,15 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[INDEX_ITERATION_POINTER] = arg -> new IndexIterationPointer();
         constructors[MAP_FETCH_INDEX_OPERATION_RESULT] = arg -> new MapFetchIndexOperationResult();
         constructors[MAP_CHUNK] = arg -> new MapChunk();
+        constructors[CONTINUOUS_AGGREGATION] = arg -> new ContinuousAggregation();
+        constructors[ADD_CONTINUOUS_AGGREGATION] = arg -> new AddContinuousAggregationOperation();
+        constructors[ADD_CONTINUOUS_AGGREGATION_BACKUP] = arg -> new AddContinuousAggregationBackupOperation();
+        constructors[REMOVE_CONTINUOUS_AGGREGATION] = arg -> new RemoveContinuousAggregationOperation();
+        constructors[REMOVE_CONTINUOUS_AGGREGATION_BACKUP] = arg -> new RemoveContinuousAggregationBackupOperation();
+        constructors[GET_CONTINUOUS_AGGREGATION] = arg -> new GetContinuousAggregationOperation();
+        constructors[MAP_BATCH] = arg -> new MapBatchOperation();
+        constructors[MAP_BATCH_BACKUP] = arg -> new MapBatchBackupOperation();
+        constructors[MAP_BATCH_FACTORY] = arg -> new MapBatchOperationFactory();
 
         return new ArrayDataSerializableFactory(constructors);
     }
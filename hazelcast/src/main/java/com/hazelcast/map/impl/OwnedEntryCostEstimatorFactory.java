@@ -40,6 +40,14 @@ public final class OwnedEntryCostEstimatorFactory {
         return ZERO_SIZE_ESTIMATOR;
     }
 
+    /**
+     * Returns an estimator which reports the off-heap memory held by the entries of an
+     * {@link com.hazelcast.map.impl.recordstore.OffHeapStorageImpl}.
+     */
+    public static <K, V> EntryCostEstimator<K, V> createOffHeapMapSizeEstimator() {
+        return (EntryCostEstimator<K, V>) new OffHeapMapEntryCostEstimator();
+    }
+
     private static class ZeroEntryCostEstimator
             implements EntryCostEstimator {
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Base class for iterating the result of the projection on entries in the
+ * whole cluster which satisfy the predicate, fetching the result from
+ * several partitions in parallel.
+ * <p>
+ * The result of each partition is fetched in segments of at most {@code
+ * fetchSize} entries, so neither the members nor the caller ever hold the
+ * whole result. Up to {@code parallelism} segments are being fetched or
+ * waiting to be consumed at any time, the next segment is requested only
+ * once a segment is consumed. The segments are consumed in the order they
+ * arrive, so the first results are available as soon as any partition
+ * responds and the iteration order is not defined.
+ * <p>
+ * The {@link Iterator#remove()} method is not supported and will throw a
+ * {@link UnsupportedOperationException}. The provided guarantees are the same
+ * as the ones of {@link MapQueryPartitionIterator}.
+ *
+ * @param <K> the key type of map.
+ * @param <V> the value type of map.
+ * @param <R> the return type of the projection
+ */
+public abstract class AbstractMapQueryStreamingIterator<K, V, R> implements Iterator<R> {
+
+    protected final int fetchSize;
+    protected final Query query;
+
+    private final int partitionCount;
+    private final int parallelism;
+    private final BlockingQueue<Segment> arrivedSegments = new LinkedBlockingQueue<>();
+
+    // the state below is accessed by the iterating thread only
+    private boolean started;
+    private int nextPartitionId;
+    private int pendingSegments;
+    private Segment segment;
+    private int index;
+
+    protected AbstractMapQueryStreamingIterator(String mapName, int fetchSize, int partitionCount, int parallelism,
+                                                Predicate<K, V> predicate,
+                                                Projection<? super Entry<K, V>, R> projection) {
+        this.fetchSize = checkPositive("fetchSize", fetchSize);
+        this.parallelism = checkPositive("parallelism", parallelism);
+        this.partitionCount = partitionCount;
+        this.query = Query.of()
+                          .mapName(mapName)
+                          .iterationType(IterationType.VALUE)
+                          .predicate(predicate)
+                          .projection(projection)
+                          .build();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (segment == null || index == segment.results.size()) {
+            segment = null;
+            if (!started) {
+                started = true;
+                fetchNextPartitions();
+            }
+            if (pendingSegments == 0) {
+                return false;
+            }
+
+            Segment arrived = takeArrivedSegment();
+            if (arrived.error != null) {
+                throw rethrow(arrived.error);
+            }
+            // keep the pipeline full while the segment is being consumed
+            if (!arrived.results.isEmpty() && arrived.pointers[arrived.pointers.length - 1].getIndex() >= 0) {
+                requestSegment(arrived.partitionId, arrived.pointers);
+            } else {
+                fetchNextPartitions();
+            }
+            segment = arrived;
+            index = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return getSerializationService().toObject(segment.results.get(index++));
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+    /**
+     * Fetches the next segment of the result of the given partition.
+     *
+     * @param partitionId the partition to fetch the result of.
+     * @param pointers    the pointers defining the state of the partition
+     *                    iteration.
+     * @return the future of the fetched segment.
+     */
+    protected abstract CompletableFuture<Segment> fetch(int partitionId, IterationPointer[] pointers);
+
+    protected abstract SerializationService getSerializationService();
+
+    private void fetchNextPartitions() {
+        while (pendingSegments < parallelism && nextPartitionId < partitionCount) {
+            requestSegment(nextPartitionId++, new IterationPointer[]{new IterationPointer(Integer.MAX_VALUE, -1)});
+        }
+    }
+
+    private void requestSegment(int partitionId, IterationPointer[] pointers) {
+        ++pendingSegments;
+        CompletableFuture<Segment> future;
+        try {
+            future = fetch(partitionId, pointers);
+        } catch (Throwable t) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(t);
+        }
+        future.whenComplete((fetched, t) -> arrivedSegments.add(t == null ? fetched.of(partitionId) : new Segment(t)));
+    }
+
+    private Segment takeArrivedSegment() {
+        try {
+            Segment arrived = arrivedSegments.take();
+            --pendingSegments;
+            return arrived;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * A segment of the result of a single partition.
+     */
+    protected static final class Segment {
+
+        private final List<Data> results;
+        private final IterationPointer[] pointers;
+        private final Throwable error;
+        private int partitionId;
+
+        public Segment(List<Data> results, IterationPointer[] pointers) {
+            this.results = results;
+            this.pointers = pointers;
+            this.error = null;
+        }
+
+        private Segment(Throwable error) {
+            this.results = null;
+            this.pointers = null;
+            this.error = error;
+        }
+
+        private Segment of(int partitionId) {
+            this.partitionId = partitionId;
+            return this;
+        }
+    }
+}
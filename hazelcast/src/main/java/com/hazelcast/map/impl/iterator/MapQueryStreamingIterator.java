@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterator for iterating the result of the projection on entries in all of
+ * the partitions which satisfy the {@code predicate}. Segments of the result
+ * are fetched from up to {@code parallelism} partitions at a time and are
+ * returned as they arrive. The {@link Iterator#remove()} method is not
+ * supported and will throw a {@link UnsupportedOperationException}.
+ *
+ * @see AbstractMapQueryStreamingIterator
+ */
+public class MapQueryStreamingIterator<K, V, R> extends AbstractMapQueryStreamingIterator<K, V, R> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+
+    public MapQueryStreamingIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, int partitionCount, int parallelism,
+                                     Predicate<K, V> predicate,
+                                     Projection<? super Entry<K, V>, R> projection) {
+        super(mapProxy.getName(), fetchSize, partitionCount, parallelism, predicate, projection);
+        this.mapProxy = mapProxy;
+    }
+
+    @Override
+    protected CompletableFuture<Segment> fetch(int partitionId, IterationPointer[] pointers) {
+        MapOperation op = mapProxy.getOperationProvider()
+                                  .createFetchWithQueryOperation(mapProxy.getName(), pointers, fetchSize, query);
+        InternalCompletableFuture<ResultSegment> future =
+                mapProxy.getOperationService().invokeOnPartition(mapProxy.getServiceName(), op, partitionId);
+        return future.thenApply(segment -> {
+            QueryResult queryResult = (QueryResult) segment.getResult();
+            List<Data> serialized = new ArrayList<>(queryResult.size());
+            for (QueryResultRow row : queryResult) {
+                serialized.add(row.getValue());
+            }
+            return new Segment(serialized, segment.getPointers());
+        });
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return mapProxy.getNodeEngine().getSerializationService();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.query.ContinuousAggregation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Registers a continuous aggregation in a partition of a map.
+ */
+public class AddContinuousAggregationOperation extends MapOperation
+        implements PartitionAwareOperation, MutatingOperation, BackupAwareOperation {
+
+    private ContinuousAggregation definition;
+
+    public AddContinuousAggregationOperation() {
+    }
+
+    public AddContinuousAggregationOperation(String name, ContinuousAggregation definition) {
+        super(name);
+        this.definition = definition;
+    }
+
+    @Override
+    protected void runInternal() {
+        recordStore.getPartitionAggregations().add(definition);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return mapContainer.getTotalBackupCount() > 0;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getTotalBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return 0;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new AddContinuousAggregationBackupOperation(name, definition);
+    }
+
+    @Override
+    public Object getResponse() {
+        return Boolean.TRUE;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(definition);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        definition = in.readObject();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.ADD_CONTINUOUS_AGGREGATION;
+    }
+}
@@ -105,6 +105,7 @@ public class AddIndexOperation extends MapOperation
             CachedQueryEntry<?, ?> newEntry =
                     cachedEntry == null ? (CachedQueryEntry<?, ?>) queryEntry : cachedEntry.init(dataKey, value);
             index.putEntry(newEntry, null, queryEntry, Index.OperationSource.USER);
+            indexes.captureCoveredAttributes(newEntry, queryEntry);
         }, false);
 
         index.markPartitionAsIndexed(partitionId);
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replicates the final state of the keys mutated by a {@link
+ * MapBatchOperation}: the entries still present on the primary replica are
+ * put to the backup, the rest are removed from it.
+ */
+public class MapBatchBackupOperation extends MapOperation
+        implements PartitionAwareOperation, BackupOperation {
+
+    private List<Object> keyValueRecordExpiry;
+
+    private transient List<Object> keyRecordExpiry;
+
+    public MapBatchBackupOperation() {
+    }
+
+    public MapBatchBackupOperation(String name, List<Object> keyValueRecordExpiry) {
+        super(name);
+        this.keyValueRecordExpiry = keyValueRecordExpiry;
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:magicnumber")
+    protected void runInternal() {
+        if (keyRecordExpiry != null) {
+            for (int i = 0; i < keyRecordExpiry.size(); i += 3) {
+                applyBackup((Data) keyRecordExpiry.get(i), (Record) keyRecordExpiry.get(i + 1),
+                        (ExpiryMetadata) keyRecordExpiry.get(i + 2));
+            }
+        } else {
+            // the operation has not been serialized and
+            // is running directly on the caller node
+            for (int i = 0; i < keyValueRecordExpiry.size(); i += 4) {
+                applyBackup((Data) keyValueRecordExpiry.get(i), (Record) keyValueRecordExpiry.get(i + 2),
+                        (ExpiryMetadata) keyValueRecordExpiry.get(i + 3));
+            }
+        }
+    }
+
+    private void applyBackup(Data key, Record record, ExpiryMetadata expiryMetadata) {
+        if (record == null) {
+            recordStore.removeBackup(key, getCallerProvenance());
+            publishWanRemove(key);
+        } else {
+            Record currentRecord = recordStore.putBackup(key, record,
+                    expiryMetadata.getTtl(), expiryMetadata.getMaxIdle(),
+                    expiryMetadata.getExpirationTime(),
+                    getCallerProvenance());
+            Records.copyMetadataFrom(record, currentRecord);
+            publishWanUpdate(key, record.getValue());
+        }
+        evict(key);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:magicnumber")
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+
+        out.writeInt(keyValueRecordExpiry.size() / 4);
+        for (int i = 0; i < keyValueRecordExpiry.size(); i += 4) {
+            IOUtil.writeData(out, (Data) keyValueRecordExpiry.get(i));
+            Record record = (Record) keyValueRecordExpiry.get(i + 2);
+            out.writeBoolean(record != null);
+            if (record != null) {
+                Records.writeRecord(out, record, (Data) keyValueRecordExpiry.get(i + 1));
+                Records.writeExpiry(out, (ExpiryMetadata) keyValueRecordExpiry.get(i + 3));
+            }
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+
+        int size = in.readInt();
+        List<Object> keyRecordExpiry = new ArrayList<>(size * 3);
+        for (int i = 0; i < size; i++) {
+            keyRecordExpiry.add(IOUtil.readData(in));
+            if (in.readBoolean()) {
+                keyRecordExpiry.add(Records.readRecord(in));
+                keyRecordExpiry.add(Records.readExpiry(in));
+            } else {
+                keyRecordExpiry.add(null);
+                keyRecordExpiry.add(null);
+            }
+        }
+        this.keyRecordExpiry = keyRecordExpiry;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_BATCH_BACKUP;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.SerializableList;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.core.EntryEventType.ADDED;
+import static com.hazelcast.core.EntryEventType.UPDATED;
+import static com.hazelcast.map.impl.operation.EntryOperator.operator;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Executes a batch of heterogeneous single-key operations on the keys of a
+ * single partition in one pass on the partition thread.
+ * <p>
+ * Each operation of the batch has the same effect as its standalone
+ * counterpart ({@link GetOperation}, {@link SetOperation}, {@link
+ * DeleteOperation} and {@link EntryOperation}), the events, WAN and near
+ * cache invalidations are published per key. Like the other multi-key
+ * operations, the batch does not wait for the locks of the keys and
+ * {@link com.hazelcast.core.Offloadable} entry processors are executed on
+ * the partition thread. The final state of the mutated keys is replicated
+ * by a single {@link MapBatchBackupOperation}.
+ * <p>
+ * The response is the list of the serialized results of the operations in
+ * the order of the batch: the value for a get, {@code null} for a set,
+ * whether the entry existed for a delete and the result of the entry
+ * processor.
+ */
+public class MapBatchOperation extends MapOperation
+        implements PartitionAwareOperation, BackupAwareOperation, MutatingOperation {
+
+    public static final byte GET = 0;
+    public static final byte SET = 1;
+    public static final byte DELETE = 2;
+    public static final byte EXECUTE_ON_KEY = 3;
+
+    /**
+     * The number of the elements per mutated key in the list passed to the
+     * backup operation: the key, the value, the record and the expiry.
+     */
+    private static final int BACKUP_ELEMENTS_PER_KEY = 4;
+
+    private byte[] types;
+    private Data[] keys;
+    private Object[] arguments;
+
+    private transient List<Data> results;
+    private transient Set<Data> mutatedKeys;
+    private transient List<Data> invalidationKeys;
+
+    public MapBatchOperation() {
+    }
+
+    /**
+     * @param types     the types of the operations
+     * @param keys      the keys the operations apply to
+     * @param arguments the values to set or the entry processors to execute,
+     *                  {@code null} for the gets and deletes
+     */
+    public MapBatchOperation(String name, byte[] types, Data[] keys, Object[] arguments) {
+        super(name);
+        this.types = types;
+        this.keys = keys;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void innerBeforeRun() throws Exception {
+        super.innerBeforeRun();
+        if (recordStore != null) {
+            recordStore.checkIfLoaded();
+        }
+    }
+
+    @Override
+    protected void runInternal() {
+        results = new ArrayList<>(types.length);
+        mutatedKeys = new LinkedHashSet<>();
+        invalidationKeys = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            Data key = keys[i];
+            switch (types[i]) {
+                case GET:
+                    results.add(get(key));
+                    break;
+                case SET:
+                    set(key, (Data) arguments[i]);
+                    results.add(null);
+                    break;
+                case DELETE:
+                    results.add(mapServiceContext.toData(delete(key)));
+                    break;
+                case EXECUTE_ON_KEY:
+                    results.add(executeOnKey(key, (EntryProcessor) arguments[i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown batch operation type: " + types[i]);
+            }
+        }
+    }
+
+    private Data get(Data key) {
+        Data value = mapServiceContext.toData(recordStore.get(key, false, getCallerAddress()));
+        mapServiceContext.interceptAfterGet(mapContainer.getInterceptorRegistry(), value);
+        return value;
+    }
+
+    private void set(Data key, Data value) {
+        Object oldValue = recordStore.set(key, value, UNSET, UNSET);
+
+        Object newValue = isPostProcessingOrHasInterceptor(recordStore)
+                ? recordStore.getRecord(key).getValue() : value;
+        mapServiceContext.interceptAfterPut(mapContainer.getInterceptorRegistry(), value);
+        EntryEventType eventType = oldValue == null ? ADDED : UPDATED;
+        mapEventPublisher.publishEvent(getCallerAddress(), name, eventType, key, oldValue, newValue);
+        invalidationKeys.add(key);
+        publishWanUpdate(key, newValue);
+        mutatedKeys.add(key);
+        evict(key);
+    }
+
+    private boolean delete(Data key) {
+        boolean removed = recordStore.delete(key, getCallerProvenance());
+        if (removed) {
+            mapServiceContext.interceptAfterRemove(mapContainer.getInterceptorRegistry(), null);
+            mapEventPublisher.publishEvent(getCallerAddress(), name, EntryEventType.REMOVED, key, null, null);
+            invalidationKeys.add(key);
+            publishWanRemove(key);
+            mutatedKeys.add(key);
+            evict(key);
+        }
+        return removed;
+    }
+
+    private Data executeOnKey(Data key, EntryProcessor entryProcessor) {
+        EntryOperator entryOperator = operator(this, entryProcessor).operateOnKey(key).doPostOperateOps();
+        if (entryOperator.getEventType() != null) {
+            mutatedKeys.add(key);
+        }
+        return entryOperator.getResult();
+    }
+
+    @Override
+    public void afterRunInternal() {
+        invalidateNearCache(invalidationKeys);
+
+        super.afterRunInternal();
+    }
+
+    @Override
+    public Object getResponse() {
+        return new SerializableList(results);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return mapContainer.getTotalBackupCount() > 0 && !mutatedKeys.isEmpty();
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getAsyncBackupCount();
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        List<Object> keyValueRecordExpiry = new ArrayList<>(BACKUP_ELEMENTS_PER_KEY * mutatedKeys.size());
+        for (Data key : mutatedKeys) {
+            Record record = recordStore.getRecord(key);
+            keyValueRecordExpiry.add(key);
+            if (record == null) {
+                keyValueRecordExpiry.add(null);
+                keyValueRecordExpiry.add(null);
+                keyValueRecordExpiry.add(null);
+            } else {
+                keyValueRecordExpiry.add(mapServiceContext.toData(record.getValue()));
+                keyValueRecordExpiry.add(record);
+                keyValueRecordExpiry.add(recordStore.getExpirySystem().getExpiryMetadata(key));
+            }
+        }
+        return new MapBatchBackupOperation(name, keyValueRecordExpiry);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        writeBatch(out, types, keys, arguments);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        types = in.readByteArray();
+        keys = new Data[types.length];
+        arguments = new Object[types.length];
+        readBatch(in, types, keys, arguments);
+    }
+
+    static void writeBatch(ObjectDataOutput out, byte[] types, Data[] keys, Object[] arguments) throws IOException {
+        out.writeByteArray(types);
+        for (int i = 0; i < types.length; i++) {
+            IOUtil.writeData(out, keys[i]);
+            if (types[i] == SET) {
+                IOUtil.writeData(out, (Data) arguments[i]);
+            } else if (types[i] == EXECUTE_ON_KEY) {
+                out.writeObject(arguments[i]);
+            }
+        }
+    }
+
+    static void readBatch(ObjectDataInput in, byte[] types, Data[] keys, Object[] arguments) throws IOException {
+        for (int i = 0; i < types.length; i++) {
+            keys[i] = IOUtil.readData(in);
+            if (types[i] == SET) {
+                arguments[i] = IOUtil.readData(in);
+            } else if (types[i] == EXECUTE_ON_KEY) {
+                arguments[i] = in.readObject();
+            }
+        }
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_BATCH;
+    }
+}
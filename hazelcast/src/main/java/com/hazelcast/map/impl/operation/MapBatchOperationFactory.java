@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionAwareOperationFactory;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Creates the {@link MapBatchOperation}s of a batch for all partitions of a
+ * member, so the whole batch takes a single invocation per member.
+ */
+public class MapBatchOperationFactory extends PartitionAwareOperationFactory {
+
+    private String name;
+    private byte[][] types;
+    private Data[][] keys;
+    private Object[][] arguments;
+
+    public MapBatchOperationFactory() {
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public MapBatchOperationFactory(String name, int[] partitions, byte[][] types, Data[][] keys, Object[][] arguments) {
+        this.name = name;
+        this.partitions = partitions;
+        this.types = types;
+        this.keys = keys;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public Operation createPartitionOperation(int partitionId) {
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i] == partitionId) {
+                return new MapBatchOperation(name, types[i], keys[i], arguments[i]);
+            }
+        }
+        throw new IllegalArgumentException("Unknown partitionId " + partitionId + " (" + Arrays.toString(partitions) + ")");
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(name);
+        out.writeIntArray(partitions);
+        for (int i = 0; i < partitions.length; i++) {
+            MapBatchOperation.writeBatch(out, types[i], keys[i], arguments[i]);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        name = in.readString();
+        partitions = in.readIntArray();
+        types = new byte[partitions.length][];
+        keys = new Data[partitions.length][];
+        arguments = new Object[partitions.length][];
+        for (int i = 0; i < partitions.length; i++) {
+            types[i] = in.readByteArray();
+            keys[i] = new Data[types[i].length];
+            arguments[i] = new Object[types[i].length];
+            MapBatchOperation.readBatch(in, types[i], keys[i], arguments[i]);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_BATCH_FACTORY;
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.operation;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.nearcache.impl.invalidation.Invalidator;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
@@ -38,6 +39,7 @@ import com.hazelcast.map.impl.eviction.Evictor;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindStore;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
+import com.hazelcast.map.impl.query.PartitionAggregations;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -98,6 +100,7 @@ public class MapChunk extends Operation
     private transient LinkedList keyRecordExpiry;
     private transient LocalRecordStoreStatsImpl stats;
     private transient List<DelayedEntry> delayedEntriesList;
+    private transient PartitionAggregations.ReplicatedState aggregationState;
 
     private boolean firstChunk;
     private boolean lastChunk;
@@ -125,6 +128,7 @@ public class MapChunk extends Operation
         if (firstChunk) {
             addIndexes(recordStore, mapIndexInfo.getIndexConfigs());
             initializeRecordStore(mapName, recordStore);
+            applyAggregationState(recordStore);
             recordStore.setLocalRecordStoreStats(stats);
             recordStore.setPreMigrationLoadedStatus(loaded);
 
@@ -141,6 +145,21 @@ public class MapChunk extends Operation
 
         if (lastChunk) {
             applyIndexStateAfter(recordStore);
+            verifyAggregationState(recordStore);
+        }
+    }
+
+    private void applyAggregationState(RecordStore recordStore) {
+        PartitionAggregations aggregations = recordStore.getPartitionAggregations();
+        if (aggregationState != null && aggregations != null) {
+            aggregations.applyState(aggregationState);
+        }
+    }
+
+    private void verifyAggregationState(RecordStore recordStore) {
+        PartitionAggregations aggregations = recordStore.getPartitionAggregations();
+        if (aggregationState != null && aggregations != null) {
+            aggregations.verifyAppliedState(aggregationState);
         }
     }
 
@@ -416,6 +435,17 @@ public class MapChunk extends Operation
 
         writeWriteBehindState(out, context.getRecordStore());
         writeNearCacheState(out);
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_3)) {
+            writeAggregationState(out, context.getRecordStore());
+        }
+    }
+
+    private static void writeAggregationState(ObjectDataOutput out, RecordStore recordStore) throws IOException {
+        PartitionAggregations aggregations = recordStore.getPartitionAggregations();
+        out.writeBoolean(aggregations != null);
+        if (aggregations != null) {
+            aggregations.writeState(out);
+        }
     }
 
     public final void writeNearCacheState(ObjectDataOutput out) throws IOException {
@@ -555,6 +585,9 @@ public class MapChunk extends Operation
 
         readWriteBehindState(in);
         readNearCacheState(in);
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_3) && in.readBoolean()) {
+            aggregationState = PartitionAggregations.readState(in);
+        }
     }
 
     private void readWriteBehindState(ObjectDataInput in) throws IOException {
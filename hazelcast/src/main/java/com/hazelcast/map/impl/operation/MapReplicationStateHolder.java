@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.operation;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.monitor.impl.LocalReplicationStatsImpl;
@@ -37,6 +38,7 @@ import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.eviction.Evictor;
+import com.hazelcast.map.impl.query.PartitionAggregations;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -90,6 +92,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     // operations, which meant that the index did not include some data.
     protected transient List<MapIndexInfo> mapIndexInfos;
 
+    // accumulated state of the continuous aggregations per map name
+    protected transient Map<String, PartitionAggregations.ReplicatedState> aggregationStates;
+
     // mapName -> null = full sync required
     // mapName -> int[0] = no difference
     // mapName -> int[2*n] = mapName -> Merkle tree node order/value pairs
@@ -177,6 +182,12 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 try {
                     initializeRecordStore(mapName, recordStore);
                     recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                    PartitionAggregations.ReplicatedState aggregationState = aggregationStates == null
+                            ? null : aggregationStates.get(mapName);
+                    PartitionAggregations aggregations = recordStore.getPartitionAggregations();
+                    if (aggregationState != null && aggregations != null) {
+                        aggregations.applyState(aggregationState);
+                    }
 
                     MapContainer mapContainer = recordStore.getMapContainer();
                     PartitionContainer partitionContainer = recordStore.getMapContainer().getMapServiceContext()
@@ -202,7 +213,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                     long nowInMillis = Clock.currentTimeMillis();
                     forEachReplicatedRecord(keyRecordExpiry, mapContainer, recordStore,
                         populateIndexes, nowInMillis);
-
+                    if (aggregationState != null && aggregations != null) {
+                        aggregations.verifyAppliedState(aggregationState);
+                    }
 
                     if (populateIndexes) {
                         Indexes.markPartitionAsIndexed(partitionContainer.getPartitionId(), indexesSnapshot);
@@ -346,6 +359,24 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
             out.writeObject(mapIndexInfo);
         }
+
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_3)) {
+            writeAggregationStates(out);
+        }
+    }
+
+    private void writeAggregationStates(ObjectDataOutput out) throws IOException {
+        List<RecordStore<Record>> aggregatedStores = new ArrayList<>();
+        for (RecordStore<Record> recordStore : storesByMapName.values()) {
+            if (recordStore.getPartitionAggregations() != null) {
+                aggregatedStores.add(recordStore);
+            }
+        }
+        out.writeInt(aggregatedStores.size());
+        for (RecordStore<Record> recordStore : aggregatedStores) {
+            out.writeString(recordStore.getName());
+            recordStore.getPartitionAggregations().writeState(out);
+        }
     }
 
     private void writeRecordStore(String mapName, RecordStore<Record> recordStore, ObjectDataOutput out)
@@ -424,6 +455,14 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             MapIndexInfo mapIndexInfo = in.readObject();
             mapIndexInfos.add(mapIndexInfo);
         }
+
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_3)) {
+            int aggregationStateSize = in.readInt();
+            aggregationStates = createHashMap(aggregationStateSize);
+            for (int i = 0; i < aggregationStateSize; i++) {
+                aggregationStates.put(in.readString(), PartitionAggregations.readState(in));
+            }
+        }
     }
 
     protected void readDifferentialData(String mapName, ObjectDataInput in)
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+
+import java.io.IOException;
+
+public class RemoveContinuousAggregationBackupOperation extends MapOperation implements BackupOperation {
+
+    private String aggregationName;
+
+    public RemoveContinuousAggregationBackupOperation() {
+    }
+
+    public RemoveContinuousAggregationBackupOperation(String name, String aggregationName) {
+        super(name);
+        this.aggregationName = aggregationName;
+    }
+
+    @Override
+    protected void runInternal() {
+        recordStore.getPartitionAggregations().remove(aggregationName);
+    }
+
+    @Override
+    public Object getResponse() {
+        return Boolean.TRUE;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(aggregationName);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        aggregationName = in.readString();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.REMOVE_CONTINUOUS_AGGREGATION_BACKUP;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Removes a continuous aggregation from a partition of a map.
+ */
+public class RemoveContinuousAggregationOperation extends MapOperation
+        implements PartitionAwareOperation, MutatingOperation, BackupAwareOperation {
+
+    private String aggregationName;
+    private transient boolean removed;
+
+    public RemoveContinuousAggregationOperation() {
+    }
+
+    public RemoveContinuousAggregationOperation(String name, String aggregationName) {
+        super(name);
+        this.aggregationName = aggregationName;
+    }
+
+    @Override
+    protected void runInternal() {
+        removed = recordStore.getPartitionAggregations().remove(aggregationName);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return mapContainer.getTotalBackupCount() > 0;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getTotalBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return 0;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new RemoveContinuousAggregationBackupOperation(name, aggregationName);
+    }
+
+    @Override
+    public Object getResponse() {
+        return removed;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(aggregationName);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        aggregationName = in.readString();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.REMOVE_CONTINUOUS_AGGREGATION;
+    }
+}
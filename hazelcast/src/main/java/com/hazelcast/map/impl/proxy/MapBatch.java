@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.proxy;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.ConcurrencyUtil;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.operation.MapBatchOperation;
+import com.hazelcast.map.impl.operation.MapBatchOperationFactory;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.SerializableList;
+import com.hazelcast.spi.impl.operationservice.OperationFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.map.impl.proxy.MapProxySupport.validateEntryProcessorForSingleKeyProcessing;
+import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
+import static java.util.Collections.singletonMap;
+
+/**
+ * A batch of heterogeneous single-key operations on a map executed with a
+ * single invocation per member.
+ * <p>
+ * The operations are grouped by partition, the operations of a partition
+ * are executed in one pass on the partition thread in the order they were
+ * added to the batch. Each operation has the same effect as the
+ * corresponding {@link com.hazelcast.map.IMap} method, but the batch does
+ * not wait for the locks of the keys and does not offload the entry
+ * processors. The batch is not atomic, the operations of different
+ * partitions are executed independently.
+ * <p>
+ * The batch is not thread-safe and can be executed multiple times.
+ *
+ * @param <K> the key type of map.
+ * @param <V> the value type of map.
+ */
+public final class MapBatch<K, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final MapProxySupport<K, V> map;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private Data[] keys = new Data[INITIAL_CAPACITY];
+    private Object[] arguments = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    MapBatch(MapProxySupport<K, V> map) {
+        this.map = map;
+    }
+
+    /**
+     * Adds {@link com.hazelcast.map.IMap#get} of the key to the batch, its
+     * result is the value of the key or {@code null}.
+     */
+    public MapBatch<K, V> get(@Nonnull K key) {
+        return add(MapBatchOperation.GET, key, null);
+    }
+
+    /**
+     * Adds {@link com.hazelcast.map.IMap#set} of the key to the batch, its
+     * result is {@code null}.
+     */
+    public MapBatch<K, V> set(@Nonnull K key, @Nonnull V value) {
+        checkNotNull(value, MapProxySupport.NULL_VALUE_IS_NOT_ALLOWED);
+        return add(MapBatchOperation.SET, key, map.serializationService.toData(value));
+    }
+
+    /**
+     * Adds {@link com.hazelcast.map.IMap#delete} of the key to the batch, its
+     * result is {@code true} if the key was present.
+     */
+    public MapBatch<K, V> delete(@Nonnull K key) {
+        return add(MapBatchOperation.DELETE, key, null);
+    }
+
+    /**
+     * Adds {@link com.hazelcast.map.IMap#executeOnKey} of the entry processor
+     * to the batch, its result is the result of the entry processor.
+     */
+    public MapBatch<K, V> executeOnKey(@Nonnull K key, @Nonnull EntryProcessor<K, V, ?> entryProcessor) {
+        checkNotNull(entryProcessor, "Null entry processor is not allowed!");
+        validateEntryProcessorForSingleKeyProcessing(entryProcessor);
+        map.handleHazelcastInstanceAwareParams(entryProcessor);
+        return add(MapBatchOperation.EXECUTE_ON_KEY, key, entryProcessor);
+    }
+
+    /**
+     * @return the number of the operations in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Executes the operations of the batch. Each member receives a single
+     * {@link MapBatchOperationFactory} with the operations of the partitions
+     * it owns only.
+     *
+     * @return the future of the results of the operations in the order they
+     * were added to the batch.
+     */
+    public InternalCompletableFuture<List<Object>> execute() {
+        if (size == 0) {
+            return newCompletedFuture(Collections.emptyList());
+        }
+        int[] partitionIds = new int[size];
+        int[] indexesInPartition = new int[size];
+        Map<Integer, List<Integer>> operationsByPartition = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int partitionId = map.partitionService.getPartitionId(keys[i]);
+            List<Integer> partitionOperations = operationsByPartition.computeIfAbsent(partitionId, id -> new ArrayList<>());
+            partitionIds[i] = partitionId;
+            indexesInPartition[i] = partitionOperations.size();
+            partitionOperations.add(i);
+        }
+        Map<Address, List<Integer>> partitionsByMember = new HashMap<>();
+        for (int partitionId : operationsByPartition.keySet()) {
+            Address owner = map.partitionService.getPartitionOwnerOrWait(partitionId);
+            partitionsByMember.computeIfAbsent(owner, address -> new ArrayList<>()).add(partitionId);
+        }
+
+        InternalCompletableFuture<List<Object>> resultFuture = new InternalCompletableFuture<>();
+        Map<Integer, Object> responses = new ConcurrentHashMap<>();
+        AtomicInteger pendingMembers = new AtomicInteger(partitionsByMember.size());
+        for (Entry<Address, List<Integer>> entry : partitionsByMember.entrySet()) {
+            OperationFactory factory = createOperationFactory(entry.getValue(), operationsByPartition);
+            map.operationService.invokeOnPartitionsAsync(SERVICE_NAME, factory, singletonMap(entry.getKey(), entry.getValue()))
+                    .whenCompleteAsync((response, throwable) -> {
+                        if (throwable != null) {
+                            resultFuture.completeExceptionally(throwable);
+                            return;
+                        }
+                        responses.putAll(response);
+                        if (pendingMembers.decrementAndGet() == 0) {
+                            completeResults(resultFuture, responses, partitionIds, indexesInPartition);
+                        }
+                    }, ConcurrencyUtil.getDefaultAsyncExecutor());
+        }
+        return resultFuture;
+    }
+
+    private OperationFactory createOperationFactory(List<Integer> memberPartitions,
+                                                    Map<Integer, List<Integer>> operationsByPartition) {
+        int partitionCount = memberPartitions.size();
+        int[] partitions = new int[partitionCount];
+        byte[][] partitionTypes = new byte[partitionCount][];
+        Data[][] partitionKeys = new Data[partitionCount][];
+        Object[][] partitionArguments = new Object[partitionCount][];
+        for (int index = 0; index < partitionCount; index++) {
+            int partitionId = memberPartitions.get(index);
+            List<Integer> partitionOperations = operationsByPartition.get(partitionId);
+            partitions[index] = partitionId;
+            partitionTypes[index] = new byte[partitionOperations.size()];
+            partitionKeys[index] = new Data[partitionOperations.size()];
+            partitionArguments[index] = new Object[partitionOperations.size()];
+            for (int j = 0; j < partitionOperations.size(); j++) {
+                int operation = partitionOperations.get(j);
+                partitionTypes[index][j] = types[operation];
+                partitionKeys[index][j] = keys[operation];
+                partitionArguments[index][j] = arguments[operation];
+            }
+        }
+        return new MapBatchOperationFactory(map.name, partitions, partitionTypes, partitionKeys, partitionArguments);
+    }
+
+    private void completeResults(InternalCompletableFuture<List<Object>> resultFuture, Map<Integer, Object> responses,
+                                 int[] partitionIds, int[] indexesInPartition) {
+        try {
+            List<Object> results = new ArrayList<>(partitionIds.length);
+            for (int i = 0; i < partitionIds.length; i++) {
+                SerializableList partitionResults = (SerializableList) responses.get(partitionIds[i]);
+                results.add(map.serializationService.toObject(partitionResults.getCollection().get(indexesInPartition[i])));
+            }
+            resultFuture.complete(results);
+        } catch (Throwable t) {
+            resultFuture.completeExceptionally(t);
+        }
+    }
+
+    private MapBatch<K, V> add(byte type, K key, Object argument) {
+        checkNotNull(key, MapProxySupport.NULL_KEY_IS_NOT_ALLOWED);
+        if (size == types.length) {
+            int capacity = 2 * size;
+            types = Arrays.copyOf(types, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            arguments = Arrays.copyOf(arguments, capacity);
+        }
+        types[size] = type;
+        keys[size] = map.toDataWithStrategy(key);
+        arguments[size] = argument;
+        size++;
+        return this;
+    }
+}
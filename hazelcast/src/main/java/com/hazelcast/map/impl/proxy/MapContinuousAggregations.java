@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.proxy;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.map.impl.operation.AddContinuousAggregationOperation;
+import com.hazelcast.map.impl.operation.GetContinuousAggregationOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationOperation;
+import com.hazelcast.map.impl.query.ContinuousAggregation;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.impl.operationservice.BinaryOperationFactory;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.map.impl.proxy.MapProxySupport.NULL_AGGREGATOR_IS_NOT_ALLOWED;
+import static com.hazelcast.map.impl.proxy.MapProxySupport.NULL_PREDICATE_IS_NOT_ALLOWED;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.checkDoesNotContainPagingPredicate;
+
+/**
+ * The continuous aggregations of a map: aggregations of the entries which
+ * satisfy a predicate, optionally grouped by the value of an attribute.
+ * <p>
+ * Each partition keeps the accumulated aggregators of the aggregation and
+ * updates them on every mutation of its entries, so reading the result
+ * with {@link #get} or {@link #getGrouped} only combines one accumulator per
+ * group and partition instead of scanning the map. Removals and updates
+ * are applied by deaccumulating the old value if the aggregator supports
+ * it, like the count, the integral sums and the averages do; otherwise the
+ * partition is rescanned on the next read. The accumulated state is
+ * replicated to the backups and carried over by migrations.
+ *
+ * @param <K> the key type of map.
+ * @param <V> the value type of map.
+ */
+public final class MapContinuousAggregations<K, V> {
+
+    private final MapProxySupport<K, V> map;
+
+    MapContinuousAggregations(MapProxySupport<K, V> map) {
+        this.map = map;
+    }
+
+    /**
+     * Registers a continuous aggregation. Registering an aggregation under an
+     * already used name replaces it.
+     *
+     * @param aggregationName  the name of the aggregation
+     * @param aggregator       the aggregator to accumulate the entries with
+     * @param predicate        the predicate which the entries must match
+     * @param groupByAttribute the attribute to group the entries by or
+     *                         {@code null} to aggregate all entries together
+     * @throws IllegalArgumentException if the predicate is a {@link PagingPredicate} or the
+     *                                  group-by attribute contains the {@code [any]} operator
+     */
+    public void add(@Nonnull String aggregationName,
+                    @Nonnull Aggregator<? super Map.Entry<K, V>, ?> aggregator,
+                    @Nonnull Predicate<K, V> predicate,
+                    @Nullable String groupByAttribute) {
+        checkNotNull(aggregationName, "Aggregation name cannot be null.");
+        checkNotNull(aggregator, NULL_AGGREGATOR_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkDoesNotContainPagingPredicate(predicate, "addContinuousAggregation");
+        checkTrue(groupByAttribute == null || !groupByAttribute.contains("[any]"),
+                "Grouping by an attribute with the [any] operator is not supported.");
+        map.handleHazelcastInstanceAwareParams(predicate);
+        // HazelcastInstanceAware handled by cloning
+        Aggregator aggregatorCopy = map.serializationService.toObject(map.serializationService.toData(aggregator));
+
+        ContinuousAggregation definition = new ContinuousAggregation(aggregationName, predicate, aggregatorCopy,
+                groupByAttribute);
+        invokeOnAllPartitions(new AddContinuousAggregationOperation(map.name, definition));
+    }
+
+    /**
+     * Removes the continuous aggregation registered under the given name.
+     *
+     * @param aggregationName the name of the aggregation
+     * @return {@code true} if the aggregation was registered
+     */
+    public boolean remove(@Nonnull String aggregationName) {
+        checkNotNull(aggregationName, "Aggregation name cannot be null.");
+        Map<Integer, Object> results = invokeOnAllPartitions(
+                new RemoveContinuousAggregationOperation(map.name, aggregationName));
+        return results.containsValue(Boolean.TRUE);
+    }
+
+    /**
+     * Returns the current result of the continuous aggregation registered
+     * without a group-by attribute.
+     *
+     * @param aggregationName the name of the aggregation
+     * @param <R>             the result type of the aggregator
+     * @return the result of the aggregation
+     * @throws IllegalArgumentException if no aggregation is registered under the name
+     */
+    public <R> R get(@Nonnull String aggregationName) {
+        return this.<R>getGrouped(aggregationName).get(null);
+    }
+
+    /**
+     * Returns the current results of the continuous aggregation by the values
+     * of its group-by attribute. Groups without matching entries are not
+     * present in the result.
+     *
+     * @param aggregationName the name of the aggregation
+     * @param <R>             the result type of the aggregator
+     * @return the results of the aggregation by groups
+     * @throws IllegalArgumentException if no aggregation is registered under the name
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Map<Object, R> getGrouped(@Nonnull String aggregationName) {
+        checkNotNull(aggregationName, "Aggregation name cannot be null.");
+        Map<Integer, Object> results = invokeOnAllPartitions(
+                new GetContinuousAggregationOperation(map.name, aggregationName));
+
+        Map<Object, Aggregator> combined = new HashMap<>();
+        boolean registered = false;
+        for (Object result : results.values()) {
+            if (result == null) {
+                continue;
+            }
+            registered = true;
+            for (Map.Entry<Object, Aggregator> group : ((Map<Object, Aggregator>) result).entrySet()) {
+                Aggregator aggregator = combined.get(group.getKey());
+                if (aggregator == null) {
+                    combined.put(group.getKey(), group.getValue());
+                } else {
+                    aggregator.combine(group.getValue());
+                }
+            }
+        }
+        checkTrue(registered, "No continuous aggregation '" + aggregationName + "' in map '" + map.name + "'");
+
+        Map<Object, R> aggregated = createHashMap(combined.size());
+        for (Map.Entry<Object, Aggregator> group : combined.entrySet()) {
+            Aggregator aggregator = group.getValue();
+            aggregator.onCombinationFinished();
+            aggregated.put(group.getKey(), (R) aggregator.aggregate());
+        }
+        return aggregated;
+    }
+
+    private Map<Integer, Object> invokeOnAllPartitions(Operation operation) {
+        try {
+            return map.operationService.invokeOnAllPartitions(SERVICE_NAME,
+                    new BinaryOperationFactory(operation, map.getNodeEngine()));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+}
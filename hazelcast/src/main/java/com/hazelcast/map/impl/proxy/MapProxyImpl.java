@@ -48,6 +48,7 @@ import com.hazelcast.map.impl.iterator.MapPartitionIterator;
 import com.hazelcast.map.impl.iterator.MapQueryIterable;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterable;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryStreamingIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
 import com.hazelcast.map.impl.query.AggregationResult;
@@ -908,6 +909,25 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return result.<R>getAggregator().aggregate();
     }
 
+    /**
+     * Creates an empty batch of single-key operations on this map, which are
+     * grouped by partition and executed with a single invocation per member.
+     *
+     * @return the new batch
+     * @see MapBatch
+     */
+    public MapBatch<K, V> newBatch() {
+        return new MapBatch<>(this);
+    }
+
+    /**
+     * @return the continuous aggregations of this map.
+     * @see MapContinuousAggregations
+     */
+    public MapContinuousAggregations<K, V> continuousAggregations() {
+        return new MapContinuousAggregations<>(this);
+    }
+
     @Override
     public <R> Collection<R> project(@Nonnull Projection<? super Map.Entry<K, V>, R> projection) {
         return project(projection, Predicates.alwaysTrue());
@@ -1129,6 +1149,52 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryIterable<>(this, fetchSize, partitionCount, projection, predicate);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on
+     * entries in all of the partitions which satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #entrySet(Predicate)}, the result is not materialized on
+     * the members nor on the caller and is not subject to the query result
+     * size limit. It is fetched in batches of {@code fetchSize} entries from
+     * up to {@code parallelism} partitions at a time and the batches are
+     * returned in the order they arrive, so the first entries are available
+     * as soon as any partition responds. The next batch is requested only once
+     * a batch is consumed, which bounds the memory the iteration takes on the
+     * caller to {@code parallelism * fetchSize} entries. The iteration order
+     * is not defined.
+     * <p>
+     * The guarantees of the iteration are the same as the ones of
+     * {@link #iterator(int, int, Projection, Predicate)}.
+     *
+     * @param fetchSize   the size of the batches which will be sent when iterating the data
+     * @param parallelism the maximum number of the batches being fetched or waiting to be consumed
+     * @param projection  the projection to apply before returning the value. {@code null} value
+     *                    is not allowed
+     * @param predicate   the predicate which the entries must match. {@code null} value is not
+     *                    allowed
+     * @param <R>         the return type
+     * @return an iterator for the projected entries
+     * @throws IllegalArgumentException if the predicate is a {@link com.hazelcast.query.PagingPredicate} or is a
+     *                                  {@link com.hazelcast.query.PartitionPredicate} that includes a
+     *                                  {@link com.hazelcast.query.PagingPredicate}
+     */
+    @Nonnull
+    public <R> Iterator<R> streamingIterator(
+            int fetchSize,
+            int parallelism,
+            @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+            @Nonnull Predicate<K, V> predicate
+    ) {
+        checkDoesNotContainPagingPredicate(predicate, "streamingIterator");
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        // HazelcastInstanceAware handled by cloning
+        projection = serializationService.toObject(serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        int partitionCount = partitionService.getPartitionCount();
+        return new MapQueryStreamingIterator<>(this, fetchSize, partitionCount, parallelism, predicate, projection);
+    }
+
     /**
      * Returns an iterable for iterating entries in the all of the partitions. If
      * {@code prefetchValues} is {@code true}, values will be sent along with
@@ -92,6 +92,7 @@ import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
@@ -223,6 +224,7 @@ abstract class MapProxySupport<K, V>
     private boolean failOnIndeterminateOperationState;
 
     private final int putAllBatchSize;
+    private final OperationServiceImpl pooledOperationService;
     private final float putAllInitialSizeFactor;
 
     protected MapProxySupport(String name, MapService service, NodeEngine nodeEngine, MapConfig mapConfig) {
@@ -249,6 +251,11 @@ abstract class MapProxySupport<K, V>
         this.putAllInitialSizeFactor = properties.getFloat(MAP_PUT_ALL_INITIAL_SIZE_FACTOR);
         // default value the same as in OperationService
         this.failOnIndeterminateOperationState = properties.getBoolean(FAIL_ON_INDETERMINATE_OPERATION_STATE);
+        // the synchronous calls don't let their invocations escape, so they can use pooled ones
+        this.pooledOperationService = operationService instanceof OperationServiceImpl
+                && ((OperationServiceImpl) operationService).isInvocationPoolingEnabled()
+                ? (OperationServiceImpl) operationService
+                : null;
     }
 
     @Override
@@ -500,20 +507,10 @@ abstract class MapProxySupport<K, V>
             Object result;
             if (statisticsEnabled) {
                 long startTimeNanos = Timer.nanos();
-                Future future = operationService
-                        .createInvocationBuilder(SERVICE_NAME, operation, partitionId)
-                        .setResultDeserialized(false)
-                        .setFailOnIndeterminateOperationState(failOnIndeterminateOperationState)
-                        .invoke();
-                result = future.get();
+                result = invokeAndGet(operation, partitionId);
                 incrementOperationStats(operation, localMapStats, startTimeNanos);
             } else {
-                Future future = operationService
-                        .createInvocationBuilder(SERVICE_NAME, operation, partitionId)
-                        .setResultDeserialized(false)
-                        .setFailOnIndeterminateOperationState(failOnIndeterminateOperationState)
-                        .invoke();
-                result = future.get();
+                result = invokeAndGet(operation, partitionId);
             }
             return result;
         } catch (Throwable t) {
@@ -521,6 +518,19 @@ abstract class MapProxySupport<K, V>
         }
     }
 
+    private Object invokeAndGet(MapOperation operation, int partitionId) throws Exception {
+        if (pooledOperationService != null) {
+            return pooledOperationService.invokeOnPartitionAndGet(SERVICE_NAME, operation, partitionId,
+                    failOnIndeterminateOperationState);
+        }
+        Future future = operationService
+                .createInvocationBuilder(SERVICE_NAME, operation, partitionId)
+                .setResultDeserialized(false)
+                .setFailOnIndeterminateOperationState(failOnIndeterminateOperationState)
+                .invoke();
+        return future.get();
+    }
+
     protected InternalCompletableFuture<Data> invokeOperationAsync(Object key,
                                                                    MapOperation operation,
                                                                    boolean resultDeserialized) {
@@ -1246,7 +1256,7 @@ abstract class MapProxySupport<K, V>
                 .invoke();
     }
 
-    private static void validateEntryProcessorForSingleKeyProcessing(EntryProcessor entryProcessor) {
+    static void validateEntryProcessorForSingleKeyProcessing(EntryProcessor entryProcessor) {
         if (entryProcessor instanceof ReadOnly) {
             EntryProcessor backupProcessor = entryProcessor.getBackupProcessor();
             if (backupProcessor != null) {
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.ColumnarAggregator;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.PrimitiveColumn;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.BetweenPredicate;
+import com.hazelcast.query.impl.predicates.BoundedRangePredicate;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.FalsePredicate;
+import com.hazelcast.query.impl.predicates.GreaterLessPredicate;
+import com.hazelcast.query.impl.predicates.NotPredicate;
+import com.hazelcast.query.impl.predicates.OrPredicate;
+import com.hazelcast.query.impl.predicates.RangePredicate;
+import com.hazelcast.query.impl.predicates.SqlPredicate;
+import com.hazelcast.query.impl.predicates.TruePredicate;
+
+import java.util.Arrays;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+import static com.hazelcast.query.impl.PrimitiveColumn.UNSUPPORTED;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Evaluates a predicate and feeds the matching entries to a result using the
+ * {@link PartitionColumns columnar projection} of a partition.
+ * <p>
+ * The predicate is evaluated into a selection vector by filtering primitive
+ * columns. Only the comparison predicates over integer, long and double
+ * attributes and their conjunctions, disjunctions and negations are
+ * supported. Aggregations implementing {@link ColumnarAggregator} consume the
+ * selection directly; other results receive the selected entries.
+ * <p>
+ * Nothing is added to the result if the predicate or the aggregator can't be
+ * evaluated over the columns, the caller falls back to the row-by-row scan.
+ */
+final class ColumnarPartitionScan {
+
+    private final PartitionColumns.Rows rows;
+    private final InternalSerializationService ss;
+    private final Extractors extractors;
+
+    ColumnarPartitionScan(PartitionColumns.Rows rows, InternalSerializationService ss, Extractors extractors) {
+        this.rows = rows;
+        this.ss = ss;
+        this.extractors = extractors;
+    }
+
+    /**
+     * @return {@code true} if the scan was done, {@code false} if the result
+     * was left intact, because the scan can't be done over the columns.
+     */
+    boolean run(Predicate predicate, Result result) {
+        int[] selection = new int[rows.size];
+        for (int i = 0; i < selection.length; ++i) {
+            selection[i] = i;
+        }
+        int count = filter(predicate, selection, selection.length);
+        if (count == UNSUPPORTED) {
+            return false;
+        }
+
+        if (result instanceof AggregationResult) {
+            return aggregate(((AggregationResult) result).getAggregator(), selection, count);
+        }
+        for (int i = 0; i < count; ++i) {
+            int row = selection[i];
+            result.add(new LazyMapEntry(rows.keys[row], rows.values[row], ss, extractors));
+        }
+        return true;
+    }
+
+    private boolean aggregate(Aggregator aggregator, int[] selection, int count) {
+        if (!(aggregator instanceof ColumnarAggregator)) {
+            return false;
+        }
+        if (count == 0) {
+            return true;
+        }
+        ColumnarAggregator columnarAggregator = (ColumnarAggregator) aggregator;
+        if (columnarAggregator.accumulateColumn(null, selection, count)) {
+            return true;
+        }
+        String attributePath = columnarAggregator.getAttributePath();
+        String attribute = attributePath == null ? THIS_ATTRIBUTE_NAME.value() : canonicalizeAttribute(attributePath);
+        PrimitiveColumn column = column(attribute);
+        return column != null && columnarAggregator.accumulateColumn(column, selection, count);
+    }
+
+    /**
+     * Retains in the given selection the rows matching the given predicate.
+     *
+     * @return the size of the updated selection or {@link
+     * PrimitiveColumn#UNSUPPORTED}.
+     */
+    @SuppressWarnings("checkstyle:returncount")
+    private int filter(Predicate predicate, int[] selection, int count) {
+        if (predicate instanceof TruePredicate) {
+            return count;
+        } else if (predicate instanceof FalsePredicate) {
+            return 0;
+        } else if (predicate instanceof SqlPredicate) {
+            return filter(((SqlPredicate) predicate).getPredicate(), selection, count);
+        } else if (predicate instanceof AndPredicate) {
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                count = filter(subPredicate, selection, count);
+                if (count == UNSUPPORTED || count == 0) {
+                    return count;
+                }
+            }
+            return count;
+        } else if (predicate instanceof OrPredicate) {
+            return filterAny(((OrPredicate) predicate).getPredicates(), selection, count);
+        } else if (predicate instanceof NotPredicate) {
+            int[] matching = Arrays.copyOf(selection, count);
+            int matchingCount = filter(((NotPredicate) predicate).getPredicate(), matching, count);
+            return matchingCount == UNSUPPORTED ? UNSUPPORTED : subtract(selection, count, matching, matchingCount);
+        } else if (isColumnarRangePredicate(predicate)) {
+            return filterRange((RangePredicate) predicate, selection, count);
+        }
+        return UNSUPPORTED;
+    }
+
+    private int filterAny(Predicate[] predicates, int[] selection, int count) {
+        int[] union = new int[count];
+        int unionCount = 0;
+        int[] matching = new int[count];
+        for (Predicate subPredicate : predicates) {
+            System.arraycopy(selection, 0, matching, 0, count);
+            int matchingCount = filter(subPredicate, matching, count);
+            if (matchingCount == UNSUPPORTED) {
+                return UNSUPPORTED;
+            }
+            unionCount = union(union, unionCount, matching, matchingCount);
+        }
+        System.arraycopy(union, 0, selection, 0, unionCount);
+        return unionCount;
+    }
+
+    private int filterRange(RangePredicate predicate, int[] selection, int count) {
+        PrimitiveColumn column = column(predicate.getAttribute());
+        if (column == null) {
+            return UNSUPPORTED;
+        }
+        Comparable from = predicate.getFrom();
+        Comparable to = predicate.getTo();
+        if (predicate instanceof EqualPredicate) {
+            return isNull(from) ? column.filterNull(selection, count) : column.filterRange(from, true, from, true,
+                    selection, count);
+        }
+        if (!hasColumnarBounds(predicate, from, to)) {
+            return UNSUPPORTED;
+        }
+        return column.filterRange(from, predicate.isFromInclusive(), to, predicate.isToInclusive(), selection, count);
+    }
+
+    private PrimitiveColumn column(String attribute) {
+        return rows.getColumn(attribute, ss, extractors);
+    }
+
+    /**
+     * Checks if the bounds of the given range predicate, other than equality,
+     * can be evaluated over a column. The comparisons with nulls are
+     * evaluated by the predicates themselves.
+     */
+    private static boolean hasColumnarBounds(RangePredicate predicate, Comparable from, Comparable to) {
+        if (from == null && to == null || isNullBound(from) || isNullBound(to)) {
+            return false;
+        }
+        return !(predicate instanceof BetweenPredicate) || from != null && to != null;
+    }
+
+    private static boolean isNullBound(Comparable bound) {
+        return bound != null && isNull(bound);
+    }
+
+    private static boolean isColumnarRangePredicate(Predicate predicate) {
+        Class<?> type = predicate.getClass();
+        return type == EqualPredicate.class || type == GreaterLessPredicate.class || type == BetweenPredicate.class
+                || type == BoundedRangePredicate.class;
+    }
+
+    /**
+     * Merges the ascending {@code rows} into the ascending {@code target}.
+     *
+     * @return the size of the merged selection.
+     */
+    private static int union(int[] target, int targetCount, int[] rows, int rowCount) {
+        if (targetCount == 0) {
+            System.arraycopy(rows, 0, target, 0, rowCount);
+            return rowCount;
+        }
+        int[] merged = new int[targetCount + rowCount];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < targetCount && j < rowCount) {
+            int left = target[i];
+            int right = rows[j];
+            if (left == right) {
+                ++i;
+                ++j;
+            } else if (left < right) {
+                ++i;
+            } else {
+                ++j;
+            }
+            merged[count++] = Math.min(left, right);
+        }
+        while (i < targetCount) {
+            merged[count++] = target[i++];
+        }
+        while (j < rowCount) {
+            merged[count++] = rows[j++];
+        }
+        System.arraycopy(merged, 0, target, 0, count);
+        return count;
+    }
+
+    /**
+     * Removes the ascending {@code rows} from the ascending {@code target}.
+     *
+     * @return the size of the updated selection.
+     */
+    private static int subtract(int[] target, int targetCount, int[] rows, int rowCount) {
+        int j = 0;
+        int count = 0;
+        for (int i = 0; i < targetCount; ++i) {
+            int row = target[i];
+            while (j < rowCount && rows[j] < row) {
+                ++j;
+            }
+            if (j == rowCount || rows[j] != row) {
+                target[count++] = row;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.Predicate;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Definition of a continuous aggregation of a map: the aggregation of the
+ * entries matching the predicate, optionally grouped by the value of an
+ * attribute. The aggregation is maintained incrementally by the {@link
+ * PartitionAggregations} of each partition.
+ */
+public class ContinuousAggregation implements IdentifiedDataSerializable {
+
+    private String name;
+    private Predicate predicate;
+    private Aggregator aggregator;
+    private String groupByAttribute;
+
+    public ContinuousAggregation() {
+    }
+
+    public ContinuousAggregation(String name, Predicate predicate, Aggregator aggregator,
+                                 @Nullable String groupByAttribute) {
+        this.name = name;
+        this.predicate = predicate;
+        this.aggregator = aggregator;
+        this.groupByAttribute = groupByAttribute;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * @return the aggregator used as the prototype of the aggregators of the
+     * individual groups, never accumulated itself.
+     */
+    public Aggregator getAggregator() {
+        return aggregator;
+    }
+
+    /**
+     * @return the attribute to group the entries by or {@code null} if all the
+     * matching entries are aggregated into a single group.
+     */
+    @Nullable
+    public String getGroupByAttribute() {
+        return groupByAttribute;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.CONTINUOUS_AGGREGATION;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(name);
+        out.writeObject(predicate);
+        out.writeObject(aggregator);
+        out.writeString(groupByAttribute);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        name = in.readString();
+        predicate = in.readObject();
+        aggregator = in.readObject();
+        groupByAttribute = in.readString();
+    }
+
+    @Override
+    public String toString() {
+        return "ContinuousAggregation{"
+                + "name='" + name + '\''
+                + ", predicate=" + predicate
+                + ", aggregator=" + aggregator
+                + ", groupByAttribute='" + groupByAttribute + '\''
+                + '}';
+    }
+}
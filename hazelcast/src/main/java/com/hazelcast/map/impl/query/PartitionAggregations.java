@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.DeaccumulatingAggregator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-partition state of the {@link ContinuousAggregation continuous
+ * aggregations} of a map, maintained incrementally while observing the
+ * mutations of the record store.
+ * <p>
+ * Each aggregation keeps an accumulated aggregator per group. Added entries
+ * are accumulated, removed entries and the old values of updated entries are
+ * deaccumulated if the aggregator is a {@link DeaccumulatingAggregator};
+ * otherwise the aggregation is marked dirty and accumulated again from the
+ * whole partition when it is read next time. Newly registered aggregations
+ * are dirty as well.
+ * <p>
+ * The state of the partition replicas is not rebuilt from the replicated
+ * records, the replication carries the accumulated state instead, see
+ * {@link #writeState} and {@link #applyState}.
+ * <p>
+ * The mutations are observed on the partition thread, the state is
+ * synchronized only to let the replication serialize it on another thread.
+ */
+public class PartitionAggregations implements MutationObserver<Record> {
+
+    private final RecordStore<Record> recordStore;
+    private final InternalSerializationService ss;
+    private final CachedQueryEntry<?, ?> entry;
+    private final Map<String, Aggregation> aggregations = new ConcurrentHashMap<>();
+
+    public PartitionAggregations(RecordStore<Record> recordStore, InternalSerializationService ss,
+                                 Extractors extractors) {
+        this.recordStore = recordStore;
+        this.ss = ss;
+        this.entry = new CachedQueryEntry<>(ss, extractors);
+    }
+
+    /**
+     * Registers the given aggregation, replacing the one with the same name.
+     * The aggregation is accumulated from the whole partition on the first
+     * read.
+     */
+    public synchronized void add(ContinuousAggregation definition) {
+        aggregations.put(definition.getName(), new Aggregation(definition));
+    }
+
+    /**
+     * @return {@code true} if the aggregation with the given name was
+     * registered, {@code false} otherwise.
+     */
+    public synchronized boolean remove(String name) {
+        return aggregations.remove(name) != null;
+    }
+
+    /**
+     * Returns copies of the accumulated aggregators of the given aggregation
+     * by groups. The aggregations without the group-by attribute have a single
+     * {@code null} group, which is present even if no entry is accumulated.
+     *
+     * @return the aggregators by groups or {@code null} if there is no such
+     * aggregation registered.
+     */
+    @Nullable
+    public synchronized Map<Object, Aggregator> getAggregators(String name) {
+        Aggregation aggregation = aggregations.get(name);
+        if (aggregation == null) {
+            return null;
+        }
+        if (aggregation.dirty) {
+            accumulateAll(aggregation);
+        }
+        Map<Object, Aggregator> result = new HashMap<>();
+        for (Map.Entry<Object, Group> group : aggregation.groups.entrySet()) {
+            result.put(group.getKey(), copy(group.getValue().aggregator));
+        }
+        if (result.isEmpty() && aggregation.definition.getGroupByAttribute() == null) {
+            result.put(null, copy(aggregation.definition.getAggregator()));
+        }
+        return result;
+    }
+
+    /**
+     * Writes the definitions and the accumulated state of the aggregations
+     * for the replication of the partition.
+     */
+    public synchronized void writeState(ObjectDataOutput out) throws IOException {
+        out.writeLong(recordStore.size());
+        out.writeInt(aggregations.size());
+        for (Aggregation aggregation : aggregations.values()) {
+            out.writeObject(aggregation.definition);
+            out.writeBoolean(aggregation.dirty);
+            out.writeInt(aggregation.groups.size());
+            for (Map.Entry<Object, Group> group : aggregation.groups.entrySet()) {
+                out.writeObject(group.getKey());
+                out.writeObject(group.getValue().aggregator);
+                out.writeLong(group.getValue().entryCount);
+            }
+        }
+    }
+
+    /**
+     * Reads the state written by {@link #writeState}.
+     *
+     * @return the state to be {@link #applyState applied} to the replica.
+     */
+    public static ReplicatedState readState(ObjectDataInput in) throws IOException {
+        long entryCount = in.readLong();
+        int aggregationCount = in.readInt();
+        List<Aggregation> aggregations = new ArrayList<>(aggregationCount);
+        for (int i = 0; i < aggregationCount; ++i) {
+            Aggregation aggregation = new Aggregation(in.readObject());
+            aggregation.dirty = in.readBoolean();
+            int groupCount = in.readInt();
+            for (int j = 0; j < groupCount; ++j) {
+                Object key = in.readObject();
+                Aggregator aggregator = in.readObject();
+                aggregation.groups.put(key, new Group(aggregator, in.readLong()));
+            }
+            aggregations.add(aggregation);
+        }
+        return new ReplicatedState(entryCount, aggregations);
+    }
+
+    /**
+     * Replaces the aggregations of this partition with the replicated ones.
+     * Must be called after the record store is reset and before the
+     * replicated records are put into it.
+     */
+    public synchronized void applyState(ReplicatedState state) {
+        aggregations.clear();
+        for (Aggregation aggregation : state.aggregations) {
+            aggregations.put(aggregation.definition.getName(), aggregation);
+        }
+    }
+
+    /**
+     * Marks the aggregations dirty unless the record store has as many
+     * entries as the replicated partition had. Must be called after all the
+     * replicated records are put into the record store, since some of them
+     * may have been evicted instead.
+     */
+    public synchronized void verifyAppliedState(ReplicatedState state) {
+        if (recordStore.size() != state.entryCount) {
+            for (Aggregation aggregation : aggregations.values()) {
+                aggregation.dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        if (!aggregations.isEmpty()) {
+            update(key, oldValue, record.getValue());
+        }
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        // the replicated state is applied instead
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, Object newValue,
+                               boolean backup) {
+        if (!aggregations.isEmpty()) {
+            update(key, oldValue, newValue);
+        }
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        if (!aggregations.isEmpty() && record != null) {
+            update(key, record.getValue(), null);
+        }
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        if (!aggregations.isEmpty()) {
+            update(key, record.getValue(), null);
+        }
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        if (!aggregations.isEmpty()) {
+            update(key, null, record.getValue());
+        }
+    }
+
+    @Override
+    public void onReset() {
+        reset();
+    }
+
+    @Override
+    public void onClear() {
+        reset();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        aggregations.clear();
+    }
+
+    private synchronized void reset() {
+        for (Aggregation aggregation : aggregations.values()) {
+            aggregation.groups.clear();
+            aggregation.dirty = false;
+        }
+    }
+
+    private synchronized void update(Data key, Object oldValue, Object newValue) {
+        for (Aggregation aggregation : aggregations.values()) {
+            if (aggregation.dirty) {
+                continue;
+            }
+            if (oldValue != null) {
+                entry.init(key, oldValue);
+                deaccumulate(aggregation);
+            }
+            if (newValue != null && !aggregation.dirty) {
+                entry.init(key, newValue);
+                accumulate(aggregation);
+            }
+        }
+    }
+
+    private void accumulateAll(Aggregation aggregation) {
+        aggregation.groups.clear();
+        aggregation.dirty = false;
+        recordStore.forEach((key, record) -> {
+            entry.init(key, record.getValue());
+            accumulate(aggregation);
+        }, false, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accumulate(Aggregation aggregation) {
+        ContinuousAggregation definition = aggregation.definition;
+        if (!definition.getPredicate().apply(entry)) {
+            return;
+        }
+        Group group = aggregation.groups.computeIfAbsent(groupKey(definition),
+                key -> new Group(copy(definition.getAggregator()), 0));
+        group.aggregator.accumulate(entry);
+        ++group.entryCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deaccumulate(Aggregation aggregation) {
+        ContinuousAggregation definition = aggregation.definition;
+        if (!(definition.getAggregator() instanceof DeaccumulatingAggregator)) {
+            aggregation.dirty = true;
+            return;
+        }
+        if (!definition.getPredicate().apply(entry)) {
+            return;
+        }
+        Object groupKey = groupKey(definition);
+        Group group = aggregation.groups.get(groupKey);
+        if (group == null) {
+            // the entry was not accumulated, the state is not reliable anymore
+            aggregation.dirty = true;
+            return;
+        }
+        ((DeaccumulatingAggregator) group.aggregator).deaccumulate(entry);
+        if (--group.entryCount == 0) {
+            aggregation.groups.remove(groupKey);
+        }
+    }
+
+    private Object groupKey(ContinuousAggregation definition) {
+        String groupByAttribute = definition.getGroupByAttribute();
+        return groupByAttribute == null ? null : entry.getAttributeValue(groupByAttribute);
+    }
+
+    private Aggregator copy(Aggregator aggregator) {
+        return ss.toObject(ss.toData(aggregator));
+    }
+
+    /**
+     * The replicated state of the aggregations of a partition.
+     */
+    public static final class ReplicatedState {
+
+        private final long entryCount;
+        private final List<Aggregation> aggregations;
+
+        private ReplicatedState(long entryCount, List<Aggregation> aggregations) {
+            this.entryCount = entryCount;
+            this.aggregations = aggregations;
+        }
+    }
+
+    private static final class Aggregation {
+
+        private final ContinuousAggregation definition;
+        private final Map<Object, Group> groups = new HashMap<>();
+        private boolean dirty = true;
+
+        private Aggregation(ContinuousAggregation definition) {
+            this.definition = definition;
+        }
+    }
+
+    private static final class Group {
+
+        private final Aggregator aggregator;
+        private long entryCount;
+
+        private Group(Aggregator aggregator, long entryCount) {
+            this.aggregator = aggregator;
+            this.entryCount = entryCount;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.impl.PrimitiveColumn;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThread;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
+
+/**
+ * Columnar projection of the entries of a single map partition used by the
+ * {@link PartitionScanRunner} to evaluate predicates and aggregations over
+ * primitive arrays instead of entry by entry.
+ * <p>
+ * The projection is a snapshot of the partition {@link Rows rows} and the
+ * {@link PrimitiveColumn columns} of the attributes queried so far, which are
+ * built lazily from the snapshot values. Any mutation of the observed record
+ * store drops the snapshot. Snapshots are built on the partition thread only,
+ * so a snapshot always reflects a state the partition has been in. Columns
+ * are derived from the immutable snapshot and may be built by any thread.
+ * <p>
+ * The snapshot references the keys and values held by an on-heap record
+ * store, it copies only the keys and values of the storages that reuse their
+ * memory, such as the off-heap storage. Partitions with more entries than
+ * the configured maximum are not snapshotted and are scanned entry by entry,
+ * which bounds the memory held by the projection.
+ */
+public class PartitionColumns implements MutationObserver<Record> {
+
+    private final RecordStore<Record> recordStore;
+    private final int maxEntries;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Rows rows;
+    private volatile boolean destroyed;
+
+    // accessed on the partition thread only
+    private long mutationCount;
+
+    public PartitionColumns(RecordStore<Record> recordStore, int maxEntries) {
+        this.recordStore = recordStore;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the current snapshot of the partition rows or {@code null} if
+     * the snapshot was dropped and not rebuilt yet.
+     */
+    Rows getRows() {
+        return rows;
+    }
+
+    /**
+     * Builds the snapshot of the partition rows. Must be called on the
+     * partition thread.
+     *
+     * @return the new snapshot or {@code null} if the record store can't
+     * be snapshotted, because it has entries that may expire or too many
+     * entries.
+     */
+    Rows rebuild() {
+        assertRunningOnPartitionThread();
+        rebuildScheduled.set(false);
+        if (destroyed || !recordStore.getExpirySystem().isEmpty() || recordStore.size() > maxEntries) {
+            return null;
+        }
+
+        long mutationCountBefore = mutationCount;
+        RowsBuilder builder = new RowsBuilder(recordStore.size());
+        recordStore.forEach((key, record) -> builder.add(key, record), false);
+        Rows newRows = builder.build();
+        if (mutationCount == mutationCountBefore && !destroyed) {
+            rows = newRows;
+        }
+        return newRows;
+    }
+
+    /**
+     * Schedules the rebuild of the snapshot on the partition thread, unless
+     * it was already scheduled.
+     */
+    void scheduleRebuild(OperationService operationService, int partitionId) {
+        if (destroyed || recordStore.size() > maxEntries || !rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        operationService.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                rebuild();
+            }
+        });
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        invalidate();
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        invalidate();
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, Object newValue,
+                               boolean backup) {
+        invalidate();
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        invalidate();
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        invalidate();
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        invalidate();
+    }
+
+    @Override
+    public void onReset() {
+        invalidate();
+    }
+
+    @Override
+    public void onClear() {
+        invalidate();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        destroyed = true;
+        invalidate();
+    }
+
+    private void invalidate() {
+        ++mutationCount;
+        if (rows != null) {
+            rows = null;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the partition entries and the lazily built
+     * columns of their attributes.
+     */
+    static final class Rows {
+
+        private static final Object UNSUPPORTED = new Object();
+
+        final Data[] keys;
+        final Object[] values;
+        final int size;
+
+        private final ConcurrentMap<String, Object> columns = new ConcurrentHashMap<>();
+
+        Rows(Data[] keys, Object[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * @return the column of the given attribute or {@code null} if the
+         * attribute values can't be represented as a primitive column.
+         */
+        PrimitiveColumn getColumn(String attribute, InternalSerializationService ss, Extractors extractors) {
+            Object column = columns.get(attribute);
+            if (column == null) {
+                column = buildColumn(attribute, ss, extractors);
+                Object existing = columns.putIfAbsent(attribute, column);
+                column = existing == null ? column : existing;
+            }
+            return column == UNSUPPORTED ? null : (PrimitiveColumn) column;
+        }
+
+        private Object buildColumn(String attribute, InternalSerializationService ss, Extractors extractors) {
+            PrimitiveColumn.Builder builder = new PrimitiveColumn.Builder(size);
+            LazyMapEntry entry = new LazyMapEntry();
+            try {
+                for (int i = 0; i < size; ++i) {
+                    entry.init(ss, keys[i], values[i], extractors);
+                    if (!builder.add(entry.getAttributeValue(attribute))) {
+                        return UNSUPPORTED;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // let the row-by-row scan surface the failure
+                return UNSUPPORTED;
+            }
+            return builder.build();
+        }
+    }
+
+    private static final class RowsBuilder {
+
+        private Data[] keys;
+        private Object[] values;
+        private int size;
+
+        RowsBuilder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            keys = new Data[capacity];
+            values = new Object[capacity];
+        }
+
+        void add(Data key, Record record) {
+            Object value = record.getValue();
+            if (value == null) {
+                return;
+            }
+            if (size == keys.length) {
+                int capacity = size + (size >> 1) + 1;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            // the storage may hand out the keys and values backed by
+            // the memory it reuses
+            keys[size] = toHeapData(key);
+            values[size] = value instanceof Data ? toHeapData((Data) value) : value;
+            ++size;
+        }
+
+        Rows build() {
+            return new Rows(keys, values, size);
+        }
+    }
+}
@@ -36,7 +36,9 @@ import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 
 import java.util.Collection;
 import java.util.LinkedList;
@@ -86,6 +88,10 @@ public class PartitionScanRunner {
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
 
+        if (pagingPredicate == null && runOnColumns(recordStore, predicate, partitionId, extractors, result)) {
+            return;
+        }
+
         recordStore.forEachAfterLoad(new BiConsumer<Data, Record>() {
             LazyMapEntry queryEntry = new LazyMapEntry();
 
@@ -117,6 +123,44 @@ public class PartitionScanRunner {
         result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
     }
 
+    /**
+     * Runs the scan over the columnar projection of the partition if the map
+     * has one. Running on the partition thread, the projection is rebuilt
+     * right away if it's missing, otherwise its rebuild is scheduled and the
+     * current scan is left to the caller.
+     *
+     * @return {@code true} if the scan was done, {@code false} if the
+     * caller has to scan the partition entry by entry.
+     */
+    private boolean runOnColumns(RecordStore<Record> recordStore, Predicate predicate, int partitionId,
+                                 Extractors extractors, Result result) {
+        PartitionColumns columns = recordStore.getPartitionColumns();
+        if (columns == null) {
+            return false;
+        }
+        recordStore.checkIfLoaded();
+
+        PartitionColumns.Rows rows = columns.getRows();
+        if (rows == null) {
+            if (isRunningOnPartitionThreadOf(partitionId)) {
+                rows = columns.rebuild();
+            } else {
+                columns.scheduleRebuild(operationService, partitionId);
+            }
+            if (rows == null) {
+                return false;
+            }
+        }
+        return new ColumnarPartitionScan(rows, ss, extractors).run(predicate, result);
+    }
+
+    private boolean isRunningOnPartitionThreadOf(int partitionId) {
+        Thread thread = Thread.currentThread();
+        return thread instanceof PartitionOperationThread
+                && ((PartitionOperationThread) thread).getThreadId()
+                == ((OperationServiceImpl) operationService).getOperationExecutor().getPartitionThreadId(partitionId);
+    }
+
     /**
      * Executes the predicate on a partition chunk. The offset in the partition
      * is defined by the {@code pointers} and the soft limit is defined by the
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.HeapMemoryAccessor.ARRAY_BYTE_BASE_OFFSET;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.QuickMath.modPowerOfTwo;
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * Flyweight {@link Record} over a block of off-heap memory which holds
+ * the key blob, the value blob and the same metadata as {@link
+ * DataRecordWithStats}.
+ * <p>
+ * Block layout:
+ * <pre>
+ * +----------+----------+------------+----------------+---------+------+
+ * | keyHash  | keySize  | valueSize  | valueCapacity  | version | hits |
+ * +----------+----------+------------+----------------+---------+------+
+ * | lastAccessTime | lastUpdateTime | creationTime | lastStoredTime      |
+ * +----------------+----------------+--------------+---------------------+
+ * | key bytes ... | value bytes ... (up to valueCapacity)               |
+ * +---------------+-----------------------------------------------------+
+ * </pre>
+ * All header fields are {@code int}s, times are stored stripped the same
+ * way {@link AbstractRecord} does. A value size of {@code -1} represents a
+ * {@code null} value.
+ * <p>
+ * Instances are cheap views which only carry the block address, so the
+ * number of live heap objects does not grow with the number of entries.
+ * The address may change when the value does not fit into the block
+ * anymore, see {@link #relocate(MemoryAllocator, Data)}.
+ * <p>
+ * Not thread safe, must only be accessed by the owning partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class OffHeapDataRecord implements Record<Data> {
+
+    static final int KEY_HASH_OFFSET = 0;
+    static final int KEY_SIZE_OFFSET = 4;
+    static final int VALUE_SIZE_OFFSET = 8;
+    static final int VALUE_CAPACITY_OFFSET = 12;
+    static final int VERSION_OFFSET = 16;
+    static final int HITS_OFFSET = 20;
+    static final int LAST_ACCESS_TIME_OFFSET = 24;
+    static final int LAST_UPDATE_TIME_OFFSET = 28;
+    static final int CREATION_TIME_OFFSET = 32;
+    static final int LAST_STORED_TIME_OFFSET = 36;
+    static final int HEADER_SIZE = 40;
+
+    private static final int NULL_VALUE_SIZE = -1;
+
+    private final MemoryAccessor mem;
+    private long address;
+
+    public OffHeapDataRecord(MemoryAccessor mem, long address) {
+        this.mem = mem;
+        this.address = address;
+    }
+
+    /**
+     * Allocates and initializes a new record block.
+     *
+     * @return the address of the new block
+     */
+    static long allocate(MemoryAllocator malloc, MemoryAccessor mem, Data key, Data value) {
+        byte[] keyBytes = key.toByteArray();
+        int valueSize = value == null ? NULL_VALUE_SIZE : value.totalSize();
+        int valueCapacity = valueCapacity(keyBytes.length, Math.max(valueSize, 0));
+
+        long address = malloc.allocate(blockSize(keyBytes.length, valueCapacity));
+        mem.putInt(address + KEY_HASH_OFFSET, key.hashCode());
+        mem.putInt(address + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.putInt(address + VALUE_CAPACITY_OFFSET, valueCapacity);
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, UNSET);
+        mem.putInt(address + CREATION_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, UNSET);
+        mem.copyFromByteArray(keyBytes, 0, address + HEADER_SIZE, keyBytes.length);
+        writeValue(mem, address, value);
+        return address;
+    }
+
+    /**
+     * @return the size of the block starting at the given address
+     */
+    public static long blockSize(MemoryAccessor mem, long address) {
+        return blockSize(mem.getInt(address + KEY_SIZE_OFFSET), mem.getInt(address + VALUE_CAPACITY_OFFSET));
+    }
+
+    /**
+     * @return the hash code of the key blob stored in the block
+     */
+    public static int keyHash(MemoryAccessor mem, long address) {
+        return mem.getInt(address + KEY_HASH_OFFSET);
+    }
+
+    /**
+     * Copies the key blob stored in the block to the heap.
+     */
+    public static Data readKey(MemoryAccessor mem, long address) {
+        int keySize = mem.getInt(address + KEY_SIZE_OFFSET);
+        byte[] bytes = new byte[keySize];
+        mem.copyToByteArray(address + HEADER_SIZE, bytes, 0, keySize);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * @return {@code true} if the block holds a key blob equal to the
+     * supplied one, without copying the stored key to the heap
+     */
+    public static boolean keyEquals(MemoryAccessor mem, long address, int keyHash, byte[] keyBytes) {
+        if (mem.getInt(address + KEY_HASH_OFFSET) != keyHash
+                || mem.getInt(address + KEY_SIZE_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = address + HEADER_SIZE;
+        int length = keyBytes.length;
+        int i = 0;
+        for (; i <= length - LONG_SIZE_IN_BYTES; i += LONG_SIZE_IN_BYTES) {
+            if (mem.getLong(keyAddress + i) != MEM.getLong(keyBytes, ARRAY_BYTE_BASE_OFFSET + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long address() {
+        return address;
+    }
+
+    /**
+     * @return {@code true} if the supplied value can be written in-place
+     * into the current block of this record
+     */
+    public boolean canHold(Data value) {
+        return value == null || value.totalSize() <= mem.getInt(address + VALUE_CAPACITY_OFFSET);
+    }
+
+    /**
+     * Moves this record to a new block big enough to hold the supplied
+     * value. The header and the key are copied, the old block is left
+     * untouched and must be freed by the caller once nobody can
+     * reference it anymore.
+     *
+     * @return the address of the old block
+     */
+    public long relocate(MemoryAllocator malloc, Data value) {
+        int keySize = mem.getInt(address + KEY_SIZE_OFFSET);
+        int valueCapacity = valueCapacity(keySize, value.totalSize());
+
+        long newAddress = malloc.allocate(blockSize(keySize, valueCapacity));
+        mem.copyMemory(address, newAddress, HEADER_SIZE + keySize);
+        mem.putInt(newAddress + VALUE_CAPACITY_OFFSET, valueCapacity);
+        writeValue(mem, newAddress, value);
+
+        long oldAddress = address;
+        address = newAddress;
+        return oldAddress;
+    }
+
+    @Override
+    public Data getValue() {
+        int valueSize = mem.getInt(address + VALUE_SIZE_OFFSET);
+        if (valueSize == NULL_VALUE_SIZE) {
+            return null;
+        }
+        byte[] bytes = new byte[valueSize];
+        mem.copyToByteArray(valueAddress(mem, address), bytes, 0, valueSize);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Writes the value in-place. The caller must make sure the value fits,
+     * see {@link #canHold(Data)}.
+     */
+    @Override
+    public void setValue(Data value) {
+        if (!canHold(value)) {
+            throw new IllegalStateException("Value of size " + value.totalSize()
+                    + " does not fit into the record block, the record must be relocated first");
+        }
+        writeValue(mem, address, value);
+    }
+
+    @Override
+    public long getCost() {
+        return blockSize(mem, address);
+    }
+
+    @Override
+    public int getVersion() {
+        return mem.getInt(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(int version) {
+        mem.putInt(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return mem.getInt(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        mem.putInt(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return mem.getInt(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        mem.putInt(address + CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return mem.getInt(address + LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return mem.getInt(address + LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return mem.getInt(address + LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, lastStoredTime);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address == ((OffHeapDataRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(address);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapDataRecord{"
+                + "address=" + address
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + '}';
+    }
+
+    private static void writeValue(MemoryAccessor mem, long address, Data value) {
+        if (value == null) {
+            mem.putInt(address + VALUE_SIZE_OFFSET, NULL_VALUE_SIZE);
+            return;
+        }
+        byte[] valueBytes = value.toByteArray();
+        int valueSize = valueBytes == null ? 0 : valueBytes.length;
+        mem.putInt(address + VALUE_SIZE_OFFSET, valueSize);
+        if (valueSize > 0) {
+            mem.copyFromByteArray(valueBytes, 0, valueAddress(mem, address), valueSize);
+        }
+    }
+
+    private static long valueAddress(MemoryAccessor mem, long address) {
+        return address + HEADER_SIZE + mem.getInt(address + KEY_SIZE_OFFSET);
+    }
+
+    private static long blockSize(int keySize, int valueCapacity) {
+        return (long) HEADER_SIZE + keySize + valueCapacity;
+    }
+
+    /**
+     * Rounds the value capacity up so that whole blocks are 8-byte multiples.
+     */
+    private static int valueCapacity(int keySize, int valueSize) {
+        int unaligned = HEADER_SIZE + keySize + valueSize;
+        int remainder = modPowerOfTwo(unaligned, LONG_SIZE_IN_BYTES);
+        return remainder == 0 ? valueSize : valueSize + LONG_SIZE_IN_BYTES - remainder;
+    }
+}
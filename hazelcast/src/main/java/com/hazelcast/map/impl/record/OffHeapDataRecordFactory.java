@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+/**
+ * Creates {@link OffHeapDataRecord}s, each backed by its own block
+ * allocated from the supplied {@link MemoryAllocator}.
+ *
+ * @see com.hazelcast.map.impl.recordstore.OffHeapStorageImpl
+ */
+public class OffHeapDataRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService ss;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+
+    public OffHeapDataRecordFactory(SerializationService ss, MemoryAllocator malloc, MemoryAccessor mem) {
+        this.ss = ss;
+        this.malloc = malloc;
+        this.mem = mem;
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        Data valueData = ss.toData(value);
+        return new OffHeapDataRecord(mem, OffHeapDataRecord.allocate(malloc, mem, key, valueData));
+    }
+
+    public MemoryAllocator getMemoryAllocator() {
+        return malloc;
+    }
+
+    public MemoryAccessor getMemoryAccessor() {
+        return mem;
+    }
+}
@@ -25,6 +25,7 @@ import com.hazelcast.internal.locksupport.LockSupportService;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.comparators.ValueComparator;
@@ -36,6 +37,9 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.query.PartitionAggregations;
+import com.hazelcast.map.impl.query.PartitionColumns;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.RecordReaderWriter;
@@ -63,6 +67,8 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected final LocalRecordStoreStatsImpl stats = new LocalRecordStoreStatsImpl();
     protected Storage<Data, Record> storage;
     protected IndexingMutationObserver<Record> indexingObserver;
+    protected PartitionColumns partitionColumns;
+    protected PartitionAggregations partitionAggregations;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -112,12 +118,33 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for the columnar projection used by partition scans
+        if (mapContainer.isColumnarScanEnabled()) {
+            partitionColumns = new PartitionColumns(this, mapContainer.getColumnarScanMaxPartitionEntries());
+            mutationObserver.add(partitionColumns);
+        }
+
+        // Add observer for the continuous aggregations
+        partitionAggregations = new PartitionAggregations(this, (InternalSerializationService) serializationService,
+                mapContainer.getExtractors());
+        mutationObserver.add(partitionAggregations);
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
         return indexingObserver;
     }
 
+    @Override
+    public PartitionColumns getPartitionColumns() {
+        return partitionColumns;
+    }
+
+    @Override
+    public PartitionAggregations getPartitionAggregations() {
+        return partitionAggregations;
+    }
+
     @Override
     public InMemoryFormat getInMemoryFormat() {
         return inMemoryFormat;
@@ -157,6 +184,10 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (recordFactory instanceof OffHeapDataRecordFactory) {
+            return new OffHeapStorageImpl((OffHeapDataRecordFactory) recordFactory, getExpirySystem(),
+                    serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
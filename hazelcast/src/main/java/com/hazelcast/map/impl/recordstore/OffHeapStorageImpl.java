@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.OffHeapDataRecord;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createOffHeapMapSizeEstimator;
+
+/**
+ * {@link Storage} which keeps keys, values and record metadata outside of
+ * the Java heap. Every entry lives in a single {@link OffHeapDataRecord}
+ * block and the blocks are indexed by an open-addressing hash table with
+ * linear probing which is itself allocated off-heap, so neither the number
+ * of entries nor their size contributes to the live set of the heap.
+ * <p>
+ * Blocks which are removed or replaced during an operation are not freed
+ * right away since the running operation may still hold records pointing
+ * to them; they are freed by {@link #disposeDeferredBlocks()} once the
+ * operation completes.
+ * <p>
+ * Not thread safe, must only be accessed by the owning partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class OffHeapStorageImpl implements Storage<Data, OffHeapDataRecord> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int DEFERRED_BLOCKS_INITIAL_CAPACITY = 16;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final ExpirySystem expirySystem;
+    private final SerializationService serializationService;
+
+    private long tableAddress = NULL_ADDRESS;
+    private int capacity;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * Address and size pairs of the blocks which will be freed on
+     * the next call to {@link #disposeDeferredBlocks()}.
+     */
+    private long[] deferredBlocks = new long[DEFERRED_BLOCKS_INITIAL_CAPACITY];
+    private int deferredBlocksLength;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    OffHeapStorageImpl(OffHeapDataRecordFactory recordFactory, ExpirySystem expirySystem,
+                       SerializationService serializationService) {
+        this.malloc = recordFactory.getMemoryAllocator();
+        this.mem = recordFactory.getMemoryAccessor();
+        this.expirySystem = expirySystem;
+        this.serializationService = serializationService;
+        this.entryCostEstimator = createOffHeapMapSizeEstimator();
+    }
+
+    @Override
+    public void put(Data key, OffHeapDataRecord record) {
+        ensureTable();
+
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            long previousAddress = slotAddress(slot);
+            if (previousAddress != record.address()) {
+                updateCostEstimate(-entryCostEstimator.calculateValueCost(new OffHeapDataRecord(mem, previousAddress)));
+                updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+                setSlotAddress(slot, record.address());
+                deferFree(previousAddress);
+            }
+            return;
+        }
+
+        setSlotAddress(-slot - 1, record.address());
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+        if (size > resizeThreshold) {
+            resize(capacity << 1);
+        }
+    }
+
+    @Override
+    public OffHeapDataRecord updateRecordValue(Data key, OffHeapDataRecord record, Object value) {
+        Data valueData = serializationService.toData(value);
+
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+        if (record.canHold(valueData)) {
+            record.setValue(valueData);
+        } else {
+            long previousAddress = record.relocate(malloc, valueData);
+            // the record may not have been put yet, e.g. when
+            // the value is post-processed by the map store
+            int slot = size == 0 ? -1 : findSlot(key);
+            if (slot >= 0 && slotAddress(slot) == previousAddress) {
+                setSlotAddress(slot, record.address());
+            }
+            deferFree(previousAddress);
+        }
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        return record;
+    }
+
+    @Override
+    public OffHeapDataRecord get(Data key) {
+        if (size == 0) {
+            return null;
+        }
+        int slot = findSlot(key);
+        return slot >= 0 ? new OffHeapDataRecord(mem, slotAddress(slot)) : null;
+    }
+
+    @Override
+    public OffHeapDataRecord getIfSameKey(Data key) {
+        return get(key);
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull OffHeapDataRecord record) {
+        if (size == 0) {
+            return;
+        }
+        int slot = findSlot(dataKey);
+        if (slot < 0) {
+            return;
+        }
+
+        long address = slotAddress(slot);
+        OffHeapDataRecord removed = address == record.address() ? record : new OffHeapDataRecord(mem, address);
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(dataKey, removed));
+        deleteSlot(slot);
+        size--;
+        deferFree(address);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return size != 0 && findSlot(key) >= 0;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, OffHeapDataRecord>> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (tableAddress != NULL_ADDRESS) {
+            for (int slot = 0; slot < capacity; slot++) {
+                long address = slotAddress(slot);
+                if (address != NULL_ADDRESS) {
+                    malloc.free(address, OffHeapDataRecord.blockSize(mem, address));
+                }
+            }
+            malloc.free(tableAddress, tableSize(capacity));
+            tableAddress = NULL_ADDRESS;
+            capacity = 0;
+            mask = 0;
+            resizeThreshold = 0;
+        }
+        size = 0;
+        disposeDeferredBlocks();
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredBlocksLength; i += 2) {
+            malloc.free(deferredBlocks[i], deferredBlocks[i + 1]);
+        }
+        deferredBlocksLength = 0;
+    }
+
+    /**
+     * Samples are collected eagerly starting from a random slot, so the
+     * caller is free to remove the sampled entries while iterating.
+     */
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+
+        List<EntryView> samples = new ArrayList<>(Math.min(sampleCount, size));
+        int firstSlot = ThreadLocalRandomProvider.get().nextInt(capacity);
+        int slot = firstSlot;
+        do {
+            long address = slotAddress(slot);
+            if (address != NULL_ADDRESS) {
+                Data key = OffHeapDataRecord.readKey(mem, address);
+                samples.add(new LazyEvictableEntryView<>(key, new OffHeapDataRecord(mem, address),
+                        expirySystem.getExpiryMetadata(key), serializationService));
+            }
+            slot = (slot + 1) & mask;
+        } while (slot != firstSlot && samples.size() < sampleCount);
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, address) -> keys.add(key));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, address) ->
+                entries.add(new AbstractMap.SimpleEntry<>(key, new OffHeapDataRecord(mem, address).getValue())));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    // package-private for testing
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Fetches at least {@code size} entries walking the table from the
+     * highest slot to the lowest one, the same way {@link StorageSCHM}
+     * does. If the table was resized since the previous call, iteration
+     * restarts on the new table and entries which would have been
+     * observed on the old table are skipped.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size,
+                                         BiConsumer<Data, Long> entryConsumer) {
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextSlot;
+        if (lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity) {
+            nextSlot = lastPointer.getIndex();
+        } else {
+            nextSlot = capacity - 1;
+        }
+        int counter = 0;
+        while (nextSlot >= 0 && counter < size) {
+            long address = slotAddress(nextSlot--);
+            if (address != NULL_ADDRESS && hasNotBeenObserved(OffHeapDataRecord.keyHash(mem, address), pointers)) {
+                entryConsumer.accept(OffHeapDataRecord.readKey(mem, address), address);
+                counter++;
+            }
+        }
+        lastPointer.setIndex(nextSlot);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentCapacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean tableResized = lastPointer.getSize() != currentCapacity;
+        // clone pointers to avoid mutating given reference
+        // add new pointer if resize happened during iteration
+        int newLength = !iterationStarted && tableResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        // reset last pointer if we haven't started iteration or there was a resize
+        if (iterationStarted || tableResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentCapacity);
+        }
+        return updatedPointers;
+    }
+
+    /**
+     * Approximates the check done by {@link StorageSCHM} using the home slot
+     * of the key on the previous tables: an entry displaced by linear probing
+     * past the position of an older pointer may be returned twice.
+     */
+    private static boolean hasNotBeenObserved(int keyHash, IterationPointer[] pointers) {
+        if (pointers.length < 2) {
+            // there was no resize yet so we most definitely haven't observed the entry
+            return true;
+        }
+        int mixedHash = fastIntMix(keyHash);
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer iterationPointer = pointers[i];
+            int homeSlot = mixedHash & (iterationPointer.getSize() - 1);
+            if (homeSlot > iterationPointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the slot holding the key, or {@code -(insertionSlot + 1)}
+     * when the key is absent
+     */
+    private int findSlot(Data key) {
+        int keyHash = key.hashCode();
+        byte[] keyBytes = key.toByteArray();
+        int slot = fastIntMix(keyHash) & mask;
+        while (true) {
+            long address = slotAddress(slot);
+            if (address == NULL_ADDRESS) {
+                return -slot - 1;
+            }
+            if (OffHeapDataRecord.keyEquals(mem, address, keyHash, keyBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the slot with backward-shift deletion so that probe
+     * sequences stay intact without leaving tombstones behind.
+     */
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        int current = (slot + 1) & mask;
+        while (true) {
+            long address = slotAddress(current);
+            if (address == NULL_ADDRESS) {
+                break;
+            }
+            int homeSlot = fastIntMix(OffHeapDataRecord.keyHash(mem, address)) & mask;
+            boolean canMove = current > hole
+                    ? homeSlot <= hole || homeSlot > current
+                    : homeSlot <= hole && homeSlot > current;
+            if (canMove) {
+                setSlotAddress(hole, address);
+                hole = current;
+            }
+            current = (current + 1) & mask;
+        }
+        setSlotAddress(hole, NULL_ADDRESS);
+    }
+
+    private void ensureTable() {
+        if (tableAddress == NULL_ADDRESS) {
+            allocateTable(DEFAULT_INITIAL_CAPACITY);
+        }
+    }
+
+    private void allocateTable(int newCapacity) {
+        tableAddress = malloc.allocate(tableSize(newCapacity));
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        resizeThreshold = (int) (newCapacity * LOAD_FACTOR);
+    }
+
+    private void resize(int newCapacity) {
+        long oldTableAddress = tableAddress;
+        int oldCapacity = capacity;
+
+        allocateTable(newCapacity);
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            long address = mem.getLong(oldTableAddress + (long) oldSlot * LONG_SIZE_IN_BYTES);
+            if (address == NULL_ADDRESS) {
+                continue;
+            }
+            int slot = fastIntMix(OffHeapDataRecord.keyHash(mem, address)) & mask;
+            while (slotAddress(slot) != NULL_ADDRESS) {
+                slot = (slot + 1) & mask;
+            }
+            setSlotAddress(slot, address);
+        }
+        malloc.free(oldTableAddress, tableSize(oldCapacity));
+    }
+
+    private long slotAddress(int slot) {
+        return mem.getLong(tableAddress + (long) slot * LONG_SIZE_IN_BYTES);
+    }
+
+    private void setSlotAddress(int slot, long address) {
+        mem.putLong(tableAddress + (long) slot * LONG_SIZE_IN_BYTES, address);
+    }
+
+    private void deferFree(long address) {
+        if (deferredBlocksLength == deferredBlocks.length) {
+            deferredBlocks = Arrays.copyOf(deferredBlocks, deferredBlocks.length << 1);
+        }
+        deferredBlocks[deferredBlocksLength++] = address;
+        deferredBlocks[deferredBlocksLength++] = OffHeapDataRecord.blockSize(mem, address);
+    }
+
+    private static long tableSize(int capacity) {
+        return (long) capacity * LONG_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Walks the table from the highest slot to the lowest one. The table
+     * is re-read on every step, so it stays safe to use when entries are
+     * added or removed in between, at the price of possibly missing or
+     * repeating entries moved by a resize or a removal.
+     */
+    private final class MutationTolerantIterator implements Iterator<Map.Entry<Data, OffHeapDataRecord>> {
+
+        private int nextSlot = capacity - 1;
+        private long nextAddress = NULL_ADDRESS;
+
+        @Override
+        public boolean hasNext() {
+            if (nextAddress != NULL_ADDRESS) {
+                return true;
+            }
+            while (nextSlot >= 0) {
+                int slot = nextSlot--;
+                if (slot < capacity) {
+                    long address = slotAddress(slot);
+                    if (address != NULL_ADDRESS) {
+                        nextAddress = address;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Map.Entry<Data, OffHeapDataRecord> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long address = nextAddress;
+            nextAddress = NULL_ADDRESS;
+            return new AbstractMap.SimpleImmutableEntry<>(OffHeapDataRecord.readKey(mem, address),
+                    new OffHeapDataRecord(mem, address));
+        }
+    }
+}
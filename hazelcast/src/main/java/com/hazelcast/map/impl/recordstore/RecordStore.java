@@ -34,6 +34,8 @@ import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.query.PartitionAggregations;
+import com.hazelcast.map.impl.query.PartitionColumns;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
@@ -661,6 +663,25 @@ public interface RecordStore<R extends Record> {
 
     void setLocalRecordStoreStats(LocalRecordStoreStats stats);
 
+    /**
+     * @return the columnar projection of this record store used by the
+     * partition scans, {@code null} if the map has no columnar projection.
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_COLUMNAR_SCAN_MAP_NAMES
+     */
+    @Nullable
+    default PartitionColumns getPartitionColumns() {
+        return null;
+    }
+
+    /**
+     * @return the state of the continuous aggregations of this record store,
+     * {@code null} if the record store doesn't support them.
+     */
+    @Nullable
+    default PartitionAggregations getPartitionAggregations() {
+        return null;
+    }
+
     default void beforeOperation() {
         // no-op
     }
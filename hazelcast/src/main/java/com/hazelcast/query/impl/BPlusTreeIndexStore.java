@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.FlatCompositeIterator;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.OrderedIndexStore.IteratorFromBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.IndexBPlusTree.AFTER;
+import static com.hazelcast.query.impl.IndexBPlusTree.BEFORE;
+import static com.hazelcast.query.impl.IndexBPlusTree.compareValues;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.singleton;
+
+/**
+ * Ordered index store backed by {@link IndexBPlusTree}s, an alternative to
+ * {@link OrderedIndexStore} for {@link com.hazelcast.config.IndexType#SORTED
+ * SORTED} indexes.
+ * <p>
+ * The trees are guarded by the global lock. The SQL iterators are lazy: each
+ * of their steps takes the read lock, reads the entries of the next value and
+ * repositions itself in the tree if the tree was updated since the previous
+ * step. The other results are snapshots taken under the read lock.
+ */
+@SuppressWarnings("rawtypes")
+public class BPlusTreeIndexStore extends BaseSingleValueIndexStore {
+
+    private final IndexBPlusTree tree = new IndexBPlusTree();
+    private final IndexBPlusTree nullTree = new IndexBPlusTree();
+
+    public BPlusTreeIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, true);
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        return value == NULL ? nullTree.put(NULL, record) : tree.put(value, record);
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        return value == NULL ? nullTree.remove(NULL, recordKey) : tree.remove(value, recordKey);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // We still need to canonicalize query arguments for ordered indexes to
+        // support InPredicate queries.
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        // Returning the original value since ordered indexes are not supporting
+        // hash lookups on their stored values, so there is no need in providing
+        // canonical representations.
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            tree.clear();
+            nullTree.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparable value) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(value));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable value, boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(comparison, value, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value) {
+        if (value == NULL) {
+            return new BatchIterator(nullTree, false, null, false, null, false);
+        } else {
+            return new BatchIterator(tree, false, value, true, value, true);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        Iterator<IndexKeyEntries> nullBatch = singleton(new IndexKeyEntries(null, snapshot(nullTree).iterator())).iterator();
+        Iterator<IndexKeyEntries> nonNullBatches = new BatchIterator(tree, descending, null, false, null, false);
+        return new FlatCompositeIterator<>(descending
+                ? Arrays.asList(nonNullBatches, nullBatch).iterator()
+                : Arrays.asList(nullBatch, nonNullBatches).iterator());
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparison comparison,
+            Comparable value,
+            boolean descending
+    ) {
+        switch (comparison) {
+            case LESS:
+                return new BatchIterator(tree, descending, null, false, value, false);
+            case LESS_OR_EQUAL:
+                return new BatchIterator(tree, descending, null, false, value, true);
+            case GREATER:
+                return new BatchIterator(tree, descending, value, false, null, false);
+            case GREATER_OR_EQUAL:
+                return new BatchIterator(tree, descending, value, true, null, false);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        int order = Comparables.compare(from, to);
+        if (order > 0 || order == 0 && (!fromInclusive || !toInclusive)) {
+            return emptyIterator();
+        }
+        return new BatchIterator(tree, descending, from, fromInclusive, to, toInclusive);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(false);
+            if (value == NULL) {
+                result.addRange(nullTree, null, false, null, false);
+            } else {
+                result.addRange(tree, value, true, value, true);
+            }
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(hasToDetectDuplicates());
+            for (Comparable value : values) {
+                if (value == NULL) {
+                    result.addRange(nullTree, null, false, null, false);
+                } else {
+                    result.addRange(tree, value, true, value, true);
+                }
+            }
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(hasToDetectDuplicates());
+            switch (comparison) {
+                case LESS:
+                    result.addRange(tree, null, false, value, false);
+                    break;
+                case LESS_OR_EQUAL:
+                    result.addRange(tree, null, false, value, true);
+                    break;
+                case GREATER:
+                    result.addRange(tree, value, false, null, false);
+                    break;
+                case GREATER_OR_EQUAL:
+                    result.addRange(tree, value, true, null, false);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+            }
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(hasToDetectDuplicates());
+            int order = Comparables.compare(from, to);
+            if (order < 0 || order == 0 && fromInclusive && toInclusive) {
+                result.addRange(tree, from, fromInclusive, to, toInclusive);
+            }
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private List<QueryableEntry> snapshot(IndexBPlusTree tree) {
+        takeReadLock();
+        try {
+            List<QueryableEntry> entries = new ArrayList<>(tree.size());
+            IndexBPlusTree.Cursor cursor = new IndexBPlusTree.Cursor();
+            for (tree.seekFirst(cursor); cursor.isValid(); cursor.next()) {
+                entries.add(cursor.entry());
+            }
+            return entries;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Positions the cursor at the first element within the given lower bound.
+     */
+    private static void seekFrom(IndexBPlusTree tree, IndexBPlusTree.Cursor cursor, Comparable from, boolean fromInclusive) {
+        if (from == null) {
+            tree.seekFirst(cursor);
+        } else {
+            tree.seekAfter(cursor, from, null, fromInclusive ? BEFORE : AFTER);
+        }
+    }
+
+    /**
+     * Positions the cursor at the last element within the given upper bound.
+     */
+    private static void seekTo(IndexBPlusTree tree, IndexBPlusTree.Cursor cursor, Comparable to, boolean toInclusive) {
+        if (to == null) {
+            tree.seekLast(cursor);
+        } else {
+            tree.seekBefore(cursor, to, null, toInclusive ? AFTER : BEFORE);
+        }
+    }
+
+    private static boolean isAbove(Comparable value, Comparable to, boolean toInclusive) {
+        if (to == null) {
+            return false;
+        }
+        int order = compareValues(value, to);
+        return toInclusive ? order > 0 : order >= 0;
+    }
+
+    private static boolean isBelow(Comparable value, Comparable from, boolean fromInclusive) {
+        if (from == null) {
+            return false;
+        }
+        int order = compareValues(value, from);
+        return fromInclusive ? order < 0 : order <= 0;
+    }
+
+    /**
+     * Copies the entries of the tree ranges to a {@link SnapshotResultSet},
+     * optionally skipping the entries already added.
+     */
+    private static final class ResultBuilder {
+
+        private final Set<Data> added;
+        private final IndexBPlusTree.Cursor cursor = new IndexBPlusTree.Cursor();
+        private QueryableEntry[] result = new QueryableEntry[IndexBPlusTree.LEAF_CAPACITY];
+        private int size;
+
+        ResultBuilder(boolean deduplicate) {
+            this.added = deduplicate ? new HashSet<>() : null;
+        }
+
+        void addRange(IndexBPlusTree tree, Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            for (seekFrom(tree, cursor, from, fromInclusive); cursor.isValid(); cursor.next()) {
+                if (isAbove(cursor.value(), to, toInclusive)) {
+                    break;
+                }
+                QueryableEntry entry = cursor.entry();
+                if (added != null && !added.add(entry.getKeyData())) {
+                    continue;
+                }
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = entry;
+            }
+        }
+
+        SnapshotResultSet build() {
+            return new SnapshotResultSet(result, size);
+        }
+    }
+
+    /**
+     * Iterates over the values of a tree range in the given direction and
+     * returns the entries of each value as a separate batch.
+     */
+    private final class BatchIterator implements Iterator<IndexKeyEntries> {
+
+        private final IndexBPlusTree tree;
+        private final boolean descending;
+        private final Comparable from;
+        private final boolean fromInclusive;
+        private final Comparable to;
+        private final boolean toInclusive;
+        private final IndexBPlusTree.Cursor cursor = new IndexBPlusTree.Cursor();
+
+        private boolean started;
+        private boolean done;
+        private Comparable lastValue;
+        private Data lastKey;
+        private IndexKeyEntries next;
+
+        BatchIterator(IndexBPlusTree tree, boolean descending, Comparable from, boolean fromInclusive,
+                      Comparable to, boolean toInclusive) {
+            this.tree = tree;
+            this.descending = descending;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                takeReadLock();
+                try {
+                    next = fetchNext();
+                } finally {
+                    releaseReadLock();
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexKeyEntries result = next;
+            next = null;
+            return result;
+        }
+
+        private IndexKeyEntries fetchNext() {
+            if (!started) {
+                if (descending) {
+                    seekTo(tree, cursor, to, toInclusive);
+                } else {
+                    seekFrom(tree, cursor, from, fromInclusive);
+                }
+                started = true;
+            } else if (cursor.isStale()) {
+                // continue right after the last returned entry
+                if (descending) {
+                    tree.seekBefore(cursor, lastValue, lastKey, BEFORE);
+                } else {
+                    tree.seekAfter(cursor, lastValue, lastKey, AFTER);
+                }
+            }
+            if (!cursor.isValid() || isOutOfRange(cursor.value())) {
+                return null;
+            }
+
+            Comparable value = cursor.value();
+            List<QueryableEntry> entries = new ArrayList<>();
+            do {
+                QueryableEntry entry = cursor.entry();
+                entries.add(entry);
+                lastValue = cursor.value();
+                lastKey = entry.getKeyData();
+                if (descending) {
+                    cursor.previous();
+                } else {
+                    cursor.next();
+                }
+            } while (cursor.isValid() && compareValues(cursor.value(), value) == 0);
+            return new IndexKeyEntries(value, entries.iterator());
+        }
+
+        private boolean isOutOfRange(Comparable value) {
+            return descending ? isBelow(value, from, fromInclusive) : isAbove(value, to, toInclusive);
+        }
+    }
+}
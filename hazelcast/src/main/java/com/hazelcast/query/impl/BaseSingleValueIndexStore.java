@@ -74,6 +74,15 @@ public abstract class BaseSingleValueIndexStore extends BaseIndexStore {
      */
     abstract Object removeInternal(Comparable value, Data recordKey);
 
+    /**
+     * @return {@code true} if a record might be associated with multiple
+     * values in this index store, so the results combining the records of
+     * multiple values have to be deduplicated.
+     */
+    final boolean hasToDetectDuplicates() {
+        return multiResultHasToDetectDuplicates;
+    }
+
     final MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
@@ -69,7 +69,7 @@ public final class BitmapIndexStore extends BaseIndexStore {
 
     private final String keyAttribute;
 
-    private final Bitmap<QueryableEntry> bitmap = new Bitmap<>();
+    private final Bitmap<QueryableEntry> bitmap;
     // maps user-provided long keys to long bitmap keys
     private final Long2LongHashMap internalKeys;
     // maps user-provided object keys to long bitmap keys
@@ -77,8 +77,17 @@ public final class BitmapIndexStore extends BaseIndexStore {
     private long internalKeyCounter;
 
     public BitmapIndexStore(IndexConfig config) {
+        this(config, false);
+    }
+
+    /**
+     * @param compressed {@code true} to store the bitmap compressed, see
+     *                   {@link com.hazelcast.spi.properties.ClusterProperty#INDEX_BITMAP_COMPRESSED_ENABLED}
+     */
+    public BitmapIndexStore(IndexConfig config, boolean compressed) {
         super(IndexCopyBehavior.NEVER, true);
 
+        this.bitmap = new Bitmap<>(compressed);
         this.keyAttribute = config.getBitmapIndexOptions().getUniqueKey();
 
         switch (config.getBitmapIndexOptions().getUniqueKeyTransformation()) {
@@ -83,6 +83,7 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> implements Iden
             this.valueObject = (V) value;
             this.valueData = null;
         }
+        setCoveredAttributes(null);
 
         return this;
     }
@@ -93,6 +94,7 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> implements Iden
         this.keyData = null;
         this.valueObject = (V) value;
         this.valueData = null;
+        setCoveredAttributes(null);
 
         return this;
     }
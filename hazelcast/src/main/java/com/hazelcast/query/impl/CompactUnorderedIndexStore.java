@@ -0,0 +1,623 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.HsaHeapMemoryManager;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.internal.util.hashslot.HashSlotArray16byteKey;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor16byteKey;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray16byteKeyImpl;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.query.Predicate;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.UnorderedIndexStore.canonicalizeHashScalar;
+import static com.hazelcast.query.impl.UnorderedIndexStore.canonicalizeHashValue;
+import static com.hazelcast.query.impl.UnorderedIndexStore.canonicalizeLongRepresentable;
+
+/**
+ * Unordered index store which keeps its postings in primitive arrays.
+ * <p>
+ * Every indexed record gets a dense {@code int} id, and every distinct
+ * attribute value gets a posting list: an {@code int[]} holding the ids of
+ * the records having that value. Integral and {@link UUID} values are mapped
+ * to their posting lists through {@link HashSlotArray8byteKey} and
+ * {@link HashSlotArray16byteKey} tables, so they are indexed and looked up
+ * without boxing and without any per-entry objects. All the other values,
+ * including enum constants which are indexed by their names, are mapped
+ * through an {@link Object2LongHashMap} and share the same compact posting
+ * lists.
+ * <p>
+ * All the access is guarded by the global lock. The returned results are
+ * snapshots taken under the lock, regardless of the {@link IndexCopyBehavior}.
+ */
+@SuppressWarnings({"rawtypes", "checkstyle:methodcount"})
+public class CompactUnorderedIndexStore extends BaseSingleValueIndexStore {
+
+    /**
+     * The handle of a missing posting list, also used as the unassigned
+     * sentinel of the hash slot arrays.
+     */
+    private static final int NO_POSTING = 0;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_POSTING_LENGTH = 2;
+    private static final int POSTING_SHRINK_FACTOR = 4;
+    private static final QueryableEntry[] EMPTY_ENTRIES = new QueryableEntry[0];
+
+    private final HsaHeapMemoryManager integralMemMgr = new HsaHeapMemoryManager();
+    private final MemoryAccessor integralMem = integralMemMgr.getAccessor();
+    private final HashSlotArray8byteKey integralPostings =
+            new HashSlotArray8byteKeyImpl(NO_POSTING, integralMemMgr, LONG_SIZE_IN_BYTES);
+    private final HsaHeapMemoryManager uuidMemMgr = new HsaHeapMemoryManager();
+    private final MemoryAccessor uuidMem = uuidMemMgr.getAccessor();
+    private final HashSlotArray16byteKey uuidPostings =
+            new HashSlotArray16byteKeyImpl(NO_POSTING, uuidMemMgr, LONG_SIZE_IN_BYTES);
+    private final Object2LongHashMap<Comparable> otherPostings =
+            new Object2LongHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, NO_POSTING, false);
+    private int nullPosting = NO_POSTING;
+
+    // posting lists by handle, each one is laid out as [size, id1, id2, ...]
+    private int[][] postings;
+    private int postingCount;
+    private int[] freePostings;
+    private int freePostingCount;
+
+    // records by id
+    private QueryableEntry[] entries;
+    private int[] keyHashes;
+    private int[] refCounts;
+    // the position of a record within its posting list, just a hint for the
+    // records having multiple values; links the free ids
+    private int[] positions;
+    private int idCount;
+    private int freeId;
+    private int recordCount;
+    private boolean multiValueRecords;
+
+    // open addressing table of record ids by key, holds (id + 1)
+    private int[] keyTable;
+
+    public CompactUnorderedIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, true);
+        integralPostings.gotoNew();
+        uuidPostings.gotoNew();
+        reset();
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        Data key = record.getKeyData();
+        int keyHash = fastIntMix(key.hashCode());
+        int id = findId(key, keyHash);
+        if (id < 0) {
+            id = newId(record, keyHash);
+        }
+        int handle = ensurePosting(value);
+
+        QueryableEntry oldRecord = null;
+        if (refCounts[id] > 0) {
+            if (indexOf(postings[handle], id) > 0) {
+                oldRecord = entries[id];
+            } else {
+                multiValueRecords = true;
+            }
+        }
+        entries[id] = record;
+        if (oldRecord == null) {
+            append(handle, id);
+            refCounts[id]++;
+        }
+        return oldRecord;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        int id = findId(recordKey, fastIntMix(recordKey.hashCode()));
+        if (id < 0) {
+            return null;
+        }
+        int handle = getPosting(value);
+        if (handle == NO_POSTING) {
+            return null;
+        }
+        int[] posting = postings[handle];
+        int position = indexOf(posting, id);
+        if (position < 0) {
+            return null;
+        }
+
+        QueryableEntry oldRecord = entries[id];
+        int size = posting[0];
+        int lastId = posting[size];
+        posting[position] = lastId;
+        positions[lastId] = position;
+        posting[0] = --size;
+        if (size == 0) {
+            releasePosting(value, handle);
+        } else if (size > 1 && size < posting.length / POSTING_SHRINK_FACTOR) {
+            postings[handle] = Arrays.copyOf(posting, posting.length / 2);
+        }
+        if (--refCounts[id] == 0) {
+            releaseId(id);
+        }
+        return oldRecord;
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // Using a storage representation for arguments here to save on
+        // conversions later.
+        return canonicalizeScalarForStorage(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        return canonicalizeHashScalar(value);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            integralPostings.clear();
+            uuidPostings.clear();
+            otherPostings.clear();
+            reset();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(false);
+            result.addPosting(nullPosting);
+            collectMatching(value -> true, result);
+            return result.build().iterator();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparable value) {
+        return getRecords(value).iterator();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable value, boolean descending) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparison comparison, Comparable value, boolean descending) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(false);
+            result.addPosting(getPosting(value == NULL ? NULL : canonicalizeHashValue(value)));
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(multiValueRecords);
+            for (Comparable value : values) {
+                // value is already canonicalized by the associated index
+                result.addPosting(getPosting(value));
+            }
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(multiValueRecords);
+            collectMatching(indexedValue -> {
+                int order = Comparables.compare(value, indexedValue);
+                switch (comparison) {
+                    case LESS:
+                        return order > 0;
+                    case LESS_OR_EQUAL:
+                        return order >= 0;
+                    case GREATER:
+                        return order < 0;
+                    case GREATER_OR_EQUAL:
+                        return order <= 0;
+                    default:
+                        throw new IllegalStateException("Unrecognized comparison: " + comparison);
+                }
+            }, result);
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            ResultBuilder result = new ResultBuilder(multiValueRecords);
+            if (Comparables.compare(from, to) == 0) {
+                if (fromInclusive && toInclusive) {
+                    result.addPosting(getPosting(canonicalizeHashValue(from)));
+                }
+                return result.build();
+            }
+
+            int fromBound = fromInclusive ? 0 : +1;
+            int toBound = toInclusive ? 0 : -1;
+            collectMatching(value -> Comparables.compare(value, from) >= fromBound
+                    && Comparables.compare(value, to) <= toBound, result);
+            return result.build();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Adds the records of all the non-null values matching the given filter
+     * to the given result.
+     */
+    private void collectMatching(ValueFilter filter, ResultBuilder result) {
+        for (HashSlotCursor8byteKey cursor = integralPostings.cursor(); cursor.advance(); ) {
+            if (filter.matches(canonicalizeLongRepresentable(cursor.key()))) {
+                result.addPosting((int) integralMem.getLong(cursor.valueAddress()));
+            }
+        }
+        for (HashSlotCursor16byteKey cursor = uuidPostings.cursor(); cursor.advance(); ) {
+            if (filter.matches(new UUID(cursor.key1(), cursor.key2()))) {
+                result.addPosting((int) uuidMem.getLong(cursor.valueAddress()));
+            }
+        }
+        for (Comparable value : otherPostings.keySet()) {
+            if (filter.matches(value)) {
+                result.addPosting((int) otherPostings.getValue(value));
+            }
+        }
+    }
+
+    private int getPosting(Comparable value) {
+        if (value == NULL) {
+            return nullPosting;
+        } else if (value instanceof Integer || value instanceof Long) {
+            long address = integralPostings.get(((Number) value).longValue());
+            return address == NULL_ADDRESS ? NO_POSTING : (int) integralMem.getLong(address);
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            long address = uuidPostings.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            return address == NULL_ADDRESS ? NO_POSTING : (int) uuidMem.getLong(address);
+        } else {
+            return (int) otherPostings.getValue(value);
+        }
+    }
+
+    private int ensurePosting(Comparable value) {
+        if (value == NULL) {
+            if (nullPosting == NO_POSTING) {
+                nullPosting = newPosting();
+            }
+            return nullPosting;
+        } else if (value instanceof Integer || value instanceof Long) {
+            SlotAssignmentResult slot = integralPostings.ensure(((Number) value).longValue());
+            return ensurePosting(slot, integralMem);
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            SlotAssignmentResult slot = uuidPostings.ensure(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            return ensurePosting(slot, uuidMem);
+        } else {
+            int handle = (int) otherPostings.getValue(value);
+            if (handle == NO_POSTING) {
+                handle = newPosting();
+                otherPostings.put(value, handle);
+            }
+            return handle;
+        }
+    }
+
+    private int ensurePosting(SlotAssignmentResult slot, MemoryAccessor mem) {
+        if (!slot.isNew()) {
+            return (int) mem.getLong(slot.address());
+        }
+        int handle = newPosting();
+        mem.putLong(slot.address(), handle);
+        return handle;
+    }
+
+    private void releasePosting(Comparable value, int handle) {
+        if (value == NULL) {
+            nullPosting = NO_POSTING;
+        } else if (value instanceof Integer || value instanceof Long) {
+            integralPostings.remove(((Number) value).longValue());
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            uuidPostings.remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        } else {
+            otherPostings.removeKey(value);
+        }
+
+        postings[handle] = null;
+        if (freePostingCount == freePostings.length) {
+            freePostings = Arrays.copyOf(freePostings, freePostingCount * 2);
+        }
+        freePostings[freePostingCount++] = handle;
+    }
+
+    private int newPosting() {
+        int handle;
+        if (freePostingCount > 0) {
+            handle = freePostings[--freePostingCount];
+        } else {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+            }
+            handle = postingCount++;
+        }
+        postings[handle] = new int[INITIAL_POSTING_LENGTH];
+        return handle;
+    }
+
+    private void append(int handle, int id) {
+        int[] posting = postings[handle];
+        int size = posting[0] + 1;
+        if (size == posting.length) {
+            posting = Arrays.copyOf(posting, posting.length * 2);
+            postings[handle] = posting;
+        }
+        posting[size] = id;
+        posting[0] = size;
+        positions[id] = size;
+    }
+
+    /**
+     * @return the position of the given record id in the given posting list
+     * or {@code -1} if the posting list doesn't contain it.
+     */
+    private int indexOf(int[] posting, int id) {
+        int size = posting[0];
+        int hint = positions[id];
+        if (hint > 0 && hint <= size && posting[hint] == id) {
+            return hint;
+        }
+        if (refCounts[id] > 1 || multiValueRecords) {
+            for (int i = 1; i <= size; ++i) {
+                if (posting[i] == id) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int findId(Data key, int keyHash) {
+        int[] keyTable = this.keyTable;
+        int mask = keyTable.length - 1;
+        for (int slot = keyHash & mask; keyTable[slot] != 0; slot = (slot + 1) & mask) {
+            int id = keyTable[slot] - 1;
+            if (keyHashes[id] == keyHash && entries[id].getKeyData().equals(key)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private int newId(QueryableEntry record, int keyHash) {
+        int id;
+        if (freeId >= 0) {
+            id = freeId;
+            freeId = positions[id];
+        } else {
+            if (idCount == entries.length) {
+                int capacity = idCount * 2;
+                entries = Arrays.copyOf(entries, capacity);
+                keyHashes = Arrays.copyOf(keyHashes, capacity);
+                refCounts = Arrays.copyOf(refCounts, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+            }
+            id = idCount++;
+        }
+        entries[id] = record;
+        keyHashes[id] = keyHash;
+        refCounts[id] = 0;
+        positions[id] = 0;
+
+        if (++recordCount > keyTable.length * LOAD_FACTOR) {
+            int[] oldKeyTable = keyTable;
+            keyTable = new int[oldKeyTable.length * 2];
+            for (int stored : oldKeyTable) {
+                if (stored != 0) {
+                    insertIntoKeyTable(stored - 1);
+                }
+            }
+        }
+        insertIntoKeyTable(id);
+        return id;
+    }
+
+    private void insertIntoKeyTable(int id) {
+        int mask = keyTable.length - 1;
+        int slot = keyHashes[id] & mask;
+        while (keyTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keyTable[slot] = id + 1;
+    }
+
+    private void releaseId(int id) {
+        int[] keyTable = this.keyTable;
+        int mask = keyTable.length - 1;
+        int hole = keyHashes[id] & mask;
+        while (keyTable[hole] != id + 1) {
+            hole = (hole + 1) & mask;
+        }
+        // shift back the entries of the probe sequence the released slot belongs to
+        for (int slot = (hole + 1) & mask; keyTable[slot] != 0; slot = (slot + 1) & mask) {
+            int home = keyHashes[keyTable[slot] - 1] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keyTable[hole] = keyTable[slot];
+                hole = slot;
+            }
+        }
+        keyTable[hole] = 0;
+
+        entries[id] = null;
+        positions[id] = freeId;
+        freeId = id;
+        --recordCount;
+    }
+
+    private void reset() {
+        nullPosting = NO_POSTING;
+        postings = new int[INITIAL_CAPACITY][];
+        // handle 0 is reserved for NO_POSTING
+        postingCount = 1;
+        freePostings = new int[INITIAL_CAPACITY];
+        freePostingCount = 0;
+
+        entries = new QueryableEntry[INITIAL_CAPACITY];
+        keyHashes = new int[INITIAL_CAPACITY];
+        refCounts = new int[INITIAL_CAPACITY];
+        positions = new int[INITIAL_CAPACITY];
+        idCount = 0;
+        freeId = -1;
+        recordCount = 0;
+        multiValueRecords = false;
+        keyTable = new int[INITIAL_CAPACITY * 2];
+    }
+
+    private interface ValueFilter {
+        boolean matches(Comparable value);
+    }
+
+    /**
+     * Copies the records of the posting lists to a {@link SnapshotResultSet},
+     * optionally skipping the records already added.
+     */
+    private final class ResultBuilder {
+
+        private final BitSet added;
+        private QueryableEntry[] result = EMPTY_ENTRIES;
+        private int size;
+
+        ResultBuilder(boolean deduplicate) {
+            this.added = deduplicate ? new BitSet(idCount) : null;
+        }
+
+        void addPosting(int handle) {
+            if (handle == NO_POSTING) {
+                return;
+            }
+            int[] posting = postings[handle];
+            int postingSize = posting[0];
+            if (size + postingSize > result.length) {
+                result = Arrays.copyOf(result, Math.max(size + postingSize, result.length * 2));
+            }
+            for (int i = 1; i <= postingSize; ++i) {
+                int id = posting[i];
+                if (added != null) {
+                    if (added.get(id)) {
+                        continue;
+                    }
+                    added.set(id);
+                }
+                result[size++] = entries[id];
+            }
+        }
+
+        SnapshotResultSet build() {
+            return new SnapshotResultSet(result, size);
+        }
+    }
+}
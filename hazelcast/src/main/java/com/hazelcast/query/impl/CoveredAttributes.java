@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.query.QueryException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+
+/**
+ * The values of the indexed attributes of an entry captured when the entry
+ * was stored in the indexes.
+ * <p>
+ * Projections, aggregations and predicates reading only the captured
+ * attributes of the entries returned by the indexes don't need to
+ * deserialize the entry values. Only the values of the types having an
+ * {@link AttributeType} are captured, the other values, for instance the
+ * {@link com.hazelcast.nio.serialization.Portable portable} objects and the
+ * multi-value results, are extracted from the entry as usual.
+ */
+final class CoveredAttributes {
+
+    /**
+     * Marks the attributes whose values are not captured.
+     */
+    static final Object NOT_COVERED = new Object();
+
+    private static final String THIS_PREFIX = "this.";
+
+    private final String[] attributes;
+    private final Object[] values;
+
+    private CoveredAttributes(String[] attributes, Object[] values) {
+        this.attributes = attributes;
+        this.values = values;
+    }
+
+    /**
+     * @return the canonical names of the attributes of the given indexes,
+     * each name listed once.
+     */
+    static String[] collectAttributes(InternalIndex[] indexes) {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (InternalIndex index : indexes) {
+            Collections.addAll(attributes, index.getComponents());
+        }
+        return attributes.toArray(new String[0]);
+    }
+
+    /**
+     * Captures the values of the given attributes of the given entry.
+     *
+     * @param attributes the canonical names of the attributes to capture.
+     * @param entry      the entry to capture the attribute values of.
+     * @return the captured values.
+     */
+    static CoveredAttributes capture(String[] attributes, QueryableEntry entry) {
+        Object[] values = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; ++i) {
+            values[i] = captureValue(entry, attributes[i]);
+        }
+        return new CoveredAttributes(attributes, values);
+    }
+
+    /**
+     * @return the captured value of the given attribute or {@link
+     * #NOT_COVERED} if the value of the attribute is not captured.
+     */
+    Object getValue(String attribute) {
+        for (int i = 0; i < attributes.length; ++i) {
+            if (attributes[i].equals(attribute)) {
+                return values[i];
+            }
+        }
+        if (attribute.startsWith(THIS_PREFIX)) {
+            return getValue(canonicalizeAttribute(attribute));
+        }
+        return NOT_COVERED;
+    }
+
+    private static Object captureValue(QueryableEntry entry, String attribute) {
+        Object value;
+        try {
+            value = entry.getAttributeValue(attribute);
+        } catch (QueryException e) {
+            // the failure is reported when the attribute is queried
+            return NOT_COVERED;
+        }
+        if (value == null) {
+            return null;
+        }
+        AttributeType type = QueryableEntry.extractAttributeType(value);
+        return type == null || type == AttributeType.PORTABLE ? NOT_COVERED : value;
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.Data;
+
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+
+/**
+ * B+tree of index entries ordered by the attribute value and then by the
+ * entry key.
+ * <p>
+ * Leaves keep up to {@value #LEAF_CAPACITY} values and entries in parallel
+ * arrays and are linked in both directions, so range scans read the entries
+ * sequentially instead of chasing skip list nodes, and most insertions
+ * allocate nothing. Inner nodes keep up to {@value #INNER_CAPACITY} children.
+ * Emptied nodes are unlinked from the tree, underfull nodes are not merged.
+ * <p>
+ * Tree positions are expressed with probes: a value, an optional key and a
+ * bias which places the probe right before ({@code -1}) or right after
+ * ({@code +1}) the elements it is equal to. A probe is never equal to an
+ * element, so it always falls between two adjacent elements.
+ * <p>
+ * The tree is not thread-safe: updates must be exclusive and reads must not
+ * run concurrently with updates. Cursors use {@link #modCount()} to detect
+ * the updates done since their last read.
+ */
+@SuppressWarnings("rawtypes")
+final class IndexBPlusTree {
+
+    static final int LEAF_CAPACITY = 64;
+    static final int INNER_CAPACITY = 64;
+
+    static final int BEFORE = -1;
+    static final int AFTER = +1;
+
+    private Node root = new Leaf();
+    private int size;
+    private long modCount;
+
+    // the outcome of the last recursive insertion step
+    private QueryableEntry replaced;
+    private Node splitNode;
+    private Comparable splitValue;
+    private Data splitKey;
+
+    int size() {
+        return size;
+    }
+
+    long modCount() {
+        return modCount;
+    }
+
+    /**
+     * Associates the given entry with the given value.
+     *
+     * @return the entry having the same key that was associated with the
+     * value before, {@code null} if there was none.
+     */
+    QueryableEntry put(Comparable value, QueryableEntry entry) {
+        insert(root, value, entry.getKeyData(), entry);
+        if (splitNode != null) {
+            Inner newRoot = new Inner();
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.values[1] = splitValue;
+            newRoot.keys[1] = splitKey;
+            newRoot.size = 2;
+            root = newRoot;
+            resetSplit();
+        }
+
+        QueryableEntry oldEntry = replaced;
+        replaced = null;
+        if (oldEntry == null) {
+            ++size;
+        }
+        ++modCount;
+        return oldEntry;
+    }
+
+    /**
+     * Removes the association between the given value and the entry having
+     * the given key.
+     *
+     * @return the removed entry, {@code null} if there was none.
+     */
+    QueryableEntry remove(Comparable value, Data key) {
+        QueryableEntry removed = remove(root, value, key);
+        if (removed == null) {
+            return null;
+        }
+        --size;
+        ++modCount;
+        while (root instanceof Inner) {
+            Inner inner = (Inner) root;
+            if (inner.size == 0) {
+                root = new Leaf();
+            } else if (inner.size == 1) {
+                root = inner.children[0];
+            } else {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    void clear() {
+        root = new Leaf();
+        size = 0;
+        ++modCount;
+    }
+
+    /**
+     * Positions the cursor at the first element of the tree.
+     */
+    void seekFirst(Cursor cursor) {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        cursor.set(this, (Leaf) node, 0);
+    }
+
+    /**
+     * Positions the cursor at the last element of the tree.
+     */
+    void seekLast(Cursor cursor) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.size - 1];
+        }
+        Leaf leaf = (Leaf) node;
+        cursor.set(this, leaf, leaf.size - 1);
+    }
+
+    /**
+     * Positions the cursor at the first element following the given probe.
+     */
+    void seekAfter(Cursor cursor, Comparable value, Data key, int bias) {
+        Leaf leaf = findLeaf(value, key, bias);
+        int index = rank(leaf, value, key, bias);
+        if (index == leaf.size && leaf.next != null) {
+            leaf = leaf.next;
+            index = 0;
+        }
+        cursor.set(this, leaf, index);
+    }
+
+    /**
+     * Positions the cursor at the last element preceding the given probe.
+     */
+    void seekBefore(Cursor cursor, Comparable value, Data key, int bias) {
+        Leaf leaf = findLeaf(value, key, bias);
+        int index = rank(leaf, value, key, bias) - 1;
+        if (index < 0 && leaf.prev != null) {
+            leaf = leaf.prev;
+            index = leaf.size - 1;
+        }
+        cursor.set(this, leaf, index);
+    }
+
+    static int compareValues(Comparable value1, Comparable value2) {
+        return value1 == value2 ? 0 : Comparables.compare(value1, value2);
+    }
+
+    private Leaf findLeaf(Comparable value, Data key, int bias) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, value, key, bias)];
+        }
+        return (Leaf) node;
+    }
+
+    private void insert(Node node, Comparable value, Data key, QueryableEntry entry) {
+        if (node instanceof Leaf) {
+            insertIntoLeaf((Leaf) node, value, key, entry);
+        } else {
+            Inner inner = (Inner) node;
+            // an element equal to a separator can only be in the child the
+            // separator starts
+            int index = childIndex(inner, value, key, AFTER);
+            insert(inner.children[index], value, key, entry);
+            if (splitNode != null) {
+                insertSplitNode(inner, index + 1);
+            }
+        }
+    }
+
+    private void insertIntoLeaf(Leaf leaf, Comparable value, Data key, QueryableEntry entry) {
+        int index = rank(leaf, value, key, BEFORE);
+        if (index < leaf.size && compareValues(value, leaf.values[index]) == 0
+                && key.equals(leaf.entries[index].getKeyData())) {
+            replaced = leaf.entries[index];
+            leaf.entries[index] = entry;
+            return;
+        }
+        if (leaf.size < LEAF_CAPACITY) {
+            leaf.insert(index, value, entry);
+            return;
+        }
+
+        Leaf right = new Leaf();
+        if (index == LEAF_CAPACITY && leaf.next == null) {
+            // appending to the end of the tree, keep the full leaf as it is
+            right.insert(0, value, entry);
+        } else {
+            int half = LEAF_CAPACITY / 2;
+            right.size = LEAF_CAPACITY - half;
+            System.arraycopy(leaf.values, half, right.values, 0, right.size);
+            System.arraycopy(leaf.entries, half, right.entries, 0, right.size);
+            leaf.truncate(half);
+            if (index <= half) {
+                leaf.insert(index, value, entry);
+            } else {
+                right.insert(index - half, value, entry);
+            }
+        }
+
+        right.next = leaf.next;
+        if (right.next != null) {
+            right.next.prev = right;
+        }
+        right.prev = leaf;
+        leaf.next = right;
+
+        splitNode = right;
+        splitValue = right.values[0];
+        splitKey = right.entries[0].getKeyData();
+    }
+
+    private void insertSplitNode(Inner inner, int index) {
+        Node child = splitNode;
+        Comparable value = splitValue;
+        Data key = splitKey;
+        resetSplit();
+        if (inner.size < INNER_CAPACITY) {
+            inner.insert(index, child, value, key);
+            return;
+        }
+
+        Inner right = new Inner();
+        int half = INNER_CAPACITY / 2;
+        Comparable upValue = inner.values[half];
+        Data upKey = inner.keys[half];
+        right.size = INNER_CAPACITY - half;
+        System.arraycopy(inner.children, half, right.children, 0, right.size);
+        System.arraycopy(inner.values, half + 1, right.values, 1, right.size - 1);
+        System.arraycopy(inner.keys, half + 1, right.keys, 1, right.size - 1);
+        inner.truncate(half);
+        if (index <= half) {
+            inner.insert(index, child, value, key);
+        } else {
+            right.insert(index - half, child, value, key);
+        }
+
+        splitNode = right;
+        splitValue = upValue;
+        splitKey = upKey;
+    }
+
+    private void resetSplit() {
+        splitNode = null;
+        splitValue = null;
+        splitKey = null;
+    }
+
+    private QueryableEntry remove(Node node, Comparable value, Data key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = rank(leaf, value, key, BEFORE);
+            if (index == leaf.size || compareValues(value, leaf.values[index]) != 0
+                    || !key.equals(leaf.entries[index].getKeyData())) {
+                return null;
+            }
+            QueryableEntry removed = leaf.entries[index];
+            leaf.remove(index);
+            if (leaf.size == 0 && leaf != root) {
+                if (leaf.prev != null) {
+                    leaf.prev.next = leaf.next;
+                }
+                if (leaf.next != null) {
+                    leaf.next.prev = leaf.prev;
+                }
+            }
+            return removed;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, value, key, AFTER);
+        Node child = inner.children[index];
+        QueryableEntry removed = remove(child, value, key);
+        if (removed != null && child.isEmpty()) {
+            inner.remove(index);
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of leaf elements preceding the given probe.
+     */
+    private static int rank(Leaf leaf, Comparable value, Data key, int bias) {
+        int low = 0;
+        int high = leaf.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(value, key, bias, leaf.values[mid], leaf.entries[mid].getKeyData()) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the child the given probe falls into.
+     */
+    private static int childIndex(Inner inner, Comparable value, Data key, int bias) {
+        int low = 1;
+        int high = inner.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(value, key, bias, inner.values[mid], inner.keys[mid]) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private static int compare(Comparable value, Data key, int bias, Comparable otherValue, Data otherKey) {
+        int order = compareValues(value, otherValue);
+        if (order != 0) {
+            return order;
+        }
+        if (key != null) {
+            order = DATA_COMPARATOR.compare(key, otherKey);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return bias;
+    }
+
+    /**
+     * A position in the tree. Stays valid only while the tree is not
+     * updated, see {@link #isStale()}.
+     */
+    static final class Cursor {
+
+        private IndexBPlusTree tree;
+        private Leaf leaf;
+        private int index;
+        private long modCount;
+
+        boolean isValid() {
+            return leaf != null && index >= 0 && index < leaf.size;
+        }
+
+        boolean isStale() {
+            return tree == null || modCount != tree.modCount;
+        }
+
+        Comparable value() {
+            return leaf.values[index];
+        }
+
+        QueryableEntry entry() {
+            return leaf.entries[index];
+        }
+
+        void next() {
+            if (++index == leaf.size && leaf.next != null) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        void previous() {
+            if (--index < 0 && leaf.prev != null) {
+                leaf = leaf.prev;
+                index = leaf.size - 1;
+            }
+        }
+
+        private void set(IndexBPlusTree tree, Leaf leaf, int index) {
+            this.tree = tree;
+            this.leaf = leaf;
+            this.index = index;
+            this.modCount = tree.modCount;
+        }
+    }
+
+    private abstract static class Node {
+
+        int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    private static final class Leaf extends Node {
+
+        final Comparable[] values = new Comparable[LEAF_CAPACITY];
+        final QueryableEntry[] entries = new QueryableEntry[LEAF_CAPACITY];
+        Leaf next;
+        Leaf prev;
+
+        void insert(int index, Comparable value, QueryableEntry entry) {
+            System.arraycopy(values, index, values, index + 1, size - index);
+            System.arraycopy(entries, index, entries, index + 1, size - index);
+            values[index] = value;
+            entries[index] = entry;
+            ++size;
+        }
+
+        void remove(int index) {
+            --size;
+            System.arraycopy(values, index + 1, values, index, size - index);
+            System.arraycopy(entries, index + 1, entries, index, size - index);
+            values[size] = null;
+            entries[size] = null;
+        }
+
+        void truncate(int newSize) {
+            for (int i = newSize; i < size; ++i) {
+                values[i] = null;
+                entries[i] = null;
+            }
+            size = newSize;
+        }
+    }
+
+    /**
+     * Inner node, the separator at index {@code i > 0} is the lowest element
+     * of the child {@code i} at the time the child was split off.
+     */
+    private static final class Inner extends Node {
+
+        final Node[] children = new Node[INNER_CAPACITY];
+        final Comparable[] values = new Comparable[INNER_CAPACITY];
+        final Data[] keys = new Data[INNER_CAPACITY];
+
+        void insert(int index, Node child, Comparable value, Data key) {
+            System.arraycopy(children, index, children, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            children[index] = child;
+            values[index] = value;
+            keys[index] = key;
+            ++size;
+        }
+
+        void remove(int index) {
+            // removing the first child makes the second one the first,
+            // so its separator goes away instead
+            int separatorIndex = Math.max(index, 1);
+            --size;
+            System.arraycopy(children, index + 1, children, index, size - index);
+            if (separatorIndex <= size) {
+                System.arraycopy(values, separatorIndex + 1, values, separatorIndex, size - separatorIndex);
+                System.arraycopy(keys, separatorIndex + 1, keys, separatorIndex, size - separatorIndex);
+            }
+            children[size] = null;
+            values[size] = null;
+            keys[size] = null;
+        }
+
+        void truncate(int newSize) {
+            for (int i = newSize; i < size; ++i) {
+                children[i] = null;
+                values[i] = null;
+                keys[i] = null;
+            }
+            size = newSize;
+        }
+    }
+}
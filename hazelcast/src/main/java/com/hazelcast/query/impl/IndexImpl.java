@@ -23,6 +23,10 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.query.impl.GlobalIndexPartitionTracker.PartitionStamp;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_BITMAP_COMPRESSED_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_HASH_COMPACT_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_SORTED_BPLUS_TREE_ENABLED;
+
 /**
  * Provides implementation of on-heap indexes.
  */
@@ -49,11 +53,18 @@ public class IndexImpl extends AbstractIndex {
     protected IndexStore createIndexStore(Node node, IndexConfig config, PerIndexStats stats, String mapName) {
         switch (config.getType()) {
             case SORTED:
+                if (node != null && node.getProperties().getBoolean(INDEX_SORTED_BPLUS_TREE_ENABLED)) {
+                    return new BPlusTreeIndexStore(copyBehavior);
+                }
                 return new OrderedIndexStore(copyBehavior);
             case HASH:
+                if (node != null && node.getProperties().getBoolean(INDEX_HASH_COMPACT_ENABLED)) {
+                    return new CompactUnorderedIndexStore(copyBehavior);
+                }
                 return new UnorderedIndexStore(copyBehavior);
             case BITMAP:
-                return new BitmapIndexStore(config);
+                return new BitmapIndexStore(config,
+                        node != null && node.getProperties().getBoolean(INDEX_BITMAP_COMPRESSED_ENABLED));
             default:
                 throw new IllegalArgumentException("unexpected index type: " + config.getType());
         }
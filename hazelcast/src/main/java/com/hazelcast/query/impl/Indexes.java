@@ -58,6 +58,7 @@ public class Indexes {
      */
     public static final int SKIP_PARTITIONS_COUNT_CHECK = -1;
     private static final InternalIndex[] EMPTY_INDEXES = {};
+    private static final String[] EMPTY_ATTRIBUTES = {};
 
     private static final ThreadLocal<CachedQueryEntry[]> CACHED_ENTRIES =
             ThreadLocal.withInitial(() -> new CachedQueryEntry[]{new CachedQueryEntry(), new CachedQueryEntry()});
@@ -73,6 +74,8 @@ public class Indexes {
     private final Supplier<java.util.function.Predicate<QueryableEntry>> resultFilterFactory;
     private final QueryContextProvider queryContextProvider;
     private final InternalSerializationService ss;
+    private final QueryPlanCache planCache;
+    private final boolean coveringEnabled;
 
     private final Map<String, InternalIndex> indexesByName = new ConcurrentHashMap<>(3);
     private final AttributeIndexRegistry attributeIndexRegistry = new AttributeIndexRegistry();
@@ -84,6 +87,7 @@ public class Indexes {
 
     private volatile InternalIndex[] indexes = EMPTY_INDEXES;
     private volatile InternalIndex[] compositeIndexes = EMPTY_INDEXES;
+    private volatile String[] coveredAttributes = EMPTY_ATTRIBUTES;
 
     @SuppressWarnings("checkstyle:ParameterNumber")
     private Indexes(Node node,
@@ -97,7 +101,9 @@ public class Indexes {
                     boolean global,
                     InMemoryFormat inMemoryFormat,
                     int partitionCount,
-                    Supplier<java.util.function.Predicate<QueryableEntry>> resultFilterFactory) {
+                    Supplier<java.util.function.Predicate<QueryableEntry>> resultFilterFactory,
+                    int planCacheSize,
+                    boolean coveringEnabled) {
         this.node = node;
         this.mapName = mapName;
         this.global = global;
@@ -110,6 +116,8 @@ public class Indexes {
         this.queryContextProvider = createQueryContextProvider(this, global, statisticsEnabled);
         this.partitionCount = partitionCount;
         this.resultFilterFactory = resultFilterFactory;
+        this.planCache = planCacheSize > 0 ? new QueryPlanCache(this, planCacheSize) : null;
+        this.coveringEnabled = coveringEnabled && inMemoryFormat != NATIVE;
     }
 
     public static void beginPartitionUpdate(InternalIndex[] indexes) {
@@ -181,6 +189,9 @@ public class Indexes {
             attributeIndexRegistry.register(index);
         }
         converterCache.invalidate(index);
+        if (planCache != null) {
+            planCache.clear();
+        }
 
         InternalIndex[] internalIndexes = indexesByName.values().toArray(EMPTY_INDEXES);
         /**
@@ -195,6 +206,9 @@ public class Indexes {
         });
 
         indexes = internalIndexes;
+        if (coveringEnabled) {
+            coveredAttributes = CoveredAttributes.collectAttributes(internalIndexes);
+        }
         if (index.getComponents().length > 1) {
             InternalIndex[] oldCompositeIndexes = compositeIndexes;
             InternalIndex[] newCompositeIndexes = Arrays.copyOf(oldCompositeIndexes, oldCompositeIndexes.length + 1);
@@ -261,10 +275,14 @@ public class Indexes {
 
         indexes = EMPTY_INDEXES;
         compositeIndexes = EMPTY_INDEXES;
+        coveredAttributes = EMPTY_ATTRIBUTES;
         indexesByName.clear();
         attributeIndexRegistry.clear();
         evaluateOnlyAttributeIndexRegistry.clear();
         converterCache.clear();
+        if (planCache != null) {
+            planCache.clear();
+        }
 
         for (InternalIndex index : indexesSnapshot) {
             index.destroy();
@@ -280,6 +298,9 @@ public class Indexes {
         for (InternalIndex index : indexesSnapshot) {
             index.clear();
         }
+        if (planCache != null) {
+            planCache.clear();
+        }
     }
 
     /**
@@ -372,6 +393,7 @@ public class Indexes {
         if (exception != null) {
             rethrow(exception);
         }
+        captureCoveredAttributes(newEntry, entryToStore);
     }
 
     /**
@@ -548,6 +570,15 @@ public class Indexes {
         return converterCache.get(attribute);
     }
 
+    /**
+     * @return the cache of the predicates optimized against this indexes
+     * instance or {@code null} if the cache is disabled.
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_PLAN_CACHE_SIZE
+     */
+    public QueryPlanCache getPlanCache() {
+        return planCache;
+    }
+
     /**
      * Returns the indexes stats of this indexes instance.
      */
@@ -555,6 +586,25 @@ public class Indexes {
         return stats;
     }
 
+    /**
+     * Captures the values of the indexed attributes of the given entry in the
+     * given entry to store, if the capturing is enabled, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#INDEX_COVERING_MAP_NAMES}. The entries
+     * stored by {@link #putEntry} are captured automatically, this method is
+     * for the entries stored into the individual indexes directly.
+     *
+     * @param newEntry     the entry to read the attribute values from.
+     * @param entryToStore the entry stored in the indexes.
+     */
+    public void captureCoveredAttributes(CachedQueryEntry newEntry, QueryableEntry entryToStore) {
+        String[] attributes = coveredAttributes;
+        if (attributes.length > 0) {
+            // the captured values are safely published, so the entry may be
+            // already visible to the queries
+            entryToStore.setCoveredAttributes(CoveredAttributes.capture(attributes, newEntry));
+        }
+    }
+
     private static QueryContextProvider createQueryContextProvider(Indexes indexes, boolean global, boolean statisticsEnabled) {
         if (statisticsEnabled) {
             return global ? new GlobalQueryContextProviderWithStats() : new PartitionQueryContextProviderWithStats(indexes);
@@ -588,6 +638,8 @@ public class Indexes {
         private boolean statsEnabled;
         private boolean usesCachedQueryableEntries;
         private int partitionCount;
+        private int planCacheSize;
+        private boolean coveringEnabled;
         private Extractors extractors;
         private IndexProvider indexProvider;
         private InMemoryFormat inMemoryFormat;
@@ -673,13 +725,37 @@ public class Indexes {
             return this;
         }
 
+        /**
+         * @param planCacheSize the maximum number of the optimized predicates
+         *                      cached for the indexes, {@code 0} disables the
+         *                      cache. Default value is 0.
+         * @return this builder instance
+         */
+        public Builder planCacheSize(int planCacheSize) {
+            this.planCacheSize = planCacheSize;
+            return this;
+        }
+
+        /**
+         * @param coveringEnabled set {@code true} to capture the values of the
+         *                        indexed attributes in the stored entries, so
+         *                        the queries reading only these attributes
+         *                        don't deserialize the entry values. Default
+         *                        value is false.
+         * @return this builder instance
+         */
+        public Builder coveringEnabled(boolean coveringEnabled) {
+            this.coveringEnabled = coveringEnabled;
+            return this;
+        }
+
         /**
          * @return a new instance of Indexes
          */
         public Indexes build() {
             return new Indexes(node, mapName, serializationService, indexCopyBehavior, extractors,
                     indexProvider, usesCachedQueryableEntries, statsEnabled, global,
-                    inMemoryFormat, partitionCount, resultFilterFactory);
+                    inMemoryFormat, partitionCount, resultFilterFactory, planCacheSize, coveringEnabled);
         }
     }
 }
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of a single attribute of a sequence of rows stored in a primitive
+ * array, so predicates and aggregations can be evaluated over the values
+ * without boxing them.
+ * <p>
+ * A column can be built only if all the non-null attribute values are of the
+ * same type: {@link Integer}, {@link Long} or {@link Double}. The integral
+ * values are stored as {@code long}s, the doubles as {@code double}s.
+ * <p>
+ * Filtering methods work on selection vectors: ascending arrays of the
+ * indexes of the selected rows.
+ */
+public final class PrimitiveColumn {
+
+    /**
+     * Returned by the filtering methods if the filter can't be evaluated
+     * over the column, e.g. because its bounds can't be represented exactly
+     * in the type of the column.
+     */
+    public static final int UNSUPPORTED = -1;
+
+    private final Class<?> type;
+    private final long[] longs;
+    private final double[] doubles;
+    private final BitSet nulls;
+    private final int size;
+
+    private PrimitiveColumn(Class<?> type, long[] longs, double[] doubles, BitSet nulls, int size) {
+        this.type = type;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    /**
+     * @return the type of the non-null values of this column, {@code null}
+     * if all the values are {@code null}.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * @return the integral values of this column, the elements of the
+     * {@code null} rows are undefined.
+     */
+    public long[] getLongs() {
+        assert longs != null;
+        return longs;
+    }
+
+    /**
+     * @return the floating-point values of this column, the elements of the
+     * {@code null} rows are undefined.
+     */
+    public double[] getDoubles() {
+        assert doubles != null;
+        return doubles;
+    }
+
+    /**
+     * Retains in the given selection the rows having {@code null} values.
+     *
+     * @return the size of the updated selection.
+     */
+    public int filterNull(int[] rows, int rowCount) {
+        int count = 0;
+        for (int i = 0; i < rowCount; ++i) {
+            int row = rows[i];
+            if (nulls.get(row)) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retains in the given selection the rows having non-null values within
+     * the given range. The bounds are converted to the type of the column the
+     * same way predicates convert their arguments.
+     *
+     * @param from          the lower bound or {@code null} if unbounded.
+     * @param fromInclusive {@code true} if the lower bound is inclusive.
+     * @param to            the upper bound or {@code null} if unbounded.
+     * @param toInclusive   {@code true} if the upper bound is inclusive.
+     * @return the size of the updated selection or {@link #UNSUPPORTED}, the
+     * selection is left intact in the latter case.
+     */
+    public int filterRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                           int[] rows, int rowCount) {
+        if (type == null) {
+            return 0;
+        }
+        Comparable convertedFrom = from == null ? null : convert(from);
+        Comparable convertedTo = to == null ? null : convert(to);
+        if (isUnconvertible(from, convertedFrom) || isUnconvertible(to, convertedTo)) {
+            return UNSUPPORTED;
+        }
+
+        if (doubles != null) {
+            double low = convertedFrom == null ? 0 : (Double) convertedFrom;
+            double high = convertedTo == null ? 0 : (Double) convertedTo;
+            return filterDoubles(convertedFrom != null, low, fromInclusive, convertedTo != null, high, toInclusive,
+                    rows, rowCount);
+        }
+        return filterLongRange(convertedFrom, fromInclusive, convertedTo, toInclusive, rows, rowCount);
+    }
+
+    private int filterLongRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                int[] rows, int rowCount) {
+        long low = Long.MIN_VALUE;
+        if (from != null) {
+            low = ((Number) from).longValue();
+            if (!fromInclusive) {
+                if (low == Long.MAX_VALUE) {
+                    return 0;
+                }
+                ++low;
+            }
+        }
+        long high = Long.MAX_VALUE;
+        if (to != null) {
+            high = ((Number) to).longValue();
+            if (!toInclusive) {
+                if (high == Long.MIN_VALUE) {
+                    return 0;
+                }
+                --high;
+            }
+        }
+        return filterLongs(low, high, rows, rowCount);
+    }
+
+    private int filterLongs(long low, long high, int[] rows, int rowCount) {
+        long[] values = longs;
+        int count = 0;
+        if (nulls.isEmpty()) {
+            for (int i = 0; i < rowCount; ++i) {
+                int row = rows[i];
+                long value = values[row];
+                rows[count] = row;
+                count += value >= low && value <= high ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < rowCount; ++i) {
+                int row = rows[i];
+                long value = values[row];
+                if (value >= low && value <= high && !nulls.get(row)) {
+                    rows[count++] = row;
+                }
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    private int filterDoubles(boolean hasLow, double low, boolean lowInclusive, boolean hasHigh, double high,
+                              boolean highInclusive, int[] rows, int rowCount) {
+        // Double.compare is used to match the ordering of the boxed values,
+        // which orders NaN above everything and -0.0 below 0.0
+        double[] values = doubles;
+        int count = 0;
+        for (int i = 0; i < rowCount; ++i) {
+            int row = rows[i];
+            double value = values[row];
+            if (hasLow) {
+                int order = Double.compare(value, low);
+                if (order < 0 || order == 0 && !lowInclusive) {
+                    continue;
+                }
+            }
+            if (hasHigh) {
+                int order = Double.compare(value, high);
+                if (order > 0 || order == 0 && !highInclusive) {
+                    continue;
+                }
+            }
+            if (!nulls.get(row)) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isUnconvertible(Comparable bound, Comparable convertedBound) {
+        return bound != null && convertedBound == null;
+    }
+
+    /**
+     * Converts the given value to the type of this column.
+     *
+     * @return the converted value or {@code null} if the value can't be
+     * converted exactly.
+     */
+    private Comparable convert(Comparable value) {
+        if (type.isInstance(value)) {
+            return value;
+        }
+        TypeConverter converter = type == Integer.class ? TypeConverters.INTEGER_CONVERTER
+                : type == Long.class ? TypeConverters.LONG_CONVERTER : TypeConverters.DOUBLE_CONVERTER;
+        Comparable converted;
+        try {
+            converted = converter.convert(value);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return type.isInstance(converted) ? converted : null;
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveColumn{type=" + (type == null ? null : type.getSimpleName()) + ", size=" + size + '}';
+    }
+
+    /**
+     * Builds a column out of the attribute values added in the row order.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Class<?> type;
+        private long[] longs;
+        private double[] doubles;
+        private final BitSet nulls = new BitSet();
+        private int size;
+        private int capacity;
+
+        public Builder(int expectedSize) {
+            this.capacity = Math.max(expectedSize, INITIAL_CAPACITY);
+        }
+
+        /**
+         * Adds the value of the next row.
+         *
+         * @return {@code false} if the value can't be stored in the column,
+         * the builder must not be used anymore in this case.
+         */
+        @SuppressWarnings("checkstyle:npathcomplexity")
+        public boolean add(Object value) {
+            if (value == null) {
+                nulls.set(size++);
+                return true;
+            }
+
+            Class<?> valueType = value.getClass();
+            if (type == null) {
+                if (valueType != Integer.class && valueType != Long.class && valueType != Double.class) {
+                    return false;
+                }
+                type = valueType;
+                capacity = Math.max(capacity, size + 1);
+                if (type == Double.class) {
+                    doubles = new double[capacity];
+                } else {
+                    longs = new long[capacity];
+                }
+            } else if (valueType != type) {
+                return false;
+            }
+
+            if (size >= capacity) {
+                capacity = Math.max(size + 1, capacity + (capacity >> 1));
+                if (doubles != null) {
+                    doubles = Arrays.copyOf(doubles, capacity);
+                } else {
+                    longs = Arrays.copyOf(longs, capacity);
+                }
+            }
+            if (doubles != null) {
+                doubles[size++] = (Double) value;
+            } else {
+                longs[size++] = ((Number) value).longValue();
+            }
+            return true;
+        }
+
+        public PrimitiveColumn build() {
+            // trailing null rows may be missing in the arrays
+            if (longs != null && longs.length < size) {
+                longs = Arrays.copyOf(longs, size);
+            } else if (doubles != null && doubles.length < size) {
+                doubles = Arrays.copyOf(doubles, size);
+            }
+            return new PrimitiveColumn(type, longs, doubles, nulls, size);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.Predicate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the predicates optimized by the query optimizer for a single
+ * {@link Indexes} instance.
+ * <p>
+ * The optimized predicates depend on the available indexes and on the
+ * converters of the indexed attributes, which are resolved once the indexes
+ * are populated. A cached predicate is returned only if it was optimized
+ * against the same indexes having the same converters, otherwise the
+ * predicate is optimized again.
+ * <p>
+ * The cache is bounded: once the capacity is reached, the cache is cleared,
+ * so it adapts to the predicates currently in use.
+ */
+public final class QueryPlanCache {
+
+    private final Indexes indexes;
+    private final int capacity;
+    private final ConcurrentMap<Predicate, Plan> plans = new ConcurrentHashMap<>();
+
+    QueryPlanCache(Indexes indexes, int capacity) {
+        this.indexes = indexes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the cached optimized predicate for the given predicate or {@code
+     * null} if it's not cached or was optimized against different indexes.
+     */
+    public Predicate get(Predicate predicate) {
+        Plan plan = plans.get(predicate);
+        if (plan != null && plan.isValid(indexes.getIndexes())) {
+            indexes.getIndexesStats().incrementPlanCacheHitCount();
+            return plan.optimized;
+        }
+        indexes.getIndexesStats().incrementPlanCacheMissCount();
+        return null;
+    }
+
+    /**
+     * Caches the given optimized predicate for the given predicate.
+     *
+     * @param predicate     the predicate before the optimization.
+     * @param optimized     the optimized predicate.
+     * @param indexSnapshot the indexes the predicate was optimized against as
+     *                      returned by {@link Indexes#getIndexes()} before
+     *                      the optimization.
+     */
+    public void put(Predicate predicate, Predicate optimized, InternalIndex[] indexSnapshot) {
+        if (plans.size() >= capacity) {
+            plans.clear();
+        }
+        plans.put(predicate, new Plan(optimized, indexSnapshot));
+    }
+
+    /**
+     * Removes all the cached predicates.
+     */
+    public void clear() {
+        plans.clear();
+    }
+
+    /**
+     * @return the number of the cached predicates.
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    private static final class Plan {
+
+        final Predicate optimized;
+        final InternalIndex[] indexes;
+        final TypeConverter[] converters;
+
+        Plan(Predicate optimized, InternalIndex[] indexes) {
+            this.optimized = optimized;
+            this.indexes = indexes;
+            this.converters = new TypeConverter[indexes.length];
+            for (int i = 0; i < indexes.length; ++i) {
+                converters[i] = indexes[i].getConverter();
+            }
+        }
+
+        boolean isValid(InternalIndex[] currentIndexes) {
+            // the indexes array is replaced on every index addition and removal
+            if (currentIndexes != indexes) {
+                return false;
+            }
+            for (int i = 0; i < indexes.length; ++i) {
+                if (indexes[i].getConverter() != converters[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
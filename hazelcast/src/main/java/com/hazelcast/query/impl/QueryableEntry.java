@@ -48,6 +48,7 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     protected Record record;
     private transient JsonMetadata metadata;
+    private transient CoveredAttributes coveredAttributes;
 
     public Record getRecord() {
         return record;
@@ -59,6 +60,13 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     @Override
     public Object getAttributeValue(String attributeName) throws QueryException {
+        CoveredAttributes coveredAttributes = this.coveredAttributes;
+        if (coveredAttributes != null) {
+            Object value = coveredAttributes.getValue(attributeName);
+            if (value != CoveredAttributes.NOT_COVERED) {
+                return value;
+            }
+        }
         return extractAttributeValue(attributeName);
     }
 
@@ -177,4 +185,16 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         this.metadata = metadata;
     }
 
+    /**
+     * Sets the attribute values of this entry captured when it was stored in
+     * the indexes. The captured values are returned by {@link
+     * #getAttributeValue} without extracting them from the key or the value.
+     *
+     * @param coveredAttributes the captured attribute values or {@code null}
+     *                          to extract all the attributes.
+     */
+    void setCoveredAttributes(CoveredAttributes coveredAttributes) {
+        this.coveredAttributes = coveredAttributes;
+    }
+
 }
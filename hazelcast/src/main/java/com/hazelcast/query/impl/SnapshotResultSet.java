@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Result set backed by an array of entries copied out of an index store.
+ * <p>
+ * The entries are expected to have distinct keys. The keys are indexed
+ * lazily on the first {@link #contains} call for result sets larger than
+ * a few entries.
+ */
+public class SnapshotResultSet extends AbstractSet<QueryableEntry> {
+
+    private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+    private final QueryableEntry[] entries;
+    private final int size;
+
+    private Set<Data> keys;
+
+    public SnapshotResultSet(QueryableEntry[] entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    @Override
+    public boolean contains(Object mapEntry) {
+        Data keyData = ((QueryableEntry) mapEntry).getKeyData();
+        if (size <= LINEAR_SCAN_THRESHOLD) {
+            for (int i = 0; i < size; ++i) {
+                if (entries[i].getKeyData().equals(keyData)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (keys == null) {
+            Set<Data> keys = new HashSet<>((int) (size / BaseIndexStore.LOAD_FACTOR) + 1);
+            for (int i = 0; i < size; ++i) {
+                keys.add(entries[i].getKeyData());
+            }
+            this.keys = keys;
+        }
+        return keys.contains(keyData);
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new Iterator<QueryableEntry>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public QueryableEntry next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return entries[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
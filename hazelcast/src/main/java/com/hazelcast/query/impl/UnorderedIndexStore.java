@@ -76,41 +76,7 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
 
     @Override
     public Comparable canonicalizeScalarForStorage(Comparable value) {
-        // Assuming on-heap overhead of 12 bytes for the object header and
-        // allocation granularity by modulo 8, there is no point in trying to
-        // represent a value in less than 4 bytes.
-
-        if (!(value instanceof Number)) {
-            return value;
-        }
-
-        Class clazz = value.getClass();
-        Number number = (Number) value;
-
-        if (clazz == Double.class) {
-            double doubleValue = number.doubleValue();
-
-            long longValue = number.longValue();
-            if (Numbers.equalDoubles(doubleValue, (double) longValue)) {
-                return canonicalizeLongRepresentable(longValue);
-            }
-
-            float floatValue = number.floatValue();
-            if (doubleValue == (double) floatValue) {
-                return floatValue;
-            }
-        } else if (clazz == Float.class) {
-            float floatValue = number.floatValue();
-
-            long longValue = number.longValue();
-            if (Numbers.equalFloats(floatValue, (float) longValue)) {
-                return canonicalizeLongRepresentable(longValue);
-            }
-        } else if (Numbers.isLongRepresentable(clazz)) {
-            return canonicalizeLongRepresentable(number.longValue());
-        }
-
-        return value;
+        return canonicalizeHashScalar(value);
     }
 
     @Override
@@ -437,18 +403,71 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
     }
 
     private Comparable canonicalize(Comparable value) {
+        return canonicalizeHashValue(value);
+    }
+
+    /**
+     * Canonicalizes the given value, which might be a {@link CompositeValue},
+     * for a lookup in a hash index.
+     *
+     * @see #canonicalizeHashScalar
+     */
+    static Comparable canonicalizeHashValue(Comparable value) {
         if (value instanceof CompositeValue) {
             Comparable[] components = ((CompositeValue) value).getComponents();
             for (int i = 0; i < components.length; ++i) {
-                components[i] = canonicalizeScalarForStorage(components[i]);
+                components[i] = canonicalizeHashScalar(components[i]);
             }
             return value;
         } else {
-            return canonicalizeScalarForStorage(value);
+            return canonicalizeHashScalar(value);
         }
     }
 
-    private static Comparable canonicalizeLongRepresentable(long value) {
+    /**
+     * Canonicalizes the given scalar value for storing it in a hash index or
+     * for a lookup in it: numbers representable as {@code long} are converted
+     * to {@link Integer} if they fit, or to {@link Long} otherwise.
+     */
+    static Comparable canonicalizeHashScalar(Comparable value) {
+        // Assuming on-heap overhead of 12 bytes for the object header and
+        // allocation granularity by modulo 8, there is no point in trying to
+        // represent a value in less than 4 bytes.
+
+        if (!(value instanceof Number)) {
+            return value;
+        }
+
+        Class clazz = value.getClass();
+        Number number = (Number) value;
+
+        if (clazz == Double.class) {
+            double doubleValue = number.doubleValue();
+
+            long longValue = number.longValue();
+            if (Numbers.equalDoubles(doubleValue, (double) longValue)) {
+                return canonicalizeLongRepresentable(longValue);
+            }
+
+            float floatValue = number.floatValue();
+            if (doubleValue == (double) floatValue) {
+                return floatValue;
+            }
+        } else if (clazz == Float.class) {
+            float floatValue = number.floatValue();
+
+            long longValue = number.longValue();
+            if (Numbers.equalFloats(floatValue, (float) longValue)) {
+                return canonicalizeLongRepresentable(longValue);
+            }
+        } else if (Numbers.isLongRepresentable(clazz)) {
+            return canonicalizeLongRepresentable(number.longValue());
+        }
+
+        return value;
+    }
+
+    static Comparable canonicalizeLongRepresentable(long value) {
         if (value == (long) (int) value) {
             return (int) value;
         } else {
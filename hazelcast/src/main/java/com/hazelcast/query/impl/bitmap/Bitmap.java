@@ -35,24 +35,53 @@ import java.util.Map;
  * of type {@code E}. Each indexed entry is uniquely identified by its unique
  * {@code long} key provided externally.
  * <p>
- * Internally, each bitmap manages a set of sparse bit sets, one for each
- * possible attribute value, and a sparse array to map from unique {@code long}
- * entry keys back to entries.
+ * Internally, each bitmap manages a set of bit sets, one for each possible
+ * attribute value, and a sparse array to map from unique {@code long} entry
+ * keys back to entries.
+ * <p>
+ * Bitmaps come in two flavors. Regular bitmaps store the members in {@link
+ * SparseBitSet}s and evaluate predicates lazily by combining the ordered
+ * iterators of the bit sets. Compressed bitmaps store the members in {@link
+ * RoaringBitSet}s and evaluate predicates eagerly using the bulk set
+ * operations, which is faster for large disjunctions and for values having
+ * many entries. Conjunctions are evaluated starting from the operands having
+ * the smallest estimated cardinality, negated operands of conjunctions are
+ * subtracted instead of being complemented.
  *
  * @param <E> the type of entries being indexed.
  */
 @SuppressWarnings("rawtypes")
 public final class Bitmap<E> {
 
-    private final Map<Object, SparseBitSet> bitSets = new HashMap<>();
+    private final Map<Object, LongBitSet> bitSets = new HashMap<>();
 
     private final SparseArray<E> entries = new SparseArray<>();
 
+    // the keys of all the entries, maintained for compressed bitmaps only
+    private final RoaringBitSet keys;
+
     // Note! At the moment bitmap index doesn't support memory statistics,
     // because we cannot produce precise memory estimate.
     // Instead, we provide zero memory consumption estimation.
     private enum ZeroCost { ZERO_COST }
 
+    /**
+     * Constructs a new regular bitmap.
+     */
+    public Bitmap() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new bitmap.
+     *
+     * @param compressed {@code true} to construct a compressed bitmap, {@code
+     *                   false} to construct a regular one.
+     */
+    public Bitmap(boolean compressed) {
+        this.keys = compressed ? new RoaringBitSet() : null;
+    }
+
     /**
      * Inserts the given values associated with the given entry having the given
      * unique key.
@@ -66,9 +95,9 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet == null) {
-                bitSet = new SparseBitSet();
+                bitSet = keys == null ? new SparseBitSet() : new RoaringBitSet();
                 bitSets.put(value, bitSet);
             }
             operationStats.onEntryAdded(ZeroCost.ZERO_COST);
@@ -76,6 +105,9 @@ public final class Bitmap<E> {
         }
 
         entries.set(key, entry);
+        if (keys != null) {
+            keys.add(key);
+        }
     }
 
     /**
@@ -92,7 +124,7 @@ public final class Bitmap<E> {
             Object value = oldValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet != null) {
                 bitSet.remove(key);
             }
@@ -103,9 +135,9 @@ public final class Bitmap<E> {
             Object value = newValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet == null) {
-                bitSet = new SparseBitSet();
+                bitSet = keys == null ? new SparseBitSet() : new RoaringBitSet();
                 bitSets.put(value, bitSet);
             }
             operationStats.onEntryAdded(ZeroCost.ZERO_COST);
@@ -113,6 +145,9 @@ public final class Bitmap<E> {
         }
 
         entries.set(key, entry);
+        if (keys != null) {
+            keys.add(key);
+        }
     }
 
     /**
@@ -127,7 +162,7 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet != null) {
                 if (bitSet.remove(key)) {
                     bitSets.remove(value);
@@ -137,6 +172,9 @@ public final class Bitmap<E> {
         }
 
         entries.clear(key);
+        if (keys != null) {
+            keys.remove(key);
+        }
     }
 
     /**
@@ -145,6 +183,9 @@ public final class Bitmap<E> {
     public void clear() {
         bitSets.clear();
         entries.clear();
+        if (keys != null) {
+            keys.clear();
+        }
     }
 
     /**
@@ -161,7 +202,9 @@ public final class Bitmap<E> {
      * @return an iterator containing entries matching the given predicate.
      */
     public Iterator<E> evaluate(Predicate predicate, TypeConverter converter) {
-        return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
+        AscendingLongIterator iterator = keys == null ? predicateIterator(predicate, converter)
+                : predicateBitSet(predicate, converter).iterator();
+        return new EntryIterator<>(iterator, entries.iterator());
     }
 
     @SuppressWarnings("checkstyle:npathcomplexity")
@@ -218,7 +261,7 @@ public final class Bitmap<E> {
     }
 
     private AscendingLongIterator valueIterator(Comparable value, TypeConverter converter) {
-        SparseBitSet bitSet = bitSets.get(converter.convert(value));
+        LongBitSet bitSet = bitSets.get(converter.convert(value));
         return bitSet == null ? AscendingLongIterator.EMPTY : bitSet.iterator();
     }
 
@@ -230,6 +273,145 @@ public final class Bitmap<E> {
         return iterators;
     }
 
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    private RoaringBitSet predicateBitSet(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof AndPredicate) {
+            return conjunctionBitSet(((AndPredicate) predicate).getPredicates(), converter);
+        }
+
+        if (predicate instanceof OrPredicate) {
+            Predicate[] predicates = ((OrPredicate) predicate).getPredicates();
+            RoaringBitSet[] bitSets = new RoaringBitSet[predicates.length];
+            for (int i = 0; i < predicates.length; ++i) {
+                bitSets[i] = predicateBitSet(predicates[i], converter);
+            }
+            return RoaringBitSet.or(bitSets);
+        }
+
+        if (predicate instanceof NotPredicate) {
+            Predicate subPredicate = ((NotPredicate) predicate).getPredicate();
+            return keys.andNot(predicateBitSet(subPredicate, converter));
+        }
+
+        if (predicate instanceof NotEqualPredicate) {
+            Comparable value = ((NotEqualPredicate) predicate).getValue();
+            return keys.andNot(valueBitSet(value, converter));
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            Comparable value = ((EqualPredicate) predicate).getFrom();
+            return valueBitSet(value, converter);
+        }
+
+        if (predicate instanceof InPredicate) {
+            Comparable[] values = ((InPredicate) predicate).getValues();
+            RoaringBitSet[] bitSets = new RoaringBitSet[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                bitSets[i] = valueBitSet(values[i], converter);
+            }
+            return RoaringBitSet.or(bitSets);
+        }
+
+        throw new IllegalArgumentException("unexpected predicate: " + predicate);
+    }
+
+    private RoaringBitSet conjunctionBitSet(Predicate[] predicates, TypeConverter converter) {
+        assert predicates.length > 0;
+        // Intersect the positive operands starting from the smallest ones,
+        // then subtract the negated operands.
+        Predicate[] ordered = predicates.clone();
+        long[] estimates = new long[ordered.length];
+        for (int i = 0; i < ordered.length; ++i) {
+            Predicate negated = negatedPredicate(ordered[i]);
+            estimates[i] = negated == null ? estimateCardinality(ordered[i], converter) : Long.MAX_VALUE;
+        }
+        sortByEstimates(ordered, estimates);
+
+        RoaringBitSet result = null;
+        for (int i = 0; i < ordered.length && (result == null || !result.isEmpty()); ++i) {
+            Predicate predicate = ordered[i];
+            Predicate negated = negatedPredicate(predicate);
+            if (negated != null) {
+                result = (result == null ? keys : result).andNot(predicateBitSet(negated, converter));
+            } else {
+                RoaringBitSet bitSet = predicateBitSet(predicate, converter);
+                result = result == null ? bitSet : result.and(bitSet);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the predicate negated by the given one, or {@code null} if the
+     * given predicate is not a negation.
+     */
+    private static Predicate negatedPredicate(Predicate predicate) {
+        if (predicate instanceof NotPredicate) {
+            return ((NotPredicate) predicate).getPredicate();
+        }
+        if (predicate instanceof NotEqualPredicate) {
+            return ((NotEqualPredicate) predicate).negate();
+        }
+        return null;
+    }
+
+    /**
+     * Estimates the number of entries matching the given predicate without
+     * evaluating it. The estimate is an upper bound of the actual number.
+     */
+    private long estimateCardinality(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof AndPredicate) {
+            long estimate = Long.MAX_VALUE;
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                estimate = Math.min(estimate, estimateCardinality(subPredicate, converter));
+            }
+            return estimate;
+        }
+
+        if (predicate instanceof OrPredicate) {
+            long estimate = 0;
+            for (Predicate subPredicate : ((OrPredicate) predicate).getPredicates()) {
+                estimate += estimateCardinality(subPredicate, converter);
+            }
+            return Math.min(estimate, keys.cardinality());
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            return valueBitSet(((EqualPredicate) predicate).getFrom(), converter).cardinality();
+        }
+
+        if (predicate instanceof InPredicate) {
+            long estimate = 0;
+            for (Comparable value : ((InPredicate) predicate).getValues()) {
+                estimate += valueBitSet(value, converter).cardinality();
+            }
+            return Math.min(estimate, keys.cardinality());
+        }
+
+        return keys.cardinality();
+    }
+
+    private RoaringBitSet valueBitSet(Comparable value, TypeConverter converter) {
+        RoaringBitSet bitSet = (RoaringBitSet) bitSets.get(converter.convert(value));
+        return bitSet == null ? new RoaringBitSet() : bitSet;
+    }
+
+    private static void sortByEstimates(Predicate[] predicates, long[] estimates) {
+        // insertion sort, conjunctions are short
+        for (int i = 1; i < predicates.length; ++i) {
+            Predicate predicate = predicates[i];
+            long estimate = estimates[i];
+            int j = i - 1;
+            while (j >= 0 && estimates[j] > estimate) {
+                predicates[j + 1] = predicates[j];
+                estimates[j + 1] = estimates[j];
+                --j;
+            }
+            predicates[j + 1] = predicate;
+            estimates[j + 1] = estimate;
+        }
+    }
+
     /**
      * Maps unique entry keys back to entries.
      */
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+/**
+ * Defines the contract of bit sets indexable by non-negative {@code long}
+ * indexes used by {@link Bitmap} to store the members associated with a
+ * single attribute value.
+ */
+interface LongBitSet {
+
+    /**
+     * Adds the given member to this bit set.
+     *
+     * @param member the member to add.
+     */
+    void add(long member);
+
+    /**
+     * Removes the given member from this bit set.
+     *
+     * @param member the member to remove.
+     * @return {@code true} if this bit set became empty as a result of the
+     * member removal, {@code false} otherwise.
+     */
+    boolean remove(long member);
+
+    /**
+     * @return an iterator that iterates over all the indexes of bits set in
+     * this bit set.
+     */
+    AscendingLongIterator iterator();
+
+}
@@ -0,0 +1,1067 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import java.util.Arrays;
+
+import static java.lang.Long.bitCount;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * Stores a set of bits indexable by non-negative {@code long} indexes using
+ * the Roaring bitmap layout.
+ * <p>
+ * Members are split into the high 48 bits (the key) and the low 16 bits. The
+ * keys are stored in a sorted array along with a container for the low bits
+ * of each key. Containers go in three flavors:
+ * <ul>
+ * <li>{@link ArrayContainer ArrayContainer} which manages sorted char array
+ * of the low bits, used for sparse containers.
+ * <li>{@link BitmapContainer BitmapContainer} which manages directly
+ * indexable long array of bits, used for dense containers.
+ * <li>{@link RunContainer RunContainer} which manages sorted runs of
+ * consecutive members, used for containers of long sequences, e.g. the
+ * sequentially assigned keys of entries.
+ * </ul>
+ * The implementation switches between the container flavors picking the one
+ * having the smallest memory footprint once certain thresholds on the
+ * container size are reached. Empty containers are never stored.
+ * <p>
+ * Unlike {@link SparseBitSet}, this bit set supports bulk {@link #and AND},
+ * {@link #or OR} and {@link #andNot ANDNOT} operations producing new bit sets.
+ * The operations on dense containers are done word by word over 64-bit words
+ * in plain loops the JIT is able to vectorize. The bit sets produced by the
+ * operations may share the containers of the operands, so they must not be
+ * modified and may be used only as long as the operands are not modified.
+ */
+final class RoaringBitSet implements LongBitSet {
+
+    /**
+     * The size at which ArrayContainer is converted to another flavor. At
+     * this size the memory cost of having sorted char array is equal to the
+     * cost of having directly indexable long array of bits.
+     */
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+    /**
+     * The run count at which RunContainer is converted to another flavor. At
+     * this count the memory cost of having the runs is equal to the cost of
+     * having directly indexable long array of bits.
+     */
+    static final int RUN_CONTAINER_MAX_RUNS = 2048;
+
+    private static final int CONTAINER_BITS = 16;
+    private static final int CONTAINER_CAPACITY = 1 << CONTAINER_BITS;
+    private static final int LOW_BITS_MASK = CONTAINER_CAPACITY - 1;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_COUNT = CONTAINER_CAPACITY >>> WORD_SHIFT;
+    private static final int BITMAP_BYTES = WORD_COUNT * Long.BYTES;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Container[] containers = new Container[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the given member to this bit set.
+     *
+     * @param member the member to add.
+     */
+    @Override
+    public void add(long member) {
+        assert member >= 0;
+        long key = member >>> CONTAINER_BITS;
+        char low = (char) member;
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(low);
+        } else {
+            insertAt(-index - 1, key, new ArrayContainer(low));
+        }
+    }
+
+    /**
+     * Removes the given member from this bit set.
+     *
+     * @param member the member to remove.
+     * @return {@code true} if this bit set became empty as a result of the
+     * member removal, {@code false} otherwise.
+     */
+    @Override
+    public boolean remove(long member) {
+        assert member >= 0;
+        int index = indexOf(member >>> CONTAINER_BITS);
+        if (index < 0) {
+            return false;
+        }
+
+        Container container = containers[index].remove((char) member);
+        if (container == null) {
+            removeAt(index);
+            return size == 0;
+        }
+        containers[index] = container;
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the given member is present in this bit set,
+     * {@code false} otherwise.
+     */
+    public boolean contains(long member) {
+        int index = indexOf(member >>> CONTAINER_BITS);
+        return index >= 0 && containers[index].contains((char) member);
+    }
+
+    /**
+     * @return the number of members in this bit set.
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; ++i) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the members from this bit set.
+     */
+    public void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        containers = new Container[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    @Override
+    public AscendingLongIterator iterator() {
+        return new IteratorImpl(this);
+    }
+
+    /**
+     * @return a new bit set containing the members present in both this and
+     * the given bit sets.
+     */
+    public RoaringBitSet and(RoaringBitSet other) {
+        RoaringBitSet result = new RoaringBitSet();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            long key = keys[i];
+            long otherKey = other.keys[j];
+            if (key < otherKey) {
+                ++i;
+            } else if (key > otherKey) {
+                ++j;
+            } else {
+                result.append(key, and(containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bit set containing the members present in this bit set
+     * and absent in the given bit set.
+     */
+    public RoaringBitSet andNot(RoaringBitSet other) {
+        RoaringBitSet result = new RoaringBitSet();
+        int j = 0;
+        for (int i = 0; i < size; ++i) {
+            long key = keys[i];
+            while (j < other.size && other.keys[j] < key) {
+                ++j;
+            }
+            if (j < other.size && other.keys[j] == key) {
+                result.append(key, andNot(containers[i], other.containers[j]));
+            } else {
+                result.append(key, containers[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bit set containing the members present in any of the
+     * given bit sets.
+     */
+    public static RoaringBitSet or(RoaringBitSet... bitSets) {
+        RoaringBitSet result = new RoaringBitSet();
+        int[] positions = new int[bitSets.length];
+        Container[] matching = new Container[bitSets.length];
+        while (true) {
+            long key = Long.MAX_VALUE;
+            for (int i = 0; i < bitSets.length; ++i) {
+                RoaringBitSet bitSet = bitSets[i];
+                if (positions[i] < bitSet.size) {
+                    key = Math.min(key, bitSet.keys[positions[i]]);
+                }
+            }
+            if (key == Long.MAX_VALUE) {
+                return result;
+            }
+
+            int matchingCount = 0;
+            for (int i = 0; i < bitSets.length; ++i) {
+                RoaringBitSet bitSet = bitSets[i];
+                int position = positions[i];
+                if (position < bitSet.size && bitSet.keys[position] == key) {
+                    matching[matchingCount++] = bitSet.containers[position];
+                    positions[i] = position + 1;
+                }
+            }
+            result.append(key, or(matching, matchingCount));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RoaringBitSet{containers=" + size + ", cardinality=" + cardinality() + '}';
+    }
+
+    private int indexOf(long key) {
+        // the members are usually added in ascending order
+        int last = size - 1;
+        if (last >= 0 && keys[last] == key) {
+            return last;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, long key, Container container) {
+        if (size == keys.length) {
+            int capacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        ++size;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private void append(long key, Container container) {
+        if (container != null) {
+            insertAt(size, key, container);
+        }
+    }
+
+    private static Container and(Container left, Container right) {
+        if (left instanceof ArrayContainer) {
+            return ((ArrayContainer) left).filter(right, true);
+        }
+        if (right instanceof ArrayContainer) {
+            return ((ArrayContainer) right).filter(left, true);
+        }
+        long[] words = left.toWords();
+        right.andInto(words);
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container left, Container right) {
+        if (left instanceof ArrayContainer) {
+            return ((ArrayContainer) left).filter(right, false);
+        }
+        long[] words = left.toWords();
+        right.andNotInto(words);
+        return fromWords(words);
+    }
+
+    private static Container or(Container[] containers, int count) {
+        if (count == 1) {
+            return containers[0];
+        }
+        if (count == 2 && containers[0] instanceof ArrayContainer && containers[1] instanceof ArrayContainer
+                && containers[0].cardinality() + containers[1].cardinality() <= ARRAY_CONTAINER_MAX_SIZE) {
+            return ((ArrayContainer) containers[0]).merge((ArrayContainer) containers[1]);
+        }
+        long[] words = new long[WORD_COUNT];
+        for (int i = 0; i < count; ++i) {
+            containers[i].orInto(words);
+        }
+        return fromWords(words);
+    }
+
+    /**
+     * Creates a container of the flavor having the smallest memory footprint
+     * for the given bits.
+     *
+     * @param words the bits of the container, owned by the created container
+     *              from now on.
+     * @return the created container or {@code null} if there are no bits set.
+     */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runCount = 0;
+        long carry = 0;
+        for (long word : words) {
+            cardinality += bitCount(word);
+            // a run starts at every set bit preceded by a clear bit
+            runCount += bitCount(word & ~(word << 1 | carry));
+            carry = word >>> (Long.SIZE - 1);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+
+        int bestBytes = cardinality <= ARRAY_CONTAINER_MAX_SIZE ? cardinality * Character.BYTES : BITMAP_BYTES;
+        if (runCount * 2 * Character.BYTES < bestBytes) {
+            return RunContainer.fromWords(words, runCount, cardinality);
+        }
+        if (cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        int first = from >>> WORD_SHIFT;
+        int last = to >>> WORD_SHIFT;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (Long.SIZE - 1 - (to & (Long.SIZE - 1)));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+        } else {
+            words[first] |= firstMask;
+            for (int i = first + 1; i < last; ++i) {
+                words[i] = -1L;
+            }
+            words[last] |= lastMask;
+        }
+    }
+
+    private static void clearRange(long[] words, int from, int to) {
+        int first = from >>> WORD_SHIFT;
+        int last = to >>> WORD_SHIFT;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (Long.SIZE - 1 - (to & (Long.SIZE - 1)));
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+        } else {
+            words[first] &= ~firstMask;
+            for (int i = first + 1; i < last; ++i) {
+                words[i] = 0;
+            }
+            words[last] &= ~lastMask;
+        }
+    }
+
+    /**
+     * @return the smallest set bit at or after the given one, or {@code -1}
+     * if there is no such bit.
+     */
+    private static int nextSetBit(long[] words, int from) {
+        int index = from >>> WORD_SHIFT;
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << WORD_SHIFT) + numberOfTrailingZeros(word);
+            }
+            if (++index == WORD_COUNT) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * @return the smallest clear bit at or after the given one, or the
+     * container capacity if there is no such bit.
+     */
+    private static int nextClearBit(long[] words, int from) {
+        int index = from >>> WORD_SHIFT;
+        long word = ~words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << WORD_SHIFT) + numberOfTrailingZeros(word);
+            }
+            if (++index == WORD_COUNT) {
+                return CONTAINER_CAPACITY;
+            }
+            word = ~words[index];
+        }
+    }
+
+    /**
+     * Defines internal contract of containers responsible for storing of the
+     * low 16 bits of the members.
+     */
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char member);
+
+        /**
+         * @return a new container if this container was converted to another
+         * flavor; this container otherwise.
+         */
+        abstract Container add(char member);
+
+        /**
+         * @return a new container if this container was converted to another
+         * flavor; {@code null} if this container became empty; this container
+         * otherwise.
+         */
+        abstract Container remove(char member);
+
+        /**
+         * Sets the bits of the members of this container in the given words.
+         */
+        abstract void orInto(long[] words);
+
+        /**
+         * Clears the bits of the members of this container in the given words.
+         */
+        abstract void andNotInto(long[] words);
+
+        /**
+         * Clears the bits of the non-members of this container in the given
+         * words.
+         */
+        void andInto(long[] words) {
+            long[] ownWords = toWords();
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] &= ownWords[i];
+            }
+        }
+
+        /**
+         * @return a new array of the bits of this container.
+         */
+        long[] toWords() {
+            long[] words = new long[WORD_COUNT];
+            orInto(words);
+            return words;
+        }
+
+        /**
+         * @return a new cursor positioned at the smallest member of this
+         * container.
+         */
+        abstract Cursor cursor();
+
+    }
+
+    /**
+     * Iterates over the members of a container.
+     */
+    private abstract static class Cursor {
+
+        /**
+         * @return the member the cursor is positioned at or {@code -1} if the
+         * cursor reached its end.
+         */
+        abstract int member();
+
+        abstract void advance();
+
+        /**
+         * Advances this cursor to the given member; or, if the member is not
+         * present, to the member immediately following it.
+         */
+        abstract void advanceAtLeastTo(int member);
+
+    }
+
+    /**
+     * Manages sorted char array of the members.
+     */
+    private static final class ArrayContainer extends Container {
+
+        private static final int MIN_CAPACITY = 4;
+
+        private char[] members;
+        private int cardinality;
+
+        ArrayContainer(char member) {
+            this.members = new char[MIN_CAPACITY];
+            this.members[0] = member;
+            this.cardinality = 1;
+        }
+
+        ArrayContainer(char[] members, int cardinality) {
+            this.members = members;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] members = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                long word = words[i];
+                while (word != 0) {
+                    members[count++] = (char) ((i << WORD_SHIFT) + numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(members, cardinality);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char member) {
+            return Arrays.binarySearch(members, 0, cardinality, member) >= 0;
+        }
+
+        @Override
+        Container add(char member) {
+            int index = Arrays.binarySearch(members, 0, cardinality, member);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+                long[] words = toWords();
+                words[member >>> WORD_SHIFT] |= 1L << member;
+                return RoaringBitSet.fromWords(words);
+            }
+
+            index = -index - 1;
+            if (cardinality == members.length) {
+                int capacity = Math.min(ARRAY_CONTAINER_MAX_SIZE, cardinality + (cardinality >> 1) + 1);
+                members = Arrays.copyOf(members, capacity);
+            }
+            System.arraycopy(members, index, members, index + 1, cardinality - index);
+            members[index] = member;
+            ++cardinality;
+            return this;
+        }
+
+        @Override
+        Container remove(char member) {
+            int index = Arrays.binarySearch(members, 0, cardinality, member);
+            if (index < 0) {
+                return this;
+            }
+            if (cardinality == 1) {
+                return null;
+            }
+            System.arraycopy(members, index + 1, members, index, cardinality - index - 1);
+            --cardinality;
+            return this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < cardinality; ++i) {
+                char member = members[i];
+                words[member >>> WORD_SHIFT] |= 1L << member;
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < cardinality; ++i) {
+                char member = members[i];
+                words[member >>> WORD_SHIFT] &= ~(1L << member);
+            }
+        }
+
+        /**
+         * @return a new container of the members of this container which
+         * are present in the given container if {@code present} is {@code
+         * true}, absent otherwise; or {@code null} if there are no such
+         * members.
+         */
+        Container filter(Container other, boolean present) {
+            char[] filtered = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; ++i) {
+                char member = members[i];
+                if (other.contains(member) == present) {
+                    filtered[count++] = member;
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(filtered, count);
+        }
+
+        ArrayContainer merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char left = members[i];
+                char right = other.members[j];
+                if (left <= right) {
+                    ++i;
+                    j += left == right ? 1 : 0;
+                    merged[count++] = left;
+                } else {
+                    ++j;
+                    merged[count++] = right;
+                }
+            }
+            while (i < cardinality) {
+                merged[count++] = members[i++];
+            }
+            while (j < other.cardinality) {
+                merged[count++] = other.members[j++];
+            }
+            return new ArrayContainer(merged, count);
+        }
+
+        @Override
+        Cursor cursor() {
+            return new Cursor() {
+                private int position;
+
+                @Override
+                int member() {
+                    return position < cardinality ? members[position] : -1;
+                }
+
+                @Override
+                void advance() {
+                    ++position;
+                }
+
+                @Override
+                void advanceAtLeastTo(int member) {
+                    if (position >= cardinality || members[position] >= member) {
+                        return;
+                    }
+                    int index = Arrays.binarySearch(members, position, cardinality, (char) member);
+                    position = index >= 0 ? index : -index - 1;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Manages directly indexable long array of bits.
+     */
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char member) {
+            return (words[member >>> WORD_SHIFT] & 1L << member) != 0;
+        }
+
+        @Override
+        Container add(char member) {
+            int index = member >>> WORD_SHIFT;
+            long bit = 1L << member;
+            if ((words[index] & bit) == 0) {
+                words[index] |= bit;
+                if (++cardinality == CONTAINER_CAPACITY) {
+                    return RunContainer.full();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char member) {
+            int index = member >>> WORD_SHIFT;
+            long bit = 1L << member;
+            if ((words[index] & bit) != 0) {
+                words[index] &= ~bit;
+                if (--cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+                    return RoaringBitSet.fromWords(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            long[] ownWords = this.words;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] |= ownWords[i];
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            long[] ownWords = this.words;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] &= ~ownWords[i];
+            }
+        }
+
+        @Override
+        void andInto(long[] words) {
+            long[] ownWords = this.words;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] &= ownWords[i];
+            }
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        Cursor cursor() {
+            return new Cursor() {
+                private int member = nextSetBit(words, 0);
+
+                @Override
+                int member() {
+                    return member;
+                }
+
+                @Override
+                void advance() {
+                    if (member >= 0) {
+                        member = member == LOW_BITS_MASK ? -1 : nextSetBit(words, member + 1);
+                    }
+                }
+
+                @Override
+                void advanceAtLeastTo(int member) {
+                    if (this.member >= 0 && this.member < member) {
+                        this.member = nextSetBit(words, member);
+                    }
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Manages sorted runs of consecutive members. Each run is stored as a
+     * pair of chars: the first member of the run and the run length minus
+     * one.
+     */
+    private static final class RunContainer extends Container {
+
+        private static final int MIN_CAPACITY = 2;
+
+        private char[] runs;
+        private int runCount;
+        private int cardinality;
+
+        RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer full() {
+            return new RunContainer(new char[]{0, LOW_BITS_MASK}, 1, CONTAINER_CAPACITY);
+        }
+
+        static RunContainer fromWords(long[] words, int runCount, int cardinality) {
+            char[] runs = new char[Math.max(runCount, MIN_CAPACITY) * 2];
+            int count = 0;
+            int start = nextSetBit(words, 0);
+            while (start >= 0) {
+                int end = nextClearBit(words, start);
+                runs[2 * count] = (char) start;
+                runs[2 * count + 1] = (char) (end - start - 1);
+                ++count;
+                start = end == CONTAINER_CAPACITY ? -1 : nextSetBit(words, end);
+            }
+            assert count == runCount;
+            return new RunContainer(runs, runCount, cardinality);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char member) {
+            int run = findRun(member, 0);
+            return run >= 0 && member <= end(run);
+        }
+
+        @Override
+        Container add(char member) {
+            int run = findRun(member, 0);
+            if (run >= 0 && member <= end(run)) {
+                return this;
+            }
+            ++cardinality;
+
+            boolean extendsPrevious = run >= 0 && end(run) + 1 == member;
+            boolean extendsNext = run + 1 < runCount && start(run + 1) == member + 1;
+            if (extendsPrevious && extendsNext) {
+                runs[2 * run + 1] = (char) (end(run + 1) - start(run));
+                removeRun(run + 1);
+            } else if (extendsPrevious) {
+                ++runs[2 * run + 1];
+            } else if (extendsNext) {
+                runs[2 * (run + 1)] = member;
+                ++runs[2 * (run + 1) + 1];
+            } else {
+                insertRun(run + 1, member, member);
+                return convertIfTooManyRuns();
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char member) {
+            int run = findRun(member, 0);
+            if (run < 0 || member > end(run)) {
+                return this;
+            }
+            if (--cardinality == 0) {
+                return null;
+            }
+
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                removeRun(run);
+            } else if (member == start) {
+                runs[2 * run] = (char) (member + 1);
+                --runs[2 * run + 1];
+            } else if (member == end) {
+                --runs[2 * run + 1];
+            } else {
+                runs[2 * run + 1] = (char) (member - 1 - start);
+                insertRun(run + 1, member + 1, end);
+                return convertIfTooManyRuns();
+            }
+            return this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int run = 0; run < runCount; ++run) {
+                setRange(words, start(run), end(run));
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int run = 0; run < runCount; ++run) {
+                clearRange(words, start(run), end(run));
+            }
+        }
+
+        @Override
+        void andInto(long[] words) {
+            int from = 0;
+            for (int run = 0; run < runCount; ++run) {
+                int start = start(run);
+                if (start > from) {
+                    clearRange(words, from, start - 1);
+                }
+                from = end(run) + 1;
+            }
+            if (from < CONTAINER_CAPACITY) {
+                clearRange(words, from, LOW_BITS_MASK);
+            }
+        }
+
+        @Override
+        Cursor cursor() {
+            return new RunCursor();
+        }
+
+        private int start(int run) {
+            return runs[2 * run];
+        }
+
+        private int end(int run) {
+            return runs[2 * run] + runs[2 * run + 1];
+        }
+
+        /**
+         * @return the index of the last run starting at or before the given
+         * member or {@code from - 1} if there is no such run at or after the
+         * given run index.
+         */
+        private int findRun(int member, int from) {
+            int low = from;
+            int high = runCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (start(middle) <= member) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low - 1;
+        }
+
+        private void insertRun(int run, int start, int end) {
+            if (2 * runCount == runs.length) {
+                runs = Arrays.copyOf(runs, 2 * (runCount + (runCount >> 1) + 1));
+            }
+            System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (runCount - run));
+            runs[2 * run] = (char) start;
+            runs[2 * run + 1] = (char) (end - start);
+            ++runCount;
+        }
+
+        private void removeRun(int run) {
+            System.arraycopy(runs, 2 * run + 2, runs, 2 * run, 2 * (runCount - run - 1));
+            --runCount;
+        }
+
+        private Container convertIfTooManyRuns() {
+            return runCount > RUN_CONTAINER_MAX_RUNS ? RoaringBitSet.fromWords(toWords()) : this;
+        }
+
+        /**
+         * Iterates the members of the runs in the ascending order.
+         */
+        private final class RunCursor extends Cursor {
+            private int run;
+            private int member = start(0);
+
+            @Override
+            int member() {
+                return member;
+            }
+
+            @Override
+            void advance() {
+                if (member < 0) {
+                    return;
+                }
+                if (member < end(run)) {
+                    ++member;
+                } else {
+                    member = ++run < runCount ? start(run) : -1;
+                }
+            }
+
+            @Override
+            void advanceAtLeastTo(int member) {
+                if (this.member < 0 || this.member >= member) {
+                    return;
+                }
+                int found = findRun(member, run);
+                if (member <= end(found)) {
+                    run = found;
+                    this.member = member;
+                } else {
+                    run = found + 1;
+                    this.member = run < runCount ? start(run) : -1;
+                }
+            }
+        }
+    }
+
+    private static final class IteratorImpl implements AscendingLongIterator {
+
+        private final RoaringBitSet bitSet;
+
+        private int containerIndex;
+        private Cursor cursor;
+        private long index;
+
+        IteratorImpl(RoaringBitSet bitSet) {
+            this.bitSet = bitSet;
+            if (bitSet.size == 0) {
+                index = END;
+            } else {
+                cursor = bitSet.containers[0].cursor();
+                index = position();
+            }
+        }
+
+        @Override
+        public long getIndex() {
+            return index;
+        }
+
+        @Override
+        public long advance() {
+            long current = index;
+            if (current != END) {
+                cursor.advance();
+                index = position();
+            }
+            return current;
+        }
+
+        @Override
+        public long advanceAtLeastTo(long member) {
+            if (index == END || member <= index) {
+                return index;
+            }
+
+            long key = member >>> CONTAINER_BITS;
+            if (bitSet.keys[containerIndex] < key) {
+                int found = Arrays.binarySearch(bitSet.keys, containerIndex + 1, bitSet.size, key);
+                containerIndex = found >= 0 ? found : -found - 1;
+                if (containerIndex == bitSet.size) {
+                    index = END;
+                    return END;
+                }
+                cursor = bitSet.containers[containerIndex].cursor();
+            }
+            if (bitSet.keys[containerIndex] == key) {
+                cursor.advanceAtLeastTo((int) member & LOW_BITS_MASK);
+            }
+            index = position();
+            return index;
+        }
+
+        /**
+         * Moves to the next container if the cursor reached the end of the
+         * current one.
+         *
+         * @return the current member of the iteration.
+         */
+        private long position() {
+            while (true) {
+                int member = cursor.member();
+                if (member >= 0) {
+                    return bitSet.keys[containerIndex] << CONTAINER_BITS | member;
+                }
+                if (++containerIndex == bitSet.size) {
+                    return END;
+                }
+                cursor = bitSet.containers[containerIndex].cursor();
+            }
+        }
+
+    }
+
+}
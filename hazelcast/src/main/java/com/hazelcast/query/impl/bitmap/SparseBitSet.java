@@ -55,7 +55,7 @@ import static java.util.Arrays.copyOf;
  * <p>
  * Empty storages are never stored by the implementation.
  */
-final class SparseBitSet {
+final class SparseBitSet implements LongBitSet {
 
     /**
      * The size at which ArrayStorage32 is converted to PrefixStorage32.
@@ -89,6 +89,7 @@ final class SparseBitSet {
      *
      * @param member the member to add.
      */
+    @Override
     public void add(long member) {
         assert member >= 0;
         int prefix = (int) (member >>> Integer.SIZE);
@@ -127,6 +128,7 @@ final class SparseBitSet {
      * @return {@code true} if this storage became empty as a result of the
      * member removal, {@code false} otherwise.
      */
+    @Override
     public boolean remove(long member) {
         assert member >= 0;
         int prefix = (int) (member >>> Integer.SIZE);
@@ -160,6 +162,7 @@ final class SparseBitSet {
      * @return an iterator that iterates over all the indexes of bits set in
      * this sparse bit set.
      */
+    @Override
     public AscendingLongIterator iterator() {
         return new IteratorImpl(storages);
     }
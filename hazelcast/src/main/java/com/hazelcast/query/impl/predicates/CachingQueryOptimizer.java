@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryPlanCache;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Optimizer which caches the predicates optimized by the given optimizer in
+ * the {@link QueryPlanCache plan cache} of the indexes the predicates are
+ * optimized against.
+ * <p>
+ * Only the predicates having value-based equality and no user code are
+ * cached, the other predicates are just optimized.
+ */
+public final class CachingQueryOptimizer implements QueryOptimizer {
+
+    /**
+     * The types of the non-compound predicates which have value-based
+     * equality and no user code, the subclasses are not cacheable.
+     */
+    private static final Set<Class<?>> CACHEABLE_LEAF_TYPES = new HashSet<>(asList(
+            SqlPredicate.class, EqualPredicate.class, NotEqualPredicate.class, GreaterLessPredicate.class,
+            BetweenPredicate.class, InPredicate.class, LikePredicate.class, ILikePredicate.class,
+            RegexPredicate.class, InstanceOfPredicate.class, TruePredicate.class, FalsePredicate.class));
+
+    private final QueryOptimizer delegate;
+
+    public CachingQueryOptimizer(QueryOptimizer delegate) {
+        this.delegate = delegate;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
+        QueryPlanCache planCache = indexes == null ? null : indexes.getPlanCache();
+        if (planCache == null || !isCacheable(predicate)) {
+            return delegate.optimize(predicate, indexes);
+        }
+
+        Predicate<K, V> optimized = planCache.get(predicate);
+        if (optimized == null) {
+            InternalIndex[] indexSnapshot = indexes.getIndexes();
+            optimized = delegate.optimize(predicate, indexes);
+            planCache.put(predicate, optimized, indexSnapshot);
+        }
+        return optimized;
+    }
+
+    static boolean isCacheable(Predicate predicate) {
+        if (predicate instanceof AndPredicate || predicate instanceof OrPredicate) {
+            return allCacheable(((CompoundPredicate) predicate).getPredicates());
+        } else if (predicate instanceof NotPredicate) {
+            return isCacheable(((NotPredicate) predicate).getPredicate());
+        }
+        return CACHEABLE_LEAF_TYPES.contains(predicate.getClass());
+    }
+
+    private static boolean allCacheable(Predicate[] predicates) {
+        for (Predicate predicate : predicates) {
+            if (!isCacheable(predicate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -49,7 +49,9 @@ public final class QueryOptimizerFactory {
         }
         switch (type) {
             case RULES:
-                return new RuleBasedQueryOptimizer();
+                return properties.getInteger(ClusterProperty.QUERY_PLAN_CACHE_SIZE) > 0
+                        ? new CachingQueryOptimizer(new RuleBasedQueryOptimizer())
+                        : new RuleBasedQueryOptimizer();
             default:
                 return new EmptyOptimizer();
         }
@@ -508,6 +508,14 @@ public abstract class AbstractInvocationFuture<V> extends InternalCompletableFut
         return this;
     }
 
+    /**
+     * Makes this future unresolved again so it can be reused. Must be called
+     * only when nothing waits for the future nor is registered on it.
+     */
+    protected final void resetState() {
+        state = UNRESOLVED;
+    }
+
     boolean compareAndSetState(Object oldState, Object newState) {
         return STATE_UPDATER.compareAndSet(this, oldState, newState);
     }
@@ -62,6 +62,15 @@ public abstract class OperationRunner {
 
     public abstract void run(Runnable task);
 
+    /**
+     * Rejects the provided packet without running it: sends the error back to
+     * the caller, if it waits for a response, and releases the packet.
+     *
+     * @param packet the packet to reject
+     * @param cause  the reason of the rejection
+     */
+    public abstract void reject(Packet packet, Throwable cause);
+
     /**
      * Runs the provided operation.
      *
@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.core.HazelcastOverloadException;
 import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -44,15 +45,16 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.BitSet;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_QUEUE_SIZE_SKEW;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_QUEUE_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_REJECTED_PACKET_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_RUNNING_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_RUNNING_GENERIC_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_RUNNING_PARTITION_COUNT;
@@ -65,6 +67,7 @@ import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandle
 import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_WORK_STEALING_BACKLOG;
 import static com.hazelcast.spi.properties.ClusterProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -100,9 +103,10 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null unless the work stealing is enabled
+    private final PartitionWorkStealing workStealing;
 
-    private final OperationQueue genericQueue
-            = new OperationQueueImpl(new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>());
+    private final OperationQueueImpl genericQueue;
 
     // all operations that are not specific for a partition will be executed here, e.g. heartbeat or map.size()
     private final GenericOperationThread[] genericThreads;
@@ -131,10 +135,13 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         if (!tpcServerBootstrap.isEnabled()) {
             this.partitionThreads = initClassicPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
+            this.workStealing = initWorkStealing(properties);
         } else {
             this.partitionThreads = initTpcPartitionThreads(tpcServerBootstrap, hzName, nodeExtension, configClassLoader);
+            this.workStealing = null;
         }
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
+        this.genericQueue = OperationQueueImpl.newGenericQueue(properties, logger);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
         this.genericThreads = initGenericThreads(hzName, nodeExtension, configClassLoader);
     }
@@ -152,6 +159,17 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return operationRunners;
     }
 
+    private PartitionWorkStealing initWorkStealing(HazelcastProperties properties) {
+        int backlog = properties.getInteger(PARTITION_OPERATION_WORK_STEALING_BACKLOG);
+        if (backlog <= 0 || partitionThreads.length < 2) {
+            return null;
+        }
+
+        PartitionWorkStealing workStealing = new PartitionWorkStealing(partitionOperationRunners.length, backlog);
+        workStealing.init(partitionThreads);
+        return workStealing;
+    }
+
     private OperationRunner[] initGenericOperationRunners(HazelcastProperties properties, OperationRunnerFactory runnerFactory) {
         int threadCount = properties.getInteger(GENERIC_OPERATION_THREAD_COUNT);
         OperationRunner[] operationRunners = new OperationRunner[threadCount + priorityThreadCount];
@@ -355,6 +373,28 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return genericQueue.normalSize();
     }
 
+    /**
+     * The difference between the longest and the shortest queue of the
+     * partition threads, a measure of how unevenly the load is spread over
+     * the partition threads.
+     */
+    @Probe(name = OPERATION_METRIC_EXECUTOR_PARTITION_QUEUE_SIZE_SKEW)
+    private int getPartitionQueueSizeSkew() {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            int size = partitionThread.queue.normalSize();
+            min = Math.min(min, size);
+            max = Math.max(max, size);
+        }
+        return partitionThreads.length == 0 ? 0 : max - min;
+    }
+
+    @Probe(name = OPERATION_METRIC_EXECUTOR_REJECTED_PACKET_COUNT, level = MANDATORY)
+    private long getRejectedPacketCount() {
+        return genericQueue.rejectedPacketCount();
+    }
+
     @Probe(name = OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE)
     private int getGenericPriorityQueueSize() {
         return genericQueue.prioritySize();
@@ -419,7 +459,12 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public void accept(Packet packet) {
-        execute(packet, packet.getPartitionId(), packet.isUrgent());
+        try {
+            execute(packet, packet.getPartitionId(), packet.isUrgent());
+        } catch (HazelcastOverloadException e) {
+            // the IO thread doesn't wait for room in the queue, the caller gets the error response instead
+            adHocOperationRunner.reject(packet, e);
+        }
     }
 
     private void execute(Object task, int partitionId, boolean priority) {
@@ -499,6 +544,10 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
 
         PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+        if (workStealing != null) {
+            // the partition may be handed over to another thread
+            return workStealing.isRunAllowed(partitionThread, partitionId);
+        }
 
         // so it's a partition operation thread, now we need to make sure that this operation thread is allowed
         // to execute operations for this particular partitionId
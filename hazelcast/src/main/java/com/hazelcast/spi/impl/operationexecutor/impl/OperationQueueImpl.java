@@ -16,12 +16,28 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.concurrent.MPMCQueue;
+import com.hazelcast.internal.util.executor.HazelcastManagedThread;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationQueueRejectionPolicy.BLOCK;
+import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandlerSupplier.getIdleStrategy;
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_QUEUE_REJECTION_POLICY;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public final class OperationQueueImpl implements OperationQueue {
 
@@ -31,16 +47,57 @@ public final class OperationQueueImpl implements OperationQueue {
         }
     };
 
+    private static final HazelcastProperty GENERIC_IDLE_STRATEGY
+            = new HazelcastProperty("hazelcast.operation.genericthread.idlestrategy", "block");
+    private static final long REJECTION_LOG_INTERVAL_NANOS = SECONDS.toNanos(10);
+    private static final ILogger LOGGER = Logger.getLogger(OperationQueueImpl.class);
+
     private final BlockingQueue<Object> normalQueue;
     private final Queue<Object> priorityQueue;
+    private final OperationQueueRejectionPolicy rejectionPolicy;
+    // the remote operations rejected because the normalQueue was full
+    private final AtomicLong rejectedPacketCount = new AtomicLong();
+    private final AtomicLong nextRejectionLogNanos = new AtomicLong(System.nanoTime());
 
     public OperationQueueImpl() {
         this(new LinkedBlockingQueue<>(), new ConcurrentLinkedQueue<>());
     }
 
     public OperationQueueImpl(BlockingQueue<Object> normalQueue, Queue<Object> priorityQueue) {
+        this(normalQueue, priorityQueue, OperationQueueRejectionPolicy.REJECT);
+    }
+
+    /**
+     * @param normalQueue     the queue of the normal tasks, if bounded then the
+     *                        rejectionPolicy applies when it is full
+     * @param priorityQueue   the unbounded queue of the priority tasks
+     * @param rejectionPolicy the policy applied to normal tasks not fitting
+     *                        into the normalQueue
+     */
+    public OperationQueueImpl(BlockingQueue<Object> normalQueue, Queue<Object> priorityQueue,
+                              OperationQueueRejectionPolicy rejectionPolicy) {
         this.normalQueue = checkNotNull(normalQueue, "normalQueue");
         this.priorityQueue = checkNotNull(priorityQueue, "priorityQueue");
+        this.rejectionPolicy = checkNotNull(rejectionPolicy, "rejectionPolicy");
+    }
+
+    /**
+     * Creates the queue shared by the generic operation threads, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#GENERIC_OPERATION_QUEUE_CAPACITY}.
+     */
+    static OperationQueueImpl newGenericQueue(HazelcastProperties properties, ILogger logger) {
+        int capacity = properties.getInteger(GENERIC_OPERATION_QUEUE_CAPACITY);
+        if (capacity <= 0) {
+            return new OperationQueueImpl(new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>());
+        }
+
+        // the generic threads share the normalQueue, a lock-free array doesn't make them contend on a lock
+        MPMCQueue<Object> normalQueue = new MPMCQueue<>(capacity, getIdleStrategy(properties, GENERIC_IDLE_STRATEGY));
+        OperationQueueRejectionPolicy rejectionPolicy
+                = properties.getEnum(GENERIC_OPERATION_QUEUE_REJECTION_POLICY, OperationQueueRejectionPolicy.class);
+        logger.fine("Using a bounded generic operation queue with capacity " + normalQueue.capacity()
+                + " and rejection policy " + rejectionPolicy);
+        return new OperationQueueImpl(normalQueue, new LinkedBlockingQueue<>(), rejectionPolicy);
     }
 
     @Override
@@ -64,12 +121,65 @@ public final class OperationQueueImpl implements OperationQueue {
 
         if (priority) {
             priorityQueue.add(task);
-            normalQueue.add(TRIGGER_TASK);
-        } else {
-            normalQueue.add(task);
+            // if a bounded normalQueue is full, the consumers are busy and poll
+            // the priorityQueue before taking the next normal task anyway
+            normalQueue.offer(TRIGGER_TASK);
+        } else if (!normalQueue.offer(task)) {
+            addToFullQueue(task);
+        }
+    }
+
+    private void addToFullQueue(Object task) {
+        // the remote operations are rejected, so the caller gets an error response right away
+        if (rejectionPolicy == BLOCK && !(task instanceof Packet) && isBlockingAllowed(Thread.currentThread())) {
+            try {
+                normalQueue.put(task);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        HazelcastOverloadException e = new HazelcastOverloadException("Failed to schedule " + task
+                + ", the operation queue is full. Queue size: " + normalQueue.size()
+                + ", remaining capacity: " + normalQueue.remainingCapacity());
+        if (task instanceof Packet) {
+            logPacketRejection(rejectedPacketCount.incrementAndGet(), e);
+        }
+        throw e;
+    }
+
+    /**
+     * Logs the rejected remote operations as a warning at most once per
+     * {@link #REJECTION_LOG_INTERVAL_NANOS}, they can be rejected at a high
+     * rate while the queue is full.
+     */
+    private void logPacketRejection(long rejected, HazelcastOverloadException e) {
+        long now = System.nanoTime();
+        long next = nextRejectionLogNanos.get();
+        if (now - next >= 0 && nextRejectionLogNanos.compareAndSet(next, now + REJECTION_LOG_INTERVAL_NANOS)) {
+            LOGGER.warning("Rejecting the operations received from other members, total rejected: "
+                    + rejected + ". " + e.getMessage());
         }
     }
 
+    /**
+     * Returns the number of the remote operations rejected because the queue
+     * was full.
+     */
+    long rejectedPacketCount() {
+        return rejectedPacketCount.get();
+    }
+
+    /**
+     * Only the user threads wait for room in the queue. The Hazelcast threads,
+     * for instance the operation threads, the IO threads and the response
+     * threads, would stall the processing the queue waits for. The remote
+     * operations are always rejected, see {@link OperationExecutorImpl#accept(Packet)}.
+     */
+    private static boolean isBlockingAllowed(Thread thread) {
+        return !(thread instanceof HazelcastManagedThread) && !(thread instanceof OperationHostileThread);
+    }
+
     @Override
     public Object poll() {
         for (; ; ) {
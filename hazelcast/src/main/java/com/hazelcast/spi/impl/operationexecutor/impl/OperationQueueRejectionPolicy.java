@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+
+/**
+ * Determines what happens to a normal task added to a bounded {@link
+ * OperationQueue} which is full. Priority tasks are never rejected. Packets
+ * received from other members are rejected regardless of the policy, so the
+ * IO threads never wait, and the caller gets a {@link
+ * HazelcastOverloadException} in the response.
+ */
+public enum OperationQueueRejectionPolicy {
+
+    /**
+     * The adding thread waits until there is room for the task if it is a
+     * user thread. A task added by a Hazelcast thread, for instance an
+     * operation thread which could wait for its own queue forever, is
+     * rejected as with {@link #REJECT}.
+     */
+    BLOCK,
+
+    /**
+     * The task is rejected with a {@link HazelcastOverloadException}.
+     */
+    REJECT
+}
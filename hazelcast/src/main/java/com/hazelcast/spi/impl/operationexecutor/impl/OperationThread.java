@@ -29,6 +29,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.OutboundResponseBatcher;
 
 import java.util.concurrent.TimeUnit;
 
@@ -85,6 +86,8 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     private final NodeExtension nodeExtension;
     private final ILogger logger;
     private volatile boolean shutdown;
+    // buffers the responses sent by this thread, null unless the response batching is enabled
+    private OutboundResponseBatcher responseBatcher;
 
     public OperationThread(String name,
                            int threadId,
@@ -106,8 +109,35 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         return threadId;
     }
 
+    /**
+     * Returns the number of tasks completed by this thread.
+     */
+    public long getCompletedTaskCount() {
+        return completedTotalCount.get();
+    }
+
+    /**
+     * Returns the number of normal tasks waiting in the queue of this thread.
+     */
+    public int getQueueSize() {
+        return queue.normalSize();
+    }
+
     public abstract OperationRunner operationRunner(int partitionId);
 
+    public OutboundResponseBatcher getResponseBatcher() {
+        return responseBatcher;
+    }
+
+    /**
+     * Sets the batcher of the responses sent by this thread. Must be set
+     * before the thread is started and only if the thread runs the default
+     * {@link #loop()}, which flushes the batcher.
+     */
+    public void setResponseBatcher(OutboundResponseBatcher responseBatcher) {
+        this.responseBatcher = responseBatcher;
+    }
+
     @Override
     public final void executeRun() {
         nodeExtension.onThreadStart(this);
@@ -132,6 +162,12 @@ public abstract class OperationThread extends HazelcastManagedThread implements
             }
 
             process(task);
+            if (responseBatcher != null) {
+                responseBatcher.onTaskDone(queue.isEmpty());
+            }
+        }
+        if (responseBatcher != null) {
+            responseBatcher.flush();
         }
     }
 
@@ -153,7 +189,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
             }
             if (putBackInQueue) {
                 // retry later if not ready
-                queue.add(task, priority);
+                retryLater(task);
             } else {
                 completedTotalCount.inc();
             }
@@ -166,6 +202,13 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
+    /**
+     * Schedules a task which was not ready to be executed to be retried later.
+     */
+    void retryLater(Object task) {
+        queue.add(task, priority);
+    }
+
     /**
      * Processes/executes the provided operation.
      *
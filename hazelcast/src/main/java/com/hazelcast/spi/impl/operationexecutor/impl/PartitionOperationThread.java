@@ -18,12 +18,21 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionWorkStealing.StolenPartition;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_OFFLOADED_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_TASK_COUNT;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
@@ -33,6 +42,20 @@ public class PartitionOperationThread extends OperationThread {
 
     OperationRunner[] partitionOperationRunners;
 
+    // null unless the work stealing is enabled
+    PartitionWorkStealing workStealing;
+    // the partitions this thread handed over to other threads, only accessed by this thread
+    final List<StolenPartition> offloadedPartitions = new ArrayList<>();
+    // the number of the offloadedPartitions, read by the threads looking for an idle thread
+    final AtomicInteger pendingOffloadCount = new AtomicInteger();
+    // the partition of the stolen tasks this thread is executing, only accessed by this thread
+    StolenPartition stolenPartition;
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_TASK_COUNT)
+    final SwCounter stolenTaskCount = newSwCounter();
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_OFFLOADED_PARTITION_COUNT)
+    final SwCounter offloadedPartitionCount = newSwCounter();
+
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
                                     int threadId,
@@ -54,6 +77,31 @@ public class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    @Override
+    void process(Object task) {
+        if (task instanceof StolenPartition) {
+            workStealing.run(this, (StolenPartition) task);
+        } else if (workStealing == null || !workStealing.offload(this, task)) {
+            super.process(task);
+        }
+    }
+
+    /**
+     * Processes a task of a partition owned by another thread.
+     */
+    void processStolen(Object task) {
+        super.process(task);
+    }
+
+    @Override
+    void retryLater(Object task) {
+        if (stolenPartition != null) {
+            stolenPartition.retry(task);
+        } else {
+            super.retryLater(task);
+        }
+    }
+
     @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT)
     int priorityPendingCount() {
         return queue.prioritySize();
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.getPartitionThreadId;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Lets an idle {@link PartitionOperationThread} execute the read-only
+ * operations of a partition owned by a busy partition thread.
+ * <p>
+ * The owner of a partition decides to hand the partition over while taking
+ * the tasks from its queue: if the owner has at least {@code minBacklog}
+ * normal tasks pending, the task is a {@link ReadonlyOperation} and another
+ * partition thread has an empty queue, the owner appends the operation, and
+ * the following read-only operations of the same partition, to a {@link
+ * StolenPartition} executed by the idle thread. Once the idle thread has
+ * executed all the operations handed over, the partition returns to its
+ * owner. Any other task of the partition makes the owner wait until the
+ * partition is returned. So the tasks of a partition are still executed one
+ * at a time and in the order of the owner's queue, while the owner executes
+ * the tasks of its other partitions instead of queueing them behind the
+ * reads of a hot partition.
+ * <p>
+ * The tasks which are not specific to a partition, e.g. the {@link TaskBatch
+ * batches} or the tasks executed on all partition threads, may touch any
+ * partition of the owner, so the owner waits until its partitions are
+ * returned before executing them. A thread having partitions handed over is
+ * never picked to execute the partitions of another thread, so the threads
+ * never wait for each other in a cycle.
+ */
+final class PartitionWorkStealing {
+
+    /**
+     * The number of stolen tasks a thread executes before it gives the tasks
+     * in its own queue a turn.
+     */
+    static final int STOLEN_BATCH_SIZE = 64;
+
+    private static final IdleStrategy AWAIT_IDLE_STRATEGY
+            = new BackoffIdleStrategy(0, 16, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(1));
+
+    private final int minBacklog;
+    // indexed by the partition ID, only accessed by the owner of the partition
+    private final StolenPartition[] stolenPartitions;
+    private PartitionOperationThread[] threads;
+
+    PartitionWorkStealing(int partitionCount, int minBacklog) {
+        this.minBacklog = minBacklog;
+        this.stolenPartitions = new StolenPartition[partitionCount];
+    }
+
+    void init(PartitionOperationThread[] threads) {
+        this.threads = threads;
+        for (PartitionOperationThread thread : threads) {
+            thread.workStealing = this;
+        }
+    }
+
+    /**
+     * Hands the given read-only operation over to another thread if its
+     * partition is handed over already or if the owner is busy and another
+     * thread is idle. Called by the owner before it processes a task.
+     *
+     * @return {@code true} if the task was handed over, {@code false} if the
+     * owner should process it
+     */
+    boolean offload(PartitionOperationThread owner, Object task) {
+        int partitionId = partitionId(task);
+        if (partitionId < 0) {
+            awaitReturnedPartitions(owner);
+            return false;
+        }
+
+        boolean readonly = task instanceof ReadonlyOperation;
+        StolenPartition stolen = stolenPartitions[partitionId];
+        if (stolen != null) {
+            if (readonly && stolen.add(task)) {
+                return true;
+            }
+            // the other tasks are executed by the owner once the partition is returned
+            awaitReturned(owner, stolen);
+            reclaimReturnedPartitions(owner);
+        }
+
+        if (!readonly || owner.queue.normalSize() < minBacklog) {
+            return false;
+        }
+        // counted before looking for an idle thread, so two threads can't
+        // pick each other
+        owner.pendingOffloadCount.incrementAndGet();
+        PartitionOperationThread thief = findIdleThread(owner);
+        if (thief == null) {
+            owner.pendingOffloadCount.decrementAndGet();
+            return false;
+        }
+
+        stolen = new StolenPartition(partitionId, task);
+        stolenPartitions[partitionId] = stolen;
+        owner.offloadedPartitions.add(stolen);
+        owner.offloadedPartitionCount.inc();
+        thief.queue.add(stolen, false);
+        return true;
+    }
+
+    /**
+     * Executes the tasks handed over to the given thread.
+     */
+    void run(PartitionOperationThread thief, StolenPartition stolen) {
+        thief.stolenPartition = stolen;
+        try {
+            for (int i = 0; i < STOLEN_BATCH_SIZE; i++) {
+                Object task = stolen.tasks.poll();
+                if (task == null) {
+                    // the owner has counted the task, but not appended it yet
+                    break;
+                }
+                stolen.retried = false;
+                thief.processStolen(task);
+                thief.stolenTaskCount.inc();
+                if (!stolen.retried && stolen.complete()) {
+                    return;
+                }
+            }
+        } finally {
+            thief.stolenPartition = null;
+        }
+        thief.queue.add(stolen, false);
+    }
+
+    /**
+     * Checks if the given thread may execute a task of the given partition,
+     * see {@link OperationExecutorImpl#isRunAllowed}.
+     */
+    boolean isRunAllowed(PartitionOperationThread thread, int partitionId) {
+        StolenPartition stolen = thread.stolenPartition;
+        if (stolen != null && stolen.partitionId == partitionId) {
+            return true;
+        }
+        if (getPartitionThreadId(partitionId, threads.length) != thread.threadId) {
+            return false;
+        }
+        stolen = stolenPartitions[partitionId];
+        return stolen == null || stolen.isReturned();
+    }
+
+    private PartitionOperationThread findIdleThread(PartitionOperationThread owner) {
+        for (int i = 1; i < threads.length; i++) {
+            PartitionOperationThread candidate = threads[(owner.threadId + i) % threads.length];
+            if (candidate.queue.isEmpty() && candidate.pendingOffloadCount.get() == 0) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void awaitReturnedPartitions(PartitionOperationThread owner) {
+        for (StolenPartition stolen : owner.offloadedPartitions) {
+            awaitReturned(owner, stolen);
+        }
+        reclaimReturnedPartitions(owner);
+    }
+
+    private static void awaitReturned(PartitionOperationThread owner, StolenPartition stolen) {
+        for (long iteration = 0; !stolen.isReturned() && !owner.isShutdown(); iteration++) {
+            AWAIT_IDLE_STRATEGY.idle(iteration);
+        }
+    }
+
+    private void reclaimReturnedPartitions(PartitionOperationThread owner) {
+        if (owner.offloadedPartitions.isEmpty()) {
+            return;
+        }
+        for (Iterator<StolenPartition> it = owner.offloadedPartitions.iterator(); it.hasNext(); ) {
+            StolenPartition stolen = it.next();
+            if (stolen.isReturned()) {
+                it.remove();
+                stolenPartitions[stolen.partitionId] = null;
+                owner.pendingOffloadCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static int partitionId(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        }
+        return -1;
+    }
+
+    /**
+     * The tasks of a partition handed over by its owner to another thread.
+     */
+    static final class StolenPartition {
+
+        private static final int RETURNED = -1;
+
+        final int partitionId;
+        final Queue<Object> tasks = new ConcurrentLinkedQueue<>();
+        // the number of the tasks not executed yet, or RETURNED once all the
+        // tasks are executed and the partition is back with its owner
+        private final AtomicInteger pendingCount = new AtomicInteger(1);
+        // only accessed by the executing thread
+        private boolean retried;
+
+        StolenPartition(int partitionId, Object task) {
+            this.partitionId = partitionId;
+            tasks.add(task);
+        }
+
+        /**
+         * Appends a task, called by the owner.
+         *
+         * @return {@code false} if the partition is returned already
+         */
+        boolean add(Object task) {
+            for (; ; ) {
+                int pending = pendingCount.get();
+                if (pending == RETURNED) {
+                    return false;
+                }
+                if (pendingCount.compareAndSet(pending, pending + 1)) {
+                    tasks.add(task);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Appends a task which was not ready to be executed, called by the
+         * executing thread.
+         */
+        void retry(Object task) {
+            retried = true;
+            tasks.add(task);
+        }
+
+        /**
+         * Counts an executed task, called by the executing thread.
+         *
+         * @return {@code true} if the partition is returned to its owner
+         */
+        boolean complete() {
+            return pendingCount.decrementAndGet() == 0 && pendingCount.compareAndSet(0, RETURNED);
+        }
+
+        boolean isReturned() {
+            return pendingCount.get() == RETURNED;
+        }
+
+        @Override
+        public String toString() {
+            return "StolenPartition{partitionId=" + partitionId + '}';
+        }
+    }
+}
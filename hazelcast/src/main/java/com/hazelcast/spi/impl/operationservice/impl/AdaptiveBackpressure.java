@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.util.Timer;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.impl.operationservice.BlockingOperation;
+import com.hazelcast.spi.impl.sequence.AbstractCallIdSequence;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Adapts the number of concurrent invocations of this member to the observed
+ * latency, instead of relying only on the fixed maximum of the {@link
+ * AbstractCallIdSequence call ID sequence}.
+ * <p>
+ * Every {@link #SAMPLE_PERIOD_MILLIS} two latencies are sampled:
+ * <ol>
+ * <li>the sojourn time of the queue of every partition operation thread of this
+ * member. It is estimated from the length of the queue and the rate the thread
+ * drained its queue at since the previous sample (Little's law). A thread which
+ * hasn't completed any task while having a backlog is late by the time it has
+ * been stuck.</li>
+ * <li>the minimum latency of the partition invocations sent to every remote
+ * member which completed since the previous sample. It includes the sojourn time
+ * in the operation queues of the remote member, which can't be observed directly.
+ * The minimum exceeds the target only if even the fastest invocation waited, so a
+ * single slow operation doesn't count as an overload. The same way, the member
+ * is not taken into account if fewer than {@link #MIN_SAMPLE_COUNT} invocations
+ * completed. Only the partition operations are short and queued behind each
+ * other, the other invocations, for instance the queries or the executor tasks,
+ * and the blocking operations may take a long time without the member being
+ * overloaded.</li>
+ * </ol>
+ * If the highest of these latencies exceeds the target, the concurrency limit is
+ * decreased multiplicatively, otherwise it is increased additively if at least
+ * half of it is in use (AIMD). The sync window of the async backups shrinks in
+ * proportion to the limit, so the backups are made sync more often as well.
+ * <p>
+ * The latencies are recorded by any thread completing an invocation, the
+ * sampling is done by a single thread.
+ */
+class AdaptiveBackpressure {
+
+    static final long SAMPLE_PERIOD_MILLIS = 100;
+    static final double DECREASE_FACTOR = 0.75;
+    static final int MIN_SAMPLE_COUNT = 5;
+
+    private final AbstractCallIdSequence callIdSequence;
+    private final long targetLatencyNanos;
+    private final int minLimit;
+    private final int increment;
+    private final ConcurrentMap<Address, MemberLatency> memberLatencies = new ConcurrentHashMap<>();
+
+    // the state below is accessed by the sampling thread only
+    private OperationThread[] partitionThreads = new OperationThread[0];
+    private long[] completedTaskCounts = new long[0];
+    private long[] stuckSinceNanos = new long[0];
+    private long lastSampleNanos = Timer.nanos();
+
+    /**
+     * @param callIdSequence     the call ID sequence to regulate the concurrency limit of
+     * @param targetLatencyNanos the latency to keep the sampled latencies below
+     * @param minLimit           the concurrency limit isn't decreased below this value
+     * @param increment          the value the concurrency limit is increased by
+     */
+    AdaptiveBackpressure(AbstractCallIdSequence callIdSequence, long targetLatencyNanos, int minLimit, int increment) {
+        this.callIdSequence = callIdSequence;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.minLimit = min(minLimit, callIdSequence.getMaxConcurrentInvocations());
+        this.increment = increment;
+    }
+
+    /**
+     * Sets the partition operation threads whose queues are sampled. Must be
+     * called before the sampling starts.
+     */
+    void setPartitionThreads(OperationThread[] partitionThreads) {
+        this.partitionThreads = partitionThreads;
+        this.completedTaskCounts = new long[partitionThreads.length];
+        this.stuckSinceNanos = new long[partitionThreads.length];
+    }
+
+    int getConcurrencyLimit() {
+        return callIdSequence.getConcurrencyLimit();
+    }
+
+    /**
+     * Returns the sync window scaled down in proportion to the current
+     * concurrency limit.
+     */
+    int scaleSyncWindow(int syncWindow) {
+        long scaled = (long) syncWindow * callIdSequence.getConcurrencyLimit() / callIdSequence.getMaxConcurrentInvocations();
+        return (int) max(1, scaled);
+    }
+
+    void onInvocationDone(Invocation invocation) {
+        Member target = invocation.getTargetMember();
+        if (target == null || target.localMember() || !(invocation instanceof PartitionInvocation)
+                || invocation.op instanceof BlockingOperation) {
+            return;
+        }
+        recordLatency(target.getAddress(), Timer.nanosElapsed(invocation.firstInvocationTimeNanos));
+    }
+
+    void recordLatency(Address member, long latencyNanos) {
+        memberLatencies.computeIfAbsent(member, k -> new MemberLatency()).record(latencyNanos);
+    }
+
+    /**
+     * Samples the latencies and adjusts the concurrency limit.
+     */
+    void sample() {
+        long nowNanos = Timer.nanos();
+        long elapsedNanos = nowNanos - lastSampleNanos;
+        lastSampleNanos = nowNanos;
+        adjust(max(maxQueueSojournNanos(nowNanos, elapsedNanos), maxMemberLatencyNanos()));
+    }
+
+    /**
+     * Adjusts the concurrency limit to the given latency.
+     */
+    void adjust(long latencyNanos) {
+        int limit = callIdSequence.getConcurrencyLimit();
+        if (latencyNanos > targetLatencyNanos) {
+            callIdSequence.setConcurrencyLimit(max(minLimit, (int) (limit * DECREASE_FACTOR)));
+        } else if (limit < callIdSequence.getMaxConcurrentInvocations()
+                && 2 * callIdSequence.concurrentInvocations() >= limit) {
+            callIdSequence.setConcurrencyLimit((int) min(Integer.MAX_VALUE, (long) limit + increment));
+        }
+    }
+
+    private long maxQueueSojournNanos(long nowNanos, long elapsedNanos) {
+        long maxSojournNanos = 0;
+        for (int i = 0; i < partitionThreads.length; i++) {
+            OperationThread thread = partitionThreads[i];
+            int queued = thread.getQueueSize();
+            long completed = thread.getCompletedTaskCount();
+            long drained = completed - completedTaskCounts[i];
+            completedTaskCounts[i] = completed;
+
+            long sojournNanos;
+            if (queued == 0) {
+                stuckSinceNanos[i] = 0;
+                sojournNanos = 0;
+            } else if (drained == 0) {
+                if (stuckSinceNanos[i] == 0) {
+                    stuckSinceNanos[i] = nowNanos - elapsedNanos;
+                }
+                sojournNanos = nowNanos - stuckSinceNanos[i];
+            } else {
+                stuckSinceNanos[i] = 0;
+                sojournNanos = estimateSojournNanos(queued, drained, elapsedNanos);
+            }
+            maxSojournNanos = max(maxSojournNanos, sojournNanos);
+        }
+        return maxSojournNanos;
+    }
+
+    private long maxMemberLatencyNanos() {
+        long maxLatencyNanos = 0;
+        Iterator<Map.Entry<Address, MemberLatency>> iterator = memberLatencies.entrySet().iterator();
+        while (iterator.hasNext()) {
+            long minLatencyNanos = iterator.next().getValue().sampleMinNanos();
+            if (minLatencyNanos < 0) {
+                // no invocation completed since the previous sample, the member may have left
+                iterator.remove();
+            } else {
+                maxLatencyNanos = max(maxLatencyNanos, minLatencyNanos);
+            }
+        }
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Estimates the time a task waits in a queue of the given length, given
+     * the queue was drained of {@code drained} tasks in {@code elapsedNanos}.
+     */
+    static long estimateSojournNanos(int queued, long drained, long elapsedNanos) {
+        return queued * elapsedNanos / drained;
+    }
+
+    private static final class MemberLatency {
+        private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+        private final Counter count = newMwCounter();
+
+        // accessed by the sampling thread only
+        private long sampledCount;
+
+        void record(long latencyNanos) {
+            for (long min = minNanos.get(); latencyNanos < min; min = minNanos.get()) {
+                if (minNanos.compareAndSet(min, latencyNanos)) {
+                    break;
+                }
+            }
+            count.inc();
+        }
+
+        /**
+         * Returns the minimum latency since the previous sample, 0 if fewer
+         * than {@link #MIN_SAMPLE_COUNT} latencies were recorded or -1 if
+         * there is no new latency recorded.
+         */
+        long sampleMinNanos() {
+            long currentCount = count.get();
+            long newCount = currentCount - sampledCount;
+            sampledCount = currentCount;
+            long sampledMinNanos = minNanos.getAndSet(Long.MAX_VALUE);
+            if (newCount <= 0) {
+                return -1;
+            }
+            return newCount < MIN_SAMPLE_COUNT ? 0 : sampledMinNanos;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.util.ThreadLocalRandomProvider;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.spi.impl.sequence.AbstractCallIdSequence;
 import com.hazelcast.spi.impl.sequence.CallIdFactory;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -28,6 +29,8 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION;
@@ -37,6 +40,7 @@ import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
 import static java.lang.Math.max;
 import static java.lang.Math.round;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
 /**
@@ -63,6 +67,9 @@ import static java.util.concurrent.TimeUnit.MINUTES;
  * overloaded.
  * </li>
  * </ol>
+ * If the {@link com.hazelcast.spi.properties.ClusterProperty#BACKPRESSURE_ADAPTIVE_ENABLED adaptive backpressure}
+ * is enabled, both the number of concurrent invocations and the sync window are additionally lowered while the
+ * observed latency exceeds the target, see {@link AdaptiveBackpressure}.
  */
 class BackpressureRegulator {
 
@@ -78,6 +85,9 @@ class BackpressureRegulator {
     private final int partitionCount;
     private final int maxConcurrentInvocations;
     private final int backoffTimeoutMs;
+    private final boolean adaptive;
+    private final long adaptiveTargetLatencyMs;
+    private volatile AdaptiveBackpressure adaptiveBackpressure;
 
     BackpressureRegulator(HazelcastProperties properties, ILogger logger) {
         this.enabled = properties.getBoolean(BACKPRESSURE_ENABLED);
@@ -87,11 +97,14 @@ class BackpressureRegulator {
         this.syncCountdown.set(syncWindow);
         this.maxConcurrentInvocations = getMaxConcurrentInvocations(properties);
         this.backoffTimeoutMs = getBackoffTimeoutMs(properties);
+        this.adaptive = enabled && properties.getBoolean(BACKPRESSURE_ADAPTIVE_ENABLED);
+        this.adaptiveTargetLatencyMs = getAdaptiveTargetLatencyMs(properties);
 
         if (enabled) {
             logger.info("Backpressure is enabled"
                     + ", maxConcurrentInvocations:" + maxConcurrentInvocations
-                    + ", syncWindow: " + syncWindow);
+                    + ", syncWindow: " + syncWindow
+                    + (adaptive ? ", adaptive with targetLatency: " + adaptiveTargetLatencyMs + " ms" : ""));
 
             int backupTimeoutMillis = properties.getInteger(OPERATION_BACKUP_TIMEOUT_MILLIS);
             if (backupTimeoutMillis < MINUTES.toMillis(1)) {
@@ -127,6 +140,15 @@ class BackpressureRegulator {
         return backoffTimeoutMs;
     }
 
+    private long getAdaptiveTargetLatencyMs(HazelcastProperties props) {
+        long targetLatencyMs = props.getMillis(BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS);
+        if (adaptive && targetLatencyMs < 1) {
+            throw new IllegalArgumentException("Can't have '" + BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS
+                    + "' with a value smaller than 1");
+        }
+        return targetLatencyMs;
+    }
+
     private int getMaxConcurrentInvocations(HazelcastProperties props) {
         if (disabled) {
             return Integer.MAX_VALUE;
@@ -159,7 +181,24 @@ class BackpressureRegulator {
     }
 
     CallIdSequence newCallIdSequence(ConcurrencyDetection concurrencyDetection) {
-        return CallIdFactory.newCallIdSequence(maxConcurrentInvocations, backoffTimeoutMs, concurrencyDetection);
+        CallIdSequence callIdSequence = CallIdFactory.newCallIdSequence(
+                maxConcurrentInvocations, backoffTimeoutMs, concurrencyDetection);
+        if (adaptive && callIdSequence instanceof AbstractCallIdSequence) {
+            // at least one invocation per partition, recovering to the maximum in as many samples
+            // as there are invocations allowed per partition
+            int minLimit = partitionCount + 1;
+            adaptiveBackpressure = new AdaptiveBackpressure((AbstractCallIdSequence) callIdSequence,
+                    MILLISECONDS.toNanos(adaptiveTargetLatencyMs), minLimit, minLimit);
+        }
+        return callIdSequence;
+    }
+
+    /**
+     * Returns the adaptive backpressure regulating the last created call ID
+     * sequence or {@code null} if the adaptive backpressure is disabled.
+     */
+    AdaptiveBackpressure getAdaptiveBackpressure() {
+        return adaptiveBackpressure;
     }
 
     /**
@@ -198,6 +237,10 @@ class BackpressureRegulator {
     }
 
     private int randomSyncDelay() {
+        AdaptiveBackpressure adaptiveBackpressure = this.adaptiveBackpressure;
+        int syncWindow = adaptiveBackpressure == null
+                ? this.syncWindow
+                : adaptiveBackpressure.scaleSyncWindow(this.syncWindow);
         if (syncWindow == 1) {
             return 1;
         }
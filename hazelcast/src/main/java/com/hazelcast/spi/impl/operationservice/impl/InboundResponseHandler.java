@@ -28,11 +28,14 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE_BATCH;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
@@ -60,6 +63,7 @@ public final class InboundResponseHandler implements Consumer<Packet> {
     final MwCounter responsesBackup = newMwCounter();
     final SwCounter responsesError = newSwCounter();
     final MwCounter responsesMissing = newMwCounter();
+    final SwCounter responsesBatch = newSwCounter();
     private final ILogger logger;
     private final InternalSerializationService serializationService;
     private final InvocationRegistry invocationRegistry;
@@ -80,6 +84,11 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         checkTrue(packet.getPacketType() == OPERATION, "Packet type is not OPERATION");
         checkTrue(packet.isFlagRaised(FLAG_OP_RESPONSE), "FLAG_OP_RESPONSE is not set");
 
+        if (packet.isFlagRaised(FLAG_OP_RESPONSE_BATCH)) {
+            acceptBatch(packet);
+            return;
+        }
+
         byte[] bytes = packet.toByteArray();
         int typeId = Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian);
         long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
@@ -108,6 +117,27 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         }
     }
 
+    /**
+     * Handles the responses of a batch packet created by the {@link
+     * OutboundResponseBatcher}. Its payload consists of the payloads of the
+     * responses, each preceded by its length.
+     */
+    private void acceptBatch(Packet batch) {
+        responsesBatch.inc();
+        byte[] bytes = batch.toByteArray();
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Bits.readIntB(bytes, offset);
+            offset += INT_SIZE_IN_BYTES;
+            Packet response = new Packet(Arrays.copyOfRange(bytes, offset, offset + length), -1)
+                    .setPacketType(OPERATION)
+                    .raiseFlags(FLAG_OP_RESPONSE)
+                    .setConn(batch.getConn());
+            offset += length;
+            accept(response);
+        }
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
@@ -21,6 +21,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.HazelcastOverloadException;
 import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.instance.impl.NodeState;
@@ -108,23 +109,25 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
     private static final int LOG_INVOCATION_COUNT_MOD = 10;
 
     /**
-     * The {@link Operation} this invocation is evaluating.
+     * The {@link Operation} this invocation is evaluating. It is replaced only
+     * when a pooled invocation is {@link #reset(Operation) reused}, see there
+     * how the new value is published.
      */
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    public final Operation op;
+    public Operation op;
 
     /**
      * The first time this invocation got executed.
      * This field is used to determine how long an invocation has actually been running.
      */
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    public final long firstInvocationTimeMillis = Clock.currentTimeMillis();
+    public long firstInvocationTimeMillis = Clock.currentTimeMillis();
 
     /**
      * The time in nanoseconds the first time the invocation got executed.
      */
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    public final long firstInvocationTimeNanos = System.nanoTime();
+    public long firstInvocationTimeNanos = System.nanoTime();
 
     /**
      * A flag to prevent multiple responses to be send to the invocation (only needed for local operations).
@@ -140,7 +143,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
 
     final Context context;
     final InvocationFuture future;
-    final long callTimeoutMillis;
+    long callTimeoutMillis;
 
     /**
      * Shows number of times this Invocation is invoked.
@@ -152,6 +155,19 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
      */
     private volatile int invokeCount;
 
+    /**
+     * Set once this invocation is retried or re-invoked. Such an invocation
+     * is never {@link #isRecyclable(long) recycled}, since a retry task or a
+     * response of an earlier attempt may still refer to it.
+     */
+    private volatile boolean retried;
+
+    /**
+     * Set once the thread completing this invocation is done with it, which
+     * is only after the future is completed.
+     */
+    private volatile boolean released;
+
     /**
      * Shows the address of current target.
      * <p>
@@ -197,6 +213,13 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
      */
     private final Runnable taskDoneCallback;
 
+    /**
+     * The call timeout requested when this invocation was created, kept to
+     * recompute the {@link #callTimeoutMillis} for the next operation if the
+     * invocation is reused.
+     */
+    private final long requestedCallTimeoutMillis;
+
 
     Invocation(Context context,
                Operation op,
@@ -212,6 +235,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
         this.taskDoneCallback = taskDoneCallback;
         this.tryCount = tryCount;
         this.tryPauseMillis = tryPauseMillis;
+        this.requestedCallTimeoutMillis = callTimeoutMillis;
         this.callTimeoutMillis = getCallTimeoutMillis(callTimeoutMillis);
         this.future = new InvocationFuture(this, deserialize);
         this.connectionManager = getConnectionManager(connectionManager);
@@ -247,6 +271,89 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
         return future;
     }
 
+    /**
+     * Checks if this invocation can be {@link #reset(Operation) reused} for
+     * another operation. It is if:
+     * <ul>
+     * <li>it completed with a normal response and all the expected backup
+     * acks, so no other response for it can arrive,</li>
+     * <li>it was never retried, so no retry task refers to it,</li>
+     * <li>it completed in less than the given time, so the invocation monitor
+     * which may still iterate over it can't consider it timed out.</li>
+     * </ul>
+     * Must be called by the thread owning the invocation after the future is
+     * done. Since the future is completed before the invocation is
+     * deregistered, the invocation must also be {@link #isReleased()
+     * released} before it is reused.
+     *
+     * @param maxLatencyNanos the time the invocation had to complete in
+     */
+    boolean isRecyclable(long maxLatencyNanos) {
+        return isCompletedNormally()
+                && !retried
+                && isBackupAcksComplete()
+                && System.nanoTime() - firstInvocationTimeNanos < maxLatencyNanos;
+    }
+
+    private boolean isCompletedNormally() {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private boolean isBackupAcksComplete() {
+        // the expected backup count is left unset if the acks arrived before the response
+        return backupsAcksExpected < 0 || backupsAcksReceived >= backupsAcksExpected;
+    }
+
+    /**
+     * Returns {@code true} if the thread which completed this invocation is
+     * done with it, {@code false} otherwise.
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Prepares this {@link #isRecyclable(long) recyclable} and
+     * {@link #isReleased() released} invocation for
+     * the given operation, as if it was newly created for it.
+     * <p>
+     * The fields which are final for a not pooled invocation ({@link #op},
+     * the first invocation times and the {@link #callTimeoutMillis}) are
+     * written here by the thread acquiring the invocation, before it invokes
+     * it. They are published to the other threads the same way the fields of
+     * a new invocation are: the response threads and the invocation monitor
+     * find the invocation in the {@link InvocationRegistry}, whose put in
+     * {@link InvocationRegistry#register} happens after this reset, and the
+     * operation threads get the operation through the operation queues. The
+     * pool queue publishes the state of the released invocation to the
+     * acquiring thread. The invocation monitor may still iterate over the
+     * previous registration of the invocation, it then sees either the old or
+     * the new, later, invocation times, neither of which makes it consider
+     * the invocation timed out, see {@link #isRecyclable(long)}.
+     *
+     * @param op the operation to invoke
+     */
+    void reset(Operation op) {
+        this.op = op;
+        this.firstInvocationTimeMillis = Clock.currentTimeMillis();
+        this.firstInvocationTimeNanos = System.nanoTime();
+        this.callTimeoutMillis = getCallTimeoutMillis(requestedCallTimeoutMillis);
+        this.responseReceived = FALSE;
+        this.lastHeartbeatMillis = 0;
+        this.invokeCount = 0;
+        this.retried = false;
+        this.released = false;
+        this.targetAddress = null;
+        this.targetMember = null;
+        this.connection = null;
+        this.memberListVersion = 0;
+        this.pendingResponse = VOID;
+        this.pendingResponseReceivedMillis = -1;
+        this.backupsAcksExpected = -1;
+        this.backupsAcksReceived = 0;
+        future.reset();
+    }
+
     protected boolean shouldFailOnIndeterminateOperationState() {
         return false;
     }
@@ -612,10 +719,15 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
         responseReceived = FALSE;
         op.setOperationResponseHandler(this);
 
-        if (isAsync) {
-            context.operationExecutor.execute(op);
-        } else {
-            context.operationExecutor.runOrExecute(op);
+        try {
+            if (isAsync) {
+                context.operationExecutor.execute(op);
+            } else {
+                context.operationExecutor.runOrExecute(op);
+            }
+        } catch (HazelcastOverloadException e) {
+            // a bounded operation queue is full, the invocation is registered already
+            notifyError(e);
         }
     }
 
@@ -703,11 +815,13 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
             context.asyncExecutor.execute(taskDoneCallback);
         }
         context.invocationRegistry.retire(this);
+        released = true;
     }
 
     @SuppressWarnings("checkstyle:MagicNumber")
     private void handleRetry(Object cause) {
         context.retryCount.inc();
+        retried = true;
 
         if (invokeCount % LOG_INVOCATION_COUNT_MOD == 0) {
             Level level = invokeCount > LOG_MAX_INVOCATION_COUNT ? WARNING : FINEST;
@@ -747,6 +861,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
             // another thread already did something else with this invocation
             return;
         }
+        retried = true;
         invokeCount = 0;
         pendingResponse = VOID;
         pendingResponseReceivedMillis = -1;
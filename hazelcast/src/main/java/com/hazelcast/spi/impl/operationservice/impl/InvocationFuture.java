@@ -62,6 +62,15 @@ public final class InvocationFuture<E> extends AbstractInvocationFuture<E> {
         this.deserialize = deserialize;
     }
 
+    /**
+     * Makes this future unresolved again, so the {@link Invocation} can be
+     * reused. Must be called only when nothing waits for the future.
+     */
+    void reset() {
+        interrupted = false;
+        resetState();
+    }
+
     @Override
     protected void onInterruptDetected() {
         interrupted = true;
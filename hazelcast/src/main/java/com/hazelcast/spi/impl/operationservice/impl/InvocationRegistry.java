@@ -25,6 +25,7 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.util.LatencyDistribution;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.collection.ConcurrentLong2ObjectHashMap;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
@@ -53,11 +54,12 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * <p>
  * When an invocation is registered, a callId is determined. Based on this call ID, when a
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
- * appropriate invocation can be looked up.
+ * appropriate invocation can be looked up. The invocations are kept in a {@link ConcurrentLong2ObjectHashMap},
+ * so the registration neither boxes the call ID nor allocates a map entry.
  * <p>
  * Some ideas:
  * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
+ * <li>Use a ringbuffer to store all invocations instead of a map. The call ID can be used as sequence ID for this
  * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
  * the sequence (although you now get sequence-gaps).</li>
  * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
@@ -71,26 +73,31 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     private static final int CONCURRENCY_LEVEL = 16;
 
     private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final ConcurrentLong2ObjectHashMap<Invocation> invocations;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    private final AdaptiveBackpressure adaptiveBackpressure;
     private final boolean profilerEnabled;
     private final ConcurrentMap<Class, LatencyDistribution> latencyDistributions = new ConcurrentHashMap<>();
     private volatile boolean alive = true;
 
     public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, HazelcastProperties properties) {
+        this(logger, callIdSequence, null, properties);
+    }
+
+    InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, AdaptiveBackpressure adaptiveBackpressure,
+                       HazelcastProperties properties) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
+        this.adaptiveBackpressure = adaptiveBackpressure;
 
         int coreSize = RuntimeAvailableProcessors.get();
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        this.invocations = new ConcurrentLong2ObjectHashMap<>(concurrencyLevel, INITIAL_CAPACITY);
         this.profilerEnabled = properties.getInteger(InvocationProfilerPlugin.PERIOD_SECONDS) > 0;
     }
 
@@ -156,6 +163,9 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         }
         invocations.remove(invocation.op.getCallId());
         callIdSequence.complete();
+        if (adaptiveBackpressure != null) {
+            adaptiveBackpressure.onInvocationDone(invocation);
+        }
         return true;
     }
 
@@ -183,6 +193,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      *
      * @return the number of pending invocations
      */
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
     public int size() {
         return invocations.size();
     }
@@ -193,12 +204,12 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Returns a snapshot of the pending invocations keyed by their call IDs.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        return invocations.toMap().entrySet();
     }
 
     /**
@@ -479,6 +479,7 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
         Address caller = connection.getRemoteAddress();
         UUID callerUuid = connection.getRemoteUuid();
         Operation op = null;
+        boolean retry = false;
         try {
             Object object = nodeEngine.toObject(packet);
             op = (Operation) object;
@@ -495,7 +496,8 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
             if (publishCurrentTask) {
                 currentTask = null;
             }
-            return run(op, startNanos);
+            retry = run(op, startNanos);
+            return retry;
         } catch (Throwable throwable) {
             // If exception happens we need to extract the callId from the bytes directly!
             long callId = extractOperationCallId(packet);
@@ -510,6 +512,26 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            if (!retry) {
+                // the operation is deserialized again when the packet is retried
+                packet.release();
+            }
+        }
+    }
+
+    @Override
+    public void reject(Packet packet, Throwable cause) {
+        try {
+            long callId = extractOperationCallId(packet);
+            if (callId != 0) {
+                ServerConnection connection = packet.getConn();
+                outboundResponseHandler.send(connection.getConnectionManager(), connection.getRemoteAddress(),
+                        new ErrorResponse(cause, callId, packet.isUrgent()));
+            }
+        } catch (Throwable t) {
+            logger.warning("While sending the rejection of " + packet + ", error: " + cause, t);
+        } finally {
+            packet.release();
         }
     }
 
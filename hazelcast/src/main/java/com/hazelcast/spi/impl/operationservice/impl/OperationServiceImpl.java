@@ -39,6 +39,8 @@ import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.impl.operationexecutor.impl.TpcPartitionOperationThread;
 import com.hazelcast.spi.impl.operationexecutor.slowoperationdetector.SlowOperationDetector;
 import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
 import com.hazelcast.spi.impl.operationservice.LiveOperations;
@@ -48,6 +50,8 @@ import com.hazelcast.spi.impl.operationservice.OperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.spi.impl.sequence.CallIdSequence;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.ArrayList;
@@ -57,8 +61,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_SERVICE_ASYNC_OPERATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_SERVICE_CALL_TIMEOUT_COUNT;
@@ -79,9 +85,13 @@ import static com.hazelcast.spi.impl.operationservice.Operations.isJoinOperation
 import static com.hazelcast.spi.impl.operationservice.Operations.isWanReplicationOperation;
 import static com.hazelcast.spi.properties.ClusterProperty.FAIL_ON_INDETERMINATE_OPERATION_STATE;
 import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_MAX_RETRY_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_POOLING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_RETRY_PAUSE;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCHING_ENABLED;
 import static java.util.Collections.newSetFromMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -145,6 +155,9 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     private final int invocationMaxRetryCount;
     private final long invocationRetryPauseMillis;
     private final boolean failOnIndeterminateOperationState;
+    private final AdaptiveBackpressure adaptiveBackpressure;
+    private final PartitionInvocationPool invocationPool;
+    private volatile ScheduledFuture<?> adaptiveBackpressureFuture;
 
     @SuppressWarnings("checkstyle:executablestatementcount")
     public OperationServiceImpl(NodeEngineImpl nodeEngine) {
@@ -160,6 +173,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.invocationMaxRetryCount = properties.getInteger(INVOCATION_MAX_RETRY_COUNT);
         this.invocationRetryPauseMillis = properties.getMillis(INVOCATION_RETRY_PAUSE);
         this.failOnIndeterminateOperationState = nodeEngine.getProperties().getBoolean(FAIL_ON_INDETERMINATE_OPERATION_STATE);
+        this.invocationPool = properties.getBoolean(INVOCATION_POOLING_ENABLED)
+                ? new PartitionInvocationPool(PartitionInvocationPool.DEFAULT_CAPACITY, invocationMaxRetryCount,
+                invocationRetryPauseMillis, properties.getMillis(OPERATION_BACKUP_TIMEOUT_MILLIS))
+                : null;
 
         this.backpressureRegulator = new BackpressureRegulator(
                 properties, node.getLogger(BackpressureRegulator.class));
@@ -167,10 +184,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
                 node.getLogger(OutboundResponseHandler.class));
 
+        CallIdSequence callIdSequence = backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection());
+        this.adaptiveBackpressure = backpressureRegulator.getAdaptiveBackpressure();
         this.invocationRegistry = new InvocationRegistry(
-                node.getLogger(OperationServiceImpl.class),
-                backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()),
-                properties);
+                node.getLogger(OperationServiceImpl.class), callIdSequence, adaptiveBackpressure, properties);
 
         this.invocationMonitor = new InvocationMonitor(
                 nodeEngine, thisAddress, properties, invocationRegistry,
@@ -185,9 +202,13 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.inboundResponseHandlerSupplier = new InboundResponseHandlerSupplier(
                 configClassLoader, invocationRegistry, hzName, nodeEngine);
 
-        this.operationExecutor = new OperationExecutorImpl(
+        OperationExecutorImpl operationExecutorImpl = new OperationExecutorImpl(
                 properties, node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
                 node.getNodeExtension(), hzName, configClassLoader, nodeEngine.getTpcServerBootstrap());
+        this.operationExecutor = operationExecutorImpl;
+        if (adaptiveBackpressure != null) {
+            adaptiveBackpressure.setPartitionThreads(operationExecutorImpl.getPartitionThreads());
+        }
 
         this.slowOperationDetector = new SlowOperationDetector(node.loggingService,
                 operationExecutor.getGenericOperationRunners(), operationExecutor.getPartitionOperationRunners(),
@@ -355,6 +376,65 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
                 DEFAULT_CALL_TIMEOUT, DEFAULT_DESERIALIZE_RESULT, failOnIndeterminateOperationState).invokeAsync();
     }
 
+    /**
+     * Invokes the operation on the partition and waits for its result, which
+     * is not deserialized. The invocation is made with the same settings as
+     * the ones of {@link #createInvocationBuilder(String, Operation, int)}.
+     * <p>
+     * Since the future of the invocation doesn't escape, the invocation is
+     * taken from and returned to a pool if the
+     * {@link ClusterProperty#INVOCATION_POOLING_ENABLED invocation pooling}
+     * is enabled.
+     *
+     * @param serviceName                       the name of the service
+     * @param op                                the operation to invoke
+     * @param partitionId                       the partition to invoke the operation on
+     * @param failOnIndeterminateOperationState whether to fail the invocation if the
+     *                                          operation state becomes indeterminate
+     * @return the result of the operation
+     * @throws ExecutionException   if the invocation failed
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public <E> E invokeOnPartitionAndGet(String serviceName, Operation op, int partitionId,
+                                         boolean failOnIndeterminateOperationState)
+            throws ExecutionException, InterruptedException {
+        checkNotNegative(partitionId, "Partition ID cannot be negative!");
+        op.setServiceName(serviceName)
+                .setPartitionId(partitionId)
+                .setReplicaIndex(DEFAULT_REPLICA_INDEX);
+
+        PartitionInvocationPool invocationPool = this.invocationPool;
+        if (invocationPool == null) {
+            return (E) new PartitionInvocation(
+                    invocationContext, op, invocationMaxRetryCount, invocationRetryPauseMillis,
+                    DEFAULT_CALL_TIMEOUT, false, failOnIndeterminateOperationState).invoke().get();
+        }
+
+        PartitionInvocation invocation = invocationPool.acquire(invocationContext, op, failOnIndeterminateOperationState);
+        try {
+            return (E) invocation.invoke().get();
+        } finally {
+            if (invocation.future.isDone()) {
+                invocationPool.release(invocation);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the invocations of
+     * {@link #invokeOnPartitionAndGet(String, Operation, int, boolean)} are
+     * pooled, {@code false} otherwise.
+     */
+    public boolean isInvocationPoolingEnabled() {
+        return invocationPool != null;
+    }
+
+    // for testing
+    PartitionInvocationPool getInvocationPool() {
+        return invocationPool;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <E> InvocationFuture<E> invokeOnPartition(Operation op) {
@@ -515,9 +595,28 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
         initInvocationContext();
         invocationMonitor.start();
+        initResponseBatchers();
         operationExecutor.start();
         inboundResponseHandlerSupplier.start();
         slowOperationDetector.start();
+        if (adaptiveBackpressure != null) {
+            adaptiveBackpressureFuture = nodeEngine.getExecutionService().scheduleWithRepetition(
+                    adaptiveBackpressure::sample, AdaptiveBackpressure.SAMPLE_PERIOD_MILLIS,
+                    AdaptiveBackpressure.SAMPLE_PERIOD_MILLIS, MILLISECONDS);
+        }
+    }
+
+    private void initResponseBatchers() {
+        if (!nodeEngine.getProperties().getBoolean(RESPONSE_BATCHING_ENABLED)) {
+            return;
+        }
+        for (PartitionOperationThread thread : ((OperationExecutorImpl) operationExecutor).getPartitionThreads()) {
+            // the tpc threads run their own loop
+            if (!(thread instanceof TpcPartitionOperationThread)) {
+                thread.setResponseBatcher(
+                        new OutboundResponseBatcher(outboundResponseHandler, nodeEngine.getClusterService()));
+            }
+        }
     }
 
     private void initInvocationContext() {
@@ -557,6 +656,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
         invocationRegistry.shutdown();
         invocationMonitor.shutdown();
+        ScheduledFuture<?> adaptiveBackpressureFuture = this.adaptiveBackpressureFuture;
+        if (adaptiveBackpressureFuture != null) {
+            adaptiveBackpressureFuture.cancel(false);
+        }
         inboundResponseHandlerSupplier.shutdown();
 
         try {
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.spi.properties.ClusterProperty;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Coalesces the responses a single partition thread sends to the same member
+ * into {@link Packet#FLAG_OP_RESPONSE_BATCH response batch} packets, see
+ * {@link ClusterProperty#RESPONSE_BATCHING_ENABLED}.
+ * <p>
+ * The responses are buffered while the thread processes its tasks and are
+ * sent once its queue is empty. To bound the wait under a continuous load,
+ * the responses are also sent once the oldest of them is buffered for
+ * {@link #MAX_DELAY_NANOS}, checked on every added response and after every
+ * task, after {@value #MAX_BATCH_SIZE} tasks, and once a batch holds
+ * {@value #MAX_BATCH_SIZE} responses or {@value #MAX_BATCH_BYTES} bytes. So
+ * a response is delayed by at most {@link #MAX_DELAY_NANOS} plus the
+ * duration of the task the thread is running when the delay elapses.
+ * <p>
+ * The responses added to a batch are reported as sent to the {@link
+ * OutboundResponseHandler}, a failure to send the batch is logged when it
+ * is sent, see {@link OutboundResponseHandler#sendBatch}.
+ * <p>
+ * The instances are used by the owning thread only.
+ */
+public final class OutboundResponseBatcher {
+
+    /**
+     * The maximum number of responses in a batch.
+     */
+    public static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * The maximum total size of the responses in a batch.
+     */
+    public static final int MAX_BATCH_BYTES = 64 * 1024;
+
+    /**
+     * The maximum time a response is buffered for, unless the owning thread
+     * is running a task.
+     */
+    public static final long MAX_DELAY_NANOS = MICROSECONDS.toNanos(100);
+
+    private final OutboundResponseHandler responseHandler;
+    private final ClusterService clusterService;
+    private final long maxDelayNanos;
+    // the batch of each member, a thread typically responds to a few members only
+    private final List<Batch> batches = new ArrayList<>();
+    private int tasksSinceFlush;
+    private boolean pending;
+    // the time the oldest buffered response was added at
+    private long pendingSinceNanos;
+
+    OutboundResponseBatcher(OutboundResponseHandler responseHandler, ClusterService clusterService) {
+        this(responseHandler, clusterService, MAX_DELAY_NANOS);
+    }
+
+    // for testing
+    OutboundResponseBatcher(OutboundResponseHandler responseHandler, ClusterService clusterService, long maxDelayNanos) {
+        this.responseHandler = responseHandler;
+        this.clusterService = clusterService;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Adds the response to the batch of the target member.
+     *
+     * @return {@code true} if the response was added, {@code false} if the
+     * cluster doesn't support the batches and it must be sent directly
+     */
+    boolean add(ServerConnectionManager connectionManager, Address target, Packet response) {
+        if (!clusterService.getClusterVersion().isGreaterOrEqual(V5_3)) {
+            return false;
+        }
+        Batch batch = batchOf(connectionManager, target);
+        batch.add(response);
+        if (!pending) {
+            pending = true;
+            pendingSinceNanos = System.nanoTime();
+        }
+        if (isOverdue()) {
+            flush();
+        } else if (batch.isFull()) {
+            batch.send();
+        }
+        return true;
+    }
+
+    /**
+     * Sends the buffered responses if the owning thread ran out of tasks,
+     * processed enough tasks since the responses were last sent or the
+     * oldest response is buffered for too long. Called by the owning thread
+     * after each task.
+     *
+     * @param idle whether there are no tasks queued
+     */
+    public void onTaskDone(boolean idle) {
+        if (pending && (idle || ++tasksSinceFlush >= MAX_BATCH_SIZE || isOverdue())) {
+            flush();
+        }
+    }
+
+    private boolean isOverdue() {
+        return System.nanoTime() - pendingSinceNanos >= maxDelayNanos;
+    }
+
+    /**
+     * Sends all the buffered responses.
+     */
+    public void flush() {
+        for (Iterator<Batch> iterator = batches.iterator(); iterator.hasNext(); ) {
+            Batch batch = iterator.next();
+            if (batch.responses.isEmpty()) {
+                // no longer responding to the member
+                iterator.remove();
+            } else {
+                batch.send();
+            }
+        }
+        tasksSinceFlush = 0;
+        pending = false;
+    }
+
+    // for testing
+    int batchCount() {
+        return batches.size();
+    }
+
+    private Batch batchOf(ServerConnectionManager connectionManager, Address target) {
+        for (Batch batch : batches) {
+            if (batch.target.equals(target) && batch.connectionManager == connectionManager) {
+                return batch;
+            }
+        }
+        Batch batch = new Batch(connectionManager, target);
+        batches.add(batch);
+        return batch;
+    }
+
+    private final class Batch {
+
+        private final ServerConnectionManager connectionManager;
+        private final Address target;
+        private final List<Packet> responses = new ArrayList<>();
+        private int bytes;
+
+        private Batch(ServerConnectionManager connectionManager, Address target) {
+            this.connectionManager = connectionManager;
+            this.target = target;
+        }
+
+        private void add(Packet response) {
+            responses.add(response);
+            bytes += response.toByteArray().length;
+        }
+
+        private boolean isFull() {
+            return responses.size() == MAX_BATCH_SIZE || bytes >= MAX_BATCH_BYTES;
+        }
+
+        private void send() {
+            responseHandler.sendBatch(connectionManager, target, responses);
+            responses.clear();
+            bytes = 0;
+        }
+    }
+}
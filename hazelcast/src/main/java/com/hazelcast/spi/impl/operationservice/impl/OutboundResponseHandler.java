@@ -25,20 +25,25 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
 import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readLong;
 import static com.hazelcast.internal.nio.Bits.writeInt;
 import static com.hazelcast.internal.nio.Bits.writeIntB;
 import static com.hazelcast.internal.nio.Bits.writeLong;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE_BATCH;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
@@ -62,6 +67,9 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
  * An {@link OperationResponseHandler} that is used for a remotely executed Operation. So when a calling member
  * sends an Operation to the receiving member, the receiving member attaches this OutboundResponseHandler
  * to that operation so that the response is returned to the right machine.
+ * <p>
+ * The normal responses and backup acks sent by a partition thread are batched
+ * if the thread has an {@link OutboundResponseBatcher}.
  */
 public final class OutboundResponseHandler implements OperationResponseHandler {
 
@@ -120,13 +128,20 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return transmit(target, packet, connectionManager);
     }
 
+    /**
+     * Sends the normal response or adds it to the batch of the current
+     * partition thread.
+     *
+     * @return {@code true} if the response was sent or added to a batch,
+     * the failure to send a batch is logged by {@link #sendBatch}
+     */
     private boolean sendNormalResponse(ServerConnectionManager connectionManager, Address target, long callId,
                                        int backupAcks, boolean urgent, Object value) {
         checkTarget(target);
 
         Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
 
-        return transmit(target, packet, connectionManager);
+        return batch(target, packet, urgent, connectionManager) || transmit(target, packet, connectionManager);
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
@@ -171,7 +186,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toBackupAckPacket(callId, urgent);
 
-        transmit(target, packet, connectionManager);
+        if (!batch(target, packet, urgent, connectionManager)) {
+            transmit(target, packet, connectionManager);
+        }
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
@@ -182,6 +199,48 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return newResponsePacket(bytes, urgent);
     }
 
+    /**
+     * Sends the given responses to the target, in a single packet if there
+     * are more of them. The responses were reported as sent when they were
+     * added to the batch, so a failure is logged here with their call IDs,
+     * as {@link #sendResponse} logs a failed unbatched response.
+     */
+    void sendBatch(ServerConnectionManager connectionManager, Address target, List<Packet> responses) {
+        Packet packet = responses.size() == 1 ? responses.get(0) : toResponseBatchPacket(responses);
+        if (!transmit(target, packet, connectionManager)) {
+            logger.warning("Cannot send " + responses.size() + " batched responses to " + target
+                    + ", call IDs: " + callIds(responses));
+        }
+    }
+
+    private List<Long> callIds(List<Packet> responses) {
+        List<Long> callIds = new ArrayList<>(responses.size());
+        for (Packet response : responses) {
+            callIds.add(readLong(response.toByteArray(), OFFSET_CALL_ID, useBigEndian));
+        }
+        return callIds;
+    }
+
+    /**
+     * Creates a packet whose payload consists of the payloads of the given
+     * response packets, each preceded by its length.
+     */
+    Packet toResponseBatchPacket(List<Packet> responses) {
+        int length = 0;
+        for (Packet response : responses) {
+            length += INT_SIZE_IN_BYTES + response.toByteArray().length;
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (Packet response : responses) {
+            byte[] payload = response.toByteArray();
+            writeIntB(bytes, offset, payload.length);
+            System.arraycopy(payload, 0, bytes, offset + INT_SIZE_IN_BYTES, payload.length);
+            offset += INT_SIZE_IN_BYTES + payload.length;
+        }
+        return newResponsePacket(bytes, false).raiseFlags(FLAG_OP_RESPONSE_BATCH);
+    }
+
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
         // partition hash (which is always 0 in case of response)
         writeIntB(bytes, 0, 0);
@@ -210,6 +269,22 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return packet;
     }
 
+    /**
+     * Adds the response to the batch of the current partition thread if the
+     * response batching is enabled and the response isn't urgent.
+     *
+     * @return {@code true} if the response was added to a batch
+     */
+    private static boolean batch(Address target, Packet packet, boolean urgent,
+                                 ServerConnectionManager connectionManager) {
+        Thread thread = Thread.currentThread();
+        if (urgent || !(thread instanceof OperationThread)) {
+            return false;
+        }
+        OutboundResponseBatcher batcher = ((OperationThread) thread).getResponseBatcher();
+        return batcher != null && batcher.add(connectionManager, target, packet);
+    }
+
     private boolean transmit(Address target, Packet packet, ServerConnectionManager connectionManager) {
         // The response is send over an arbitrary stream id. It needs to be arbitrary so that
         // responses don't end up at stream 0 and the connection this stream belongs to, becomes
@@ -37,7 +37,8 @@ import static com.hazelcast.spi.impl.operationservice.ExceptionAction.THROW_EXCE
  */
 final class PartitionInvocation extends Invocation<PartitionReplica> {
 
-    private final boolean failOnIndeterminateOperationState;
+    // replaced only by reset(), published like the fields reset by Invocation.reset(Operation)
+    private boolean failOnIndeterminateOperationState;
 
     PartitionInvocation(Context context,
                         Operation op,
@@ -63,6 +64,16 @@ final class PartitionInvocation extends Invocation<PartitionReplica> {
                 failOnIndeterminateOperationState, null);
     }
 
+    /**
+     * Prepares this pooled invocation for the given operation.
+     *
+     * @see Invocation#reset(Operation)
+     */
+    void reset(Operation op, boolean failOnIndeterminateOperationState) {
+        reset(op);
+        this.failOnIndeterminateOperationState = failOnIndeterminateOperationState && !(op instanceof ReadonlyOperation);
+    }
+
     @Override
     PartitionReplica getInvocationTarget() {
         InternalPartition partition = context.partitionService.getPartition(op.getPartitionId());
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.util.concurrent.ManyToManyConcurrentArrayQueue;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import static com.hazelcast.spi.impl.operationservice.InvocationBuilder.DEFAULT_CALL_TIMEOUT;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A bounded pool of {@link PartitionInvocation}s used by the synchronous
+ * {@link OperationServiceImpl#invokeOnPartitionAndGet} calls.
+ * <p>
+ * The future of such an invocation never escapes the calling thread, so
+ * once the call returned the invocation and its future can be reused for
+ * a next call, provided nothing else can still refer to it. See
+ * {@link Invocation#isRecyclable(long)} for when that is the case. The
+ * invocations which are not recyclable or don't fit into the pool are left
+ * to the garbage collector.
+ * <p>
+ * The calling thread may observe the completed future while the thread
+ * which completed it still deregisters the invocation, so the invocations
+ * are pooled when their call returns, but are reused only once they are
+ * {@link Invocation#isReleased() released}. An invocation taken from the
+ * pool before that is dropped.
+ */
+final class PartitionInvocationPool {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final ManyToManyConcurrentArrayQueue<PartitionInvocation> invocations;
+    private final int tryCount;
+    private final long tryPauseMillis;
+    private final long backupTimeoutNanos;
+
+    PartitionInvocationPool(int capacity, int tryCount, long tryPauseMillis, long backupTimeoutMillis) {
+        this.invocations = new ManyToManyConcurrentArrayQueue<>(capacity);
+        this.tryCount = tryCount;
+        this.tryPauseMillis = tryPauseMillis;
+        this.backupTimeoutNanos = MILLISECONDS.toNanos(backupTimeoutMillis);
+    }
+
+    /**
+     * Returns an invocation of the given operation, either taken from the
+     * pool or newly created. The partition of the operation must already be
+     * set.
+     */
+    PartitionInvocation acquire(Invocation.Context context, Operation op, boolean failOnIndeterminateOperationState) {
+        PartitionInvocation invocation = invocations.poll();
+        if (invocation == null || !invocation.isReleased()) {
+            return new PartitionInvocation(context, op, tryCount, tryPauseMillis, DEFAULT_CALL_TIMEOUT, false,
+                    failOnIndeterminateOperationState);
+        }
+        invocation.reset(op, failOnIndeterminateOperationState);
+        return invocation;
+    }
+
+    /**
+     * Returns the invocation to the pool if it can be reused. Must be called
+     * by the thread which acquired the invocation, after its future is done.
+     */
+    void release(PartitionInvocation invocation) {
+        // stay well below the timeouts the invocation monitor checks the invocation against
+        long maxLatencyNanos = min(MILLISECONDS.toNanos(invocation.callTimeoutMillis), backupTimeoutNanos) / 2;
+        if (invocation.isRecyclable(maxLatencyNanos)) {
+            invocations.offer(invocation);
+        }
+    }
+
+    int size() {
+        return invocations.size();
+    }
+}
@@ -48,12 +48,14 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
 
     private final int maxConcurrentInvocations;
     private final ConcurrencyDetection concurrencyDetection;
+    private volatile int concurrencyLimit;
 
     public AbstractCallIdSequence(int maxConcurrentInvocations, ConcurrencyDetection concurrencyDetection) {
         checkPositive("maxConcurrentInvocations", maxConcurrentInvocations);
 
         this.concurrencyDetection = concurrencyDetection;
         this.maxConcurrentInvocations = maxConcurrentInvocations;
+        this.concurrencyLimit = maxConcurrentInvocations;
     }
 
     @Override
@@ -76,6 +78,25 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
         return maxConcurrentInvocations;
     }
 
+    /**
+     * Returns the number of concurrent invocations currently allowed. It is
+     * equal to {@link #getMaxConcurrentInvocations()} unless it was lowered
+     * with {@link #setConcurrencyLimit(int)}.
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Sets the number of concurrent invocations allowed. The limit is clamped
+     * between 1 and {@link #getMaxConcurrentInvocations()}.
+     *
+     * @param limit the new limit
+     */
+    public void setConcurrencyLimit(int limit) {
+        this.concurrencyLimit = Math.max(1, Math.min(limit, maxConcurrentInvocations));
+    }
+
     @Override
     public void complete() {
         long newTail = longs.incrementAndGet(INDEX_TAIL);
@@ -97,7 +118,7 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
     }
 
     protected boolean hasSpace() {
-        return concurrentInvocations() < maxConcurrentInvocations;
+        return concurrentInvocations() < concurrencyLimit;
     }
 
     public long concurrentInvocations() {
@@ -63,8 +63,9 @@ public final class CallIdSequenceWithBackpressure extends AbstractCallIdSequence
             long elapsedNanos = Timer.nanosElapsed(startNanos);
             if (elapsedNanos > backoffTimeoutNanos) {
                 throw new HazelcastOverloadException(String.format("Timed out trying to acquire another call ID."
-                                + " maxConcurrentInvocations = %d, backoffTimeout = %d msecs, elapsed:%d msecs",
-                        getMaxConcurrentInvocations(), NANOSECONDS.toMillis(backoffTimeoutNanos),
+                                + " maxConcurrentInvocations = %d, concurrencyLimit = %d, backoffTimeout = %d msecs,"
+                                + " elapsed:%d msecs",
+                        getMaxConcurrentInvocations(), getConcurrencyLimit(), NANOSECONDS.toMillis(backoffTimeoutNanos),
                         NANOSECONDS.toMillis(elapsedNanos)));
             }
             IDLER.idle(idleCount);
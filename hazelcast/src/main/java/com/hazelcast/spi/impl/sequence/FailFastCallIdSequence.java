@@ -40,6 +40,7 @@ public class FailFastCallIdSequence extends AbstractCallIdSequence {
     @Override
     protected void handleNoSpaceLeft() {
         throw new HazelcastOverloadException(
-                "Maximum invocation count is reached. maxConcurrentInvocations = " + getMaxConcurrentInvocations());
+                "Maximum invocation count is reached. maxConcurrentInvocations = " + getMaxConcurrentInvocations()
+                        + ", concurrencyLimit = " + getConcurrencyLimit());
     }
 }
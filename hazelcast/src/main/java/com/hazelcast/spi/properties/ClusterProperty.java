@@ -75,6 +75,11 @@ public final class ClusterProperty {
     /**
      * Number of parallel connection between members.
      * <p>
+     * Partition operations are routed over the connections by partition id,
+     * so the ordering of the operations of a partition is preserved while
+     * different partitions are sent over different sockets. The connections
+     * between a pair of members are assigned to different IO threads.
+     * <p>
      * There is no point in having more connections than IO threads.
      */
     public static final HazelcastProperty CHANNEL_COUNT
@@ -306,6 +311,87 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * The capacity of the array backed queues holding the frames waiting to
+     * be written to a connection, per connection and priority.
+     * <p>
+     * Offering a frame to an array backed queue doesn't allocate, which
+     * reduces the garbage produced under high rates of small operations. The
+     * frames exceeding the capacity are queued in an unbounded linked queue,
+     * so the writers are never blocked.
+     * <p>
+     * The default is {@code 0}, which uses only the linked queues.
+     */
+    public static final HazelcastProperty IO_WRITE_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.io.write.queue.capacity", 0);
+
+    /**
+     * The maximum number of send buffers written to a connection by a single
+     * gathering write.
+     * <p>
+     * When the frames waiting to be written don't fit into the send buffer of
+     * a connection, the full buffer is put aside and the frames are encoded
+     * into another one, so more frames are written by a single system call.
+     * Each connection allocates up to this number of send buffers of the size
+     * of {@link #SOCKET_SEND_BUFFER_SIZE} on demand.
+     * <p>
+     * The default is {@code 1}, which disables the gathering writes.
+     */
+    public static final HazelcastProperty IO_WRITE_GATHERING_BUFFERS
+            = new HazelcastProperty("hazelcast.io.write.gathering.buffers", 1);
+
+    /**
+     * Enables the compression of the packets sent to the other members of the
+     * cluster, which reduces the bandwidth used by the migrations, backups
+     * and the Jet traffic between the members at the cost of the CPU time of
+     * the I/O threads.
+     * <p>
+     * Only the packets of at least {@link #NETWORK_MEMBER_COMPRESSION_MIN_SIZE}
+     * bytes are compressed and only if they shrink enough, the compression is
+     * temporarily bypassed for a connection on which the packets don't shrink.
+     * The packets are compressed only once the cluster version is at least
+     * 5.3, every member decompresses the received packets, so the property
+     * doesn't need to be set on all members.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty NETWORK_MEMBER_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.network.member.compression.enabled", false);
+
+    /**
+     * The minimum size in bytes of the packets compressed when {@link
+     * #NETWORK_MEMBER_COMPRESSION_ENABLED} is set.
+     */
+    public static final HazelcastProperty NETWORK_MEMBER_COMPRESSION_MIN_SIZE
+            = new HazelcastProperty("hazelcast.network.member.compression.min.size", 1024);
+
+    /**
+     * Enables the pooling of the byte arrays the large operations received
+     * from the other members are read into. The arrays are returned to the
+     * pool once the operations are deserialized, which reduces the allocation
+     * rate of the I/O threads when large values are put or backed up.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty NETWORK_PACKET_PAYLOAD_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.network.packet.payload.pool.enabled", false);
+
+    /**
+     * The minimum size in bytes of the pooled operation packets when {@link
+     * #NETWORK_PACKET_PAYLOAD_POOL_ENABLED} is set. The arrays are pooled in
+     * size classes of powers of two, the smaller packets are not worth it.
+     */
+    public static final HazelcastProperty NETWORK_PACKET_PAYLOAD_POOL_MIN_SIZE
+            = new HazelcastProperty("hazelcast.network.packet.payload.pool.min.size", 16 * 1024);
+
+    /**
+     * The maximum number of bytes retained by a single size class of the pool
+     * when {@link #NETWORK_PACKET_PAYLOAD_POOL_ENABLED} is set. It is also the
+     * maximum size of a pooled operation packet.
+     */
+    public static final HazelcastProperty NETWORK_PACKET_PAYLOAD_POOL_CLASS_MAX_BYTES
+            = new HazelcastProperty("hazelcast.network.packet.payload.pool.class.max.bytes", 4 * 1024 * 1024);
+
     /**
      * Property needed for concurrency detection so that write through can be
      * done correctly.
@@ -1011,6 +1097,22 @@ public final class ClusterProperty {
     public static final HazelcastProperty QUERY_OPTIMIZER_TYPE
             = new HazelcastProperty("hazelcast.query.optimizer.type", QueryOptimizerFactory.Type.RULES.toString());
 
+    /**
+     * The maximum number of optimized predicates cached per map (or per map
+     * partition if the map uses partitioned indexes) by the rule based query
+     * optimizer.
+     * <p>
+     * The cache is keyed by the predicate as sent by the caller, so repeated
+     * queries with equal predicates skip the predicate rewriting and the index
+     * matching. Only the predicates provided by Hazelcast are cached. The cache
+     * is invalidated when indexes are added, removed or cleared. The cache
+     * hits and misses are reported by the map statistics.
+     * <p>
+     * The default is {@code 0}, which disables the cache.
+     */
+    public static final HazelcastProperty QUERY_PLAN_CACHE_SIZE
+            = new HazelcastProperty("hazelcast.query.plan.cache.size", 0);
+
     /**
      * Type of Query Index result copying behavior. Defines the behavior for
      * index copying on index read/write.
@@ -1075,6 +1177,76 @@ public final class ClusterProperty {
     public static final HazelcastProperty INDEX_COPY_BEHAVIOR
             = new HazelcastProperty("hazelcast.index.copy.behavior", IndexCopyBehavior.COPY_ON_READ.toString());
 
+    /**
+     * Enables the compact store for the on-heap
+     * {@link com.hazelcast.config.IndexType#HASH HASH} indexes.
+     * <p>
+     * The compact store keeps one array of record ids per distinct value and
+     * indexes the integral and UUID values without boxing, which reduces the
+     * memory used by the indexes with many entries. Its query results are
+     * copied under a lock regardless of {@link #INDEX_COPY_BEHAVIOR}. When
+     * disabled, the hash indexes are backed by concurrent hash maps.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty INDEX_HASH_COMPACT_ENABLED
+            = new HazelcastProperty("hazelcast.index.hash.compact.enabled", false);
+
+    /**
+     * Enables the B+tree based store for the on-heap
+     * {@link com.hazelcast.config.IndexType#SORTED SORTED} indexes.
+     * <p>
+     * The B+tree keeps the indexed entries in fixed-size leaf pages, so the
+     * range queries scan the entries sequentially and most index updates
+     * don't allocate. When disabled, the sorted indexes are backed by
+     * concurrent skip lists.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty INDEX_SORTED_BPLUS_TREE_ENABLED
+            = new HazelcastProperty("hazelcast.index.sorted.bplustree.enabled", false);
+
+    /**
+     * Enables the compressed storage for the
+     * {@link com.hazelcast.config.IndexType#BITMAP BITMAP} indexes.
+     * <p>
+     * The compressed storage keeps the entries of each indexed value in
+     * array, bitmap or run-length encoded containers, whichever is the
+     * smallest, and evaluates the predicates using bulk set operations over
+     * 64-bit words. It reduces the memory footprint of the indexes of values
+     * shared by many entries and speeds up large {@code in} and {@code or}
+     * predicates. When disabled, the predicates are evaluated lazily while
+     * iterating over the matching entries.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty INDEX_BITMAP_COMPRESSED_ENABLED
+            = new HazelcastProperty("hazelcast.index.bitmap.compressed.enabled", false);
+
+    /**
+     * Comma separated list of the names of the maps whose indexes capture the
+     * values of the indexed attributes of the stored entries. Names are
+     * matched with the configured {@link com.hazelcast.config.ConfigPatternMatcher}.
+     * <p>
+     * The projections, aggregations and predicates of the queries answered
+     * by the indexes read the captured values instead of deserializing the
+     * entry values. Additional attributes may be captured by listing them as
+     * the trailing attributes of a {@link com.hazelcast.config.IndexType#SORTED
+     * SORTED} index, the index still serves the queries on its first
+     * attribute. Only the values of the attributes of the simple types, like
+     * numbers, strings, enums and temporal types, are captured. The maps
+     * with the {@link com.hazelcast.config.InMemoryFormat#NATIVE NATIVE}
+     * in-memory format don't capture the values.
+     * <p>
+     * The captured values pay off mostly for the maps which don't cache the
+     * deserialized values in the indexes, see {@link
+     * com.hazelcast.config.CacheDeserializedValues#NEVER}.
+     * <p>
+     * Default: none
+     */
+    public static final HazelcastProperty INDEX_COVERING_MAP_NAMES
+            = new HazelcastProperty("hazelcast.index.covering.map.names", "");
+
     /**
      * The number of threads that the client engine has available for processing
      * requests that are related to the query engine.
@@ -1223,6 +1395,59 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Comma separated list of the names of the maps whose entries are kept
+     * off-heap. Entries of these maps are stored in native memory blocks
+     * allocated outside of the Java heap, which keeps large maps from
+     * inflating the heap and the garbage collection pauses. Names are
+     * matched with the configured {@link com.hazelcast.config.ConfigPatternMatcher},
+     * so wildcards can be used the same way as in the map configuration.
+     * <p>
+     * Only maps with {@link com.hazelcast.config.InMemoryFormat#BINARY}
+     * in-memory format can be stored off-heap, other maps ignore this
+     * property. The memory is allocated on demand and is not limited by
+     * the maximum heap size, so size based eviction should be configured
+     * with a per-partition or per-node entry count policy.
+     * <p>
+     * Default: none
+     */
+    public static final HazelcastProperty MAP_OFF_HEAP_STORAGE_MAP_NAMES
+            = new HazelcastProperty("hazelcast.map.offheap.storage.map.names", "");
+
+    /**
+     * Comma separated list of the names of the maps whose partition scans
+     * may be evaluated over columnar projections of the partitions. The
+     * projection of a partition is a snapshot of its entries along with
+     * primitive arrays of the values of the queried attributes, built lazily
+     * on the first query and dropped on any mutation of the partition. Names
+     * are matched with the configured {@link com.hazelcast.config.ConfigPatternMatcher}.
+     * <p>
+     * Comparison predicates over integer, long and double attributes and
+     * their conjunctions, disjunctions and negations are evaluated over the
+     * arrays, as well as the count, sum and average aggregations of these
+     * attributes. Other predicates and aggregations, paging predicates and
+     * maps with entries that may expire are scanned entry by entry. The
+     * projection pays off for rarely updated maps which are queried often.
+     * <p>
+     * Default: none
+     */
+    public static final HazelcastProperty MAP_COLUMNAR_SCAN_MAP_NAMES
+            = new HazelcastProperty("hazelcast.map.columnar.scan.map.names", "");
+
+    /**
+     * The maximum number of entries of a partition that can be scanned over
+     * its columnar projection, see {@link #MAP_COLUMNAR_SCAN_MAP_NAMES}.
+     * Larger partitions are scanned entry by entry. This bounds the memory
+     * held by the projection: the arrays referencing the keys and values of
+     * the snapshot and the primitive columns, plus the copies of the keys
+     * and values of the storages that reuse their memory, such as the
+     * off-heap storage.
+     * <p>
+     * Default: 100000
+     */
+    public static final HazelcastProperty MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES
+            = new HazelcastProperty("hazelcast.map.columnar.scan.max.partition.entries", 100_000);
+
     /*
      * INVOCATION / OPERATION SYSTEM PROPERTIES
      */
@@ -1259,6 +1484,16 @@ public final class ClusterProperty {
     public static final HazelcastProperty INVOCATION_MAX_RETRY_COUNT
             = new HazelcastProperty("hazelcast.invocation.max.retry.count", InvocationBuilder.DEFAULT_TRY_COUNT);
 
+    /**
+     * Enables the pooling of the invocations of the synchronous single-key map
+     * calls, such as get, put, set and delete, made on members. The invocations
+     * of these calls never escape the calling thread, so an invocation and its
+     * future are reused for a next call once the invocation completed
+     * normally, saving the allocation of these objects on every call.
+     */
+    public static final HazelcastProperty INVOCATION_POOLING_ENABLED
+            = new HazelcastProperty("hazelcast.invocation.pooling.enabled", false);
+
     /**
      * Pause time between each retry cycle of an invocation in milliseconds.
      */
@@ -1345,6 +1580,38 @@ public final class ClusterProperty {
     public static final HazelcastProperty BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
             = new HazelcastProperty("hazelcast.backpressure.max.concurrent.invocations.per.partition", 100);
 
+    /**
+     * Enables the adaptive backpressure.
+     * <p>
+     * By default the number of concurrent invocations is only bound by the fixed
+     * {@link #BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION} limit and
+     * the async backups are converted to sync ones at the fixed
+     * {@link #BACKPRESSURE_SYNCWINDOW} rate. With the adaptive backpressure the
+     * member periodically measures the sojourn time of its partition operation
+     * queues and the minimum latency of the partition invocations sent to
+     * every other member, so a single slow operation doesn't throttle the
+     * member. If either exceeds the {@link #BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS target},
+     * the limit of concurrent invocations is decreased multiplicatively and the
+     * async backups are converted to sync ones proportionally more often,
+     * otherwise the limit is increased additively back to the fixed maximum.
+     * <p>
+     * This property only has meaning when backpressure is enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_ENABLED
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.enabled", false);
+
+    /**
+     * The latency the adaptive backpressure aims to keep the operation queue
+     * sojourn time and the invocation latency below. It should be above the
+     * usual latency of the operations, otherwise the invocations are throttled
+     * even though the member isn't overloaded.
+     * <p>
+     * This property only has meaning when the
+     * {@link #BACKPRESSURE_ADAPTIVE_ENABLED adaptive backpressure} is enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.target.latency.millis", 100, MILLISECONDS);
+
     /**
      * Hazelcast allows read operations to be performed while a partition is
      * being migrated. This can lead to stale reads for some scenarios. You can
@@ -1364,6 +1631,23 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.operation.thread.count",
             (Function<HazelcastProperties, Integer>) properties -> max(2, RuntimeAvailableProcessors.get()));
 
+    /**
+     * The number of normal operations pending for a partition operation
+     * thread above which the thread hands the read-only operations of its
+     * partitions over to idle partition operation threads.
+     * <p>
+     * A partition handed over to another thread still executes its operations
+     * one at a time and in order, but the busy thread executes the operations
+     * of its other partitions in the meantime, which reduces the latencies
+     * caused by a hot partition. Only the
+     * {@link com.hazelcast.spi.impl.operationservice.ReadonlyOperation}s
+     * created on the member, e.g. by a client request, are handed over.
+     * <p>
+     * The default is {@code 0}, which disables the work stealing.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_WORK_STEALING_BACKLOG
+            = new HazelcastProperty("hazelcast.operation.partition.workstealing.backlog", 0);
+
     /**
      * The number of generic operation handler threads per member.
      * <p>
@@ -1392,6 +1676,41 @@ public final class ClusterProperty {
     public static final HazelcastProperty PRIORITY_GENERIC_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.priority.generic.thread.count", 1);
 
+    /**
+     * The capacity of the queue of the normal generic operations, shared by
+     * the generic operation threads.
+     * <p>
+     * A bounded queue is backed by a lock-free array, so scheduling a generic
+     * operation neither allocates nor contends on a lock. The capacity is
+     * rounded up to the next power of two. If the queue is full, the
+     * {@link #GENERIC_OPERATION_QUEUE_REJECTION_POLICY} applies. The queue
+     * of the priority generic operations is always unbounded.
+     * <p>
+     * The default is {@code 0}, which uses an unbounded linked queue.
+     */
+    public static final HazelcastProperty GENERIC_OPERATION_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.generic.queue.capacity", 0);
+
+    /**
+     * What happens to a generic operation scheduled while the bounded generic
+     * operation queue is full, see {@link #GENERIC_OPERATION_QUEUE_CAPACITY}.
+     * <p>
+     * With BLOCK the scheduling user thread waits until there is room in the
+     * queue, while the Hazelcast threads, for instance the operation threads,
+     * get a {@link com.hazelcast.core.HazelcastOverloadException}. With REJECT
+     * the operation is always rejected with a
+     * {@link com.hazelcast.core.HazelcastOverloadException}. With either policy,
+     * an operation received from another member is rejected without blocking
+     * the IO thread: the calling member immediately gets an error response
+     * with a {@link com.hazelcast.core.HazelcastOverloadException}. The
+     * rejected operations are counted by the {@code operation.rejectedPacketCount}
+     * metric and periodically logged as a warning.
+     * <p>
+     * The default is BLOCK.
+     */
+    public static final HazelcastProperty GENERIC_OPERATION_QUEUE_REJECTION_POLICY
+            = new HazelcastProperty("hazelcast.operation.generic.queue.rejection.policy", "BLOCK");
+
     /**
      * The number of threads that process responses.
      * <p>
@@ -1404,6 +1723,22 @@ public final class ClusterProperty {
     public static final HazelcastProperty RESPONSE_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.response.thread.count", 2);
 
+    /**
+     * Enables the batching of the responses sent by the partition threads.
+     * <p>
+     * When enabled, the normal responses a partition thread sends to the same
+     * member are coalesced into a single packet until the thread runs out of
+     * tasks, at most {@value com.hazelcast.spi.impl.operationservice.impl.OutboundResponseBatcher#MAX_BATCH_SIZE}
+     * responses at a time. A response is buffered for at most 100 microseconds
+     * plus the duration of the task the thread is running at that time, but
+     * for high rates of small operations, such as map gets, the packet
+     * overhead and the number of writes to the network drop considerably.
+     * <p>
+     * The responses are batched only if the cluster version is at least 5.3.
+     */
+    public static final HazelcastProperty RESPONSE_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.response.batching.enabled", false);
+
     /*
      * ICACHE / JCACHE PROPERTIES
      */
@@ -1764,6 +2099,120 @@ public final class ClusterProperty {
     public static final HazelcastProperty PROCESSOR_CUSTOM_LIB_DIR
             = new HazelcastProperty("hazelcast.jet.custom.lib.dir", "custom-lib");
 
+    /**
+     * The number of records a Jet batch grouping, aggregating or sorting
+     * processor keeps in memory before it spills them to a file in the
+     * {@link #JET_SPILL_DIRECTORY}. The spilled records are merged when the
+     * processor completes, so a job can process more data than fits into the
+     * memory. The grouping and aggregation are spilled only if their aggregate
+     * operation has a combine function, their keys and accumulators must be
+     * serializable.
+     * <p>
+     * The files are written and read asynchronously, so the file IO doesn't
+     * block the cooperative threads, but a processor doesn't take more records
+     * while it spills. The value must be lower than the
+     * {@link com.hazelcast.jet.config.JobConfig#setMaxProcessorAccumulatedRecords
+     * max accumulated records} of the job, otherwise the job fails before any
+     * records are spilled. The default value is {@code 0}, which disables the
+     * spilling.
+     */
+    public static final HazelcastProperty JET_SPILL_MAX_IN_MEMORY_RECORDS
+            = new HazelcastProperty("hazelcast.jet.spill.max.in.memory.records", 0);
+
+    /**
+     * The directory of the files the Jet processors spill their records to,
+     * see {@link #JET_SPILL_MAX_IN_MEMORY_RECORDS}. The default is the
+     * {@code java.io.tmpdir} directory.
+     */
+    public static final HazelcastProperty JET_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.spill.directory");
+
+    /**
+     * Makes the Jet hash join keep the joined stream in a binary hash table
+     * instead of a map of deserialized objects. The table is built once per
+     * member and shared by all the joining processors on the member, it keeps
+     * the serialized keys and values in large byte arrays and deserializes
+     * only the matched keys and values, so it takes a fraction of the memory
+     * of the map at the cost of a deserialization on every lookup.
+     * <p>
+     * The keys and values of the joined stream must be serializable and the
+     * mapping functions of the join get a new instance of the joined value on
+     * every lookup. The keys are compared in their serialized form, as the
+     * keys of an {@code IMap} are, so equal keys must serialize to equal
+     * bytes. The default value is {@code false}.
+     */
+    public static final HazelcastProperty JET_HASH_JOIN_BINARY_TABLE_ENABLED
+            = new HazelcastProperty("hazelcast.jet.hash.join.binary.table.enabled", false);
+
+    /**
+     * Makes the automatic snapshots of the Jet jobs incremental. A full
+     * snapshot is taken first, the following snapshots contain only the
+     * state entries that were added, changed or removed since the full
+     * snapshot, a job is restored from the full snapshot and the last
+     * incremental snapshot. After {@link #JET_SNAPSHOT_INCREMENTAL_MAX_DELTAS}
+     * incremental snapshots the next snapshot is a full one again.
+     * <p>
+     * The snapshot writer of each processor keeps the serialized keys and the
+     * hashes of the values of the last full snapshot in memory. The first
+     * snapshot after the job is restarted and the exported snapshots are
+     * always full. The default value is {@code false}.
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_INCREMENTAL_ENABLED
+            = new HazelcastProperty("hazelcast.jet.snapshot.incremental.enabled", false);
+
+    /**
+     * The number of incremental snapshots taken between two full snapshots,
+     * see {@link #JET_SNAPSHOT_INCREMENTAL_ENABLED}. Every incremental snapshot
+     * contains all the changes since the full snapshot, so a higher value
+     * makes the full snapshots rarer and the incremental snapshots larger.
+     * The default value is {@code 9}.
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_INCREMENTAL_MAX_DELTAS
+            = new HazelcastProperty("hazelcast.jet.snapshot.incremental.max.deltas", 9);
+
+    /**
+     * Enables the adaptive scheduling of the cooperative tasklets. Each
+     * worker thread measures the time spent in every tasklet call and uses
+     * deficit round-robin instead of plain round-robin: a tasklet whose call
+     * took longer than its quantum (see {@link
+     * #JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS}) is skipped in the
+     * following rounds until its debt is repaid, so that a slow tasklet
+     * doesn't delay the fast tasklets sharing its thread. The quantum of a
+     * tasklet is multiplied by the CPU share of its job, see {@link
+     * com.hazelcast.jet.config.JobConfigArguments#KEY_COOPERATIVE_CPU_SHARE}.
+     * The worker threads also move tasklets from a busy thread to the least
+     * busy one, see {@link #JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS}.
+     * <p>
+     * The measured time is exposed as the {@link
+     * com.hazelcast.jet.core.metrics.MetricNames#BUSY_TIME} metric of the
+     * processors. Note that with the rebalancing a cooperative processor can
+     * be called from different threads during its life, though never
+     * concurrently. The default value is {@code false}.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED
+            = new HazelcastProperty("hazelcast.jet.cooperative.adaptive.scheduling.enabled", false);
+
+    /**
+     * The time in microseconds a cooperative tasklet of a job with CPU share
+     * {@code 1} can use in one round of its worker thread when the adaptive
+     * scheduling is enabled, see {@link
+     * #JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED}. The default value is
+     * {@code 100µs}.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS
+            = new HazelcastProperty("hazelcast.jet.cooperative.scheduling.quantum.microseconds", 100, MICROSECONDS);
+
+    /**
+     * The interval in milliseconds at which the cooperative worker threads
+     * compare their load when the adaptive scheduling is enabled, see {@link
+     * #JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED}. A thread that was busy
+     * more than twice as long as the least busy thread in the last interval
+     * moves one of its tasklets to that thread. Set to {@code 0} to disable
+     * the rebalancing. The default value is {@code 1000ms}.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.jet.cooperative.rebalance.interval.millis", 1000, MILLISECONDS);
+
     /**
      * Controls whether cluster emojis can be used in log messages. This is just a hint for components calling the logging.
      *
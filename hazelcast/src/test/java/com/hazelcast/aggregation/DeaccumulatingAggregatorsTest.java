@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.DeaccumulatingAggregator;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DeaccumulatingAggregatorsTest {
+
+    @Test
+    public void testDeaccumulate_revertsAccumulate() {
+        assertDeaccumulates(Aggregators::count, i -> i);
+        assertDeaccumulates(Aggregators::longSum, i -> (long) i);
+        assertDeaccumulates(Aggregators::integerSum, i -> i);
+        assertDeaccumulates(Aggregators::fixedPointSum, i -> (short) i);
+        assertDeaccumulates(Aggregators::bigDecimalSum, BigDecimal::valueOf);
+        assertDeaccumulates(Aggregators::bigIntegerSum, BigInteger::valueOf);
+        assertDeaccumulates(Aggregators::longAvg, i -> (long) i);
+        assertDeaccumulates(Aggregators::integerAvg, i -> i);
+        assertDeaccumulates(Aggregators::bigDecimalAvg, BigDecimal::valueOf);
+        assertDeaccumulates(Aggregators::bigIntegerAvg, BigInteger::valueOf);
+    }
+
+    @Test
+    public void testNonInvertibleAggregators_areNotDeaccumulating() {
+        assertFalse(Aggregators.longMax() instanceof DeaccumulatingAggregator);
+        assertFalse(Aggregators.doubleSum() instanceof DeaccumulatingAggregator);
+        assertFalse(Aggregators.distinct() instanceof DeaccumulatingAggregator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertDeaccumulates(Supplier<Aggregator<Map.Entry<Integer, Object>, ?>> factory,
+                                            IntFunction<Object> value) {
+        Aggregator<Map.Entry<Integer, Object>, ?> expected = factory.get();
+        Aggregator<Map.Entry<Integer, Object>, ?> actual = factory.get();
+        assertTrue(actual instanceof DeaccumulatingAggregator);
+        for (int i = 0; i < 100; ++i) {
+            actual.accumulate(new SimpleEntry<>(i, value.apply(i)));
+            if (i % 3 != 0) {
+                expected.accumulate(new SimpleEntry<>(i, value.apply(i)));
+            }
+        }
+        for (int i = 0; i < 100; i += 3) {
+            ((DeaccumulatingAggregator<Map.Entry<Integer, Object>>) actual).deaccumulate(
+                    new SimpleEntry<>(i, value.apply(i)));
+        }
+        assertEquals(expected.aggregate(), actual.aggregate());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OutboundFrameQueueTest extends HazelcastTestSupport {
+
+    @Test
+    public void testOverflow_preservesOrder() {
+        OutboundFrameQueue queue = new OutboundFrameQueue(4);
+        List<Frame> frames = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Frame frame = new Frame(0, i);
+            frames.add(frame);
+            assertTrue(queue.offer(frame));
+        }
+        assertEquals(10, queue.size());
+
+        // a frame polled from the array queue frees a slot, the next frames still overflow
+        assertSame(frames.get(0), queue.poll());
+        Frame last = new Frame(0, 10);
+        frames.add(last);
+        queue.offer(last);
+
+        List<OutboundFrame> iterated = new ArrayList<>();
+        queue.iterator().forEachRemaining(iterated::add);
+        assertEquals(frames.subList(1, frames.size()), iterated);
+
+        for (int i = 1; i < frames.size(); i++) {
+            assertFalse(queue.isEmpty());
+            assertSame(frames.get(i), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testConcurrentProducers_preserveOrderPerProducer() throws Exception {
+        int producerCount = 4;
+        int framesPerProducer = 200_000;
+        OutboundFrameQueue queue = new OutboundFrameQueue(16);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < framesPerProducer; i++) {
+                    queue.offer(new Frame(producer, i));
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+
+        int[] next = new int[producerCount];
+        AtomicInteger violations = new AtomicInteger();
+        for (int consumed = 0; consumed < producerCount * framesPerProducer; ) {
+            Frame frame = (Frame) queue.poll();
+            if (frame == null) {
+                Thread.yield();
+                continue;
+            }
+            if (frame.sequence != next[frame.producer]++) {
+                violations.incrementAndGet();
+            }
+            consumed++;
+        }
+        for (Thread producer : producers) {
+            assertJoinable(producer);
+        }
+
+        assertEquals(0, violations.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    private static final class Frame implements OutboundFrame {
+
+        private final int producer;
+        private final int sequence;
+
+        private Frame(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean isUrgent() {
+            return false;
+        }
+
+        @Override
+        public int getFrameLength() {
+            return 0;
+        }
+    }
+}
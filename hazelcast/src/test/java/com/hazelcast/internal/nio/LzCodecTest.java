@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LzCodecTest {
+
+    private final LzCodec codec = new LzCodec();
+    private final Random random = new Random(42);
+
+    @Test
+    public void testEmptyAndShortInputs() {
+        for (int length = 0; length < 20; ++length) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+            assertRoundTrip(input);
+        }
+    }
+
+    @Test
+    public void testCompressibleInput() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            builder.append("{\"id\":").append(i).append(",\"name\":\"name-").append(i % 17).append("\"}");
+        }
+        byte[] input = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        int length = assertRoundTrip(input);
+        assertTrue("compressed to " + length + " of " + input.length, length < input.length / 3);
+    }
+
+    @Test
+    public void testLongRunsAndOverlappingMatches() {
+        byte[] input = new byte[100_000];
+        Arrays.fill(input, 0, 70_000, (byte) 7);
+        for (int i = 70_000; i < input.length; ++i) {
+            input[i] = (byte) (i % 3);
+        }
+
+        int length = assertRoundTrip(input);
+        assertTrue("compressed to " + length, length < 1000);
+    }
+
+    @Test
+    public void testIncompressibleInput() {
+        byte[] input = new byte[10_000];
+        random.nextBytes(input);
+
+        assertRoundTrip(input);
+        byte[] compressed = new byte[input.length];
+        assertEquals(-1, codec.compress(input, 0, input.length, compressed, 0, compressed.length));
+    }
+
+    @Test
+    public void testMixedInputs_withReusedCodec() {
+        for (int round = 0; round < 200; ++round) {
+            byte[] input = new byte[random.nextInt(5000)];
+            for (int i = 0; i < input.length; ) {
+                int run = Math.min(input.length - i, 1 + random.nextInt(300));
+                if (random.nextBoolean() && i > 0) {
+                    int from = random.nextInt(i);
+                    for (int j = 0; j < run; ++j) {
+                        input[i + j] = input[from + j];
+                    }
+                } else {
+                    for (int j = 0; j < run; ++j) {
+                        input[i + j] = (byte) random.nextInt(4);
+                    }
+                }
+                i += run;
+            }
+            assertRoundTrip(input);
+        }
+    }
+
+    @Test
+    public void testMalformedInput() {
+        byte[] input = "abcabcabcabcabcabcabcabcabcabcabcabc-abcabcabcabcabcabc".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = new byte[2 * input.length];
+        int length = codec.compress(input, 0, input.length, compressed, 0, compressed.length);
+
+        byte[] output = new byte[input.length];
+        assertMalformed(compressed, length - 1, output);
+        assertMalformed(compressed, length, new byte[input.length + 1]);
+        assertMalformed(compressed, length, new byte[input.length - 1]);
+        for (int i = 0; i < 1000; ++i) {
+            byte[] garbage = Arrays.copyOf(compressed, length);
+            garbage[random.nextInt(length)] = (byte) random.nextInt();
+            try {
+                LzCodec.decompress(garbage, 0, length, output, 0, output.length);
+            } catch (IllegalArgumentException expected) {
+                // the corruption was detected
+            }
+        }
+    }
+
+    private int assertRoundTrip(byte[] input) {
+        int offset = 3;
+        byte[] compressed = new byte[offset + 2 * input.length + 16];
+        int length = codec.compress(input, 0, input.length, compressed, offset, compressed.length);
+        assertTrue(length > 0);
+
+        byte[] output = new byte[input.length + 2];
+        LzCodec.decompress(compressed, offset, length, output, 1, input.length);
+        assertArrayEquals(input, Arrays.copyOfRange(output, 1, 1 + input.length));
+        return length;
+    }
+
+    private static void assertMalformed(byte[] compressed, int length, byte[] output) {
+        try {
+            LzCodec.decompress(compressed, 0, length, output, 0, output.length);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
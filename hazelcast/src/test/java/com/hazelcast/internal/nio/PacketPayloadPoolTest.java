@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketPayloadPoolTest {
+
+    private final PacketPayloadPool pool = new PacketPayloadPool(1000, 8192);
+
+    @Test
+    public void testIsPooled_size() {
+        char flags = operationFlags();
+        assertFalse(pool.isPooled(flags, 999));
+        assertTrue(pool.isPooled(flags, 1000));
+        assertTrue(pool.isPooled(flags, 8192));
+        assertFalse(pool.isPooled(flags, 8193));
+    }
+
+    @Test
+    public void testIsPooled_packetType() {
+        assertFalse(pool.isPooled(operationFlags(FLAG_OP_RESPONSE), 4096));
+        assertFalse(pool.isPooled(operationFlags(FLAG_OP_CONTROL), 4096));
+        assertFalse(pool.isPooled(operationFlags(FLAG_COMPRESSED), 4096));
+        assertFalse(pool.isPooled(new Packet().setPacketType(Packet.Type.EVENT).getFlags(), 4096));
+    }
+
+    @Test
+    public void testAllocate_roundsUpToPowerOfTwo() {
+        assertEquals(1024, pool.allocate(1000).length);
+        assertEquals(4096, pool.allocate(4096).length);
+        assertEquals(8192, pool.allocate(4097).length);
+    }
+
+    @Test
+    public void testRelease_payloadReused() {
+        byte[] payload = pool.allocate(2000);
+        pool.release(payload);
+
+        assertSame(payload, pool.allocate(1500));
+        assertNotSame(payload, pool.allocate(1500));
+    }
+
+    @Test
+    public void testRelease_whenSizeClassFull_thenPayloadDropped() {
+        // the largest size class retains 2 payloads at most
+        byte[] payload1 = pool.allocate(8192);
+        byte[] payload2 = pool.allocate(8192);
+        byte[] payload3 = pool.allocate(8192);
+        pool.release(payload1);
+        pool.release(payload2);
+        pool.release(payload3);
+
+        assertSame(payload1, pool.allocate(8192));
+        assertSame(payload2, pool.allocate(8192));
+        assertNotSame(payload3, pool.allocate(8192));
+    }
+
+    @Test
+    public void testPacketRelease() {
+        byte[] payload = pool.allocate(1500);
+        Packet packet = new Packet(payload, 1500, 1, pool);
+        assertEquals(1500, packet.totalSize());
+
+        packet.release();
+        packet.release();
+
+        assertEquals(0, packet.totalSize());
+        assertSame(payload, pool.allocate(1500));
+        assertNotSame(payload, pool.allocate(1500));
+    }
+
+    private static char operationFlags(int... flags) {
+        Packet packet = new Packet().setPacketType(Packet.Type.OPERATION);
+        for (int flag : flags) {
+            packet.raiseFlags(flag);
+        }
+        return packet.getFlags();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceFactory;
+import com.hazelcast.internal.networking.nio.NioChannel;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.spi.properties.ClusterProperty.CHANNEL_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
+import static com.hazelcast.test.Accessors.getAddress;
+import static com.hazelcast.test.Accessors.getNode;
+import static com.hazelcast.test.HazelcastTestSupport.assertClusterSize;
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MemberChannelThreadAffinityTest {
+
+    private static final int CHANNEL_COUNT_VALUE = 3;
+
+    @After
+    public void after() {
+        HazelcastInstanceFactory.terminateAll();
+    }
+
+    @Test
+    public void testChannelsOfMemberPair_areProcessedByDifferentIOThreads() {
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(getConfig());
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(getConfig());
+        assertClusterSize(2, hz1, hz2);
+
+        IMap<Integer, Integer> map = hz1.getMap("map");
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, i);
+        }
+        assertEquals(1000, hz2.getMap("map").size());
+
+        assertTrueEventually(() -> {
+            assertThreadsDistinct(hz1, getAddress(hz2));
+            assertThreadsDistinct(hz2, getAddress(hz1));
+        });
+    }
+
+    private static void assertThreadsDistinct(HazelcastInstance hz, Address target) {
+        ServerConnectionManager connectionManager = getNode(hz).getServer().getConnectionManager(MEMBER);
+        Set<NioThread> inputThreads = new HashSet<>();
+        Set<NioThread> outputThreads = new HashSet<>();
+        for (int planeIndex = 0; planeIndex < CHANNEL_COUNT_VALUE; ++planeIndex) {
+            ServerConnection connection = connectionManager.get(target, planeIndex);
+            assertNotNull("no connection on plane " + planeIndex, connection);
+            NioChannel channel = (NioChannel) ((TcpServerConnection) connection).getChannel();
+            inputThreads.add(channel.inboundPipeline().owner());
+            outputThreads.add(channel.outboundPipeline().owner());
+        }
+        assertEquals(CHANNEL_COUNT_VALUE, inputThreads.size());
+        assertEquals(CHANNEL_COUNT_VALUE, outputThreads.size());
+    }
+
+    private static Config getConfig() {
+        Config config = new Config();
+        config.setProperty(CHANNEL_COUNT.getName(), String.valueOf(CHANNEL_COUNT_VALUE));
+        config.setProperty(IO_THREAD_COUNT.getName(), String.valueOf(CHANNEL_COUNT_VALUE));
+        config.setProperty(IO_BALANCER_INTERVAL_SECONDS.getName(), "-1");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return config;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceFactory;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_MEMBER_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_MEMBER_COMPRESSION_MIN_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.HazelcastTestSupport.assertClusterSize;
+import static com.hazelcast.test.HazelcastTestSupport.assertClusterSizeEventually;
+import static com.hazelcast.test.HazelcastTestSupport.waitAllForSafeState;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MemberPacketCompressionTest {
+
+    @After
+    public void after() {
+        HazelcastInstanceFactory.terminateAll();
+    }
+
+    @Test
+    public void testMigrationAndBackups_whenCompressionEnabledOnSomeMembers() {
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(getConfig(true));
+        IMap<Integer, String> map = hz1.getMap("map");
+        for (int i = 0; i < 200; ++i) {
+            map.put(i, value(i));
+        }
+
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(getConfig(false));
+        HazelcastInstance hz3 = Hazelcast.newHazelcastInstance(getConfig(true));
+        assertClusterSize(3, hz1, hz2, hz3);
+        waitAllForSafeState(hz1, hz2, hz3);
+
+        IMap<Integer, String> map3 = hz3.getMap("map");
+        for (int i = 200; i < 400; ++i) {
+            map3.put(i, value(i));
+        }
+        hz1.getLifecycleService().terminate();
+        assertClusterSizeEventually(2, hz2, hz3);
+        waitAllForSafeState(hz2, hz3);
+
+        IMap<Integer, String> map2 = hz2.getMap("map");
+        assertEquals(400, map2.size());
+        for (int i = 0; i < 400; ++i) {
+            assertEquals(value(i), map2.get(i));
+        }
+    }
+
+    private static String value(int i) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 4000) {
+            builder.append("value-").append(i).append('-').append(builder.length() % 7);
+        }
+        return builder.toString();
+    }
+
+    private static Config getConfig(boolean compression) {
+        Config config = new Config();
+        config.setProperty(PARTITION_COUNT.getName(), "11");
+        config.setProperty(NETWORK_MEMBER_COMPRESSION_ENABLED.getName(), String.valueOf(compression));
+        config.setProperty(NETWORK_MEMBER_COMPRESSION_MIN_SIZE.getName(), "512");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return config;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceFactory;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_CLASS_MAX_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_PACKET_PAYLOAD_POOL_MIN_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.HazelcastTestSupport.assertClusterSize;
+import static com.hazelcast.test.HazelcastTestSupport.assertClusterSizeEventually;
+import static com.hazelcast.test.HazelcastTestSupport.waitAllForSafeState;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MemberPacketPayloadPoolTest {
+
+    @After
+    public void after() {
+        HazelcastInstanceFactory.terminateAll();
+    }
+
+    @Test
+    public void testOperationsAndBackups_whenPayloadsPooled() {
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(getConfig());
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(getConfig());
+        assertClusterSize(2, hz1, hz2);
+
+        // values of different sizes, so the payloads are reused by smaller packets
+        IMap<Integer, byte[]> map = hz1.getMap("map");
+        for (int i = 0; i < 500; ++i) {
+            map.put(i, value(i));
+        }
+        for (int i = 0; i < 500; ++i) {
+            assertArrayEquals(value(i), map.get(i));
+        }
+
+        hz1.getLifecycleService().terminate();
+        assertClusterSizeEventually(1, hz2);
+        waitAllForSafeState(hz2);
+
+        IMap<Integer, byte[]> map2 = hz2.getMap("map");
+        assertEquals(500, map2.size());
+        for (int i = 0; i < 500; ++i) {
+            assertArrayEquals(value(i), map2.get(i));
+        }
+    }
+
+    private static byte[] value(int i) {
+        byte[] value = new byte[1000 + (i * 997) % 60000];
+        Arrays.fill(value, (byte) i);
+        return value;
+    }
+
+    private static Config getConfig() {
+        Config config = new Config();
+        config.setProperty(PARTITION_COUNT.getName(), "11");
+        config.setProperty(NETWORK_PACKET_PAYLOAD_POOL_ENABLED.getName(), "true");
+        config.setProperty(NETWORK_PACKET_PAYLOAD_POOL_MIN_SIZE.getName(), "1024");
+        config.setProperty(NETWORK_PACKET_PAYLOAD_POOL_CLASS_MAX_BYTES.getName(), String.valueOf(1 << 20));
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return config;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.impl.MemberImpl;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.Version;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static com.hazelcast.internal.server.tcp.PacketCompressor.BYPASS_PACKETS;
+import static com.hazelcast.internal.server.tcp.PacketCompressor.POOR_RATIO_STREAK;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketCompressorTest extends HazelcastTestSupport {
+
+    private static final int MIN_SIZE = 1024;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final ClusterService clusterService = mock(ClusterService.class);
+    private final ServerConnection connection = mock(ServerConnection.class);
+    private PacketCompressor compressor;
+
+    @Before
+    public void setup() throws UnknownHostException {
+        Address address = new Address("127.0.0.1", 5702);
+        when(connection.getRemoteAddress()).thenReturn(address);
+        when(clusterService.getClusterVersion()).thenReturn(Versions.V5_3);
+        when(clusterService.getMember(any(Address.class))).thenReturn(mock(MemberImpl.class));
+        compressor = new PacketCompressor(connection, clusterService, MIN_SIZE);
+    }
+
+    @Test
+    public void whenLargeCompressiblePacket_thenCompressed() {
+        Packet packet = compressiblePacket(10_000);
+        packet.setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_URGENT | FLAG_OP_RESPONSE);
+
+        Packet compressed = compressor.compress(packet);
+
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < packet.totalSize() / 2);
+        assertEquals(packet.getPartitionId(), compressed.getPartitionId());
+
+        Packet decompressed = PacketCompressor.decompress(compressed);
+        assertEquals(packet.getFlags(), decompressed.getFlags());
+        assertEquals(packet.getPartitionId(), decompressed.getPartitionId());
+        assertArrayEquals(packet.toByteArray(), decompressed.toByteArray());
+    }
+
+    @Test
+    public void whenSmallPacket_thenNotCompressed() {
+        Packet packet = compressiblePacket(MIN_SIZE / 2);
+
+        assertSame(packet, compressor.compress(packet));
+    }
+
+    @Test
+    public void whenRemoteNotMember_thenNotCompressed() {
+        when(clusterService.getMember(any(Address.class))).thenReturn(null);
+        Packet packet = compressiblePacket(10_000);
+
+        assertSame(packet, compressor.compress(packet));
+    }
+
+    @Test
+    public void whenClusterVersionOlder_thenNotCompressed() {
+        when(clusterService.getClusterVersion()).thenReturn(Version.of(5, 2));
+        Packet packet = compressiblePacket(10_000);
+
+        assertSame(packet, compressor.compress(packet));
+    }
+
+    @Test
+    public void whenPoorRatio_thenBypassedAndProbedAgain() {
+        Random random = new Random(42);
+        for (int i = 0; i < POOR_RATIO_STREAK; ++i) {
+            byte[] bytes = new byte[10_000];
+            random.nextBytes(bytes);
+            Packet packet = new Packet(serializationService.toBytes(bytes));
+            assertSame(packet, compressor.compress(packet));
+        }
+
+        // bypassed even though the packets are compressible
+        for (int i = 0; i < BYPASS_PACKETS; ++i) {
+            Packet packet = compressiblePacket(10_000);
+            assertSame(packet, compressor.compress(packet));
+        }
+        assertTrue(compressor.compress(compressiblePacket(10_000)).isFlagRaised(FLAG_COMPRESSED));
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void whenMalformedPacket_thenDecompressFails() {
+        Packet compressed = compressor.compress(compressiblePacket(10_000));
+        byte[] payload = compressed.toByteArray();
+        payload[payload.length - 1]++;
+        byte[] truncated = new byte[payload.length - 2];
+        System.arraycopy(payload, 0, truncated, 0, truncated.length);
+
+        PacketCompressor.decompress(new Packet(truncated).raiseFlags(FLAG_COMPRESSED));
+    }
+
+    @Test
+    public void whenEncodedAndDecoded_thenOriginalPacketsDispatched() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            packets.add(i % 2 == 0 ? compressiblePacket(5000 + i) : new Packet(serializationService.toBytes("small-" + i), i));
+        }
+        PacketEncoderTest.PacketSupplier src = new PacketEncoderTest.PacketSupplier();
+        src.queue.addAll(packets);
+
+        PacketEncoder encoder = new PacketEncoder(compressor);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        upcast(buffer).flip();
+        encoder.dst(buffer);
+        encoder.src(src);
+        HandlerStatus status = encoder.onWrite();
+        assertEquals(CLEAN, status);
+
+        List<Packet> dispatched = new ArrayList<>();
+        PacketDecoder decoder = new PacketDecoder(connection, dispatched::add);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+        decoder.setPriorityPacketsRead(SwCounter.newSwCounter());
+        ByteBuffer received = ByteBuffer.allocate(buffer.remaining());
+        received.put(buffer);
+        decoder.src(received);
+        decoder.onRead();
+
+        assertEquals(packets.size(), dispatched.size());
+        for (int i = 0; i < packets.size(); ++i) {
+            Packet expected = packets.get(i);
+            Packet actual = dispatched.get(i);
+            assertFalse(actual.isFlagRaised(FLAG_COMPRESSED));
+            assertEquals(expected.getFlags(), actual.getFlags());
+            assertEquals(expected.getPartitionId(), actual.getPartitionId());
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+            assertSame(connection, actual.getConn());
+        }
+    }
+
+    private Packet compressiblePacket(int size) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; builder.length() < size; ++i) {
+            builder.append("entry-").append(i % 100).append(';');
+        }
+        return new Packet(serializationService.toBytes(builder.toString()), size % 271);
+    }
+}
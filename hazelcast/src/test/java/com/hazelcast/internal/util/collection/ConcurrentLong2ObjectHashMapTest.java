@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ConcurrentLong2ObjectHashMapTest extends HazelcastTestSupport {
+
+    private final ConcurrentLong2ObjectHashMap<String> map = new ConcurrentLong2ObjectHashMap<>(4, 16);
+
+    @Test
+    public void testPutGetRemove() {
+        assertTrue(map.isEmpty());
+        assertNull(map.put(7, "seven"));
+        assertEquals("seven", map.put(7, "SEVEN"));
+        assertEquals("SEVEN", map.get(7));
+        assertEquals(1, map.size());
+        assertFalse(map.isEmpty());
+
+        assertNull(map.remove(8));
+        assertEquals("SEVEN", map.remove(7));
+        assertNull(map.get(7));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPut_whenNullValue() {
+        map.put(1, null);
+    }
+
+    @Test
+    public void testExtremeKeys() {
+        long[] keys = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+        for (long key : keys) {
+            map.put(key, Long.toString(key));
+        }
+        for (long key : keys) {
+            assertEquals(Long.toString(key), map.get(key));
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    public void testRandomOperations_whenResizingAndCompacting() {
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // a small key range gives long collision chains and many removals
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = Integer.toString(i);
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map.toMap());
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected.size(), map.values().size());
+        assertTrue(expected.values().containsAll(map.values()));
+    }
+
+    @Test
+    public void testForEach() {
+        for (long key = 0; key < 100; key++) {
+            map.put(key, Long.toString(key));
+        }
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach((value, key) -> visited.put(key, value));
+
+        assertEquals(map.toMap(), visited);
+    }
+
+    @Test
+    public void testConcurrentAccess() {
+        ConcurrentLong2ObjectHashMap<Long> map = new ConcurrentLong2ObjectHashMap<>(2, 2);
+        AtomicLong keys = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        long key = keys.incrementAndGet();
+                        map.put(key, key);
+                        // other threads resize and compact the same segments meanwhile
+                        assertEquals(key, (long) map.get(key));
+                        if (i % 2 == 0) {
+                            assertEquals(key, (long) map.remove(key));
+                            assertNull(map.get(key));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        assertJoinable(threads);
+
+        assertNull(failure.get());
+        assertEquals(threads.length * 10_000, map.size());
+        for (Map.Entry<Long, Long> entry : map.toMap().entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MPMCQueueTest extends HazelcastTestSupport {
+
+    private final MPMCQueue<String> queue = new MPMCQueue<>(4, null);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenCapacityNotPositive() {
+        new MPMCQueue<>(0, null);
+    }
+
+    @Test
+    public void capacity_roundedUpToPowerOfTwo() {
+        assertEquals(8, new MPMCQueue<>(5, null).capacity());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offer_whenNull() {
+        queue.offer(null);
+    }
+
+    @Test
+    public void offer_whenFull() {
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertTrue(queue.offer("item" + i));
+        }
+
+        assertFalse(queue.offer("item"));
+        assertEquals(queue.capacity(), queue.size());
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    public void poll_inFifoOrder() {
+        queue.offer("1");
+        queue.offer("2");
+
+        assertEquals("1", queue.peek());
+        assertEquals("1", queue.poll());
+        assertEquals("2", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void pollWithTimeout_whenEmpty() throws InterruptedException {
+        assertNull(queue.poll(10, MILLISECONDS));
+    }
+
+    @Test
+    public void take_whenItemAvailable() throws InterruptedException {
+        queue.offer("1");
+
+        assertEquals("1", queue.take());
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillItemAvailable() throws Exception {
+        Future<String> future = spawn(queue::take);
+
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 1);
+        queue.offer("1");
+
+        assertEquals("1", future.get(1, MINUTES));
+    }
+
+    @Test
+    public void take_withIdleStrategy_whenNoItemAvailable_thenBlockTillItemAvailable() throws Exception {
+        MPMCQueue<String> queue = new MPMCQueue<>(4, new BackoffIdleStrategy(10, 10, 1000, 100_000));
+        Future<String> future = spawn(queue::take);
+
+        sleepMillis(100);
+        queue.offer("1");
+
+        assertEquals("1", future.get(1, MINUTES));
+    }
+
+    @Test
+    public void take_whenInterrupted() {
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (InterruptedException expected) {
+                queue.offer("interrupted");
+            }
+        });
+        consumer.start();
+
+        sleepMillis(100);
+        consumer.interrupt();
+
+        assertTrueEventually(() -> assertEquals("interrupted", queue.peek()));
+    }
+
+    @Test
+    public void put_whenFull_thenBlockTillRoomAvailable() throws Exception {
+        for (int i = 0; i < queue.capacity(); i++) {
+            queue.put("item" + i);
+        }
+        Future future = spawn(() -> {
+            queue.put("last");
+            return null;
+        });
+
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 1);
+        assertEquals("item0", queue.poll());
+
+        future.get(1, MINUTES);
+        List<String> drained = new ArrayList<>();
+        assertEquals(queue.capacity(), queue.drainTo(drained));
+        assertEquals(asList("item1", "item2", "item3", "last"), drained);
+    }
+
+    @Test
+    public void offerWithTimeout_whenFull() throws InterruptedException {
+        for (int i = 0; i < queue.capacity(); i++) {
+            queue.offer("item" + i);
+        }
+
+        assertFalse(queue.offer("item", 10, MILLISECONDS));
+    }
+
+    @Test
+    public void multipleProducersAndConsumers() throws Exception {
+        int producerCount = 4;
+        int consumerCount = 4;
+        int itemsPerProducer = 100_000;
+        MPMCQueue<Long> queue = new MPMCQueue<>(64, null);
+        AtomicLong consumedSum = new AtomicLong();
+        AtomicLong consumedCount = new AtomicLong();
+
+        List<Future> futures = new ArrayList<>();
+        for (int i = 0; i < consumerCount; i++) {
+            futures.add(spawn(() -> {
+                for (; ; ) {
+                    long item = queue.take();
+                    if (item < 0) {
+                        return null;
+                    }
+                    consumedSum.addAndGet(item);
+                    consumedCount.incrementAndGet();
+                }
+            }));
+        }
+        List<Future> producers = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            producers.add(spawn(() -> {
+                for (long item = 1; item <= itemsPerProducer; item++) {
+                    queue.put(item);
+                }
+                return null;
+            }));
+        }
+        for (Future producer : producers) {
+            producer.get(1, MINUTES);
+        }
+        for (int i = 0; i < consumerCount; i++) {
+            queue.put(-1L);
+        }
+        for (Future consumer : futures) {
+            consumer.get(1, MINUTES);
+        }
+
+        long expectedSum = (long) producerCount * itemsPerProducer * (itemsPerProducer + 1) / 2;
+        assertEquals((long) producerCount * itemsPerProducer, consumedCount.get());
+        assertEquals(expectedSum, consumedSum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ManyToManyConcurrentArrayQueueTest extends AbstractConcurrentArrayQueueTest {
+
+    @Before
+    public void setUp() {
+        queue = new ManyToManyConcurrentArrayQueue<Integer>(CAPACITY);
+    }
+
+    @Test
+    @Override
+    public void testIterator() {
+        queue.offer(1);
+        queue.offer(2);
+        queue.poll();
+        queue.offer(3);
+
+        List<Integer> items = new ArrayList<>();
+        queue.iterator().forEachRemaining(items::add);
+
+        assertEquals(asList(2, 3), items);
+    }
+
+    @Test
+    public void testOffer_whenFull() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(queue.offer(i));
+        }
+
+        assertFalse(queue.offer(CAPACITY));
+        assertEquals(0, (int) queue.poll());
+        assertTrue(queue.offer(CAPACITY));
+    }
+
+    @Test
+    public void testManyProducersAndConsumers() throws Exception {
+        int producerCount = 4;
+        int consumerCount = 3;
+        int itemsPerProducer = 100_000;
+        ManyToManyConcurrentArrayQueue<Integer> queue = new ManyToManyConcurrentArrayQueue<>(64);
+        BitSet consumed = new BitSet(producerCount * itemsPerProducer);
+        AtomicInteger consumedCount = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int first = p * itemsPerProducer;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < first + itemsPerProducer; i++) {
+                    while (!queue.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumerCount; c++) {
+            threads.add(new Thread(() -> {
+                // the items of a single producer are consumed in order
+                int[] lastSeen = new int[producerCount];
+                Arrays.fill(lastSeen, -1);
+                while (consumedCount.get() < producerCount * itemsPerProducer) {
+                    Integer item = queue.poll();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int producer = item / itemsPerProducer;
+                    if (item <= lastSeen[producer]) {
+                        violations.incrementAndGet();
+                    }
+                    lastSeen[producer] = item;
+                    synchronized (consumed) {
+                        if (consumed.get(item)) {
+                            violations.incrementAndGet();
+                        }
+                        consumed.set(item);
+                    }
+                    consumedCount.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            assertJoinable(thread);
+        }
+
+        assertEquals(0, violations.get());
+        assertEquals(producerCount * itemsPerProducer, consumed.cardinality());
+        assertTrue(queue.isEmpty());
+    }
+}
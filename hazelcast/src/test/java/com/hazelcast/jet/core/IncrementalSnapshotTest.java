@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.JobRestartWithSnapshotTest.SequencesInPartitionsGeneratorP;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.jet.impl.JobExecutionRecord;
+import com.hazelcast.jet.impl.JobProxy;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.SlowTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.function.Functions.entryKey;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.EventTimePolicy.eventTimePolicy;
+import static com.hazelcast.jet.core.TestUtil.throttle;
+import static com.hazelcast.jet.core.WatermarkPolicy.limitingLag;
+import static com.hazelcast.jet.core.processor.Processors.insertWatermarksP;
+import static com.hazelcast.jet.core.processor.Processors.mapP;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({SlowTest.class, ParallelJVMTest.class})
+public class IncrementalSnapshotTest extends JetTestSupport {
+
+    private static final int LOCAL_PARALLELISM = 4;
+
+    private HazelcastInstance instance1;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig();
+        config.getJetConfig().setCooperativeThreadCount(LOCAL_PARALLELISM);
+        config.setProperty(ClusterProperty.JET_SNAPSHOT_INCREMENTAL_ENABLED.getName(), "true");
+        config.setProperty(ClusterProperty.JET_SNAPSHOT_INCREMENTAL_MAX_DELTAS.getName(), "3");
+
+        instance1 = createHazelcastInstance(config);
+        createHazelcastInstance(config);
+    }
+
+    @Test
+    public void when_restartedFromIncrementalSnapshot_then_stateRestored() {
+        // The window state of the aggregation is added and removed as the windows
+        // are emitted, the source offsets are broadcast entries.
+        SlidingWindowPolicy wDef = SlidingWindowPolicy.tumblingWinPolicy(3);
+        AggregateOperation1<Object, LongAccumulator, Long> aggrOp = counting();
+        IMap<List<Long>, Long> result = instance1.getMap("result");
+
+        int numPartitions = 3;
+        int elementsInPartition = 300;
+        DAG dag = new DAG();
+        Vertex generator = dag.newVertex("generator", throttle(() ->
+                new SequencesInPartitionsGeneratorP(numPartitions, elementsInPartition, true), 30))
+                              .localParallelism(1);
+        Vertex insWm = dag.newVertex("insWm", insertWatermarksP(eventTimePolicy(
+                o -> ((Entry<Integer, Integer>) o).getValue(), limitingLag(0), wDef.frameSize(), wDef.frameOffset(), 0)))
+                          .localParallelism(1);
+        Vertex aggregate = dag.newVertex("aggregate", Processors.aggregateToSlidingWindowP(
+                singletonList((FunctionEx<Object, Integer>) t -> ((Entry<Integer, Integer>) t).getKey()),
+                singletonList(t1 -> ((Entry<Integer, Integer>) t1).getValue()),
+                TimestampKind.EVENT,
+                wDef,
+                0L,
+                aggrOp,
+                KeyedWindowResult::new));
+        Vertex map = dag.newVertex("map",
+                mapP((KeyedWindowResult kwr) -> entry(asList(kwr.end(), (long) (int) kwr.key()), kwr.result())));
+        Vertex writeMap = dag.newVertex("writeMap", SinkProcessors.writeMapP("result"));
+        dag.edge(between(generator, insWm))
+           .edge(between(insWm, aggregate).distributed().partitioned(entryKey()))
+           .edge(between(aggregate, map))
+           .edge(between(map, writeMap));
+
+        JobConfig config = new JobConfig()
+                .setProcessingGuarantee(EXACTLY_ONCE)
+                .setSnapshotIntervalMillis(300);
+        Job job = instance1.getJet().newJob(dag, config);
+        JobRepository jobRepository = new JobRepository(instance1);
+
+        waitForFirstSnapshot(jobRepository, job.getId(), 30, false);
+
+        // When - restart twice from an incremental snapshot
+        for (int i = 0; i < 2; i++) {
+            waitForIncrementalSnapshot(jobRepository, job.getId());
+            ((JobProxy) job).restart(false);
+        }
+        job.join();
+
+        // Then
+        Map<List<Long>, Long> expectedMap = new HashMap<>();
+        for (long partition = 0; partition < numPartitions; partition++) {
+            long cnt = 0;
+            for (long value = 1; value <= elementsInPartition; value++) {
+                cnt++;
+                if (value % wDef.frameSize() == 0) {
+                    expectedMap.put(asList(value, partition), cnt);
+                    cnt = 0;
+                }
+            }
+            if (cnt > 0) {
+                expectedMap.put(asList(wDef.higherFrameTs(elementsInPartition - 1), partition), cnt);
+            }
+        }
+        assertEquals(expectedMap, new HashMap<>(result));
+    }
+
+    private void waitForIncrementalSnapshot(JobRepository jobRepository, long jobId) {
+        long originalSnapshotId = jobRepository.getJobExecutionRecord(jobId).snapshotId();
+        assertTrueEventually(() -> {
+            JobExecutionRecord record = jobRepository.getJobExecutionRecord(jobId);
+            assertNotNull("null JobExecutionRecord", record);
+            assertNotEquals("No incremental snapshot", NO_SNAPSHOT, record.baseSnapshotId());
+            assertNotEquals("No new snapshot", originalSnapshotId, record.snapshotId());
+        }, 30);
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
 import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.jet.impl.execution.TaskletExecutionService.TaskletTracker;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -57,6 +58,9 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -64,6 +68,7 @@ import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -83,13 +88,14 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
     private final CompletableFuture<Void> cancellationFuture = new CompletableFuture<>();
 
     private TaskletExecutionService tes;
+    private NodeEngineImpl neMock;
     private ExecutorService executor;
     private final ClassLoader classLoader = getClass().getClassLoader();
 
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         when(neMock.getHazelcastInstance()).thenReturn(hzMock);
@@ -380,6 +386,106 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_taskletOverranQuantum_then_skippedUntilDeficitRepaid() {
+        TaskletTracker t = newTracker(100);
+
+        assertTrue(t.replenishQuantum(true));
+        t.charge(2_000);
+
+        // the deficit is -1900ns, it takes 20 quanta to become positive again
+        for (int i = 0; i < 19; i++) {
+            assertFalse("call " + i, t.replenishQuantum(true));
+        }
+        assertTrue(t.replenishQuantum(true));
+    }
+
+    @Test
+    public void when_taskletNotShared_then_neverSkipped() {
+        TaskletTracker t = newTracker(100);
+
+        assertTrue(t.replenishQuantum(true));
+        t.charge(2_000);
+
+        assertTrue(t.replenishQuantum(false));
+    }
+
+    @Test
+    public void when_slowAndFastTasklet_then_fastTaskletCalledMoreOften() {
+        TaskletTracker slow = newTracker(100);
+        TaskletTracker fast = newTracker(100);
+
+        int[] callCounts = simulateCalls(200, new TaskletTracker[]{slow, fast}, new long[]{2_000, 0});
+
+        assertEquals(10, callCounts[0]);
+        assertEquals(200, callCounts[1]);
+    }
+
+    @Test
+    public void when_cpuShares_then_callsProportionalToShare() {
+        TaskletTracker share1 = newTracker(100);
+        TaskletTracker share4 = newTracker(4 * 100);
+
+        int[] callCounts = simulateCalls(1200, new TaskletTracker[]{share1, share4}, new long[]{1_200, 1_200});
+
+        assertEquals(100, callCounts[0]);
+        assertEquals(400, callCounts[1]);
+    }
+
+    @Test
+    public void when_adaptiveScheduling_and_skewedLoad_then_taskletsRebalanced() {
+        // Given
+        TaskletExecutionService adaptiveTes = newAdaptiveService(2, 100);
+        try {
+            // the round-robin assignment puts both slow tasklets to the first worker
+            TimedTasklet slow1 = new TimedTasklet(1);
+            TimedTasklet fast1 = new TimedTasklet(0);
+            TimedTasklet slow2 = new TimedTasklet(1);
+            TimedTasklet fast2 = new TimedTasklet(0);
+            List<TimedTasklet> tasklets = asList(slow1, fast1, slow2, fast2);
+
+            // When
+            CompletableFuture<Void> f = adaptiveTes.beginExecute(tasklets, cancellationFuture, classLoader);
+
+            // Then
+            assertTrueEventually(() -> assertNotSame(slow1.lastThread, slow2.lastThread));
+            tasklets.forEach(t -> t.done = true);
+            f.join();
+        } finally {
+            adaptiveTes.shutdown();
+        }
+    }
+
+    private static TaskletTracker newTracker(long quantumNanos) {
+        return new TaskletTracker(mock(Tasklet.class), null, null, quantumNanos);
+    }
+
+    /**
+     * Runs the scheduling decisions of a worker for the given number of
+     * iterations, each call of a tasklet takes the given time. Returns the
+     * number of calls of each tasklet.
+     */
+    private static int[] simulateCalls(int iterations, TaskletTracker[] trackers, long[] callNanos) {
+        int[] callCounts = new int[trackers.length];
+        for (int i = 0; i < iterations; i++) {
+            for (int j = 0; j < trackers.length; j++) {
+                if (trackers[j].replenishQuantum(true)) {
+                    trackers[j].charge(callNanos[j]);
+                    callCounts[j]++;
+                }
+            }
+        }
+        return callCounts;
+    }
+
+    private TaskletExecutionService newAdaptiveService(int threadCount, long rebalanceIntervalMillis) {
+        Properties props = new Properties();
+        props.setProperty(JET_COOPERATIVE_ADAPTIVE_SCHEDULING_ENABLED.getName(), "true");
+        props.setProperty(JET_COOPERATIVE_SCHEDULING_QUANTUM_MICROSECONDS.getName(), "100");
+        props.setProperty(JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS.getName(), String.valueOf(rebalanceIntervalMillis));
+        return new TaskletExecutionService(neMock, threadCount, new HazelcastProperties(props));
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
         f.join();
@@ -492,6 +598,31 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    private static class TimedTasklet implements Tasklet {
+
+        volatile Thread lastThread;
+        volatile boolean done;
+
+        private final long callNanos;
+
+        TimedTasklet(long callMillis) {
+            this.callNanos = MILLISECONDS.toNanos(callMillis);
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            if (done) {
+                return DONE;
+            }
+            lastThread = Thread.currentThread();
+            if (callNanos > 0) {
+                LockSupport.parkNanos(callNanos);
+            }
+            return MADE_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
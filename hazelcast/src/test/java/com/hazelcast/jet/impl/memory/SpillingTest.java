@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.test.TestSources;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingLong;
+import static com.hazelcast.jet.pipeline.test.AssertionSinks.assertAnyOrder;
+import static com.hazelcast.jet.pipeline.test.AssertionSinks.assertOrdered;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_MAX_IN_MEMORY_RECORDS;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillingTest extends SimpleTestInClusterSupport {
+
+    private static final int MAX_IN_MEMORY_RECORDS = 10;
+    private static final int ITEM_COUNT = 2_000;
+    private static final int KEY_COUNT = 500;
+    // lower than both ITEM_COUNT and KEY_COUNT, so the jobs fail unless they spill
+    private static final int MAX_PROCESSOR_ACCUMULATED_RECORDS = 100;
+
+    @ClassRule
+    public static TemporaryFolder spillDirectory = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        Config config = smallInstanceConfig()
+                .setProperty(JET_SPILL_MAX_IN_MEMORY_RECORDS.getName(), String.valueOf(MAX_IN_MEMORY_RECORDS))
+                .setProperty(JET_SPILL_DIRECTORY.getName(), spillDirectory.getRoot().getAbsolutePath());
+        config.getJetConfig().setCooperativeThreadCount(2);
+        initialize(1, config);
+    }
+
+    @Test
+    public void when_grouping_then_groupsSpilledAndCombined() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffledItems()))
+                .groupingKey(i -> i % KEY_COUNT)
+                .aggregate(counting())
+                .writeTo(assertAnyOrder(IntStream.range(0, KEY_COUNT)
+                        .mapToObj(key -> entry(key, (long) ITEM_COUNT / KEY_COUNT))
+                        .collect(toList())));
+
+        instance().getJet().newJob(pipeline, jobConfig()).join();
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_aggregating_then_resultCorrect() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffledItems()))
+                .aggregate(summingLong(i -> i))
+                .writeTo(assertOrdered(singletonList((long) ITEM_COUNT * (ITEM_COUNT - 1) / 2)));
+
+        instance().getJet().newJob(pipeline, jobConfig()).join();
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_sorting_then_runsSpilledAndMerged() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffledItems()))
+                .sort()
+                .writeTo(assertOrdered(IntStream.range(0, ITEM_COUNT).boxed().collect(toList())));
+
+        instance().getJet().newJob(pipeline, jobConfig()).join();
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_sortingWithComparator_then_runsMergedInComparatorOrder() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffledItems()))
+                .sort((Integer i1, Integer i2) -> Integer.compare(i2, i1))
+                .writeTo(assertOrdered(IntStream.range(0, ITEM_COUNT).map(i -> ITEM_COUNT - 1 - i)
+                        .boxed().collect(toList())));
+
+        instance().getJet().newJob(pipeline, jobConfig()).join();
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_spillFileRead_then_itemsInWriteOrder() {
+        Spiller spiller = new Spiller(MAX_IN_MEMORY_RECORDS, spillDirectory.getRoot().toPath(),
+                getSerializationService(instance()), Runnable::run, null);
+        try (SpillFile file = spiller.newFile()) {
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                file.write("item-" + i);
+            }
+            assertThat(file.count()).isEqualTo((long) ITEM_COUNT);
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                assertThat((String) file.read()).isEqualTo("item-" + i);
+            }
+            assertThat((Object) file.read()).isNull();
+        }
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_spillIoFails_then_failureRethrownWhenPolled() {
+        Spiller spiller = new Spiller(MAX_IN_MEMORY_RECORDS, spillDirectory.getRoot().toPath(),
+                getSerializationService(instance()), Runnable::run, null);
+        CompletableFuture<Void> io = spiller.submit(() -> {
+            throw new JetException("expected");
+        });
+
+        assertThatThrownBy(() -> Spiller.isDone(io))
+                .isInstanceOf(JetException.class)
+                .hasMessage("expected");
+        assertThat(Spiller.isDone(null)).isTrue();
+    }
+
+    private static JobConfig jobConfig() {
+        return new JobConfig().setMaxProcessorAccumulatedRecords(MAX_PROCESSOR_ACCUMULATED_RECORDS);
+    }
+
+    private static List<Integer> shuffledItems() {
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).boxed().collect(toList());
+        Collections.shuffle(items, new Random(42));
+        return new ArrayList<>(items);
+    }
+
+    private static void assertSpillDirectoryEmpty() {
+        File[] files = spillDirectory.getRoot().listFiles();
+        assertThat(files).isEmpty();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.impl.processor.HashJoinCollectP.HashJoinArrayList;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BinaryHashJoinTableTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final BinaryHashJoinTable table = new BinaryHashJoinTable(serializationService);
+
+    @Test
+    public void when_singleValue_then_valueReturned() {
+        table.add(1, "a");
+        table.add(2, "b");
+        complete(table);
+
+        assertEquals("a", table.get(1));
+        assertEquals("b", table.get(2));
+        assertNull(table.get(3));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void when_multipleValues_then_listInAddOrder() {
+        table.add(1, "a");
+        table.add(2, "b");
+        table.add(1, "c");
+        table.add(1, "d");
+        complete(table);
+
+        Object values = table.get(1);
+        assertTrue(values instanceof HashJoinArrayList);
+        assertEquals(asList("a", "c", "d"), values);
+        assertEquals("b", table.get(2));
+    }
+
+    @Test
+    public void when_sameHashCode_then_keysDistinguished() {
+        // "Aa" and "BB" have the same hash code
+        table.add("Aa", 1);
+        table.add("BB", 2);
+        table.add("Aa", 3);
+        complete(table);
+
+        assertEquals(asList(1, 3), table.get("Aa"));
+        assertEquals(2, table.get("BB"));
+        assertNull(table.get("C#"));
+    }
+
+    @Test
+    public void when_nullKey_then_found() {
+        table.add(null, "a");
+        table.add(1, "b");
+        complete(table);
+
+        assertEquals("a", table.get(null));
+        assertEquals("b", table.get(1));
+    }
+
+    @Test
+    public void when_empty_then_nothingFound() {
+        complete(table);
+
+        assertNull(table.get(1));
+        assertNull(table.get(null));
+    }
+
+    @Test
+    public void when_manyRecords_then_indexBuiltInBatches() {
+        int recordCount = 3 * BinaryHashJoinTable.INDEX_BATCH_SIZE + 1;
+        for (int i = 0; i < recordCount; i++) {
+            table.add(i, i);
+        }
+
+        int calls = 1;
+        for (; !table.complete(); calls++) {
+            assertTrue("too many calls: " + calls, calls < recordCount);
+        }
+
+        assertEquals(4, calls);
+        assertTrue(table.complete());
+        assertEquals(recordCount - 1, table.get(recordCount - 1));
+    }
+
+    @Test
+    public void when_manySlabs_then_sameAsHashMap() {
+        verifySameAsHashMap(table);
+    }
+
+    @Test
+    public void when_littleEndian_then_sameAsHashMap() {
+        InternalSerializationService littleEndianService = new DefaultSerializationServiceBuilder()
+                .setByteOrder(ByteOrder.LITTLE_ENDIAN)
+                .build();
+        verifySameAsHashMap(new BinaryHashJoinTable(littleEndianService));
+    }
+
+    private static void complete(BinaryHashJoinTable table) {
+        while (!table.complete()) {
+            // the index is built in batches
+        }
+    }
+
+    private static void verifySameAsHashMap(BinaryHashJoinTable table) {
+        Map<Integer, HashJoinArrayList> expected = new HashMap<>();
+        int recordCount = 0;
+        // the values are large enough to fill several slabs
+        for (int i = 0; recordCount * 100 < 3 * BinaryHashJoinTable.SLAB_SIZE; i++, recordCount++) {
+            int key = i % 10_000;
+            String value = String.format("%0100d", i);
+            table.add(key, value);
+            expected.computeIfAbsent(key, k -> new HashJoinArrayList()).add(value);
+        }
+        complete(table);
+
+        assertEquals(recordCount, table.size());
+        for (Map.Entry<Integer, HashJoinArrayList> entry : expected.entrySet()) {
+            Object actual = table.get(entry.getKey());
+            assertEquals(entry.getValue().size() == 1 ? entry.getValue().get(0) : entry.getValue(), actual);
+        }
+        assertNull(table.get(-1));
+    }
+}
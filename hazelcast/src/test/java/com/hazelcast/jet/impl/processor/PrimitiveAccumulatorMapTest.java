@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.MutableReference;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveAccumulatorMapTest {
+
+    private final PrimitiveAccumulatorMap<Integer, LongAccumulator> map = newLongMap();
+
+    @Test
+    public void test_codecFor() {
+        assertNotNull(PrimitiveAccumulatorMap.codecFor(new LongAccumulator()));
+        assertNotNull(PrimitiveAccumulatorMap.codecFor(new DoubleAccumulator()));
+        assertNull(PrimitiveAccumulatorMap.codecFor(new MutableReference<>()));
+        assertNull(PrimitiveAccumulatorMap.codecFor(new LongAccumulator() { }));
+    }
+
+    @Test
+    public void when_accumulate_then_keyAddedOnce() {
+        assertTrue(map.accumulate(1, LongAccumulator::add, 5L));
+        assertFalse(map.accumulate(1, LongAccumulator::add, 3L));
+        assertTrue(map.accumulate(null, LongAccumulator::add, 1L));
+
+        assertEquals(2, map.size());
+        assertEquals(new LongAccumulator(8), map.get(1));
+        assertEquals(new LongAccumulator(1), map.get(null));
+        assertNull(map.get(2));
+    }
+
+    @Test
+    public void when_patchWithRemoveEmpty_then_emptyKeysRemoved() {
+        PrimitiveAccumulatorMap<Integer, LongAccumulator> frame = newLongMap();
+        frame.accumulate(1, LongAccumulator::add, 5L);
+        frame.accumulate(2, LongAccumulator::add, 3L);
+        map.patch(frame, LongAccumulator::add, true);
+        map.patch(frame, LongAccumulator::add, true);
+        assertEquals(new LongAccumulator(10), map.get(1));
+
+        frame.put(1, new LongAccumulator(10));
+        map.patch(frame, LongAccumulator::subtract, true);
+
+        assertFalse(map.containsKey(1));
+        assertEquals(new LongAccumulator(3), map.get(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void when_doubleAccumulator_then_valuesPreserved() {
+        PrimitiveAccumulatorMap<String, DoubleAccumulator> doubleMap = new PrimitiveAccumulatorMap<>(
+                PrimitiveAccumulatorMap.codecFor(new DoubleAccumulator()), new DoubleAccumulator());
+        doubleMap.accumulate("a", DoubleAccumulator::accumulate, 1.5);
+        doubleMap.accumulate("a", DoubleAccumulator::accumulate, -0.25);
+
+        assertEquals(new DoubleAccumulator(1.25), doubleMap.get("a"));
+    }
+
+    @Test
+    public void when_randomOperations_then_sameAsHashMap() {
+        Map<Integer, LongAccumulator> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // a small key range to have many collisions and removals
+            Integer key = random.nextInt(50) == 0 ? null : random.nextInt(2_000);
+            long value = random.nextInt(10);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.put(key, new LongAccumulator(value)), map.put(key, new LongAccumulator(value)));
+                    break;
+                default:
+                    boolean added = !expected.containsKey(key);
+                    expected.computeIfAbsent(key, k -> new LongAccumulator()).add(value);
+                    assertEquals(added, map.accumulate(key, LongAccumulator::add, value));
+                    break;
+            }
+        }
+
+        assertEquals(expected, new HashMap<>(map));
+        for (Map.Entry<Integer, LongAccumulator> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+    }
+
+    private static PrimitiveAccumulatorMap<Integer, LongAccumulator> newLongMap() {
+        return new PrimitiveAccumulatorMap<>(PrimitiveAccumulatorMap.codecFor(new LongAccumulator()),
+                new LongAccumulator());
+    }
+}
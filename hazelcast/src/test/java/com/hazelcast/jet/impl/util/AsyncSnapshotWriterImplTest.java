@@ -28,8 +28,10 @@ import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.jet.core.JetTestSupport;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
+import com.hazelcast.jet.impl.execution.SnapshotFlags;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.CustomByteArrayOutputStream;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataTombstone;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
 import com.hazelcast.map.IMap;
 import com.hazelcast.spi.impl.NodeEngineImpl;
@@ -49,6 +51,8 @@ import org.junit.runner.RunWith;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Stream;
 
@@ -294,6 +298,59 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
         Assert.assertEquals("bar", serializationService.readObject(in, true));
     }
 
+    @Test
+    public void when_incrementalSnapshot_then_onlyChangesSinceBaseWritten() {
+        // Given - the base snapshot
+        when(snapshotContext.currentSnapshotFlags()).thenReturn(SnapshotFlags.createIncremental(false, false));
+        assertTrue(writer.offer(entry(serialize("k1"), serialize("v1"))));
+        assertTrue(writer.offer(entry(serialize("k2"), serialize("v2"))));
+        assertTrue(writer.offer(entry(serialize("k3"), serialize("v3"))));
+        assertTrue(writer.flushAndResetMap());
+        assertTrueEventually(() -> assertFalse(writer.hasPendingAsyncOps()));
+
+        // When - the incremental snapshot
+        when(snapshotContext.currentMapName()).thenReturn("map2");
+        when(snapshotContext.currentSnapshotId()).thenReturn(2L);
+        when(snapshotContext.currentSnapshotFlags()).thenReturn(SnapshotFlags.createIncremental(false, true));
+        assertTrue(writer.offer(entry(serialize("k1"), serialize("v1"))));
+        assertTrue(writer.offer(entry(serialize("k2"), serialize("v2-changed"))));
+        assertTrue(writer.offer(entry(serialize("k4"), serialize("v4"))));
+        assertTrue(writer.flushAndResetMap());
+        assertTrueEventually(() -> assertFalse(writer.hasPendingAsyncOps()));
+
+        // Then
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put("k2", "v2-changed");
+        expected.put("k3", SnapshotDataTombstone.INSTANCE);
+        expected.put("k4", "v4");
+        assertEquals(expected, readEntries(nodeEngine.getHazelcastInstance().getMap("map2")));
+        assertEquals(3, readEntries(map).size());
+    }
+
+    @Test
+    public void when_incrementalSnapshotWithoutBase_then_thrown() {
+        when(snapshotContext.currentSnapshotFlags()).thenReturn(SnapshotFlags.createIncremental(false, true));
+
+        exception.expect(IllegalStateException.class);
+        try {
+            writer.offer(entry(serialize("k"), serialize("v")));
+        } finally {
+            when(snapshotContext.currentSnapshotFlags()).thenReturn(0);
+        }
+    }
+
+    private Map<Object, Object> readEntries(IMap<SnapshotDataKey, byte[]> snapshotMap) {
+        Map<Object, Object> entries = new HashMap<>();
+        for (byte[] chunk : snapshotMap.values()) {
+            BufferObjectDataInput in = serializationService.createObjectDataInput(chunk);
+            for (Object key; (key = uncheckCall(() -> serializationService.readObject(in, true)))
+                    != SnapshotDataValueTerminator.INSTANCE; ) {
+                entries.put(key, uncheckCall(() -> serializationService.readObject(in, true)));
+            }
+        }
+        return entries;
+    }
+
     @Test
     public void when_noItemsAndNoCurrentMap_then_flushAndResetReturnsFalse() {
         when(snapshotContext.currentMapName()).thenReturn(null);
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public abstract class AbstractMapQueryStreamingIteratorTest extends HazelcastTestSupport {
+
+    protected TestHazelcastFactory factory;
+    protected HazelcastInstance instanceProxy;
+
+    @After
+    public void teardown() {
+        factory.terminateAll();
+    }
+
+    protected abstract <K, V, R> Iterator<R> getIterator(
+            IMap<K, V> map,
+            int fetchSize,
+            int parallelism,
+            Projection<Entry<K, V>, R> projection,
+            Predicate<K, V> predicate
+    );
+
+    @Test
+    public void test_HasNext_Returns_False_On_EmptyMap() {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+
+        Iterator<Entry<Integer, Integer>> iterator = getIterator(map, 10, 4, Projections.identity(),
+                Predicates.alwaysTrue());
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_Throws_Exception_On_EmptyMap() {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+        getIterator(map, 10, 4, Projections.identity(), Predicates.alwaysTrue()).next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_paging_predicate_throws_exception() {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+        getIterator(map, 10, 4, Projections.identity(), Predicates.pagingPredicate(10));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_remove_Throws_Exception() {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+        getIterator(map, 10, 4, Projections.identity(), Predicates.alwaysTrue()).remove();
+    }
+
+    @Test
+    public void test_returns_all_matching_entries_once() {
+        test_returns_all_matching_entries_once(10, 4);
+    }
+
+    @Test
+    public void test_returns_all_matching_entries_once_when_fetching_single_segment() {
+        test_returns_all_matching_entries_once(1, 1);
+    }
+
+    @Test
+    public void test_returns_all_matching_entries_once_when_fetching_all_partitions() {
+        test_returns_all_matching_entries_once(1000, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void test_with_projection() {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        Iterator<Integer> iterator = getIterator(map, 7, 3, new ValueProjection(), Predicates.sql("this < 100"));
+        long sum = 0;
+        int count = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+            ++count;
+        }
+
+        assertEquals(100, count);
+        assertEquals(99 * 100 / 2, sum);
+    }
+
+    private void test_returns_all_matching_entries_once(int fetchSize, int parallelism) {
+        IMap<Integer, Integer> map = instanceProxy.getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        Iterator<Entry<Integer, Integer>> iterator = getIterator(map, fetchSize, parallelism, Projections.identity(),
+                new EvenPredicate());
+        Map<Integer, Integer> actual = new HashMap<>();
+        while (iterator.hasNext()) {
+            Entry<Integer, Integer> entry = iterator.next();
+            assertNull(actual.put(entry.getKey(), entry.getValue()));
+        }
+
+        assertEquals(500, actual.size());
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, (int) actual.get(i));
+        }
+    }
+
+    private static class EvenPredicate implements Predicate<Integer, Integer> {
+        @Override
+        public boolean apply(Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
+    private static class ValueProjection implements Projection<Entry<Integer, Integer>, Integer> {
+        @Override
+        public Integer transform(Entry<Integer, Integer> input) {
+            return input.getValue();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PLAN_CACHE_SIZE;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LocalMapQueryPlanCacheStatsTest extends HazelcastTestSupport {
+
+    @Test
+    public void testHitsAndMisses() {
+        Config config = smallInstanceConfig();
+        config.setProperty(QUERY_PLAN_CACHE_SIZE.getName(), "100");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        map.addIndex(IndexType.SORTED, "this");
+        for (int i = 0; i < 100; ++i) {
+            map.put(i, i);
+        }
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(10, map.values(Predicates.sql("this >= 10 and this < 20")).size());
+        }
+        assertEquals(9, map.getLocalMapStats().getQueryPlanCacheHitCount());
+        assertEquals(1, map.getLocalMapStats().getQueryPlanCacheMissCount());
+
+        // the index addition invalidates the cached predicates
+        map.addIndex(IndexType.HASH, "__key");
+        assertEquals(10, map.values(Predicates.sql("this >= 10 and this < 20")).size());
+        assertEquals(9, map.getLocalMapStats().getQueryPlanCacheHitCount());
+        assertEquals(2, map.getLocalMapStats().getQueryPlanCacheMissCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        map.put(1, 1);
+
+        map.values(Predicates.sql("this = 1"));
+        map.values(Predicates.sql("this = 1"));
+        assertEquals(0, map.getLocalMapStats().getQueryPlanCacheHitCount());
+        assertEquals(0, map.getLocalMapStats().getQueryPlanCacheMissCount());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.proxy.MapBatch;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapBatchTest extends HazelcastTestSupport {
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance[] instances;
+    private MapProxyImpl<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        factory = createHazelcastInstanceFactory(2);
+        Config config = smallInstanceConfig();
+        instances = factory.newInstances(config, 2);
+        map = (MapProxyImpl<Integer, Integer>) instances[0].<Integer, Integer>getMap(randomMapName());
+    }
+
+    @Test
+    public void testResultsInBatchOrder() {
+        for (int i = 0; i < 50; i++) {
+            map.put(i, i);
+        }
+
+        MapBatch<Integer, Integer> batch = map.newBatch();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            switch (i % 4) {
+                case 0:
+                    batch.get(i);
+                    expected.add(i < 50 ? i : null);
+                    break;
+                case 1:
+                    batch.set(i, -i);
+                    expected.add(null);
+                    break;
+                case 2:
+                    batch.delete(i);
+                    expected.add(i < 50);
+                    break;
+                default:
+                    batch.executeOnKey(i, new IncrementingEntryProcessor());
+                    expected.add(i < 50 ? i + 1 : null);
+                    break;
+            }
+        }
+        assertEquals(100, batch.size());
+        assertEquals(expected, batch.execute().join());
+
+        for (int i = 0; i < 100; i++) {
+            switch (i % 4) {
+                case 0:
+                    assertEquals(i < 50 ? (Integer) i : null, map.get(i));
+                    break;
+                case 1:
+                    assertEquals(-i, (int) map.get(i));
+                    break;
+                case 2:
+                    assertNull(map.get(i));
+                    break;
+                default:
+                    assertEquals(i < 50 ? (Integer) (i + 1) : null, map.get(i));
+                    break;
+            }
+        }
+    }
+
+    @Test
+    public void testOperationsOnSameKey_appliedInOrder() {
+        List<Object> results = map.newBatch()
+                .set(1, 1)
+                .executeOnKey(1, new IncrementingEntryProcessor())
+                .get(1)
+                .delete(1)
+                .get(1)
+                .execute().join();
+
+        assertEquals(asList(null, 2, 2, true, null), results);
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertEquals(emptyList(), map.newBatch().execute().join());
+    }
+
+    @Test
+    public void testNullKey_rejected() {
+        assertThrows(NullPointerException.class, () -> map.newBatch().get(null));
+        assertThrows(NullPointerException.class, () -> map.newBatch().set(1, null));
+    }
+
+    @Test
+    public void testEventsPublished() {
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        map.addEntryListener(new CountingListener(added, updated, removed), true);
+        map.put(2, 2);
+
+        map.newBatch()
+                .set(1, 1)
+                .set(2, 3)
+                .delete(2)
+                .executeOnKey(3, new IncrementingEntryProcessor())
+                .execute().join();
+
+        assertTrueEventually(() -> {
+            assertEquals(2, added.get());
+            assertEquals(1, updated.get());
+            assertEquals(1, removed.get());
+        });
+    }
+
+    @Test
+    public void testBackupsReplicated() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        MapBatch<Integer, Integer> batch = map.newBatch();
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 == 0) {
+                batch.delete(i);
+            } else if (i % 3 == 1) {
+                batch.set(i, -i);
+            } else {
+                batch.executeOnKey(i, new IncrementingEntryProcessor());
+            }
+        }
+        batch.execute().join();
+
+        instances[0].getLifecycleService().terminate();
+        IMap<Integer, Integer> survivingMap = instances[1].getMap(map.getName());
+        assertEquals(66, survivingMap.size());
+        for (int i = 0; i < 100; i++) {
+            Integer expected = i % 3 == 0 ? null : i % 3 == 1 ? -i : i + 1;
+            assertEquals(expected, survivingMap.get(i));
+        }
+    }
+
+    private static class IncrementingEntryProcessor implements EntryProcessor<Integer, Integer, Integer> {
+
+        @Override
+        public Integer process(java.util.Map.Entry<Integer, Integer> entry) {
+            if (entry.getValue() == null) {
+                return null;
+            }
+            entry.setValue(entry.getValue() + 1);
+            return entry.getValue();
+        }
+    }
+
+    private static class CountingListener implements EntryAddedListener<Integer, Integer>,
+            EntryUpdatedListener<Integer, Integer>, EntryRemovedListener<Integer, Integer> {
+
+        private final AtomicInteger added;
+        private final AtomicInteger updated;
+        private final AtomicInteger removed;
+
+        CountingListener(AtomicInteger added, AtomicInteger updated, AtomicInteger removed) {
+            this.added = added;
+            this.updated = updated;
+            this.removed = removed;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<Integer, Integer> event) {
+            added.incrementAndGet();
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Integer, Integer> event) {
+            updated.incrementAndGet();
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<Integer, Integer> event) {
+            removed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.OffHeapStorageImpl;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_STORAGE_MAP_NAMES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testStorageIsSelectedByMapName() {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        instance.getMap("offheap-map").put(1, 1);
+        instance.getMap("heap-map").put(1, 1);
+
+        assertTrue(getStorage(instance, "offheap-map", 1) instanceof OffHeapStorageImpl);
+        assertFalse(getStorage(instance, "heap-map", 1) instanceof OffHeapStorageImpl);
+    }
+
+    @Test
+    public void testBasicOperations() {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        IMap<Integer, String> map = instance.getMap("offheap-map");
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "updated-and-much-longer-value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        assertNull(map.get(0));
+        assertEquals("updated-and-much-longer-value-1", map.get(1));
+        assertEquals(ENTRY_COUNT / 2, map.keySet().size());
+        assertEquals(1, map.values(Predicates.equal("this", "updated-and-much-longer-value-1")).size());
+
+        EntryView<Integer, String> entryView = map.getEntryView(1);
+        assertEquals(1, entryView.getVersion());
+        assertTrue(entryView.getCreationTime() > 0);
+        assertTrue(map.getLocalMapStats().getOwnedEntryMemoryCost() > 0);
+    }
+
+    @Test
+    public void testEviction() {
+        Config config = getConfig();
+        config.getMapConfig("offheap-map").getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("offheap-map");
+
+        for (int i = 0; i < ENTRY_COUNT * 10; i++) {
+            map.put(i, i);
+        }
+
+        assertTrue(map.size() < ENTRY_COUNT * 10);
+    }
+
+    @Test
+    public void testExpiry() {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance.getMap("offheap-map");
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 1, TimeUnit.SECONDS);
+        }
+
+        assertTrueEventually(() -> {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                assertNull(map.get(i));
+            }
+        });
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testMigrationAndBackups() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap("offheap-map");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> map2 = instance2.getMap("offheap-map");
+        assertEquals(ENTRY_COUNT, map2.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map2.get(i));
+        }
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(MAP_OFF_HEAP_STORAGE_MAP_NAMES.getName(), "offheap-*");
+        config.addMapConfig(new MapConfig("offheap-*").setInMemoryFormat(InMemoryFormat.BINARY));
+        return config;
+    }
+
+    private static Object getStorage(HazelcastInstance instance, String mapName, Object key) {
+        MapServiceContext mapServiceContext = ((MapService) getNodeEngineImpl(instance)
+                .getService(MapService.SERVICE_NAME)).getMapServiceContext();
+        int partitionId = instance.getPartitionService().getPartition(key).getPartitionId();
+        RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapName);
+        return recordStore.getStorage();
+    }
+}
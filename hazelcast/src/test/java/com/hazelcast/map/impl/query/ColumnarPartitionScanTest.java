@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COLUMNAR_SCAN_MAP_NAMES;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarPartitionScanTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int MAX_PARTITION_ENTRIES = ENTRY_COUNT;
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Item> columnarMap;
+    private IMap<Integer, Item> rowMap;
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        config.setProperty(MAP_COLUMNAR_SCAN_MAP_NAMES.getName(), "columnar-*");
+        config.setProperty(MAP_COLUMNAR_SCAN_MAX_PARTITION_ENTRIES.getName(), String.valueOf(MAX_PARTITION_ENTRIES));
+        instance = createHazelcastInstance(config);
+        columnarMap = instance.getMap("columnar-map");
+        rowMap = instance.getMap("row-map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            Item item = new Item(i % 100, i, i / 4.0, i % 3 == 0 ? null : i % 10);
+            columnarMap.put(i, item);
+            rowMap.put(i, item);
+        }
+    }
+
+    @Test
+    public void testPredicates_matchRowScan() {
+        warmUp();
+
+        List<Predicate<Integer, Item>> predicates = Arrays.asList(
+                Predicates.alwaysTrue(),
+                Predicates.equal("intValue", 42),
+                Predicates.equal("longValue", "7"),
+                Predicates.equal("nullableValue", null),
+                Predicates.greaterThan("doubleValue", 100),
+                Predicates.lessEqual("longValue", 10L),
+                Predicates.between("intValue", 10, 20),
+                Predicates.sql("intValue >= 10 and intValue < 20 and doubleValue > 50.5"),
+                Predicates.or(Predicates.equal("intValue", 1), Predicates.greaterEqual("nullableValue", 8)),
+                Predicates.not(Predicates.lessThan("nullableValue", 5)),
+                Predicates.equal("intValue", 1.5),
+                Predicates.notEqual("intValue", 1),
+                Predicates.like("name", "item-1%"));
+        for (Predicate<Integer, Item> predicate : predicates) {
+            assertEquals(predicate.toString(), rowMap.keySet(predicate), columnarMap.keySet(predicate));
+            assertEquals(predicate.toString(), rowMap.entrySet(predicate), columnarMap.entrySet(predicate));
+        }
+    }
+
+    @Test
+    public void testAggregations_matchRowScan() {
+        warmUp();
+
+        Predicate<Integer, Item> predicate = Predicates.greaterThan("intValue", 50);
+        assertEquals(rowMap.aggregate(Aggregators.count()), columnarMap.aggregate(Aggregators.count()));
+        assertEquals(rowMap.aggregate(Aggregators.count(), predicate), columnarMap.aggregate(Aggregators.count(), predicate));
+        assertEquals(rowMap.aggregate(Aggregators.count("nullableValue")),
+                columnarMap.aggregate(Aggregators.count("nullableValue")));
+        assertEquals(rowMap.aggregate(Aggregators.integerSum("intValue"), predicate),
+                columnarMap.aggregate(Aggregators.integerSum("intValue"), predicate));
+        assertEquals(rowMap.aggregate(Aggregators.longSum("longValue"), predicate),
+                columnarMap.aggregate(Aggregators.longSum("longValue"), predicate));
+        assertEquals(rowMap.aggregate(Aggregators.longAvg("intValue")),
+                columnarMap.aggregate(Aggregators.longAvg("intValue")));
+        assertEquals(rowMap.aggregate(Aggregators.doubleSum("doubleValue"), predicate),
+                columnarMap.aggregate(Aggregators.doubleSum("doubleValue"), predicate));
+        assertEquals(rowMap.aggregate(Aggregators.doubleAvg("doubleValue")),
+                columnarMap.aggregate(Aggregators.doubleAvg("doubleValue")));
+        assertEquals(rowMap.aggregate(Aggregators.integerMax("intValue")),
+                columnarMap.aggregate(Aggregators.integerMax("intValue")));
+    }
+
+    @Test
+    public void testScan_fallsBackOnUnsupportedPredicates() {
+        warmUp();
+        PartitionColumns.Rows rows = getPartitionColumns(0).getRows();
+
+        assertTrue(scan(rows, Predicates.sql("intValue >= 10 and doubleValue > 50.5 or nullableValue = 1")));
+        assertTrue(scan(rows, Predicates.not(Predicates.equal("nullableValue", null))));
+        assertFalse(scan(rows, Predicates.equal("intValue", 1.5)));
+        assertFalse(scan(rows, Predicates.notEqual("intValue", 1)));
+        assertFalse(scan(rows, Predicates.greaterThan("name", "a")));
+        assertFalse(scan(rows, Predicates.and(Predicates.equal("intValue", 1), Predicates.like("name", "item-1%"))));
+    }
+
+    @Test
+    public void testMutation_dropsSnapshot() {
+        warmUp();
+        PartitionColumns columns = getPartitionColumns(0);
+
+        columnarMap.put(0, new Item(1000, 1000, 1000, 1000));
+
+        assertNull(columns.getRows());
+        assertEquals(1, columnarMap.keySet(Predicates.equal("intValue", 1000)).size());
+        warmUp();
+        assertEquals(1, columnarMap.keySet(Predicates.equal("intValue", 1000)).size());
+
+        columnarMap.remove(0);
+        assertNull(columns.getRows());
+        assertEquals(0, columnarMap.keySet(Predicates.equal("intValue", 1000)).size());
+    }
+
+    @Test
+    public void testExpiringEntries_notSnapshotted() {
+        columnarMap.put(0, new Item(0, 0, 0, 0), 1, TimeUnit.HOURS);
+        PartitionColumns columns = getPartitionColumns(0);
+
+        for (int i = 0; i < 3; ++i) {
+            columnarMap.aggregate(Aggregators.count());
+        }
+
+        assertNull(columns.getRows());
+        assertEquals(ENTRY_COUNT, (long) columnarMap.aggregate(Aggregators.count()));
+    }
+
+    @Test
+    public void testLargePartitions_notSnapshotted() {
+        int partitionId = instance.getPartitionService().getPartition(0).getPartitionId();
+        int added = 0;
+        for (int key = ENTRY_COUNT; added <= MAX_PARTITION_ENTRIES; ++key) {
+            if (instance.getPartitionService().getPartition(key).getPartitionId() == partitionId) {
+                columnarMap.put(key, new Item(0, 0, 0, 0));
+                ++added;
+            }
+        }
+        PartitionColumns columns = getPartitionColumnsOfPartition(partitionId);
+
+        for (int i = 0; i < 3; ++i) {
+            columnarMap.aggregate(Aggregators.count());
+        }
+
+        assertNull(columns.getRows());
+        assertEquals(ENTRY_COUNT + added, (long) columnarMap.aggregate(Aggregators.count()));
+    }
+
+    /**
+     * Runs queries until the snapshots of all the partitions are built.
+     */
+    private void warmUp() {
+        int partitionCount = instance.getPartitionService().getPartitions().size();
+        assertTrueEventually(() -> {
+            columnarMap.aggregate(Aggregators.count());
+            for (int partitionId = 0; partitionId < partitionCount; ++partitionId) {
+                PartitionColumns columns = getPartitionColumnsOfPartition(partitionId);
+                if (columns != null) {
+                    assertNotNull(columns.getRows());
+                }
+            }
+        });
+    }
+
+    private boolean scan(PartitionColumns.Rows rows, Predicate predicate) {
+        MapContainer mapContainer = getMapServiceContext().getMapContainer(columnarMap.getName());
+        InternalSerializationService ss = getSerializationService(instance);
+        AggregationResult result = new AggregationResult(Aggregators.count(), ss);
+        return new ColumnarPartitionScan(rows, ss, mapContainer.getExtractors()).run(predicate, result);
+    }
+
+    private MapServiceContext getMapServiceContext() {
+        return ((MapService) getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME)).getMapServiceContext();
+    }
+
+    private PartitionColumns getPartitionColumns(int key) {
+        return getPartitionColumnsOfPartition(instance.getPartitionService().getPartition(key).getPartitionId());
+    }
+
+    private PartitionColumns getPartitionColumnsOfPartition(int partitionId) {
+        RecordStore recordStore = getMapServiceContext().getExistingRecordStore(partitionId, columnarMap.getName());
+        return recordStore == null ? null : recordStore.getPartitionColumns();
+    }
+
+    private static class Item implements Serializable {
+
+        private final int intValue;
+        private final long longValue;
+        private final double doubleValue;
+        private final Integer nullableValue;
+        private final String name;
+
+        Item(int intValue, long longValue, double doubleValue, Integer nullableValue) {
+            this.intValue = intValue;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+            this.nullableValue = nullableValue;
+            this.name = "item-" + intValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Item item = (Item) o;
+            return intValue == item.intValue && longValue == item.longValue && name.equals(item.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return intValue;
+        }
+    }
+}
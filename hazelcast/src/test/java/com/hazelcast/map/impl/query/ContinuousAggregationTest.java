@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ContinuousAggregationTest extends HazelcastTestSupport {
+
+    private static final Predicate<Integer, Employee> PREDICATE = Predicates.greaterEqual("age", 30);
+
+    @Test
+    public void testUngrouped_followsMutations() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.BINARY);
+        fill(map, 100);
+        map.continuousAggregations().add("salaries", Aggregators.longSum("salary"), PREDICATE, null);
+        assertSalarySum(map);
+
+        fill(map, 150);
+        assertSalarySum(map);
+
+        for (int i = 0; i < 150; i += 3) {
+            map.remove(i);
+        }
+        for (int i = 1; i < 150; i += 3) {
+            map.set(i, new Employee("dept" + i % 2, i % 40 + 10, 2 * i));
+        }
+        map.delete(2);
+        assertSalarySum(map);
+
+        map.clear();
+        assertEquals(0L, (long) map.continuousAggregations().get("salaries"));
+    }
+
+    @Test
+    public void testGrouped_followsMutations() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.OBJECT);
+        fill(map, 100);
+        map.continuousAggregations().add("counts", Aggregators.count(), PREDICATE, "department");
+        assertDepartmentCounts(map);
+
+        for (int i = 0; i < 100; i += 2) {
+            map.remove(i);
+        }
+        map.put(1, new Employee("dept9", 50, 1));
+        assertDepartmentCounts(map);
+    }
+
+    @Test
+    public void testNonDeaccumulatingAggregator_rescansAfterRemoval() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.BINARY);
+        fill(map, 100);
+        map.continuousAggregations().add("max", Aggregators.longMax("salary"), Predicates.alwaysTrue(), null);
+        assertEquals(99L, (long) map.continuousAggregations().get("max"));
+
+        map.remove(99);
+        map.remove(98);
+        assertEquals(97L, (long) map.continuousAggregations().get("max"));
+
+        map.put(1000, new Employee("dept0", 20, 1000));
+        assertEquals(1000L, (long) map.continuousAggregations().get("max"));
+    }
+
+    @Test
+    public void testAverage_emptyMap() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.BINARY);
+        map.continuousAggregations().add("avg", Aggregators.longAvg("salary"), PREDICATE, null);
+        assertEquals(null, map.continuousAggregations().get("avg"));
+
+        fill(map, 10);
+        assertEquals(map.aggregate(Aggregators.longAvg("salary"), PREDICATE), map.continuousAggregations().get("avg"));
+    }
+
+    @Test
+    public void testRemove() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.BINARY);
+        map.continuousAggregations().add("count", Aggregators.count(), PREDICATE, null);
+
+        assertTrue(map.continuousAggregations().remove("count"));
+        assertFalse(map.continuousAggregations().remove("count"));
+        assertThrows(IllegalArgumentException.class, () -> map.continuousAggregations().get("count"));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        MapProxyImpl<Integer, Employee> map = createMap(InMemoryFormat.BINARY);
+
+        assertThrows(IllegalArgumentException.class, () -> map.continuousAggregations().get("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> map.continuousAggregations().add("paging",
+                Aggregators.count(), Predicates.pagingPredicate(10), null));
+        assertThrows(IllegalArgumentException.class, () -> map.continuousAggregations().add("any",
+                Aggregators.count(), PREDICATE, "skills[any]"));
+    }
+
+    @Test
+    public void testStateSurvivesMigrationAndMemberLoss() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        Config config = smallInstanceConfig().setProperty(PARTITION_COUNT.getName(), "11");
+        HazelcastInstance first = factory.newHazelcastInstance(config);
+        MapProxyImpl<Integer, Employee> map = (MapProxyImpl<Integer, Employee>) first.<Integer, Employee>getMap(
+                randomMapName());
+        fill(map, 200);
+        map.continuousAggregations().add("salaries", Aggregators.longSum("salary"), PREDICATE, null);
+        map.continuousAggregations().add("counts", Aggregators.count(), PREDICATE, "department");
+        assertSalarySum(map);
+
+        // migrations to the new members
+        HazelcastInstance second = factory.newHazelcastInstance(config);
+        HazelcastInstance third = factory.newHazelcastInstance(config);
+        waitAllForSafeState(first, second, third);
+        for (int i = 0; i < 200; i += 5) {
+            map.remove(i);
+        }
+        assertSalarySum(map);
+        assertDepartmentCounts(map);
+
+        // promotions of the backups
+        first.getLifecycleService().terminate();
+        waitAllForSafeState(second, third);
+        MapProxyImpl<Integer, Employee> survivingMap = (MapProxyImpl<Integer, Employee>) second.<Integer, Employee>getMap(
+                map.getName());
+        assertSalarySum(survivingMap);
+        assertDepartmentCounts(survivingMap);
+    }
+
+    private MapProxyImpl<Integer, Employee> createMap(InMemoryFormat inMemoryFormat) {
+        Config config = smallInstanceConfig();
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setInMemoryFormat(inMemoryFormat);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        return (MapProxyImpl<Integer, Employee>) instance.<Integer, Employee>getMap(mapName);
+    }
+
+    private static void fill(IMap<Integer, Employee> map, int count) {
+        for (int i = 0; i < count; ++i) {
+            map.put(i, new Employee("dept" + i % 3, i % 50 + 10, i));
+        }
+    }
+
+    private static void assertSalarySum(MapProxyImpl<Integer, Employee> map) {
+        long expected = map.aggregate(Aggregators.longSum("salary"), PREDICATE);
+        assertEquals(expected, (long) map.continuousAggregations().get("salaries"));
+    }
+
+    private static void assertDepartmentCounts(MapProxyImpl<Integer, Employee> map) {
+        Map<Object, Long> expected = new HashMap<>();
+        for (Employee employee : map.values(PREDICATE)) {
+            expected.merge(employee.department, 1L, Long::sum);
+        }
+        assertEquals(expected, map.continuousAggregations().getGrouped("counts"));
+    }
+
+    private static class Employee implements Serializable {
+
+        private final String department;
+        private final int age;
+        private final long salary;
+
+        Employee(String department, int age, long salary) {
+            this.department = department;
+            this.age = age;
+            this.salary = salary;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.impl.UnsafeMalloc;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.OffHeapDataRecord;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageImplTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private SerializationService ss;
+    private OffHeapDataRecordFactory recordFactory;
+    private OffHeapStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        recordFactory = new OffHeapDataRecordFactory(ss, UnsafeMalloc.INSTANCE, MEM);
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        storage = new OffHeapStorageImpl(recordFactory, expirySystem, ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void testPutAndGet_whenTableIsResized() {
+        putEntries(ENTRY_COUNT);
+
+        assertEquals(ENTRY_COUNT, storage.size());
+        assertTrue(storage.capacity() > OffHeapStorageImpl.DEFAULT_INITIAL_CAPACITY);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Data key = ss.toData(i);
+            assertTrue(storage.containsKey(key));
+            assertEquals("value-" + i, ss.toObject(storage.get(key).getValue()));
+        }
+        assertNull(storage.get(ss.toData(ENTRY_COUNT)));
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord(key, "old"));
+        storage.put(key, newRecord(key, "new"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals("new", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testRemove_keepsOtherEntriesReachable() {
+        putEntries(ENTRY_COUNT);
+
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(ENTRY_COUNT / 2, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(ss.toData(i)));
+        }
+    }
+
+    @Test
+    public void testUpdateRecordValue_inPlace() {
+        Data key = ss.toData(1);
+        OffHeapDataRecord record = newRecord(key, "value-1");
+        storage.put(key, record);
+        long address = record.address();
+
+        storage.updateRecordValue(key, record, "value-2");
+
+        assertEquals(address, record.address());
+        assertEquals("value-2", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testUpdateRecordValue_relocatesRecord_whenValueDoesNotFit() {
+        Data key = ss.toData(1);
+        OffHeapDataRecord record = newRecord(key, "value");
+        record.setVersion(3);
+        record.setHits(5);
+        record.setCreationTime(System.currentTimeMillis());
+        storage.put(key, record);
+        long address = record.address();
+        long creationTime = record.getCreationTime();
+
+        String biggerValue = "bigger-value-which-does-not-fit-into-the-old-block";
+        storage.updateRecordValue(key, record, biggerValue);
+        storage.disposeDeferredBlocks();
+
+        assertNotEquals(address, record.address());
+        OffHeapDataRecord stored = storage.get(key);
+        assertEquals(record, stored);
+        assertEquals(biggerValue, ss.toObject(stored.getValue()));
+        assertEquals(3, stored.getVersion());
+        assertEquals(5, stored.getHits());
+        assertEquals(creationTime, stored.getCreationTime());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_visitsAllEntries_whileRemoving() {
+        putEntries(ENTRY_COUNT);
+
+        Set<Object> keys = new HashSet<>();
+        Iterator<Map.Entry<Data, OffHeapDataRecord>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, OffHeapDataRecord> entry = iterator.next();
+            keys.add(ss.toObject(entry.getKey()));
+            storage.removeRecord(entry.getKey(), entry.getValue());
+        }
+        storage.disposeDeferredBlocks();
+
+        assertTrue(storage.isEmpty());
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void testFetchKeys() {
+        putEntries(ENTRY_COUNT);
+
+        Set<Data> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        do {
+            MapKeysWithCursor batch = storage.fetchKeys(pointers, 100);
+            for (Data key : batch.getBatch()) {
+                assertTrue("Duplicate key " + key, keys.add(key));
+            }
+            pointers = batch.getIterationPointers();
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void testFetchEntries() {
+        putEntries(10);
+
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        MapEntriesWithCursor batch = storage.fetchEntries(pointers, 100);
+
+        assertEquals(10, batch.getBatch().size());
+        for (Map.Entry<Data, Data> entry : batch.getBatch()) {
+            assertEquals("value-" + ss.toObject(entry.getKey()), ss.toObject(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        putEntries(ENTRY_COUNT);
+
+        int sampleCount = 0;
+        for (EntryView sample : storage.getRandomSamples(15)) {
+            Data key = storage.extractDataKeyFromLazy(sample);
+            assertTrue(storage.containsKey(key));
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void testCostEstimate() {
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+
+        putEntries(ENTRY_COUNT);
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+        storage.disposeDeferredBlocks();
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testClear_storageIsReusable() {
+        putEntries(ENTRY_COUNT);
+
+        storage.clear(false);
+        assertTrue(storage.isEmpty());
+        assertFalse(storage.containsKey(ss.toData(1)));
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+
+        putEntries(10);
+        assertEquals(10, storage.size());
+    }
+
+    private void putEntries(int count) {
+        for (int i = 0; i < count; i++) {
+            Data key = ss.toData(i);
+            storage.put(key, newRecord(key, "value-" + i));
+        }
+    }
+
+    private OffHeapDataRecord newRecord(Data key, Object value) {
+        return (OffHeapDataRecord) recordFactory.newRecord(key, value);
+    }
+}
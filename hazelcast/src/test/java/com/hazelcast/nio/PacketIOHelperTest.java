@@ -18,6 +18,7 @@ package com.hazelcast.nio;
 
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -47,6 +48,7 @@ import static com.hazelcast.internal.util.JVMUtil.upcast;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -189,6 +191,35 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void testPacketWriteRead_withPooledPayload() {
+        PacketPayloadPool payloadPool = new PacketPayloadPool(64, 1 << 16);
+        PacketIOHelper pooledPacketReader = new PacketIOHelper(payloadPool);
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        String value = generateRandomString(1000);
+        Packet originalPacket = new Packet(ss.toBytes(value), 1).setPacketType(Packet.Type.OPERATION);
+
+        ByteBuffer buffer = ByteBuffer.allocate(originalPacket.getFrameLength());
+        assertTrue(packetWriter.writeTo(originalPacket, buffer));
+        upcast(buffer).flip();
+        Packet clonedPacket = pooledPacketReader.readFrom(buffer);
+
+        assertNotNull(clonedPacket);
+        byte[] pooledPayload = clonedPacket.toByteArray();
+        assertEquals(1024, pooledPayload.length);
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(originalPacket.getPartitionId(), clonedPacket.getPartitionId());
+        assertEquals(value, ss.toObject(clonedPacket));
+
+        // the payload is reused by the next packet once it's released
+        clonedPacket.release();
+        assertEquals(0, clonedPacket.totalSize());
+        upcast(buffer).clear();
+        assertTrue(packetWriter.writeTo(originalPacket, buffer));
+        upcast(buffer).flip();
+        assertSame(pooledPayload, pooledPacketReader.readFrom(buffer).toByteArray());
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.internal.monitor.impl.IndexOperationStats.EMPTY;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BPlusTreeIndexStoreTest {
+
+    private static final int KEY_COUNT = 5000;
+    private static final int VALUE_COUNT = 300;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final BPlusTreeIndexStore store = new BPlusTreeIndexStore(IndexCopyBehavior.COPY_ON_READ);
+    private final OrderedIndexStore expected = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+
+    @Test
+    public void testRandomUpdates_matchSkipListStore() {
+        Random random = new Random(42);
+        CachedQueryEntry[] entries = new CachedQueryEntry[KEY_COUNT];
+        Integer[] values = new Integer[KEY_COUNT];
+        for (int i = 0; i < 8 * KEY_COUNT; ++i) {
+            int key = random.nextInt(KEY_COUNT);
+            Integer value = random.nextInt(10) == 0 ? null : random.nextInt(VALUE_COUNT);
+            if (entries[key] == null) {
+                entries[key] = entry(key);
+                insert(value, entries[key]);
+            } else if (random.nextInt(4) == 0) {
+                remove(values[key], entries[key]);
+                entries[key] = null;
+            } else {
+                update(values[key], value, entries[key]);
+            }
+            values[key] = value;
+
+            if (i % (2 * KEY_COUNT) == 0) {
+                assertSameRecords();
+            }
+        }
+        assertSameRecords();
+    }
+
+    @Test
+    public void testSqlIterator_ascendingOrder() {
+        fill();
+
+        Comparable previousValue = null;
+        int count = 0;
+        for (Iterator<IndexKeyEntries> it = store.getSqlRecordIteratorBatch(false); it.hasNext(); ) {
+            IndexKeyEntries batch = it.next();
+            Comparable value = batch.getIndexKey();
+            if (value != null) {
+                if (previousValue != null) {
+                    assertTrue(Comparables.compare(previousValue, value) < 0);
+                }
+                previousValue = value;
+            }
+            count += drain(batch).size();
+        }
+        assertEquals(KEY_COUNT, count);
+    }
+
+    @Test
+    public void testSqlIterator_descendingRange() {
+        fill();
+
+        List<Comparable> batchValues = new ArrayList<>();
+        Iterator<IndexKeyEntries> it = store.getSqlRecordIteratorBatch(10, false, 20, true, true);
+        while (it.hasNext()) {
+            batchValues.add(it.next().getIndexKey());
+        }
+        assertEquals(Arrays.asList(20, 19, 18, 17, 16, 15, 14, 13, 12, 11), batchValues);
+    }
+
+    @Test
+    public void testSqlIterator_continuesAfterConcurrentUpdates() {
+        fill();
+        Iterator<QueryableEntry> iterator = store.getSqlRecordIterator(Comparison.GREATER_OR_EQUAL, 0, false);
+        Set<Integer> seen = new HashSet<>();
+        int lastValue = 0;
+        for (int i = 0; i < KEY_COUNT / 2; ++i) {
+            int key = ss.toObject(iterator.next().getKeyData());
+            assertTrue(seen.add(key));
+            lastValue = key % VALUE_COUNT;
+        }
+
+        // add the entries before and after the cursor position and remove
+        // the entries right after it
+        Set<Integer> expectedRemaining = new HashSet<>();
+        for (int key = KEY_COUNT; key < KEY_COUNT + 100; ++key) {
+            if (key % 2 == 0) {
+                insert(-1, entry(key));
+            } else {
+                insert(VALUE_COUNT, entry(key));
+                expectedRemaining.add(key);
+            }
+        }
+        for (int key = 0; key < KEY_COUNT; ++key) {
+            int value = key % VALUE_COUNT;
+            if (value > lastValue && value <= lastValue + VALUE_COUNT / 4) {
+                remove(value, entry(key));
+            } else if (value >= lastValue && !seen.contains(key)) {
+                expectedRemaining.add(key);
+            }
+        }
+
+        Set<Integer> remaining = new HashSet<>();
+        while (iterator.hasNext()) {
+            int key = ss.toObject(iterator.next().getKeyData());
+            assertFalse(seen.contains(key));
+            assertTrue(remaining.add(key));
+        }
+        assertEquals(expectedRemaining, remaining);
+    }
+
+    @Test
+    public void testMultiValueRecords_deduplicated() {
+        CachedQueryEntry entry = entry(1);
+        store.insert(new MultiResult<>(Arrays.asList(1, 2, 3)), entry, entry, EMPTY);
+
+        assertEquals(1, store.getRecords(Comparison.GREATER, 0).size());
+        assertEquals(1, store.getRecords(new HashSet<>(Arrays.asList(1, 3))).size());
+        assertEquals(1, store.getRecords(1, true, 3, true).size());
+        assertTrue(store.getRecords(2).contains(entry));
+
+        store.remove(new MultiResult<>(Arrays.asList(1, 2)), entry, EMPTY);
+        assertTrue(store.getRecords(1).isEmpty());
+        assertEquals(1, store.getRecords(3).size());
+    }
+
+    @Test
+    public void testClear() {
+        fill();
+        store.clear();
+
+        assertTrue(store.getRecords(Comparison.GREATER_OR_EQUAL, 0).isEmpty());
+        assertTrue(store.getRecords(NULL).isEmpty());
+        assertFalse(store.getSqlRecordIterator(false).hasNext());
+    }
+
+    private void fill() {
+        for (int key = 0; key < KEY_COUNT; ++key) {
+            insert(key % VALUE_COUNT, entry(key));
+        }
+    }
+
+    private void assertSameRecords() {
+        assertRecords(expected.getRecords(NULL), store.getRecords(NULL));
+        for (int value = -1; value <= VALUE_COUNT; value += 13) {
+            assertRecords(expected.getRecords(value), store.getRecords(value));
+            assertRecords(expected.getRecords(value, true, value + 20, false),
+                    store.getRecords(value, true, value + 20, false));
+            for (Comparison comparison : Comparison.values()) {
+                assertRecords(expected.getRecords(comparison, value), store.getRecords(comparison, value));
+            }
+        }
+        assertRecords(expected.getRecords(new HashSet<>(Arrays.asList(NULL, 5, 6, 400))),
+                store.getRecords(new HashSet<>(Arrays.asList(NULL, 5, 6, 400))));
+
+        for (boolean descending : new boolean[]{false, true}) {
+            Iterator<IndexKeyEntries> expectedBatches = expected.getSqlRecordIteratorBatch(descending);
+            Iterator<IndexKeyEntries> actualBatches = store.getSqlRecordIteratorBatch(descending);
+            while (expectedBatches.hasNext()) {
+                IndexKeyEntries expectedBatch = expectedBatches.next();
+                IndexKeyEntries actualBatch = actualBatches.next();
+                assertEquals(expectedBatch.getIndexKey(), actualBatch.getIndexKey());
+                assertEquals(drain(expectedBatch), drain(actualBatch));
+            }
+            assertFalse(actualBatches.hasNext());
+        }
+    }
+
+    private static void assertRecords(Set<QueryableEntry> expected, Set<QueryableEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    private static List<Data> drain(IndexKeyEntries batch) {
+        List<Data> keys = new ArrayList<>();
+        batch.getEntries().forEachRemaining(entry -> keys.add(entry.getKeyData()));
+        return keys;
+    }
+
+    private void insert(Object value, CachedQueryEntry entry) {
+        store.insert(value, entry, entry, EMPTY);
+        expected.insert(value, entry, entry, EMPTY);
+    }
+
+    private void update(Object oldValue, Object newValue, CachedQueryEntry entry) {
+        store.update(oldValue, newValue, entry, entry, EMPTY);
+        expected.update(oldValue, newValue, entry, entry, EMPTY);
+    }
+
+    private void remove(Object value, CachedQueryEntry entry) {
+        store.remove(value, entry, EMPTY);
+        expected.remove(value, entry, EMPTY);
+    }
+
+    private CachedQueryEntry entry(int key) {
+        Data keyData = ss.toData(key);
+        CachedQueryEntry entry = mock(CachedQueryEntry.class);
+        when(entry.getKeyData()).thenReturn(keyData);
+        return entry;
+    }
+}
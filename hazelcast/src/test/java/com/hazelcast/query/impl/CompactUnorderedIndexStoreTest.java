@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.monitor.impl.IndexOperationStats.EMPTY;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactUnorderedIndexStoreTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final CompactUnorderedIndexStore store = new CompactUnorderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+
+    @Test
+    public void testIntegralValues() {
+        CachedQueryEntry entry1 = insert(1, 42);
+        CachedQueryEntry entry2 = insert(2, 42L);
+        CachedQueryEntry entry3 = insert(3, Long.MAX_VALUE);
+
+        assertRecords(store.getRecords(42), entry1, entry2);
+        assertRecords(store.getRecords((short) 42), entry1, entry2);
+        assertRecords(store.getRecords(42.0), entry1, entry2);
+        assertRecords(store.getRecords(Long.MAX_VALUE), entry3);
+        assertRecords(store.getRecords(43));
+    }
+
+    @Test
+    public void testUuidValues() {
+        UUID uuid = UUID.randomUUID();
+        CachedQueryEntry entry1 = insert(1, uuid);
+        insert(2, UUID.randomUUID());
+
+        assertRecords(store.getRecords(new UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())), entry1);
+        assertRecords(store.getRecords(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testOtherValues() {
+        CachedQueryEntry entry1 = insert(1, "a");
+        CachedQueryEntry entry2 = insert(2, 1.5);
+        CachedQueryEntry entry3 = insert(3, "a");
+
+        assertRecords(store.getRecords("a"), entry1, entry3);
+        assertRecords(store.getRecords(1.5f), entry2);
+        assertRecords(store.getRecords("b"));
+    }
+
+    @Test
+    public void testNullValues() {
+        CachedQueryEntry entry1 = insert(1, null);
+        insert(2, 1);
+
+        assertRecords(store.getRecords(NULL), entry1);
+        assertRecords(store.getRecords(new HashSet<>(Arrays.asList(NULL, 2))), entry1);
+    }
+
+    @Test
+    public void testInsert_existingRecord_replacesIt() {
+        insert(1, 5);
+        CachedQueryEntry entry = entry(1);
+        store.insert(5, entry, entry, EMPTY);
+
+        Set<QueryableEntry> records = store.getRecords(5);
+        assertEquals(1, records.size());
+        assertSame(entry, records.iterator().next());
+    }
+
+    @Test
+    public void testUpdate() {
+        CachedQueryEntry entry = insert(1, 5);
+        CachedQueryEntry other = insert(2, 5);
+        store.update(5, "x", entry, entry, EMPTY);
+
+        assertRecords(store.getRecords(5), other);
+        assertRecords(store.getRecords("x"), entry);
+    }
+
+    @Test
+    public void testRemove() {
+        CachedQueryEntry entry1 = insert(1, 5);
+        CachedQueryEntry entry2 = insert(2, 5);
+        CachedQueryEntry entry3 = insert(3, 5);
+        store.remove(5, entry2, EMPTY);
+        assertRecords(store.getRecords(5), entry1, entry3);
+
+        store.remove(5, entry1, EMPTY);
+        store.remove(5, entry3, EMPTY);
+        assertRecords(store.getRecords(5));
+
+        // removal of the missing records is a no-op
+        store.remove(5, entry3, EMPTY);
+        store.remove(6, entry(4), EMPTY);
+    }
+
+    @Test
+    public void testMultiValueRecords() {
+        CachedQueryEntry entry1 = entry(1);
+        store.insert(new MultiResult<>(Arrays.asList(1, 2, 3)), entry1, entry1, EMPTY);
+        CachedQueryEntry entry2 = entry(2);
+        store.insert(new MultiResult<>(Arrays.asList(2, 3)), entry2, entry2, EMPTY);
+
+        assertRecords(store.getRecords(1), entry1);
+        assertRecords(store.getRecords(2), entry1, entry2);
+        assertRecords(store.getRecords(new HashSet<>(Arrays.asList(1, 2, 3))), entry1, entry2);
+        assertRecords(store.getRecords(Comparison.GREATER, 1), entry1, entry2);
+
+        store.remove(new MultiResult<>(Arrays.asList(1, 2)), entry1, EMPTY);
+        assertRecords(store.getRecords(1));
+        assertRecords(store.getRecords(2), entry2);
+        assertRecords(store.getRecords(3), entry1, entry2);
+    }
+
+    @Test
+    public void testComparisonAndRange() {
+        CachedQueryEntry[] entries = new CachedQueryEntry[10];
+        for (int i = 0; i < entries.length; ++i) {
+            entries[i] = insert(i, i);
+        }
+        insert(10, null);
+
+        assertRecords(store.getRecords(Comparison.LESS, 3), entries[0], entries[1], entries[2]);
+        assertRecords(store.getRecords(Comparison.GREATER_OR_EQUAL, 8L), entries[8], entries[9]);
+        assertRecords(store.getRecords(2, true, 4, false), entries[2], entries[3]);
+        assertRecords(store.getRecords(2, false, 4, true), entries[3], entries[4]);
+        assertRecords(store.getRecords(5, true, 5, true), entries[5]);
+        assertRecords(store.getRecords(5, true, 5, false));
+    }
+
+    @Test
+    public void testManyRecords() {
+        int count = 10_000;
+        CachedQueryEntry[] entries = new CachedQueryEntry[count];
+        for (int i = 0; i < count; ++i) {
+            entries[i] = insert(i, i % 100);
+        }
+        for (int i = 0; i < count; i += 2) {
+            store.remove(i % 100, entries[i], EMPTY);
+        }
+
+        for (int value = 0; value < 100; ++value) {
+            Set<QueryableEntry> records = store.getRecords(value);
+            assertEquals(value % 2 == 0 ? 0 : count / 100, records.size());
+            for (QueryableEntry record : records) {
+                assertEquals(value, ((int) ss.toObject(record.getKeyData())) % 100);
+            }
+        }
+        assertTrue(store.getRecords(99).contains(entries[count - 1]));
+        assertFalse(store.getRecords(99).contains(entries[count - 3]));
+
+        int total = 0;
+        for (Iterator<QueryableEntry> it = store.getSqlRecordIterator(false); it.hasNext(); it.next()) {
+            ++total;
+        }
+        assertEquals(count / 2, total);
+    }
+
+    @Test
+    public void testClear() {
+        insert(1, 1);
+        insert(2, UUID.randomUUID());
+        insert(3, "a");
+        insert(4, null);
+        store.clear();
+
+        assertRecords(store.getRecords(1));
+        assertRecords(store.getRecords("a"));
+        assertRecords(store.getRecords(NULL));
+        assertFalse(store.getSqlRecordIterator(false).hasNext());
+
+        CachedQueryEntry entry = insert(1, 1);
+        assertRecords(store.getRecords(1), entry);
+    }
+
+    private CachedQueryEntry insert(int key, Object value) {
+        CachedQueryEntry entry = entry(key);
+        store.insert(value, entry, entry, EMPTY);
+        return entry;
+    }
+
+    private CachedQueryEntry entry(int key) {
+        Data keyData = ss.toData(key);
+        CachedQueryEntry entry = mock(CachedQueryEntry.class);
+        when(entry.getKeyData()).thenReturn(keyData);
+        return entry;
+    }
+
+    private static void assertRecords(Set<QueryableEntry> records, QueryableEntry... expected) {
+        assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(records));
+        assertEquals(expected.length, records.size());
+        for (QueryableEntry entry : expected) {
+            assertTrue(records.contains(entry));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CoveredAttributesTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    @Test
+    public void testCapture() {
+        CachedQueryEntry<Integer, Value> entry = new CachedQueryEntry<>(ss, ss.toData(1), new Value(10, null), extractors);
+
+        CoveredAttributes covered = CoveredAttributes.capture(new String[]{"number", "text", "list[any]", "__key"},
+                entry);
+
+        assertEquals(10, covered.getValue("number"));
+        assertEquals(10, covered.getValue("this.number"));
+        assertNull(covered.getValue("text"));
+        assertEquals(1, covered.getValue("__key"));
+        assertSame(CoveredAttributes.NOT_COVERED, covered.getValue("list[any]"));
+        assertSame(CoveredAttributes.NOT_COVERED, covered.getValue("other"));
+    }
+
+    @Test
+    public void testEntryUsesCapturedValues() {
+        CachedQueryEntry<Integer, Value> newEntry = new CachedQueryEntry<>(ss, ss.toData(1), new Value(10, "a"), extractors);
+        QueryEntry storedEntry = new QueryEntry(ss, ss.toData(1), ss.toData(new Value(10, "a")), extractors);
+
+        storedEntry.setCoveredAttributes(CoveredAttributes.capture(new String[]{"text"}, newEntry));
+        newEntry.init(ss.toData(1), new Value(20, "b"));
+
+        assertEquals("a", storedEntry.getAttributeValue("text"));
+        assertEquals(10, storedEntry.getAttributeValue("number"));
+        assertEquals("b", newEntry.getAttributeValue("text"));
+    }
+
+    @Test
+    public void testInitResetsCapturedValues() {
+        QueryEntry entry = new QueryEntry(ss, ss.toData(1), new Value(10, "a"), extractors);
+        entry.setCoveredAttributes(CoveredAttributes.capture(new String[]{"text"}, entry));
+
+        entry.init(ss, ss.toData(1), new Value(10, "b"), extractors);
+
+        assertEquals("b", entry.getAttributeValue("text"));
+    }
+
+    static class Value implements Serializable {
+
+        int number;
+        String text;
+        List<Integer> list = Arrays.asList(1, 2);
+
+        Value(int number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MetadataPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COVERING_MAP_NAMES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CoveringIndexTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(INDEX_COVERING_MAP_NAMES.getName(), "covered*");
+        config.getMapConfig("default")
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER)
+                .setMetadataPolicy(MetadataPolicy.OFF)
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age", "name"))
+                .addIndexConfig(new IndexConfig(IndexType.HASH, "name"));
+        return config;
+    }
+
+    @Test
+    public void testProjection_doesNotDeserializeValues() {
+        IMap<Integer, Person> map = populate(createHazelcastInstance(), "covered");
+
+        Person.deserializationCount.set(0);
+        Collection<Object[]> result = map.project(Projections.multiAttribute("age", "this.name"),
+                Predicates.greaterEqual("age", ENTRY_COUNT / 2));
+
+        assertEquals(0, Person.deserializationCount.get());
+        Set<String> names = new HashSet<>();
+        for (Object[] row : result) {
+            assertEquals("name-" + row[0], row[1]);
+            names.add((String) row[1]);
+        }
+        assertEquals(ENTRY_COUNT / 2, names.size());
+    }
+
+    @Test
+    public void testAggregation_doesNotDeserializeValues() {
+        IMap<Integer, Person> map = populate(createHazelcastInstance(), "covered");
+
+        Person.deserializationCount.set(0);
+        long sum = map.aggregate(Aggregators.integerSum("age"), Predicates.equal("name", "name-42"));
+
+        assertEquals(0, Person.deserializationCount.get());
+        assertEquals(42, sum);
+    }
+
+    @Test
+    public void testProjection_afterUpdate() {
+        IMap<Integer, Person> map = populate(createHazelcastInstance(), "covered");
+        map.set(42, new Person(42, "updated"));
+
+        Collection<String> result = map.project(Projections.singleAttribute("name"), Predicates.equal("age", 42));
+
+        assertEquals(1, result.size());
+        assertEquals("updated", result.iterator().next());
+    }
+
+    @Test
+    public void testProjection_ofNotIndexedAttribute() {
+        IMap<Integer, Person> map = populate(createHazelcastInstance(), "covered");
+
+        Person.deserializationCount.set(0);
+        Collection<Integer> result = map.project(Projections.singleAttribute("height"), Predicates.equal("age", 42));
+
+        assertTrue(Person.deserializationCount.get() > 0);
+        assertEquals(1, result.size());
+        assertEquals(142, (int) result.iterator().next());
+    }
+
+    @Test
+    public void testProjection_whenCoveringDisabled() {
+        IMap<Integer, Person> map = populate(createHazelcastInstance(), "notCovered");
+
+        Person.deserializationCount.set(0);
+        Collection<String> result = map.project(Projections.singleAttribute("name"), Predicates.equal("age", 42));
+
+        assertTrue(Person.deserializationCount.get() > 0);
+        assertEquals(1, result.size());
+        assertEquals("name-42", result.iterator().next());
+    }
+
+    private static IMap<Integer, Person> populate(HazelcastInstance instance, String mapName) {
+        IMap<Integer, Person> map = instance.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.set(i, new Person(i, "name-" + i));
+        }
+        return map;
+    }
+
+    static class Person implements DataSerializable {
+
+        static final AtomicInteger deserializationCount = new AtomicInteger();
+
+        int age;
+        int height;
+        String name;
+
+        @SuppressWarnings("unused")
+        Person() {
+        }
+
+        Person(int age, String name) {
+            this.age = age;
+            this.height = age + 100;
+            this.name = name;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(age);
+            out.writeInt(height);
+            out.writeString(name);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            age = in.readInt();
+            height = in.readInt();
+            name = in.readString();
+
+            deserializationCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.query.impl.PrimitiveColumn.UNSUPPORTED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveColumnTest {
+
+    @Test
+    public void testBuild_withLeadingAndTrailingNulls() {
+        PrimitiveColumn column = build(null, null, 1, 2, null, 3, null, null);
+
+        assertEquals(Integer.class, column.getType());
+        assertEquals(8, column.size());
+        assertTrue(column.hasNulls());
+        assertTrue(column.isNull(0));
+        assertFalse(column.isNull(2));
+        assertEquals(3, column.getLongs()[5]);
+        assertTrue(column.getLongs().length >= 8);
+    }
+
+    @Test
+    public void testBuild_growsBeyondExpectedSize() {
+        PrimitiveColumn.Builder builder = new PrimitiveColumn.Builder(1);
+        for (long i = 0; i < 100; ++i) {
+            assertTrue(builder.add(i));
+        }
+        PrimitiveColumn column = builder.build();
+
+        assertEquals(Long.class, column.getType());
+        assertEquals(99, column.getLongs()[99]);
+        assertFalse(column.hasNulls());
+    }
+
+    @Test
+    public void testBuild_rejectsMixedAndUnsupportedTypes() {
+        PrimitiveColumn.Builder builder = new PrimitiveColumn.Builder(2);
+        assertTrue(builder.add(1));
+        assertFalse(builder.add(1L));
+
+        assertFalse(new PrimitiveColumn.Builder(1).add("1"));
+        assertFalse(new PrimitiveColumn.Builder(1).add((short) 1));
+    }
+
+    @Test
+    public void testBuild_allNulls() {
+        PrimitiveColumn column = build(null, null);
+
+        assertNull(column.getType());
+        assertEquals(0, filterRange(column, 0, true, null, false).length);
+        assertArrayEquals(new int[]{0, 1}, filterNull(column));
+    }
+
+    @Test
+    public void testFilterRange_integral() {
+        PrimitiveColumn column = build(5, null, 1, 3, 4, 2);
+
+        assertArrayEquals(new int[]{3, 4, 5}, filterRange(column, 2, true, 4, true));
+        assertArrayEquals(new int[]{3}, filterRange(column, 2, false, 4, false));
+        assertArrayEquals(new int[]{0, 4}, filterRange(column, 3, false, null, false));
+        assertArrayEquals(new int[]{2, 5}, filterRange(column, null, false, 3, false));
+        assertArrayEquals(new int[]{4}, filterRange(column, 4, true, 4, true));
+        assertArrayEquals(new int[]{1}, filterNull(column));
+    }
+
+    @Test
+    public void testFilterRange_convertsBounds() {
+        PrimitiveColumn column = build(1L, 2L, 3L);
+
+        assertArrayEquals(new int[]{1, 2}, filterRange(column, 2, true, "3", true));
+        assertArrayEquals(new int[]{0}, filterRange(column, Long.MIN_VALUE, false, 1L, true));
+        assertEquals(0, filterRange(column, Long.MAX_VALUE, false, null, false).length);
+    }
+
+    @Test
+    public void testFilterRange_inexactBounds_unsupported() {
+        PrimitiveColumn column = build(1, 2, 3);
+        int[] rows = {0, 1, 2};
+
+        assertEquals(UNSUPPORTED, column.filterRange(1.5, true, null, false, rows, rows.length));
+        assertEquals(UNSUPPORTED, column.filterRange("x", true, null, false, rows, rows.length));
+        assertArrayEquals(new int[]{0, 1, 2}, rows);
+    }
+
+    @Test
+    public void testFilterRange_doubles() {
+        PrimitiveColumn column = build(1.5, Double.NaN, -0.0, 0.0, null, 2.5);
+
+        assertArrayEquals(new int[]{0, 5}, filterRange(column, 1, true, 3, true));
+        assertArrayEquals(new int[]{3}, filterRange(column, -0.0, false, 0.0, true));
+        assertArrayEquals(new int[]{1}, filterRange(column, Double.NaN, true, Double.NaN, true));
+        assertArrayEquals(new int[]{0, 2, 3, 5}, filterRange(column, null, false, Double.NaN, false));
+    }
+
+    private static PrimitiveColumn build(Object... values) {
+        PrimitiveColumn.Builder builder = new PrimitiveColumn.Builder(values.length);
+        for (Object value : values) {
+            assertTrue(builder.add(value));
+        }
+        return builder.build();
+    }
+
+    private static int[] filterRange(PrimitiveColumn column, Comparable from, boolean fromInclusive, Comparable to,
+                                     boolean toInclusive) {
+        int[] rows = allRows(column);
+        int count = column.filterRange(from, fromInclusive, to, toInclusive, rows, rows.length);
+        assertTrue(count >= 0);
+        return Arrays.copyOf(rows, count);
+    }
+
+    private static int[] filterNull(PrimitiveColumn column) {
+        int[] rows = allRows(column);
+        return Arrays.copyOf(rows, column.filterNull(rows, rows.length));
+    }
+
+    private static int[] allRows(PrimitiveColumn column) {
+        int[] rows = new int[column.size()];
+        for (int i = 0; i < rows.length; ++i) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+}
@@ -89,7 +89,7 @@ public class BitmapTest {
         expectedQueries[9] = new ExpectedQuery(value -> bit(1, value));
     }
 
-    private final Bitmap<String> bitmap = new Bitmap<>();
+    private final Bitmap<String> bitmap = createBitmap();
 
     private final IndexOperationStats operationStats = new GlobalIndexOperationStats();
 
@@ -150,6 +150,10 @@ public class BitmapTest {
         bitmap.evaluate(Predicates.like("a", "b"), INTEGER_CONVERTER);
     }
 
+    Bitmap<String> createBitmap() {
+        return new Bitmap<>();
+    }
+
     private void insert(long key, long value) {
         bitmap.insert(values(value), key, Long.toString(key), operationStats);
         for (ExpectedQuery expectedQuery : expectedQueries) {
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static com.hazelcast.query.impl.bitmap.RoaringBitSet.ARRAY_CONTAINER_MAX_SIZE;
+import static com.hazelcast.query.impl.bitmap.RoaringBitSet.RUN_CONTAINER_MAX_RUNS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RoaringBitSetTest {
+
+    private static final long CONTAINER_CAPACITY = 1 << 16;
+
+    private final NavigableSet<Long> expected = new TreeSet<>();
+    private final RoaringBitSet actual = new RoaringBitSet();
+
+    @Test
+    public void testSequentialMembers_fillWholeContainers() {
+        for (long i = 0; i < 3 * CONTAINER_CAPACITY; ++i) {
+            set(i);
+        }
+        verify();
+
+        for (long i = 0; i < 3 * CONTAINER_CAPACITY; i += 3) {
+            clear(i);
+        }
+        verify();
+
+        for (long i = 0; i < 3 * CONTAINER_CAPACITY; ++i) {
+            clear(i);
+        }
+        verify();
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void testContainerConversions() {
+        // array -> bitmap
+        for (long i = 0; i <= ARRAY_CONTAINER_MAX_SIZE; ++i) {
+            set(i * 7);
+        }
+        verify();
+        // bitmap -> array
+        for (long i = 0; i < ARRAY_CONTAINER_MAX_SIZE / 2; ++i) {
+            clear(i * 7);
+        }
+        verify();
+
+        // array -> run and run -> bitmap
+        long offset = 10 * CONTAINER_CAPACITY;
+        for (long i = 0; i <= ARRAY_CONTAINER_MAX_SIZE; ++i) {
+            set(offset + i);
+        }
+        verify();
+        for (long i = 1; i < 2 * RUN_CONTAINER_MAX_RUNS + 10; i += 2) {
+            clear(offset + i);
+        }
+        verify();
+        for (long i = 1; i < 2 * RUN_CONTAINER_MAX_RUNS + 10; i += 2) {
+            set(offset + i);
+        }
+        verify();
+    }
+
+    @Test
+    public void testRandomMembers() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; ++i) {
+            long member = random.nextInt(5) == 0 ? random.nextLong() & Long.MAX_VALUE
+                    : random.nextInt((int) (4 * CONTAINER_CAPACITY));
+            if (random.nextInt(3) == 0) {
+                clear(member);
+            } else {
+                set(member);
+            }
+        }
+        verify();
+        for (long member : expected) {
+            assertTrue(actual.contains(member));
+        }
+        assertFalse(actual.contains(4 * CONTAINER_CAPACITY + 1));
+    }
+
+    @Test
+    public void testSetOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 10; ++round) {
+            RoaringBitSet[] bitSets = new RoaringBitSet[3];
+            SortedSet<Long>[] expectedSets = new SortedSet[3];
+            for (int i = 0; i < bitSets.length; ++i) {
+                bitSets[i] = new RoaringBitSet();
+                expectedSets[i] = new TreeSet<>();
+                fillRandomly(random, bitSets[i], expectedSets[i]);
+            }
+
+            TreeSet<Long> expectedAnd = new TreeSet<>(expectedSets[0]);
+            expectedAnd.retainAll(expectedSets[1]);
+            verify(bitSets[0].and(bitSets[1]), expectedAnd);
+
+            TreeSet<Long> expectedAndNot = new TreeSet<>(expectedSets[0]);
+            expectedAndNot.removeAll(expectedSets[1]);
+            verify(bitSets[0].andNot(bitSets[1]), expectedAndNot);
+
+            TreeSet<Long> expectedOr = new TreeSet<>(expectedSets[0]);
+            expectedOr.addAll(expectedSets[1]);
+            expectedOr.addAll(expectedSets[2]);
+            verify(RoaringBitSet.or(bitSets), expectedOr);
+        }
+    }
+
+    @Test
+    public void testAdvanceAtLeastTo() {
+        Random random = new Random(42);
+        fillRandomly(random, actual, expected);
+
+        for (long step : new long[]{1, 2, 5, 100, CONTAINER_CAPACITY - 1, CONTAINER_CAPACITY + 1}) {
+            AscendingLongIterator iterator = actual.iterator();
+            long current = iterator.advanceAtLeastTo(step);
+            Long expectedIndex = expected.ceiling(step);
+            while (expectedIndex != null) {
+                assertEquals((long) expectedIndex, current);
+                assertEquals(current, iterator.getIndex());
+                current = iterator.advanceAtLeastTo(current + step);
+                expectedIndex = expected.ceiling(expectedIndex + step);
+            }
+            assertEquals(AscendingLongIterator.END, current);
+        }
+    }
+
+    private static void fillRandomly(Random random, RoaringBitSet bitSet, SortedSet<Long> expected) {
+        // a mix of sparse, dense and run containers
+        for (long container = 0; container < 8; ++container) {
+            long base = container * CONTAINER_CAPACITY;
+            switch (random.nextInt(3)) {
+                case 0:
+                    for (int i = 0; i < 100; ++i) {
+                        add(bitSet, expected, base + random.nextInt((int) CONTAINER_CAPACITY));
+                    }
+                    break;
+                case 1:
+                    for (int i = 0; i < 3 * ARRAY_CONTAINER_MAX_SIZE; ++i) {
+                        add(bitSet, expected, base + random.nextInt((int) CONTAINER_CAPACITY));
+                    }
+                    break;
+                default:
+                    long start = random.nextInt((int) CONTAINER_CAPACITY / 2);
+                    for (long i = start; i < start + 2 * ARRAY_CONTAINER_MAX_SIZE; ++i) {
+                        add(bitSet, expected, base + i);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static void add(RoaringBitSet bitSet, SortedSet<Long> expected, long member) {
+        bitSet.add(member);
+        expected.add(member);
+    }
+
+    private void set(long member) {
+        expected.add(member);
+        actual.add(member);
+    }
+
+    private void clear(long member) {
+        boolean removed = expected.remove(member);
+        boolean becameEmpty = actual.remove(member);
+        assertEquals(removed && expected.isEmpty(), becameEmpty);
+    }
+
+    private void verify() {
+        verify(actual, expected);
+    }
+
+    private static void verify(RoaringBitSet actual, SortedSet<Long> expected) {
+        assertEquals(expected.size(), actual.cardinality());
+        AscendingLongIterator iterator = actual.iterator();
+        for (long member : expected) {
+            assertEquals(member, iterator.getIndex());
+            assertEquals(member, iterator.advance());
+        }
+        assertEquals(AscendingLongIterator.END, iterator.getIndex());
+        assertEquals(AscendingLongIterator.END, iterator.advance());
+    }
+
+}
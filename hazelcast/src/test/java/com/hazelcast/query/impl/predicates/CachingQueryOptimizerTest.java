@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.monitor.impl.IndexesStats;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.config.MapConfig.DEFAULT_IN_MEMORY_FORMAT;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.query.Predicates.sql;
+import static com.hazelcast.query.impl.IndexCopyBehavior.COPY_ON_READ;
+import static com.hazelcast.query.impl.IndexUtils.createTestIndexConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CachingQueryOptimizerTest {
+
+    private static final int PLAN_CACHE_SIZE = 4;
+
+    private final CachingQueryOptimizer optimizer = new CachingQueryOptimizer(new RuleBasedQueryOptimizer());
+    private Indexes indexes;
+
+    @Before
+    public void before() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        indexes = Indexes.newBuilder(null, "test", ss, COPY_ON_READ, DEFAULT_IN_MEMORY_FORMAT)
+                .statsEnabled(true)
+                .planCacheSize(PLAN_CACHE_SIZE)
+                .build();
+        indexes.addOrGetIndex(createTestIndexConfig(IndexType.HASH, "name"));
+    }
+
+    @Test
+    public void testEqualPredicatesShareOptimizedPredicate() {
+        Predicate optimized = optimizer.optimize(and(equal("name", "Alice"), and(equal("age", 1), lessThan("age", 5))),
+                indexes);
+        assertStats(0, 1);
+
+        Predicate cached = optimizer.optimize(and(equal("name", "Alice"), and(equal("age", 1), lessThan("age", 5))),
+                indexes);
+        assertSame(optimized, cached);
+        assertStats(1, 1);
+
+        optimizer.optimize(and(equal("name", "Bob"), and(equal("age", 1), lessThan("age", 5))), indexes);
+        assertStats(1, 2);
+    }
+
+    @Test
+    public void testSqlPredicatesAreCached() {
+        Predicate optimized = optimizer.optimize(sql("name = 'Alice' and age > 1"), indexes);
+        assertSame(optimized, optimizer.optimize(sql("name = 'Alice' and age > 1"), indexes));
+        assertStats(1, 1);
+    }
+
+    @Test
+    public void testIndexAdditionInvalidatesCache() {
+        Predicate predicate = and(equal("name", "Alice"), greaterThan("age", 1));
+        optimizer.optimize(predicate, indexes);
+
+        indexes.addOrGetIndex(createTestIndexConfig(IndexType.SORTED, "age"));
+        assertEquals(0, indexes.getPlanCache().size());
+
+        optimizer.optimize(predicate, indexes);
+        assertStats(0, 2);
+        optimizer.optimize(predicate, indexes);
+        assertStats(1, 2);
+    }
+
+    @Test
+    public void testCustomPredicatesAreNotCached() {
+        Predicate<Object, Object> custom = new CustomPredicate();
+        assertFalse(CachingQueryOptimizer.isCacheable(custom));
+        assertFalse(CachingQueryOptimizer.isCacheable(and(equal("name", "Alice"), not(custom))));
+        assertTrue(CachingQueryOptimizer.isCacheable(or(equal("name", "Alice"), not(in("age", 1, 2)))));
+
+        optimizer.optimize(and(equal("name", "Alice"), custom), indexes);
+        optimizer.optimize(and(equal("name", "Alice"), custom), indexes);
+        assertStats(0, 0);
+        assertEquals(0, indexes.getPlanCache().size());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int i = 0; i < 3 * PLAN_CACHE_SIZE; ++i) {
+            optimizer.optimize(equal("name", "name" + i), indexes);
+            assertTrue(indexes.getPlanCache().size() <= PLAN_CACHE_SIZE);
+        }
+        assertStats(0, 3 * PLAN_CACHE_SIZE);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        Indexes indexesWithoutCache = Indexes.newBuilder(null, "test", ss, COPY_ON_READ, DEFAULT_IN_MEMORY_FORMAT)
+                .statsEnabled(true)
+                .build();
+
+        optimizer.optimize(equal("name", "Alice"), indexesWithoutCache);
+        optimizer.optimize(equal("name", "Alice"), indexesWithoutCache);
+        assertNull(indexesWithoutCache.getPlanCache());
+        assertEquals(0, indexesWithoutCache.getIndexesStats().getPlanCacheHitCount());
+        assertEquals(0, indexesWithoutCache.getIndexesStats().getPlanCacheMissCount());
+    }
+
+    private void assertStats(long hits, long misses) {
+        IndexesStats stats = indexes.getIndexesStats();
+        assertEquals(hits, stats.getPlanCacheHitCount());
+        assertEquals(misses, stats.getPlanCacheMissCount());
+    }
+
+    private static class CustomPredicate implements Predicate<Object, Object> {
+        @Override
+        public boolean apply(Map.Entry<Object, Object> mapEntry) {
+            return true;
+        }
+    }
+}
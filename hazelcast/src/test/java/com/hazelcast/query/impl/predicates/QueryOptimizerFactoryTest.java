@@ -26,6 +26,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_OPTIMIZER_TYPE;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PLAN_CACHE_SIZE;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -49,6 +50,15 @@ public class QueryOptimizerFactoryTest {
         assertThat(queryOptimizer, instanceOf(RuleBasedQueryOptimizer.class));
     }
 
+    @Test
+    public void newOptimizer_whenPlanCacheEnabled_thenCreateCachingOptimizer() {
+        HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "RULES");
+        when(hazelcastProperties.getInteger(QUERY_PLAN_CACHE_SIZE)).thenReturn(100);
+        QueryOptimizer queryOptimizer = QueryOptimizerFactory.newOptimizer(hazelcastProperties);
+
+        assertThat(queryOptimizer, instanceOf(CachingQueryOptimizer.class));
+    }
+
     @Test
     public void newOptimizer_whenPropertyContainsNone_thenCreateEmptyOptimizer() {
         HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "NONE");
@@ -218,6 +218,7 @@ public abstract class OperationExecutorImpl_AbstractTest extends HazelcastTestSu
         List<Packet> packets = synchronizedList(new LinkedList<>());
         List<Operation> operations = synchronizedList(new LinkedList<>());
         List<Runnable> tasks = synchronizedList(new LinkedList<>());
+        List<Packet> rejectedPackets = synchronizedList(new LinkedList<>());
 
         DummyOperationRunner(int partitionId) {
             super(partitionId);
@@ -242,6 +243,11 @@ public abstract class OperationExecutorImpl_AbstractTest extends HazelcastTestSu
             return false;
         }
 
+        @Override
+        public void reject(Packet packet, Throwable cause) {
+            rejectedPackets.add(packet);
+        }
+
         @Override
         public boolean run(Operation task) {
             operations.add(task);
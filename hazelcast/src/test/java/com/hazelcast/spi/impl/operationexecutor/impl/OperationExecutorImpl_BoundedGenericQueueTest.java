@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_QUEUE_REJECTION_POLICY;
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_THREAD_COUNT;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_BoundedGenericQueueTest extends OperationExecutorImpl_AbstractTest {
+
+    @Test
+    public void whenBoundedQueue_thenAllOperationsExecuted() {
+        config.setProperty(GENERIC_OPERATION_QUEUE_CAPACITY.getName(), "16");
+        initExecutor();
+
+        AtomicInteger executed = new AtomicInteger();
+        int operationCount = 10_000;
+        for (int i = 0; i < operationCount; i++) {
+            executor.execute(new CountingOperation(executed).setPartitionId(-1));
+        }
+
+        assertTrueEventually(() -> assertEquals(operationCount, executed.get()));
+        assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void whenBoundedQueueFull_andRejectPolicy_thenOverload() {
+        config.setProperty(GENERIC_OPERATION_THREAD_COUNT.getName(), "1");
+        config.setProperty(GENERIC_OPERATION_QUEUE_CAPACITY.getName(), "2");
+        config.setProperty(GENERIC_OPERATION_QUEUE_REJECTION_POLICY.getName(), "REJECT");
+        initExecutor();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        executor.execute(new BlockingOperation(latch).setPartitionId(-1));
+        assertTrueEventually(() -> assertEquals(0, executor.getQueueSize()));
+        executor.execute(new CountingOperation(executed).setPartitionId(-1));
+        executor.execute(new CountingOperation(executed).setPartitionId(-1));
+
+        assertThrows(HazelcastOverloadException.class,
+                () -> executor.execute(new CountingOperation(executed).setPartitionId(-1)));
+
+        latch.countDown();
+        assertTrueEventually(() -> assertEquals(2, executed.get()));
+    }
+
+    @Test
+    public void whenBoundedQueueFull_thenPacketRejected() {
+        config.setProperty(GENERIC_OPERATION_THREAD_COUNT.getName(), "1");
+        config.setProperty(GENERIC_OPERATION_QUEUE_CAPACITY.getName(), "2");
+        initExecutor();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        executor.execute(new BlockingOperation(latch).setPartitionId(-1));
+        assertTrueEventually(() -> assertEquals(0, executor.getQueueSize()));
+        executor.execute(new CountingOperation(executed).setPartitionId(-1));
+        executor.execute(new CountingOperation(executed).setPartitionId(-1));
+
+        Packet packet = new Packet(serializationService.toBytes(new CountingOperation(executed)), -1)
+                .setPacketType(Packet.Type.OPERATION);
+        executor.accept(packet);
+
+        DummyOperationRunner adHocRunner = ((DummyOperationRunnerFactory) handlerFactory).adhocHandler;
+        assertEquals(singletonList(packet), adHocRunner.rejectedPackets);
+        latch.countDown();
+        assertTrueEventually(() -> assertEquals(2, executed.get()));
+    }
+
+    private static class CountingOperation extends Operation {
+
+        private final AtomicInteger executed;
+
+        CountingOperation(AtomicInteger executed) {
+            this.executed = executed;
+        }
+
+        @Override
+        public void run() {
+            executed.incrementAndGet();
+        }
+    }
+
+    private static class BlockingOperation extends Operation {
+
+        private final CountDownLatch latch;
+
+        BlockingOperation(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() throws Exception {
+            latch.await();
+        }
+    }
+}
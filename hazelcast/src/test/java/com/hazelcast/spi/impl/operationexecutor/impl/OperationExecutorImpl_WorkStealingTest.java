@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_WORK_STEALING_BACKLOG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_WorkStealingTest extends OperationExecutorImpl_AbstractTest {
+
+    // both partitions are owned by the first partition thread
+    private static final int HOT_PARTITION = 0;
+    private static final int OTHER_PARTITION = 2;
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setupWorkStealing() {
+        config.setProperty(PARTITION_COUNT.getName(), "4");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PARTITION_OPERATION_WORK_STEALING_BACKLOG.getName(), "1");
+    }
+
+    @Test
+    public void whenOwnerBusy_thenReadonlyOperationsStolen_inOrder() {
+        initExecutor();
+        PartitionOperationThread owner = executor.getPartitionThreads()[0];
+        PartitionOperationThread idle = executor.getPartitionThreads()[1];
+
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new BlockingOperation(latch).setPartitionId(OTHER_PARTITION));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String name = "read" + i;
+            executor.execute(new RecordingReadonlyOperation(name).setPartitionId(HOT_PARTITION));
+            expected.add(name);
+        }
+        latch.countDown();
+
+        assertTrueEventually(() -> assertEquals(expected, executed));
+        assertTrue(idle.stolenTaskCount.get() > 0);
+        assertTrue(owner.offloadedPartitionCount.get() > 0);
+    }
+
+    @Test
+    public void whenMutatingOperationInBetween_thenExecutedInOrder_byOwner() {
+        initExecutor();
+        PartitionOperationThread owner = executor.getPartitionThreads()[0];
+
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new BlockingOperation(latch).setPartitionId(OTHER_PARTITION));
+        List<String> expected = new ArrayList<>();
+        List<RecordingOperation> writes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String name = "op" + i;
+            RecordingOperation op = i % 10 == 5 ? new RecordingOperation(name) : new RecordingReadonlyOperation(name);
+            if (!(op instanceof ReadonlyOperation)) {
+                writes.add(op);
+            }
+            executor.execute(op.setPartitionId(HOT_PARTITION));
+            expected.add(name);
+        }
+        latch.countDown();
+
+        assertTrueEventually(() -> assertEquals(expected, executed));
+        for (RecordingOperation write : writes) {
+            assertEquals(owner, write.executingThread);
+        }
+    }
+
+    @Test
+    public void whenStolen_thenRunAllowedForStolenPartitionOnly() {
+        initExecutor();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new BlockingOperation(latch).setPartitionId(OTHER_PARTITION));
+        List<RecordingReadonlyOperation> reads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            RecordingReadonlyOperation op = new RecordingReadonlyOperation("read" + i);
+            executor.execute(op.setPartitionId(HOT_PARTITION));
+            reads.add(op);
+        }
+        latch.countDown();
+
+        assertTrueEventually(() -> assertEquals(reads.size(), executed.size()));
+        for (RecordingReadonlyOperation read : reads) {
+            assertTrue(read.runAllowedOnSamePartition);
+            assertEquals(read.executingThread == executor.getPartitionThreads()[0], read.runAllowedOnOtherPartition);
+        }
+    }
+
+    private class RecordingOperation extends Operation {
+
+        final String name;
+        volatile Thread executingThread;
+        volatile boolean runAllowedOnSamePartition;
+        volatile boolean runAllowedOnOtherPartition;
+
+        RecordingOperation(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            executingThread = Thread.currentThread();
+            runAllowedOnSamePartition = executor.isRunAllowed(new DummyOperation(getPartitionId()));
+            runAllowedOnOtherPartition = executor.isRunAllowed(new DummyOperation(OTHER_PARTITION));
+            executed.add(name);
+        }
+    }
+
+    private class RecordingReadonlyOperation extends RecordingOperation implements ReadonlyOperation {
+
+        RecordingReadonlyOperation(String name) {
+            super(name);
+        }
+    }
+
+    private static class BlockingOperation extends Operation {
+
+        private final CountDownLatch latch;
+
+        BlockingOperation(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() throws Exception {
+            latch.await();
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.executor.HazelcastManagedThread;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -29,8 +33,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -82,6 +90,77 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         assertEquals(1, operationQueue.size());
     }
 
+    @Test(expected = HazelcastOverloadException.class)
+    public void add_whenNormal_andQueueFull_thenRejected() {
+        OperationQueueImpl boundedQueue = new OperationQueueImpl(new ArrayBlockingQueue<>(1), priorityQueue,
+                OperationQueueRejectionPolicy.REJECT);
+        boundedQueue.add("task1", false);
+
+        boundedQueue.add("task2", false);
+    }
+
+    @Test
+    public void add_whenPriority_andQueueFull_thenNotRejected() throws InterruptedException {
+        ArrayBlockingQueue<Object> boundedNormalQueue = new ArrayBlockingQueue<>(1);
+        OperationQueueImpl boundedQueue = new OperationQueueImpl(boundedNormalQueue, priorityQueue,
+                OperationQueueRejectionPolicy.REJECT);
+        boundedQueue.add("task1", false);
+
+        boundedQueue.add("priorityTask", true);
+
+        assertContent(boundedNormalQueue, "task1");
+        assertSame("priorityTask", boundedQueue.take(false));
+        assertSame("task1", boundedQueue.take(false));
+    }
+
+    @Test
+    public void add_whenNormal_andQueueFull_andBlockPolicy_thenBlockTillRoomAvailable() throws InterruptedException {
+        ArrayBlockingQueue<Object> boundedNormalQueue = new ArrayBlockingQueue<>(1);
+        OperationQueueImpl boundedQueue = new OperationQueueImpl(boundedNormalQueue, priorityQueue,
+                OperationQueueRejectionPolicy.BLOCK);
+        boundedQueue.add("task1", false);
+
+        Future future = spawn(() -> boundedQueue.add("task2", false));
+
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 2);
+        assertSame("task1", boundedQueue.take(false));
+        assertCompletesEventually(future);
+        assertSame("task2", boundedQueue.take(false));
+    }
+
+    @Test
+    public void add_whenNormal_andQueueFull_andBlockPolicy_andIoThread_thenNotBlocked() throws Exception {
+        ArrayBlockingQueue<Object> boundedNormalQueue = new ArrayBlockingQueue<>(1);
+        OperationQueueImpl boundedQueue = new OperationQueueImpl(boundedNormalQueue, priorityQueue,
+                OperationQueueRejectionPolicy.BLOCK);
+        boundedQueue.add("task1", false);
+
+        // simulates an IO thread handing over a remote operation and scheduling a local task
+        CompletableFuture<Throwable> packetRejection = new CompletableFuture<>();
+        CompletableFuture<Throwable> taskRejection = new CompletableFuture<>();
+        IoThread ioThread = new IoThread(() -> {
+            addAndCompleteWithError(boundedQueue, new Packet(new byte[0], -1), packetRejection);
+            addAndCompleteWithError(boundedQueue, "task2", taskRejection);
+        });
+        ioThread.start();
+
+        assertInstanceOf(HazelcastOverloadException.class, packetRejection.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        assertInstanceOf(HazelcastOverloadException.class, taskRejection.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        assertJoinable(ioThread);
+        assertEquals(1, boundedQueue.rejectedPacketCount());
+        assertEquals(1, boundedQueue.normalSize());
+        assertSame("task1", boundedQueue.take(false));
+    }
+
+    private static void addAndCompleteWithError(OperationQueue queue, Object task, CompletableFuture<Throwable> error) {
+        try {
+            queue.add(task, false);
+            error.complete(null);
+        } catch (Throwable t) {
+            error.complete(t);
+        }
+    }
+
     // ================== take =====================
 
     @Test
@@ -225,4 +304,11 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         List<Object> actual = new LinkedList<Object>(q);
         assertEquals(Arrays.asList(expected), actual);
     }
+
+    private static class IoThread extends HazelcastManagedThread implements OperationHostileThread {
+
+        IoThread(Runnable task) {
+            super(task);
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_WORK_STEALING_BACKLOG;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionWorkStealingTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenHotKeyReadAndWrittenConcurrently_thenReadsSeeOwnWrites() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "4")
+                .setProperty(PARTITION_OPERATION_WORK_STEALING_BACKLOG.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<String, Integer> map = instance.getMap("map");
+
+        List<Future> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String key = "key" + t;
+            futures.add(spawn(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    map.getAsync("hot");
+                    map.set(key, i);
+                    assertEquals(i, (int) map.get(key));
+                }
+            }));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        long stolenTaskCount = 0;
+        OperationExecutorImpl executor = (OperationExecutorImpl) getOperationService(instance).getOperationExecutor();
+        for (PartitionOperationThread thread : executor.getPartitionThreads()) {
+            stolenTaskCount += thread.stolenTaskCount.get();
+        }
+        assertTrue(stolenTaskCount > 0);
+    }
+}
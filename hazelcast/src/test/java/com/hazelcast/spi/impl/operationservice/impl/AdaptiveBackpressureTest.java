@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.util.ConcurrencyDetection;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithBackpressure;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveBackpressureTest {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int MIN_LIMIT = 100;
+    private static final int INCREMENT = 10;
+    private static final long TARGET_LATENCY_NANOS = MILLISECONDS.toNanos(10);
+
+    private CallIdSequenceWithBackpressure callIdSequence;
+    private AdaptiveBackpressure adaptiveBackpressure;
+
+    @Before
+    public void setup() {
+        callIdSequence = new CallIdSequenceWithBackpressure(MAX_LIMIT, 1000, ConcurrencyDetection.createDisabled());
+        adaptiveBackpressure = new AdaptiveBackpressure(callIdSequence, TARGET_LATENCY_NANOS, MIN_LIMIT, INCREMENT);
+    }
+
+    @Test
+    public void adjust_whenLatencyAboveTarget_thenDecreaseMultiplicatively() {
+        adaptiveBackpressure.adjust(TARGET_LATENCY_NANOS + 1);
+        assertEquals(750, callIdSequence.getConcurrencyLimit());
+
+        adaptiveBackpressure.adjust(TARGET_LATENCY_NANOS + 1);
+        assertEquals(562, callIdSequence.getConcurrencyLimit());
+
+        for (int i = 0; i < 100; i++) {
+            adaptiveBackpressure.adjust(TARGET_LATENCY_NANOS + 1);
+        }
+        assertEquals(MIN_LIMIT, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenLatencyBelowTargetAndLimitUsed_thenIncreaseAdditively() {
+        callIdSequence.setConcurrencyLimit(MIN_LIMIT);
+        occupy(MIN_LIMIT / 2);
+
+        adaptiveBackpressure.adjust(TARGET_LATENCY_NANOS);
+        assertEquals(MIN_LIMIT + INCREMENT, callIdSequence.getConcurrencyLimit());
+
+        occupy(MAX_LIMIT / 2);
+        for (int i = 0; i < 1000; i++) {
+            adaptiveBackpressure.adjust(0);
+        }
+        assertEquals(MAX_LIMIT, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenLatencyBelowTargetAndLimitNotUsed_thenLimitUnchanged() {
+        callIdSequence.setConcurrencyLimit(MIN_LIMIT);
+        occupy(MIN_LIMIT / 2 - 1);
+
+        adaptiveBackpressure.adjust(0);
+
+        assertEquals(MIN_LIMIT, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void sample_whenRemoteMemberLatencyAboveTarget_thenDecrease() throws Exception {
+        Address member = new Address("127.0.0.1", 5702);
+        recordLatencies(member, AdaptiveBackpressure.MIN_SAMPLE_COUNT, TARGET_LATENCY_NANOS * 2);
+
+        adaptiveBackpressure.sample();
+        assertEquals(750, callIdSequence.getConcurrencyLimit());
+
+        // the latencies of the previous sample are not taken into account again
+        adaptiveBackpressure.sample();
+        assertEquals(750, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void sample_whenLongRunningOperationAmongShortOnes_thenLimitUnchanged() throws Exception {
+        Address member = new Address("127.0.0.1", 5702);
+        recordLatencies(member, AdaptiveBackpressure.MIN_SAMPLE_COUNT, TARGET_LATENCY_NANOS / 2);
+        adaptiveBackpressure.recordLatency(member, TARGET_LATENCY_NANOS * 100);
+
+        adaptiveBackpressure.sample();
+
+        assertEquals(MAX_LIMIT, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void sample_whenOnlyLongRunningOperation_thenLimitUnchanged() throws Exception {
+        Address member = new Address("127.0.0.1", 5702);
+        adaptiveBackpressure.recordLatency(member, TARGET_LATENCY_NANOS * 100);
+
+        adaptiveBackpressure.sample();
+
+        assertEquals(MAX_LIMIT, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void scaleSyncWindow() {
+        assertEquals(100, adaptiveBackpressure.scaleSyncWindow(100));
+
+        callIdSequence.setConcurrencyLimit(MAX_LIMIT / 4);
+        assertEquals(25, adaptiveBackpressure.scaleSyncWindow(100));
+
+        callIdSequence.setConcurrencyLimit(1);
+        assertEquals(1, adaptiveBackpressure.scaleSyncWindow(100));
+    }
+
+    @Test
+    public void estimateSojournNanos() {
+        // 100 tasks drained in 10ms, so the 50 queued tasks wait for 5ms
+        assertEquals(MILLISECONDS.toNanos(5), AdaptiveBackpressure.estimateSojournNanos(50, 100, MILLISECONDS.toNanos(10)));
+    }
+
+    private void recordLatencies(Address member, int count, long latencyNanos) {
+        for (int i = 0; i < count; i++) {
+            adaptiveBackpressure.recordLatency(member, latencyNanos);
+        }
+    }
+
+    private void occupy(int invocations) {
+        while (callIdSequence.concurrentInvocations() < invocations) {
+            callIdSequence.forceNext();
+        }
+    }
+}
@@ -36,10 +36,14 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_SYNCWINDOW;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -123,8 +127,76 @@ public class BackpressureRegulatorTest extends HazelcastTestSupport {
         assertInstanceOf(CallIdSequenceWithoutBackpressure.class, callIdSequence);
     }
 
+    @Test
+    public void newCallIdSequence_whenAdaptiveDisabledByDefault() {
+        BackpressureRegulator regulator = newEnabledBackPressureService();
+
+        regulator.newCallIdSequence(ConcurrencyDetection.createEnabled(100));
+
+        assertNull(regulator.getAdaptiveBackpressure());
+    }
+
+    @Test
+    public void newCallIdSequence_whenAdaptiveEnabled() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        BackpressureRegulator regulator = new BackpressureRegulator(new HazelcastProperties(config), logger);
+
+        CallIdSequenceWithBackpressure callIdSequence = (CallIdSequenceWithBackpressure)
+                regulator.newCallIdSequence(ConcurrencyDetection.createEnabled(100));
+
+        AdaptiveBackpressure adaptiveBackpressure = regulator.getAdaptiveBackpressure();
+        assertNotNull(adaptiveBackpressure);
+        adaptiveBackpressure.adjust(Long.MAX_VALUE);
+        assertTrue(callIdSequence.getConcurrencyLimit() < callIdSequence.getMaxConcurrentInvocations());
+    }
+
+    @Test
+    public void newCallIdSequence_whenAdaptiveEnabledButBackPressureDisabled() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        BackpressureRegulator regulator = new BackpressureRegulator(new HazelcastProperties(config), logger);
+
+        regulator.newCallIdSequence(ConcurrencyDetection.createEnabled(100));
+
+        assertNull(regulator.getAdaptiveBackpressure());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstruction_invalidAdaptiveTargetLatency() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_ADAPTIVE_TARGET_LATENCY_MILLIS.getName(), "0");
+
+        new BackpressureRegulator(new HazelcastProperties(config), logger);
+    }
+
     // ========================== isSyncForced =================
 
+    @Test
+    public void isSyncForced_whenAdaptiveLimitLowered_thenSyncWindowShrinks() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_SYNCWINDOW.getName(), String.valueOf(SYNC_WINDOW));
+        BackpressureRegulator regulator = new BackpressureRegulator(new HazelcastProperties(config), logger);
+        CallIdSequenceWithBackpressure callIdSequence = (CallIdSequenceWithBackpressure)
+                regulator.newCallIdSequence(ConcurrencyDetection.createEnabled(100));
+        callIdSequence.setConcurrencyLimit(callIdSequence.getMaxConcurrentInvocations() / SYNC_WINDOW);
+
+        PartitionSpecificOperation op = new PartitionSpecificOperation(10);
+        // consume the initial sync window
+        boolean syncForced;
+        do {
+            syncForced = regulator.isSyncForced(op);
+        } while (!syncForced);
+        for (int k = 0; k < 10; k++) {
+            assertTrue(regulator.isSyncForced(op));
+        }
+    }
+
     @Test
     public void isSyncForced_whenUrgentOperation_thenFalse() {
         BackpressureRegulator regulator = newEnabledBackPressureService();
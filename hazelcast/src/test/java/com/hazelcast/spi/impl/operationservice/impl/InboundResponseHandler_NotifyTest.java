@@ -19,6 +19,8 @@ package com.hazelcast.spi.impl.operationservice.impl;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.ExpectedRuntimeException;
@@ -37,10 +39,12 @@ import java.util.concurrent.TimeUnit;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.test.Accessors.getOperationService;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -222,6 +226,32 @@ public class InboundResponseHandler_NotifyTest extends HazelcastTestSupport {
         assertInvocationDeregisteredEventually(callId);
     }
 
+    // ==================== responseBatch =======================
+
+    @Test
+    public void responseBatch() {
+        Invocation first = newInvocation(new DummyOperation().setPartitionId(0));
+        Invocation second = newInvocation();
+        invocationRegistry.register(first);
+        invocationRegistry.register(second);
+        long firstCallId = first.op.getCallId();
+        long secondCallId = second.op.getCallId();
+
+        OutboundResponseHandler outboundResponseHandler = operationService.getOutboundResponseHandler();
+        Packet batch = outboundResponseHandler.toResponseBatchPacket(asList(
+                outboundResponseHandler.toNormalResponsePacket(firstCallId, 0, false, "foo"),
+                outboundResponseHandler.toNormalResponsePacket(secondCallId, 1, false, "bar"),
+                outboundResponseHandler.toBackupAckPacket(secondCallId, false)));
+        batch.setConn(mock(ServerConnection.class));
+        inboundResponseHandler.accept(batch);
+
+        assertEquals("foo", first.future.join());
+        assertEquals("bar", second.future.join());
+        assertInvocationDeregisteredEventually(firstCallId);
+        assertInvocationDeregisteredEventually(secondCallId);
+        assertEquals(1, inboundResponseHandler.responsesBatch.get());
+    }
+
     private void assertInvocationDeregisteredEventually(final long callId) {
         assertTrueEventually(new AssertTask() {
             @Override
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_POOLING_ENABLED;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class Invocation_PoolingTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenPoolingDisabled_thenInvocationsNotPooled() throws Exception {
+        OperationServiceImpl operationService = getOperationService(createHazelcastInstance());
+
+        assertFalse(operationService.isInvocationPoolingEnabled());
+        assertNull(operationService.getInvocationPool());
+        assertEquals("value", operationService.invokeOnPartitionAndGet(null, new DummyOperation("value"), 0, false));
+    }
+
+    @Test
+    public void whenInvocationCompleted_thenReused() throws Exception {
+        OperationServiceImpl operationService = getOperationService(createHazelcastInstance(pooledConfig()));
+        PartitionInvocationPool pool = operationService.getInvocationPool();
+        Invocation.Context context = operationService.getInvocationContext();
+
+        PartitionInvocation invocation = pool.acquire(context, partitionOperation("first"), false);
+        assertEquals("first", invocation.invoke().get());
+        pool.release(invocation);
+        assertEquals(1, pool.size());
+        assertTrueEventually(() -> assertTrue(invocation.isReleased()));
+
+        PartitionInvocation reused = pool.acquire(context, partitionOperation("second"), false);
+        assertSame(invocation, reused);
+        assertFalse(reused.isReleased());
+        assertEquals("second", reused.invoke().get());
+    }
+
+    @Test
+    public void whenInvocationFailed_thenNotReused() throws Exception {
+        OperationServiceImpl operationService = getOperationService(createHazelcastInstance(pooledConfig()));
+
+        try {
+            operationService.invokeOnPartitionAndGet(null, new DummyOperation((Callable<Object>) () -> {
+                throw new IllegalStateException("expected");
+            }), 0, false);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(0, operationService.getInvocationPool().size());
+    }
+
+    @Test
+    public void whenInvocationTooSlow_thenNotReused() throws Exception {
+        OperationServiceImpl operationService = getOperationService(createHazelcastInstance(pooledConfig()));
+        PartitionInvocationPool pool = operationService.getInvocationPool();
+
+        PartitionInvocation invocation = pool.acquire(operationService.getInvocationContext(),
+                partitionOperation("value"), false);
+        invocation.invoke().get();
+
+        assertFalse(invocation.isRecyclable(0));
+    }
+
+    @Test
+    public void whenMapCalls_thenResultsCorrect() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(pooledConfig());
+        IMap<Integer, Integer> map = instances[0].getMap(randomMapName());
+
+        for (int i = 0; i < 1000; i++) {
+            assertNull(map.put(i, i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) map.get(i));
+            map.set(i, -i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            map.delete(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : -i, map.get(i));
+        }
+        // the backups are intact
+        instances[1].shutdown();
+        assertEquals(500, map.size());
+
+        PartitionInvocationPool pool = getOperationService(instances[0]).getInvocationPool();
+        assertNotNull(pool);
+        assertTrue(pool.size() > 0);
+    }
+
+    private static Operation partitionOperation(Object value) {
+        return new DummyOperation(value).setPartitionId(0);
+    }
+
+    private static Config pooledConfig() {
+        return smallInstanceConfig().setProperty(INVOCATION_POOLING_ENABLED.getName(), "true");
+    }
+}
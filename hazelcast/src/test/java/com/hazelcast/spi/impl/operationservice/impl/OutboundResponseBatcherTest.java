@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.internal.cluster.Versions.V5_2;
+import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE_BATCH;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundResponseBatcher.MAX_BATCH_BYTES;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundResponseBatcher.MAX_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCHING_ENABLED;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OutboundResponseBatcherTest extends HazelcastTestSupport {
+
+    private Address target1;
+    private Address target2;
+    private ServerConnectionManager connectionManager;
+    private ClusterService clusterService;
+    private OutboundResponseHandler responseHandler;
+    private OutboundResponseBatcher batcher;
+
+    @Before
+    public void setup() throws Exception {
+        target1 = new Address("127.0.0.1", 5702);
+        target2 = new Address("127.0.0.1", 5703);
+        connectionManager = mock(ServerConnectionManager.class);
+        when(connectionManager.transmit(any(), any(), anyInt())).thenReturn(true);
+        clusterService = mock(ClusterService.class);
+        when(clusterService.getClusterVersion()).thenReturn(V5_3);
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        responseHandler = new OutboundResponseHandler(new Address("127.0.0.1", 5701), serializationService,
+                Logger.getLogger(OutboundResponseBatcherTest.class));
+        // the delay is tested separately, here it mustn't depend on the speed of the test
+        batcher = new OutboundResponseBatcher(responseHandler, clusterService, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void whenBusy_thenResponsesBuffered() {
+        assertTrue(batcher.add(connectionManager, target1, response(1)));
+        batcher.onTaskDone(false);
+
+        verify(connectionManager, never()).transmit(any(), any(), anyInt());
+    }
+
+    @Test
+    public void whenIdle_thenResponsesOfEachMemberSentInOnePacket() {
+        batcher.add(connectionManager, target1, response(1));
+        batcher.add(connectionManager, target2, response(2));
+        batcher.add(connectionManager, target1, response(3));
+        batcher.onTaskDone(true);
+
+        Packet batch = transmitted(target1, 1).get(0);
+        assertTrue(batch.isFlagRaised(FLAG_OP_RESPONSE_BATCH));
+        assertEquals(responseHandler.toResponseBatchPacket(List.of(response(1), response(3))), batch);
+        // a single response is sent as is
+        assertEquals(response(2), transmitted(target2, 1).get(0));
+    }
+
+    @Test
+    public void whenBatchFull_thenSentImmediately() {
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            batcher.add(connectionManager, target1, response(i));
+        }
+
+        assertTrue(transmitted(target1, 1).get(0).isFlagRaised(FLAG_OP_RESPONSE_BATCH));
+    }
+
+    @Test
+    public void whenBatchBytesExceeded_thenSentImmediately() {
+        batcher.add(connectionManager, target1, response(1));
+        verify(connectionManager, never()).transmit(any(), any(), anyInt());
+
+        String largeValue = new String(new char[MAX_BATCH_BYTES]);
+        batcher.add(connectionManager, target1, responseHandler.toNormalResponsePacket(2, 0, false, largeValue));
+
+        assertTrue(transmitted(target1, 1).get(0).isFlagRaised(FLAG_OP_RESPONSE_BATCH));
+    }
+
+    @Test
+    public void whenMaxDelayElapsed_thenSentAfterTask() {
+        batcher = new OutboundResponseBatcher(responseHandler, clusterService, MILLISECONDS.toNanos(10));
+        batcher.add(connectionManager, target1, response(1));
+        batcher.onTaskDone(false);
+        verify(connectionManager, never()).transmit(any(), any(), anyInt());
+
+        sleepMillis(20);
+        batcher.onTaskDone(false);
+
+        assertEquals(response(1), transmitted(target1, 1).get(0));
+    }
+
+    @Test
+    public void whenMaxDelayElapsed_thenSentOnAdd() {
+        batcher = new OutboundResponseBatcher(responseHandler, clusterService, MILLISECONDS.toNanos(10));
+        batcher.add(connectionManager, target1, response(1));
+        batcher.add(connectionManager, target2, response(2));
+
+        sleepMillis(20);
+        batcher.add(connectionManager, target1, response(3));
+
+        assertEquals(responseHandler.toResponseBatchPacket(List.of(response(1), response(3))),
+                transmitted(target1, 1).get(0));
+        assertEquals(response(2), transmitted(target2, 1).get(0));
+    }
+
+    @Test
+    public void whenManyTasksWithoutIdle_thenSent() {
+        batcher.add(connectionManager, target1, response(1));
+        for (int i = 1; i < MAX_BATCH_SIZE; i++) {
+            batcher.onTaskDone(false);
+        }
+        verify(connectionManager, never()).transmit(any(), any(), anyInt());
+
+        batcher.onTaskDone(false);
+        transmitted(target1, 1);
+    }
+
+    @Test
+    public void whenMemberNoLongerResponded_thenBatchDropped() {
+        batcher.add(connectionManager, target1, response(1));
+        batcher.add(connectionManager, target2, response(2));
+        batcher.flush();
+        batcher.add(connectionManager, target1, response(3));
+        batcher.flush();
+
+        assertEquals(1, batcher.batchCount());
+    }
+
+    @Test
+    public void whenOldClusterVersion_thenNotBatched() {
+        when(clusterService.getClusterVersion()).thenReturn(V5_2);
+
+        assertFalse(batcher.add(connectionManager, target1, response(1)));
+        assertEquals(0, batcher.batchCount());
+    }
+
+    @Test
+    public void whenBatchingEnabled_thenResponsesCorrect() {
+        Config config = smallInstanceConfig().setProperty(RESPONSE_BATCHING_ENABLED.getName(), "true");
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        IMap<Integer, Integer> map = instances[1].getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            map.set(i, i);
+        }
+
+        IMap<Integer, Integer> callerMap = instances[0].getMap(map.getName());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(callerMap.getAsync(i).toCompletableFuture());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) futures.get(i).join());
+        }
+
+        InboundResponseHandlerSupplier responseHandlers =
+                getOperationService(instances[0]).getInboundResponseHandlerSupplier();
+        assertTrue(responseHandlers.responsesBatch() > 0);
+    }
+
+    private Packet response(long callId) {
+        return responseHandler.toNormalResponsePacket(callId, 0, false, "value");
+    }
+
+    private List<Packet> transmitted(Address target, int count) {
+        ArgumentCaptor<Packet> packets = ArgumentCaptor.forClass(Packet.class);
+        verify(connectionManager, times(count)).transmit(packets.capture(), eq(target), anyInt());
+        List<Packet> result = packets.getAllValues();
+        assertSame(count, result.size());
+        return result;
+    }
+}
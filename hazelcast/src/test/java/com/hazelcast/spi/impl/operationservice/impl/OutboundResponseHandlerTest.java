@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -48,13 +49,19 @@ import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE_BATCH;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -217,6 +224,28 @@ public class OutboundResponseHandlerTest {
         assertEquals(expected, new HeapData(packet.toByteArray()));
     }
 
+    @Test
+    public void toResponseBatchPacket() {
+        Packet first = handler.toNormalResponsePacket(1, 0, false, "foo");
+        Packet second = handler.toBackupAckPacket(2, false);
+
+        Packet batch = handler.toResponseBatchPacket(asList(first, second));
+
+        assertEquals(Packet.Type.OPERATION, batch.getPacketType());
+        assertTrue(batch.isFlagRaised(FLAG_OP_RESPONSE));
+        assertTrue(batch.isFlagRaised(FLAG_OP_RESPONSE_BATCH));
+        byte[] bytes = batch.toByteArray();
+        int offset = 0;
+        for (Packet response : asList(first, second)) {
+            byte[] payload = response.toByteArray();
+            assertEquals(payload.length, Bits.readIntB(bytes, offset));
+            offset += Bits.INT_SIZE_IN_BYTES;
+            assertArrayEquals(payload, Arrays.copyOfRange(bytes, offset, offset + payload.length));
+            offset += payload.length;
+        }
+        assertEquals(bytes.length, offset);
+    }
+
     @Test
     public void toNormalResponsePacket_whenNormalValues() {
         testToNormalResponsePacket("foo", 1, 0, false);
@@ -35,6 +35,7 @@ import java.util.concurrent.CountDownLatch;
 
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -111,6 +112,33 @@ public class CallIdSequenceWithBackpressureTest extends HazelcastTestSupport {
         assertEquals(oldLastCallId, sequence.getLastCallId());
     }
 
+    @Test
+    public void next_whenConcurrencyLimitLowered_thenBlockTillTimeout() {
+        sequence = new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled());
+        sequence.setConcurrencyLimit(1);
+
+        nextCallId(sequence, false);
+
+        assertThrows(HazelcastOverloadException.class, sequence::next);
+        sequence.complete();
+        nextCallId(sequence, false);
+    }
+
+    @Test
+    public void setConcurrencyLimit_isClamped() {
+        assertEquals(100, sequence.getConcurrencyLimit());
+
+        sequence.setConcurrencyLimit(1000);
+        assertEquals(100, sequence.getConcurrencyLimit());
+
+        sequence.setConcurrencyLimit(0);
+        assertEquals(1, sequence.getConcurrencyLimit());
+
+        sequence.setConcurrencyLimit(50);
+        assertEquals(50, sequence.getConcurrencyLimit());
+        assertEquals(100, sequence.getMaxConcurrentInvocations());
+    }
+
     @Test
     public void when_overCapacityButPriorityItem_then_noBackpressure() {
         CallIdSequenceWithBackpressure sequence = new CallIdSequenceWithBackpressure(1, 60000, ConcurrencyDetection.createDisabled());